@@ -0,0 +1,57 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates the metrics of the append requests sent by a {@link BigQueryDirectDataWriterHelper}.
+ * Like {@link ReadRowsMetrics}, the metrics can be read at any time while the write-stream is being
+ * written.
+ */
+public class AppendRowsMetrics implements Serializable {
+
+  private static final long serialVersionUID = 3165489342370938571L;
+
+  private final LongAdder appendRequests = new LongAdder();
+  private final LongAdder bytesSent = new LongAdder();
+  private final LongAdder rows = new LongAdder();
+  private final LongAdder serviceTimeNanos = new LongAdder();
+
+  public void addAppendRequest(long rowCount, long bytes, long serviceTimeNanos) {
+    this.appendRequests.increment();
+    this.rows.add(rowCount);
+    this.bytesSent.add(bytes);
+    this.serviceTimeNanos.add(serviceTimeNanos);
+  }
+
+  public long getAppendRequests() {
+    return appendRequests.sum();
+  }
+
+  public long getBytesSent() {
+    return bytesSent.sum();
+  }
+
+  public long getRows() {
+    return rows.sum();
+  }
+
+  public long getServiceTimeNanos() {
+    return serviceTimeNanos.sum();
+  }
+}
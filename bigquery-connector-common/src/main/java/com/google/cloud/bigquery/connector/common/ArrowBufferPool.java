@@ -0,0 +1,117 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The Arrow memory of the JVM (i.e. of a Spark executor), shared by all the readers. Each task
+ * allocates from its own child allocator of a single root allocator, whose buffers are recycled by
+ * a {@link PooledAllocationManager} instead of being returned to the operating system, so that
+ * steady state reads hardly allocate new direct memory.
+ */
+public final class ArrowBufferPool {
+
+  private static final Logger log = LoggerFactory.getLogger(ArrowBufferPool.class);
+
+  public static final long DEFAULT_MAX_POOLED_BYTES = 256L * 1024 * 1024;
+
+  private static ArrowBufferPool instance;
+
+  private final PooledAllocationManager.Factory allocationManagerFactory;
+  private final RootAllocator rootAllocator;
+
+  // visible for testing
+  ArrowBufferPool(long maxAllocation, long maxPooledBytes) {
+    this.allocationManagerFactory = new PooledAllocationManager.Factory(maxPooledBytes);
+    this.rootAllocator =
+        new RootAllocator(
+            RootAllocator.configBuilder()
+                .allocationManagerFactory(allocationManagerFactory)
+                .listener(BigQueryConnectorMetrics.ARROW_ALLOCATION_LISTENER)
+                .maxAllocation(maxAllocation)
+                .build());
+  }
+
+  /**
+   * Returns the pool of this JVM, creating it if needed. Once created, the limits of the pool do
+   * not change.
+   *
+   * @param maxAllocation the maximal memory allocated by all the tasks together
+   * @param maxPooledBytes the maximal memory of released buffers kept for reuse
+   */
+  public static synchronized ArrowBufferPool getOrCreate(long maxAllocation, long maxPooledBytes) {
+    if (instance == null) {
+      log.info(
+          "Creating the Arrow buffer pool, maxAllocation: {}, maxPooledBytes: {}",
+          maxAllocation,
+          maxPooledBytes);
+      instance = new ArrowBufferPool(maxAllocation, maxPooledBytes);
+    }
+    return instance;
+  }
+
+  /** Returns the pool of this JVM if it has been created, null otherwise. */
+  static synchronized ArrowBufferPool getIfCreated() {
+    return instance;
+  }
+
+  /** Creates the allocator of a single task, to be closed with {@link #closeTaskAllocator}. */
+  public BufferAllocator newTaskAllocator(String name, long maxAllocation) {
+    return rootAllocator.newChildAllocator(name, 0, maxAllocation);
+  }
+
+  /**
+   * Closes the allocator of a task. If the task has not released all its buffers, the leak is
+   * logged with the state of the allocator before failing, as the memory can not be reused.
+   */
+  public static void closeTaskAllocator(BufferAllocator allocator) {
+    long leakedBytes = allocator.getAllocatedMemory();
+    if (leakedBytes > 0) {
+      BigQueryConnectorMetrics.addArrowLeakedBytes(leakedBytes);
+      log.warn(
+          "Arrow allocator {} leaked {} bytes:\n{}",
+          allocator.getName(),
+          leakedBytes,
+          allocator.toVerboseString());
+    }
+    allocator.close();
+  }
+
+  /** The memory of released buffers kept for reuse. */
+  public long getPooledBytes() {
+    return allocationManagerFactory.getPooledBytes();
+  }
+
+  /** The number of pooled size buffers whose memory had to be allocated. */
+  public long getNewAllocations() {
+    return allocationManagerFactory.getNewAllocations();
+  }
+
+  /** The number of pooled size buffers whose memory was reused. */
+  public long getReusedAllocations() {
+    return allocationManagerFactory.getReusedAllocations();
+  }
+
+  // visible for testing
+  void close() {
+    rootAllocator.close();
+    allocationManagerFactory.trim();
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import static java.util.Comparator.comparing;
+
+import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.storage.v1.ArrowSerializationOptions.CompressionCodec;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Chooses the Arrow compression codec of the read sessions of a table, when the codec is adaptive.
+ *
+ * <p>The cost of a codec is estimated from the recent reads of the table which used it, as the time
+ * spent waiting for the ReadRows responses plus the time spent decompressing them, per byte of
+ * decompressed data. Hence a codec saving bandwidth wins when the network is the bottleneck, and no
+ * compression wins when the executors are short of CPU. The first sessions of a table try each
+ * codec, then the cheapest codec is used, except that every {@value #EXPLORATION_INTERVAL} sessions
+ * the least recently used codec is tried again, so that changes in bandwidth or load are noticed.
+ *
+ * <p>The metrics of a read are provided by a supplier, as the metrics of the tasks reach the driver
+ * only when the tasks complete, possibly after the next session of the table is created.
+ */
+public class ArrowCompressionAdvisor {
+
+  private static final Logger log = LoggerFactory.getLogger(ArrowCompressionAdvisor.class);
+
+  static final ImmutableList<CompressionCodec> CODECS =
+      ImmutableList.of(
+          CompressionCodec.COMPRESSION_UNSPECIFIED,
+          CompressionCodec.LZ4_FRAME,
+          CompressionCodec.ZSTD);
+  // The number of recent reads used to estimate the cost of a codec
+  static final int READS_PER_CODEC = 5;
+  static final int EXPLORATION_INTERVAL = 10;
+
+  private static final ArrowCompressionAdvisor INSTANCE = new ArrowCompressionAdvisor();
+
+  private final Cache<String, TableCodecs> tables =
+      CacheBuilder.newBuilder().maximumSize(1000).build();
+
+  // visible for testing
+  ArrowCompressionAdvisor() {}
+
+  public static ArrowCompressionAdvisor getInstance() {
+    return INSTANCE;
+  }
+
+  /** Chooses the codec of a new read session of the table, and records the decision. */
+  public CompressionCodec chooseCodec(TableId table) {
+    TableCodecs tableCodecs = tables.asMap().computeIfAbsent(key(table), key -> new TableCodecs());
+    synchronized (tableCodecs) {
+      CompressionCodec codec = tableCodecs.choose();
+      log.info(
+          "Using the {} Arrow compression codec for table {}, estimated costs in nanoseconds per"
+              + " byte: {}",
+          codec,
+          key(table),
+          tableCodecs.describeCosts());
+      return codec;
+    }
+  }
+
+  /**
+   * Records a read of the table using the given codec. The metrics are retrieved whenever a codec
+   * is chosen, so they may keep being updated while the read progresses.
+   */
+  public void recordRead(TableId table, CompressionCodec codec, Supplier<ReadRowsMetrics> metrics) {
+    TableCodecs tableCodecs = tables.asMap().computeIfAbsent(key(table), key -> new TableCodecs());
+    synchronized (tableCodecs) {
+      tableCodecs.addRead(codec, metrics);
+    }
+  }
+
+  /** The codec chosen for the last read session of the table, if any. */
+  public Optional<CompressionCodec> getLastDecision(TableId table) {
+    TableCodecs tableCodecs = tables.getIfPresent(key(table));
+    if (tableCodecs == null) {
+      return Optional.empty();
+    }
+    synchronized (tableCodecs) {
+      return Optional.ofNullable(tableCodecs.lastDecision);
+    }
+  }
+
+  // visible for testing
+  OptionalDouble estimateCost(TableId table, CompressionCodec codec) {
+    TableCodecs tableCodecs = tables.getIfPresent(key(table));
+    if (tableCodecs == null) {
+      return OptionalDouble.empty();
+    }
+    synchronized (tableCodecs) {
+      return tableCodecs.estimateCost(codec);
+    }
+  }
+
+  private static String key(TableId table) {
+    return BigQueryUtil.friendlyTableName(table);
+  }
+
+  private static class TableCodecs {
+
+    private final Map<CompressionCodec, Deque<Supplier<ReadRowsMetrics>>> reads =
+        new EnumMap<>(CompressionCodec.class);
+    // the session number in which each codec has been chosen last
+    private final Map<CompressionCodec, Long> lastChosen = new EnumMap<>(CompressionCodec.class);
+    private long sessions = 0;
+    private CompressionCodec lastDecision;
+
+    CompressionCodec choose() {
+      sessions++;
+      Optional<CompressionCodec> untried =
+          CODECS.stream().filter(codec -> !lastChosen.containsKey(codec)).findFirst();
+      CompressionCodec codec;
+      if (untried.isPresent()) {
+        codec = untried.get();
+      } else if (sessions % EXPLORATION_INTERVAL == 0) {
+        codec = CODECS.stream().min(comparing(lastChosen::get)).get();
+      } else {
+        // the reads of the other codecs may not have reported any metrics yet
+        codec =
+            CODECS.stream()
+                .filter(candidate -> estimateCost(candidate).isPresent())
+                .min(comparing(candidate -> estimateCost(candidate).getAsDouble()))
+                .orElse(lastDecision);
+      }
+      lastChosen.put(codec, sessions);
+      lastDecision = codec;
+      return codec;
+    }
+
+    void addRead(CompressionCodec codec, Supplier<ReadRowsMetrics> metrics) {
+      Deque<Supplier<ReadRowsMetrics>> codecReads =
+          reads.computeIfAbsent(codec, key -> new ArrayDeque<>());
+      codecReads.addLast(metrics);
+      if (codecReads.size() > READS_PER_CODEC) {
+        codecReads.removeFirst();
+      }
+    }
+
+    OptionalDouble estimateCost(CompressionCodec codec) {
+      long nanos = 0;
+      long bytes = 0;
+      for (Supplier<ReadRowsMetrics> read : reads.getOrDefault(codec, new ArrayDeque<>())) {
+        ReadRowsMetrics metrics = read.get();
+        nanos += metrics.getServiceTimeNanos() + metrics.getDecompressionTimeNanos();
+        bytes += metrics.getDecompressedBytes();
+      }
+      return bytes == 0 ? OptionalDouble.empty() : OptionalDouble.of((double) nanos / bytes);
+    }
+
+    String describeCosts() {
+      return CODECS.stream()
+          .map(
+              codec -> {
+                OptionalDouble cost = estimateCost(codec);
+                return codec
+                    + "="
+                    + (cost.isPresent() ? String.format("%.3f", cost.getAsDouble()) : "unknown");
+              })
+          .collect(Collectors.joining(", ", "{", "}"));
+    }
+  }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded pool of threads decoding Arrow record batches, shared by all the partition readers of
+ * the JVM (i.e. of a Spark executor).
+ *
+ * <p>Each partition reader gets its own {@link ExecutorService} from {@link #newTaskExecutor(int)}.
+ * The pool threads are divided evenly between the active task executors, a task executor which
+ * already uses its share runs additional tasks on the submitting thread, like {@link
+ * ThreadPoolExecutor.CallerRunsPolicy} does. This keeps the number of decoding threads bounded
+ * regardless of the number of concurrent Spark tasks, while still guaranteeing that every reader
+ * makes progress. Shutting down a task executor does not affect the shared pool.
+ */
+public final class ArrowDecodePool {
+
+  private static final Logger log = LoggerFactory.getLogger(ArrowDecodePool.class);
+
+  private static ArrowDecodePool instance;
+
+  private final ThreadPoolExecutor pool;
+  private final int poolSize;
+  private final AtomicInteger activeTaskExecutors = new AtomicInteger();
+
+  // visible for testing
+  ArrowDecodePool(int poolSize) {
+    Preconditions.checkArgument(poolSize > 0, "The decode pool size must be positive");
+    this.poolSize = poolSize;
+    this.pool =
+        new ThreadPoolExecutor(
+            /*corePoolSize=*/ poolSize,
+            /*maximumPoolSize=*/ poolSize,
+            /*keepAliveTime=*/ 60,
+            TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("bigquery-arrow-decode-%d")
+                .build());
+    this.pool.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Returns the pool of this JVM, creating it with the given number of threads if needed. Once
+   * created, the size of the pool does not change.
+   */
+  public static synchronized ArrowDecodePool getOrCreate(int poolSize) {
+    if (instance == null) {
+      log.info("Creating a shared Arrow decode pool with {} threads", poolSize);
+      instance = new ArrowDecodePool(poolSize);
+    } else if (instance.poolSize != poolSize) {
+      log.debug(
+          "Requested an Arrow decode pool with {} threads, using the existing one with {} threads",
+          poolSize,
+          instance.poolSize);
+    }
+    return instance;
+  }
+
+  /**
+   * Creates an executor for the tasks of a single reader.
+   *
+   * @param maxThreads the maximal number of pool threads used by the executor at the same time
+   */
+  public ExecutorService newTaskExecutor(int maxThreads) {
+    return new TaskExecutor(maxThreads);
+  }
+
+  public int getPoolSize() {
+    return poolSize;
+  }
+
+  public int getActiveThreads() {
+    return pool.getActiveCount();
+  }
+
+  public int getActiveTaskExecutors() {
+    return activeTaskExecutors.get();
+  }
+
+  // visible for testing
+  void shutdown() {
+    pool.shutdownNow();
+  }
+
+  private int fairShare() {
+    return Math.max(1, poolSize / Math.max(1, activeTaskExecutors.get()));
+  }
+
+  private final class TaskExecutor extends AbstractExecutorService {
+
+    private final int maxThreads;
+    // the pool threads currently running a task of this executor, interrupted on shutdownNow()
+    private final Set<Thread> runningThreads = new HashSet<>();
+    // the tasks handed to the pool which have not completed yet
+    private int scheduledTasks = 0;
+    private boolean shutdown = false;
+
+    TaskExecutor(int maxThreads) {
+      this.maxThreads = maxThreads;
+      activeTaskExecutors.incrementAndGet();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+      boolean usePool;
+      synchronized (this) {
+        if (shutdown) {
+          throw new RejectedExecutionException("The decode task executor has been shut down");
+        }
+        usePool = scheduledTasks < Math.min(maxThreads, fairShare());
+        if (usePool) {
+          scheduledTasks++;
+        }
+      }
+      if (usePool) {
+        try {
+          pool.execute(() -> runOnPool(command));
+          return;
+        } catch (RejectedExecutionException e) {
+          // all the threads of the pool are busy with other readers
+          taskCompleted(/*thread=*/ null);
+        }
+      }
+      command.run();
+    }
+
+    private void runOnPool(Runnable command) {
+      Thread current = Thread.currentThread();
+      synchronized (this) {
+        if (shutdown) {
+          taskCompleted(/*thread=*/ null);
+          return;
+        }
+        runningThreads.add(current);
+      }
+      try {
+        command.run();
+      } finally {
+        taskCompleted(current);
+      }
+    }
+
+    private synchronized void taskCompleted(Thread thread) {
+      if (thread != null) {
+        runningThreads.remove(thread);
+        // the thread goes back to the shared pool, so an interrupt sent by shutdownNow() must not
+        // leak to the next task
+        Thread.interrupted();
+      }
+      scheduledTasks--;
+      if (scheduledTasks == 0) {
+        notifyAll();
+      }
+    }
+
+    @Override
+    public synchronized void shutdown() {
+      if (!shutdown) {
+        shutdown = true;
+        activeTaskExecutors.decrementAndGet();
+      }
+    }
+
+    @Override
+    public synchronized List<Runnable> shutdownNow() {
+      shutdown();
+      runningThreads.forEach(Thread::interrupt);
+      return Collections.emptyList();
+    }
+
+    @Override
+    public synchronized boolean isShutdown() {
+      return shutdown;
+    }
+
+    @Override
+    public synchronized boolean isTerminated() {
+      return shutdown && scheduledTasks == 0;
+    }
+
+    @Override
+    public synchronized boolean awaitTermination(long timeout, TimeUnit unit)
+        throws InterruptedException {
+      long deadline = System.nanoTime() + unit.toNanos(timeout);
+      while (!isTerminated()) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return false;
+        }
+        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+      }
+      return true;
+    }
+  }
+}
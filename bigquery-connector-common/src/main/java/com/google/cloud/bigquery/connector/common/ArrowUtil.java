@@ -31,6 +31,7 @@ public class ArrowUtil {
     return new RootAllocator(
         RootAllocator.configBuilder()
             .allocationManagerFactory(NettyAllocationManager.FACTORY)
+            .listener(BigQueryConnectorMetrics.ARROW_ALLOCATION_LISTENER)
             .maxAllocation(maxAllocation)
             .build());
   }
@@ -15,9 +15,10 @@
  */
 package com.google.cloud.bigquery.connector.common;
 
-import com.google.cloud.BaseServiceException;
 import com.google.cloud.RetryOption;
 import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQuery.TableField;
+import com.google.cloud.bigquery.BigQuery.TableOption;
 import com.google.cloud.bigquery.BigQueryException;
 import com.google.cloud.bigquery.Clustering;
 import com.google.cloud.bigquery.Dataset;
@@ -28,6 +29,7 @@ import com.google.cloud.bigquery.Job;
 import com.google.cloud.bigquery.JobConfiguration;
 import com.google.cloud.bigquery.JobId;
 import com.google.cloud.bigquery.JobInfo;
+import com.google.cloud.bigquery.JobStatistics;
 import com.google.cloud.bigquery.LoadJobConfiguration;
 import com.google.cloud.bigquery.QueryJobConfiguration;
 import com.google.cloud.bigquery.QueryJobConfiguration.Priority;
@@ -45,8 +47,11 @@ import com.google.common.cache.Cache;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -55,9 +60,12 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -73,6 +81,10 @@ public class BigQueryClient {
 
   private final BigQuery bigQuery;
   private final Cache<String, TableInfo> destinationTableCache;
+  private final Cache<String, Long> querySizeEstimateCache;
+  private final TableInfoCache tableInfoCache;
+  private final BigQueryJobExecutor jobExecutor;
+  private final boolean persistentMaterializationCachingEnabled;
   private final Optional<String> materializationProject;
   private final Optional<String> materializationDataset;
   private final JobConfigurationFactory jobConfigurationFactory;
@@ -82,12 +94,20 @@ public class BigQueryClient {
       Optional<String> materializationProject,
       Optional<String> materializationDataset,
       Cache<String, TableInfo> destinationTableCache,
+      Cache<String, Long> querySizeEstimateCache,
+      TableInfoCache tableInfoCache,
+      BigQueryJobExecutor jobExecutor,
+      boolean persistentMaterializationCachingEnabled,
       Map<String, String> labels,
       Priority queryJobPriority) {
     this.bigQuery = bigQuery;
     this.materializationProject = materializationProject;
     this.materializationDataset = materializationDataset;
     this.destinationTableCache = destinationTableCache;
+    this.querySizeEstimateCache = querySizeEstimateCache;
+    this.tableInfoCache = tableInfoCache;
+    this.jobExecutor = jobExecutor;
+    this.persistentMaterializationCachingEnabled = persistentMaterializationCachingEnabled;
     this.jobConfigurationFactory = new JobConfigurationFactory(labels, queryJobPriority);
   }
 
@@ -121,7 +141,36 @@ public class BigQueryClient {
   }
 
   public TableInfo getTable(TableId tableId) {
-    return bigQuery.getTable(tableId);
+    return tableInfoCache.get(
+        tableId,
+        bigQuery::getTable,
+        id ->
+            bigQuery.getTable(
+                id, TableOption.fields(TableField.ETAG, TableField.LAST_MODIFIED_TIME)));
+  }
+
+  /**
+   * Fetches the current metadata of the table, bypassing the table metadata cache, and refreshes
+   * the cache with it. Used when a possibly outdated version of the table must not be used.
+   */
+  TableInfo getTableBypassingCache(TableId tableId) {
+    TableInfo table = bigQuery.getTable(tableId);
+    if (table == null) {
+      tableInfoCache.invalidate(tableId);
+    } else {
+      tableInfoCache.put(tableId, table);
+    }
+    return table;
+  }
+
+  /**
+   * Removes the table from the table metadata cache. Should be called after any operation that
+   * modifies the table outside of this class, such as committing Storage Write API streams.
+   *
+   * @param tableId The TableId of the modified table.
+   */
+  public void invalidateTableMetadata(TableId tableId) {
+    tableInfoCache.invalidate(tableId);
   }
 
   /**
@@ -160,7 +209,9 @@ public class BigQueryClient {
         keyName ->
             tableInfo.setEncryptionConfiguration(
                 EncryptionConfiguration.newBuilder().setKmsKeyName(keyName).build()));
-    return bigQuery.create(tableInfo.build());
+    Table createdTable = bigQuery.create(tableInfo.build());
+    tableInfoCache.put(tableId, createdTable);
+    return createdTable;
   }
 
   /**
@@ -202,6 +253,7 @@ public class BigQueryClient {
    * @return True if the operation was successful, false otherwise.
    */
   public boolean deleteTable(TableId tableId) {
+    tableInfoCache.invalidate(tableId);
     return bigQuery.delete(tableId);
   }
 
@@ -216,6 +268,27 @@ public class BigQueryClient {
    */
   public Job overwriteDestinationWithTemporary(
       TableId temporaryTableId, TableId destinationTableId) {
+    QueryJobConfiguration queryConfig =
+        createOverwriteQueryJobConfiguration(temporaryTableId, destinationTableId);
+    return create(JobInfo.newBuilder(queryConfig).build());
+  }
+
+  /**
+   * Overwrites the given destination table, with all the data from the given temporary table,
+   * transactionally, without blocking the calling thread.
+   *
+   * @param temporaryTableId The {@code TableId} representing the temporary-table.
+   * @param destinationTableId The {@code TableId} representing the destination table.
+   * @return A future holding the completed job
+   */
+  public CompletableFuture<Job> overwriteDestinationWithTemporaryAsync(
+      TableId temporaryTableId, TableId destinationTableId) {
+    return createAndWaitForAsync(
+        createOverwriteQueryJobConfiguration(temporaryTableId, destinationTableId));
+  }
+
+  private QueryJobConfiguration createOverwriteQueryJobConfiguration(
+      TableId temporaryTableId, TableId destinationTableId) {
     String queryFormat =
         "MERGE `%s`\n"
             + "USING (SELECT * FROM `%s`)\n"
@@ -223,15 +296,12 @@ public class BigQueryClient {
             + "WHEN NOT MATCHED THEN INSERT ROW\n"
             + "WHEN NOT MATCHED BY SOURCE THEN DELETE";
 
-    QueryJobConfiguration queryConfig =
-        jobConfigurationFactory
-            .createQueryJobConfigurationBuilder(
-                sqlFromFormat(queryFormat, destinationTableId, temporaryTableId),
-                Collections.emptyMap())
-            .setUseLegacySql(false)
-            .build();
-
-    return create(JobInfo.newBuilder(queryConfig).build());
+    return jobConfigurationFactory
+        .createQueryJobConfigurationBuilder(
+            sqlFromFormat(queryFormat, destinationTableId, temporaryTableId),
+            Collections.emptyMap())
+        .setUseLegacySql(false)
+        .build();
   }
 
   String sqlFromFormat(String queryFormat, TableId destinationTableId, TableId temporaryTableId) {
@@ -337,33 +407,178 @@ public class BigQueryClient {
     return project == null ? TableId.of(dataset, name) : TableId.of(project, dataset, name);
   }
 
+  /**
+   * Creates the destination table id for the materialization of the given query. If persistent
+   * materialization caching is enabled, the name of the table is derived from the query and the
+   * last modification time of the tables it references, so that the same query running in another
+   * application can reuse the table as long as it has not expired. Otherwise a random table name is
+   * used.
+   */
+  DestinationTable createDestinationTable(
+      String querySql, Optional<String> referenceProject, Optional<String> referenceDataset) {
+    if (persistentMaterializationCachingEnabled) {
+      Optional<String> deterministicName = createDeterministicTableName(querySql);
+      if (deterministicName.isPresent()) {
+        String project = materializationProject.orElse(referenceProject.orElse(null));
+        String dataset = materializationDataset.orElse(referenceDataset.orElse(null));
+        String name = deterministicName.get();
+        return new DestinationTable(
+            project == null ? TableId.of(dataset, name) : TableId.of(project, dataset, name), true);
+      }
+    }
+    return new DestinationTable(createDestinationTable(referenceProject, referenceDataset), false);
+  }
+
+  // Returns empty if the query results cannot be safely reused, i.e. when the query references
+  // tables whose data modification cannot be tracked.
+  private Optional<String> createDeterministicTableName(String querySql) {
+    JobStatistics.QueryStatistics statistics;
+    try {
+      statistics = dryRunQuery(querySql);
+    } catch (BigQueryException e) {
+      log.warn("Failed to dry run query [{}], not caching its materialization", querySql, e);
+      return Optional.empty();
+    }
+    List<TableId> referencedTables =
+        Optional.ofNullable(statistics.getReferencedTables()).orElse(ImmutableList.of());
+    Map<String, Long> lastModifiedTimes = new HashMap<>();
+    for (TableId referencedTable : referencedTables) {
+      // a cached last modified time could name the table after data that has changed since
+      TableInfo table = getTableBypassingCache(referencedTable);
+      if (table == null
+          || table.getLastModifiedTime() == null
+          || table.getDefinition().getType() == TableDefinition.Type.EXTERNAL) {
+        log.debug(
+            "Cannot track modifications of table {}, not caching the materialization of [{}]",
+            referencedTable,
+            querySql);
+        return Optional.empty();
+      }
+      lastModifiedTimes.put(fullTableName(table.getTableId()), table.getLastModifiedTime());
+    }
+    return Optional.of(createDeterministicTableName(querySql, lastModifiedTimes));
+  }
+
+  // visible for testing
+  static String createDeterministicTableName(String querySql, Map<String, Long> lastModifiedTimes) {
+    Hasher hasher = Hashing.sha256().newHasher().putString(querySql, StandardCharsets.UTF_8);
+    // sorting in order to get the same name regardless of the order the tables were returned in
+    new TreeMap<>(lastModifiedTimes)
+        .forEach(
+            (table, lastModifiedTime) ->
+                hasher.putString(table, StandardCharsets.UTF_8).putLong(lastModifiedTime));
+    return String.format("_bqc_cached_%s", hasher.hash());
+  }
+
+  /**
+   * Runs the given query as a dry run, without processing any data.
+   *
+   * @param querySql the query to validate
+   * @return the statistics of the dry run, including the referenced tables and the estimated amount
+   *     of bytes to be processed
+   */
+  public JobStatistics.QueryStatistics dryRunQuery(String querySql) {
+    JobInfo jobInfo =
+        JobInfo.of(
+            jobConfigurationFactory
+                .createQueryJobConfigurationBuilder(querySql, Collections.emptyMap())
+                .setDryRun(true)
+                .build());
+    return create(jobInfo).getStatistics();
+  }
+
+  /**
+   * Estimates the size of a table whose metadata does not provide it, such as a view, as the number
+   * of bytes processed by a dry run of the query materializing the table. The estimates are cached,
+   * including the unknown ones.
+   *
+   * @param table the table to estimate
+   * @param requiredColumns the columns to be read, all columns if empty
+   * @param filters the filters applied when reading the table
+   * @return the estimated size in bytes, or empty if it cannot be estimated
+   */
+  public OptionalLong estimateTableSize(
+      TableId table, ImmutableList<String> requiredColumns, String[] filters) {
+    return estimateBytesProcessed(createSql(table, requiredColumns, filters));
+  }
+
+  /**
+   * Estimates the number of bytes the given query processes, using a dry run. The estimates are
+   * cached by query text, including the unknown ones, so planning the same query again does not
+   * issue another dry run.
+   *
+   * @param querySql the query to estimate
+   * @return the estimated bytes processed, or empty if they cannot be estimated
+   */
+  public OptionalLong estimateBytesProcessed(String querySql) {
+    Long estimate = querySizeEstimateCache.getIfPresent(querySql);
+    if (estimate == null) {
+      estimate = dryRunBytesProcessed(querySql);
+      // unknown sizes are cached as well, so that they are not dry run again on every call
+      querySizeEstimateCache.put(querySql, estimate);
+    }
+    return estimate > 0 ? OptionalLong.of(estimate) : OptionalLong.empty();
+  }
+
+  // Returns 0 when the size is unknown
+  private long dryRunBytesProcessed(String querySql) {
+    Long bytesProcessed;
+    try {
+      bytesProcessed = dryRunQuery(querySql).getTotalBytesProcessed();
+    } catch (BigQueryException e) {
+      log.warn("Failed to dry run query [{}], its size is unknown", querySql, e);
+      return 0;
+    }
+    // external tables are reported as processing no bytes, as their size is not known in advance
+    return bytesProcessed == null ? 0 : bytesProcessed;
+  }
+
   public Table update(TableInfo table) {
-    return bigQuery.update(table);
+    Table updatedTable = bigQuery.update(table);
+    tableInfoCache.put(table.getTableId(), updatedTable);
+    return updatedTable;
   }
 
   public Job createAndWaitFor(JobConfiguration.Builder jobConfiguration) {
     return createAndWaitFor(jobConfiguration.build());
   }
 
+  /**
+   * Runs the job and waits for it to complete. If the calling thread is interrupted, the job is
+   * cancelled.
+   */
   public Job createAndWaitFor(JobConfiguration jobConfiguration) {
-    JobInfo jobInfo = JobInfo.of(jobConfiguration);
-    Job job = bigQuery.create(jobInfo);
+    return BigQueryJobExecutor.await(createAndWaitForAsync(jobConfiguration));
+  }
 
-    log.info("Submitted job {}. jobId: {}", jobConfiguration, job.getJobId());
-    // TODO(davidrab): add retry options
-    try {
-      return job.waitFor();
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-      throw new BigQueryException(
-          BaseHttpServiceException.UNKNOWN_CODE,
-          String.format("Failed to run the job [%s]", job),
-          e);
-    }
+  /**
+   * Runs the job without blocking the calling thread. The number of concurrently running jobs is
+   * limited by the {@code maxConcurrentJobs} option, cancelling the returned future cancels the
+   * job.
+   *
+   * @param jobConfiguration the job to run
+   * @return a future holding the completed job. The job may have completed with an error, which is
+   *     available in its status.
+   */
+  public CompletableFuture<Job> createAndWaitForAsync(JobConfiguration jobConfiguration) {
+    return createAndWaitForAsync(JobInfo.of(jobConfiguration));
+  }
+
+  CompletableFuture<Job> createAndWaitForAsync(JobInfo jobInfo) {
+    return jobExecutor.submit(bigQuery, jobInfo);
   }
 
   Job create(JobInfo jobInfo) {
-    return bigQuery.create(jobInfo);
+    long start = System.nanoTime();
+    Job job = bigQuery.create(jobInfo);
+    BigQueryConnectorMetrics.recordLatency(
+        BigQueryConnectorMetrics.Latency.JOB_CREATION, System.nanoTime() - start);
+    return job;
+  }
+
+  /** Fetches the rows of the given table using the BigQuery API, page by page. */
+  public TableResult listTableData(TableId tableId, Schema schema) {
+    return bigQuery.listTableData(tableId, schema);
   }
 
   public TableResult query(String sql) {
@@ -452,8 +667,10 @@ public class BigQueryClient {
    * @return a reference to the table
    */
   public TableInfo materializeQueryToTable(String querySql, int expirationTimeInMinutes) {
-    TableId tableId = createDestinationTable(Optional.empty(), Optional.empty());
-    return materializeTable(querySql, tableId, expirationTimeInMinutes);
+    return materializeTable(
+        querySql,
+        () -> createDestinationTable(querySql, Optional.empty(), Optional.empty()),
+        expirationTimeInMinutes);
   }
 
   /**
@@ -466,12 +683,11 @@ public class BigQueryClient {
    */
   public TableInfo materializeQueryToTable(
       String querySql, int expirationTimeInMinutes, Map<String, String> additionalQueryJobLabels) {
-    TableId destinationTableId = createDestinationTable(Optional.empty(), Optional.empty());
     DestinationTableBuilder tableBuilder =
         new DestinationTableBuilder(
             this,
             querySql,
-            destinationTableId,
+            () -> createDestinationTable(querySql, Optional.empty(), Optional.empty()),
             expirationTimeInMinutes,
             jobConfigurationFactory,
             additionalQueryJobLabels);
@@ -492,21 +708,27 @@ public class BigQueryClient {
    */
   public TableInfo materializeViewToTable(
       String querySql, TableId viewId, int expirationTimeInMinutes) {
-    TableId tableId =
-        createDestinationTable(
-            Optional.ofNullable(viewId.getProject()), Optional.ofNullable(viewId.getDataset()));
-    return materializeTable(querySql, tableId, expirationTimeInMinutes);
+    return materializeTable(
+        querySql,
+        () ->
+            createDestinationTable(
+                querySql,
+                Optional.ofNullable(viewId.getProject()),
+                Optional.ofNullable(viewId.getDataset())),
+        expirationTimeInMinutes);
   }
 
+  // The destination table is created only if the query has not been materialized already, as
+  // naming a reusable table requires a dry run of the query.
   private TableInfo materializeTable(
-      String querySql, TableId destinationTableId, int expirationTimeInMinutes) {
+      String querySql, Supplier<DestinationTable> destinationTable, int expirationTimeInMinutes) {
     try {
       return destinationTableCache.get(
           querySql,
           new DestinationTableBuilder(
               this,
               querySql,
-              destinationTableId,
+              destinationTable,
               expirationTimeInMinutes,
               jobConfigurationFactory,
               Collections.emptyMap()));
@@ -596,6 +818,7 @@ public class BigQueryClient {
     Job finishedJob = null;
     try {
       finishedJob = createAndWaitFor(jobConfiguration);
+      tableInfoCache.invalidate(options.getTableId());
 
       if (finishedJob.getStatus().getError() != null) {
         throw new BigQueryException(
@@ -690,10 +913,21 @@ public class BigQueryClient {
     Optional<String> getKmsKeyName();
   }
 
+  static class DestinationTable {
+    final TableId tableId;
+    // whether the table name is derived from the query, allowing the table to be reused
+    final boolean reusable;
+
+    DestinationTable(TableId tableId, boolean reusable) {
+      this.tableId = tableId;
+      this.reusable = reusable;
+    }
+  }
+
   static class DestinationTableBuilder implements Callable<TableInfo> {
     final BigQueryClient bigQueryClient;
     final String querySql;
-    final TableId destinationTable;
+    final Supplier<DestinationTable> destinationTable;
     final int expirationTimeInMinutes;
     final JobConfigurationFactory jobConfigurationFactory;
     final Map<String, String> additionalQueryJobLabels;
@@ -701,7 +935,7 @@ public class BigQueryClient {
     DestinationTableBuilder(
         BigQueryClient bigQueryClient,
         String querySql,
-        TableId destinationTable,
+        Supplier<DestinationTable> destinationTable,
         int expirationTimeInMinutes,
         JobConfigurationFactory jobConfigurationFactory,
         Map<String, String> additionalQueryJobLabels) {
@@ -719,39 +953,63 @@ public class BigQueryClient {
     }
 
     TableInfo createTableFromQuery() {
+      DestinationTable table = this.destinationTable.get();
+      TableId destinationTable = table.tableId;
+      boolean reusable = table.reusable;
       log.debug("destinationTable is %s", destinationTable);
-      JobInfo jobInfo =
-          JobInfo.of(
-              jobConfigurationFactory
-                  .createQueryJobConfigurationBuilder(querySql, additionalQueryJobLabels)
-                  .setDestinationTable(destinationTable)
-                  .build());
+      if (reusable) {
+        Optional<TableInfo> existingTable = getExistingTable(destinationTable);
+        if (existingTable.isPresent()) {
+          return existingTable.get();
+        }
+      }
+      QueryJobConfiguration.Builder queryJobConfiguration =
+          jobConfigurationFactory
+              .createQueryJobConfigurationBuilder(querySql, additionalQueryJobLabels)
+              .setDestinationTable(destinationTable);
+      if (reusable) {
+        // the table may have been expired but not deleted yet, or created by a concurrent job
+        queryJobConfiguration.setWriteDisposition(JobInfo.WriteDisposition.WRITE_TRUNCATE);
+      }
+      JobInfo jobInfo = JobInfo.of(queryJobConfiguration.build());
 
       log.debug("running query %s", jobInfo);
-      Job job = waitForJob(bigQueryClient.create(jobInfo));
+      Job job = BigQueryJobExecutor.await(bigQueryClient.createAndWaitForAsync(jobInfo));
       log.debug("job has finished. %s", job);
       if (job.getStatus().getError() != null) {
         throw BigQueryUtil.convertToBigQueryException(job.getStatus().getError());
       }
-      // add expiration time to the table
-      TableInfo createdTable = bigQueryClient.getTable(destinationTable);
+      // add expiration time to the table. A truncated table keeps its original creation time, hence
+      // the expiration is based on the current time, and the cached metadata are outdated.
+      TableInfo createdTable = bigQueryClient.getTableBypassingCache(destinationTable);
       long expirationTime =
-          createdTable.getCreationTime() + TimeUnit.MINUTES.toMillis(expirationTimeInMinutes);
+          System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(expirationTimeInMinutes);
       Table updatedTable =
           bigQueryClient.update(createdTable.toBuilder().setExpirationTime(expirationTime).build());
       return updatedTable;
     }
 
-    Job waitForJob(Job job) {
-      try {
-        return job.waitFor();
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-        throw new BigQueryException(
-            BaseServiceException.UNKNOWN_CODE,
-            String.format("Job %s has been interrupted", job.getJobId()),
-            e);
+    // Looks for a table materialized from the same query, over the same data, by a previous
+    // application. If found, its expiration time is extended so it won't expire while being read.
+    Optional<TableInfo> getExistingTable(TableId destinationTable) {
+      TableInfo existingTable = bigQueryClient.getTableBypassingCache(destinationTable);
+      if (existingTable == null) {
+        return Optional.empty();
+      }
+      long now = System.currentTimeMillis();
+      Long currentExpirationTime = existingTable.getExpirationTime();
+      if (currentExpirationTime != null && currentExpirationTime <= now) {
+        return Optional.empty();
+      }
+      log.info(
+          "Reusing table {} previously materialized from query [{}]", destinationTable, querySql);
+      long expirationTime = now + TimeUnit.MINUTES.toMillis(expirationTimeInMinutes);
+      if (currentExpirationTime == null || currentExpirationTime >= expirationTime) {
+        return Optional.of(existingTable);
       }
+      return Optional.of(
+          bigQueryClient.update(
+              existingTable.toBuilder().setExpirationTime(expirationTime).build()));
     }
   }
 
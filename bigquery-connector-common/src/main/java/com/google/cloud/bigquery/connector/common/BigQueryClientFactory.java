@@ -30,6 +30,7 @@ import com.google.cloud.bigquery.storage.v1.BigQueryWriteSettings;
 import com.google.cloud.bigquery.storage.v1.CreateReadSessionRequest;
 import com.google.cloud.bigquery.storage.v1.ReadSession;
 import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
 import io.grpc.ManagedChannelBuilder;
 import io.grpc.netty.NettyChannelBuilder;
 import java.io.IOException;
@@ -148,7 +149,11 @@ public class BigQueryClientFactory implements Serializable {
   private BigQueryReadClient createBigQueryReadClient(
       Optional<String> endpoint, Optional<Integer> flowControlWindow) {
     try {
-      InstantiatingGrpcChannelProvider.Builder transportBuilder = createTransportBuilder(endpoint);
+      InstantiatingGrpcChannelProvider.Builder transportBuilder =
+          createTransportBuilder(endpoint)
+              // parse the responses without copying the serialized rows
+              .setInterceptorProvider(
+                  () -> ImmutableList.of(ReadRowsResponseMarshaller.INTERCEPTOR));
       if (flowControlWindow.isPresent()) {
         ApiFunction<ManagedChannelBuilder, ManagedChannelBuilder> channelConfigurator =
             (ManagedChannelBuilder channelBuilder) -> {
@@ -48,6 +48,9 @@ public class BigQueryClientFactoryConfig implements BigQueryConfig {
   private final Optional<String> bigQueryStorageGrpcEndpoint;
   private final Optional<String> bigQueryHttpEndpoint;
   private final int cacheExpirationTimeInMinutes;
+  private final int tableMetadataCacheExpirationTimeInSeconds;
+  private final boolean persistentMaterializationCachingEnabled;
+  private final int maxConcurrentJobs;
   private final ImmutableMap<String, String> bigQueryJobLabels;
   private final Optional<Long> createReadSessionTimeoutInSeconds;
   private final Optional<Integer> flowControlWindowBytes;
@@ -79,6 +82,11 @@ public class BigQueryClientFactoryConfig implements BigQueryConfig {
     this.bigQueryStorageGrpcEndpoint = bigQueryConfig.getBigQueryStorageGrpcEndpoint();
     this.bigQueryHttpEndpoint = bigQueryConfig.getBigQueryHttpEndpoint();
     this.cacheExpirationTimeInMinutes = bigQueryConfig.getCacheExpirationTimeInMinutes();
+    this.tableMetadataCacheExpirationTimeInSeconds =
+        bigQueryConfig.getTableMetadataCacheExpirationTimeInSeconds();
+    this.persistentMaterializationCachingEnabled =
+        bigQueryConfig.isPersistentMaterializationCachingEnabled();
+    this.maxConcurrentJobs = bigQueryConfig.getMaxConcurrentJobs();
     this.bigQueryJobLabels = bigQueryConfig.getBigQueryJobLabels();
     this.createReadSessionTimeoutInSeconds = bigQueryConfig.getCreateReadSessionTimeoutInSeconds();
     this.flowControlWindowBytes = bigQueryConfig.getFlowControlWindowBytes();
@@ -195,6 +203,21 @@ public class BigQueryClientFactoryConfig implements BigQueryConfig {
     return cacheExpirationTimeInMinutes;
   }
 
+  @Override
+  public int getTableMetadataCacheExpirationTimeInSeconds() {
+    return tableMetadataCacheExpirationTimeInSeconds;
+  }
+
+  @Override
+  public boolean isPersistentMaterializationCachingEnabled() {
+    return persistentMaterializationCachingEnabled;
+  }
+
+  @Override
+  public int getMaxConcurrentJobs() {
+    return maxConcurrentJobs;
+  }
+
   @Override
   public ImmutableMap<String, String> getBigQueryJobLabels() {
     return bigQueryJobLabels;
@@ -240,6 +263,12 @@ public class BigQueryClientFactoryConfig implements BigQueryConfig {
         && Objects.equal(bigQueryStorageGrpcEndpoint, that.bigQueryStorageGrpcEndpoint)
         && Objects.equal(bigQueryHttpEndpoint, that.bigQueryHttpEndpoint)
         && Objects.equal(cacheExpirationTimeInMinutes, that.cacheExpirationTimeInMinutes)
+        && Objects.equal(
+            tableMetadataCacheExpirationTimeInSeconds,
+            that.tableMetadataCacheExpirationTimeInSeconds)
+        && Objects.equal(
+            persistentMaterializationCachingEnabled, that.persistentMaterializationCachingEnabled)
+        && Objects.equal(maxConcurrentJobs, that.maxConcurrentJobs)
         && Objects.equal(createReadSessionTimeoutInSeconds, that.createReadSessionTimeoutInSeconds)
         && Objects.equal(flowControlWindowBytes, that.flowControlWindowBytes);
   }
@@ -262,6 +291,9 @@ public class BigQueryClientFactoryConfig implements BigQueryConfig {
         bigQueryStorageGrpcEndpoint,
         bigQueryHttpEndpoint,
         cacheExpirationTimeInMinutes,
+        tableMetadataCacheExpirationTimeInSeconds,
+        persistentMaterializationCachingEnabled,
+        maxConcurrentJobs,
         flowControlWindowBytes);
   }
 }
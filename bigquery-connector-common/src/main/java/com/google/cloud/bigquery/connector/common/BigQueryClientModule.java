@@ -37,6 +37,12 @@ public class BigQueryClientModule implements com.google.inject.Module {
    */
   private static Cache<String, TableInfo> cacheInstance;
 
+  private static Cache<String, Long> querySizeEstimateCacheInstance;
+
+  private static TableInfoCache tableInfoCacheInstance;
+
+  private static BigQueryJobExecutor jobExecutorInstance;
+
   @Provides
   @Singleton
   public static HeaderProvider createHeaderProvider(
@@ -91,13 +97,64 @@ public class BigQueryClientModule implements com.google.inject.Module {
     return cacheInstance;
   }
 
+  // The estimates are kept as long as the materialized tables they describe
+  @Provides
+  @Singleton
+  public Cache<String, Long> provideQuerySizeEstimateCache(BigQueryConfig config) {
+    if (querySizeEstimateCacheInstance == null) {
+      synchronized (BigQueryClientModule.class) {
+        if (querySizeEstimateCacheInstance == null) {
+          querySizeEstimateCacheInstance =
+              CacheBuilder.newBuilder()
+                  .expireAfterWrite(config.getCacheExpirationTimeInMinutes(), TimeUnit.MINUTES)
+                  .maximumSize(DESTINATION_TABLE_CACHE_MAX_SIZE)
+                  .build();
+        }
+      }
+    }
+
+    return querySizeEstimateCacheInstance;
+  }
+
+  @Provides
+  @Singleton
+  public TableInfoCache provideTableInfoCache(BigQueryConfig config) {
+    if (tableInfoCacheInstance == null) {
+      synchronized (BigQueryClientModule.class) {
+        if (tableInfoCacheInstance == null) {
+          tableInfoCacheInstance =
+              new TableInfoCache(config.getTableMetadataCacheExpirationTimeInSeconds());
+        }
+      }
+    }
+
+    return tableInfoCacheInstance;
+  }
+
+  @Provides
+  @Singleton
+  public BigQueryJobExecutor provideBigQueryJobExecutor(BigQueryConfig config) {
+    if (jobExecutorInstance == null) {
+      synchronized (BigQueryClientModule.class) {
+        if (jobExecutorInstance == null) {
+          jobExecutorInstance = new BigQueryJobExecutor(config.getMaxConcurrentJobs());
+        }
+      }
+    }
+
+    return jobExecutorInstance;
+  }
+
   @Provides
   @Singleton
   public BigQueryClient provideBigQueryClient(
       BigQueryConfig config,
       HeaderProvider headerProvider,
       BigQueryCredentialsSupplier bigQueryCredentialsSupplier,
-      Cache<String, TableInfo> destinationTableCache) {
+      Cache<String, TableInfo> destinationTableCache,
+      Cache<String, Long> querySizeEstimateCache,
+      TableInfoCache tableInfoCache,
+      BigQueryJobExecutor jobExecutor) {
     BigQueryOptions.Builder options =
         BigQueryOptions.newBuilder()
             .setHeaderProvider(headerProvider)
@@ -126,6 +183,10 @@ public class BigQueryClientModule implements com.google.inject.Module {
         config.getMaterializationProject(),
         config.getMaterializationDataset(),
         destinationTableCache,
+        querySizeEstimateCache,
+        tableInfoCache,
+        jobExecutor,
+        config.isPersistentMaterializationCachingEnabled(),
         config.getBigQueryJobLabels(),
         config.getQueryJobPriority());
   }
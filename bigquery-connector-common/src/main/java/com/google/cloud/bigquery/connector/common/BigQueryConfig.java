@@ -69,6 +69,12 @@ public interface BigQueryConfig {
 
   int getCacheExpirationTimeInMinutes();
 
+  int getTableMetadataCacheExpirationTimeInSeconds();
+
+  boolean isPersistentMaterializationCachingEnabled();
+
+  int getMaxConcurrentJobs();
+
   ImmutableMap<String, String> getBigQueryJobLabels();
 
   Optional<Long> getCreateReadSessionTimeoutInSeconds();
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.arrow.memory.AllocationListener;
+
+/**
+ * Process wide counters and gauges of the connector, such as the number of active read streams or
+ * the memory held by the Arrow allocators. Unlike {@link ReadRowsMetrics}, which are kept per
+ * partition, these metrics aggregate all the reads and writes of the JVM, so they can be exposed to
+ * a monitoring system by the Spark layer.
+ */
+public final class BigQueryConnectorMetrics {
+
+  /** The latencies tracked by the connector. */
+  public enum Latency {
+    APPEND_ROWS,
+    READ_SESSION_CREATION,
+    JOB_CREATION,
+    PLANNING
+  }
+
+  private static final AtomicLong activeReadStreams = new AtomicLong();
+  private static final AtomicLong bufferedResponseBytes = new AtomicLong();
+  private static final AtomicLong bufferedBatchBytes = new AtomicLong();
+  private static final AtomicLong arrowAllocatedBytes = new AtomicLong();
+  private static final LongAdder arrowLeakedBytes = new LongAdder();
+  private static final LongAdder readRetries = new LongAdder();
+  private static final AtomicLong inFlightAppendBytes = new AtomicLong();
+  private static final Map<Latency, LatencyHistogram> latencies = new EnumMap<>(Latency.class);
+
+  static {
+    for (Latency latency : Latency.values()) {
+      latencies.put(latency, new LatencyHistogram());
+    }
+  }
+
+  static final AllocationListener ARROW_ALLOCATION_LISTENER =
+      new AllocationListener() {
+        @Override
+        public void onAllocation(long size) {
+          arrowAllocatedBytes.addAndGet(size);
+        }
+
+        @Override
+        public void onRelease(long size) {
+          arrowAllocatedBytes.addAndGet(-size);
+        }
+      };
+
+  private BigQueryConnectorMetrics() {}
+
+  static void addActiveReadStreams(long delta) {
+    activeReadStreams.addAndGet(delta);
+  }
+
+  static void addBufferedResponseBytes(long delta) {
+    bufferedResponseBytes.addAndGet(delta);
+  }
+
+  static void addBufferedBatchBytes(long delta) {
+    bufferedBatchBytes.addAndGet(delta);
+  }
+
+  static void addReadRetry() {
+    readRetries.increment();
+  }
+
+  static void addInFlightAppendBytes(long delta) {
+    inFlightAppendBytes.addAndGet(delta);
+  }
+
+  public static void recordLatency(Latency latency, long nanos) {
+    LatencyHistogram histogram = latencies.get(latency);
+    // recording is not synchronized by the histogram itself, as it is usually owned by one thread
+    synchronized (histogram) {
+      histogram.record(nanos);
+    }
+  }
+
+  public static long getActiveReadStreams() {
+    return activeReadStreams.get();
+  }
+
+  /** The size of the ReadRows responses received from the service and not yet consumed. */
+  public static long getBufferedResponseBytes() {
+    return bufferedResponseBytes.get();
+  }
+
+  /** The size of the Arrow batches decoded ahead by the parallel readers and not yet consumed. */
+  public static long getBufferedBatchBytes() {
+    return bufferedBatchBytes.get();
+  }
+
+  /** The memory currently allocated by the connector's Arrow allocators. */
+  public static long getArrowAllocatedBytes() {
+    return arrowAllocatedBytes.get();
+  }
+
+  static void addArrowLeakedBytes(long bytes) {
+    arrowLeakedBytes.add(bytes);
+  }
+
+  /** The Arrow memory not released by the tasks which allocated it. */
+  public static long getArrowLeakedBytes() {
+    return arrowLeakedBytes.sum();
+  }
+
+  /** The memory of released Arrow buffers kept for reuse by the executor's buffer pool. */
+  public static long getArrowPooledBytes() {
+    ArrowBufferPool pool = ArrowBufferPool.getIfCreated();
+    return pool == null ? 0 : pool.getPooledBytes();
+  }
+
+  public static long getReadRetries() {
+    return readRetries.sum();
+  }
+
+  /** The bytes added to the direct write streams and not yet acknowledged by BigQuery. */
+  public static long getInFlightAppendBytes() {
+    return inFlightAppendBytes.get();
+  }
+
+  public static long getLatencyCount(Latency latency) {
+    return latencies.get(latency).getTotalCount();
+  }
+
+  public static Duration getLatencyPercentile(Latency latency, double percentile) {
+    return latencies.get(latency).getValueAtPercentile(percentile);
+  }
+
+  public static Duration getMaxLatency(Latency latency) {
+    return latencies.get(latency).getMax();
+  }
+}
@@ -60,6 +60,7 @@ public class BigQueryDirectDataWriterHelper {
   private long appendRequestRowCount = 0; // number of rows waiting for the next append request
   private long appendRequestSizeBytes = 0; // number of bytes waiting for the next append request
   private long writeStreamRowCount = 0; // total offset / rows of the current write-stream
+  private final AppendRowsMetrics metrics = new AppendRowsMetrics();
 
   public BigQueryDirectDataWriterHelper(
       BigQueryClientFactory writeClientFactory,
@@ -171,6 +172,7 @@ public class BigQueryDirectDataWriterHelper {
 
     protoRows.addSerializedRows(message);
     appendRequestSizeBytes += messageSize;
+    BigQueryConnectorMetrics.addInFlightAppendBytes(messageSize);
     appendRequestRowCount++;
   }
 
@@ -182,10 +184,15 @@ public class BigQueryDirectDataWriterHelper {
    */
   private void sendAppendRowsRequest() throws IOException {
     long offset = writeStreamRowCount;
+    long start = System.nanoTime();
 
     ApiFuture<AppendRowsResponse> appendRowsResponseApiFuture =
         streamWriter.append(protoRows.build(), offset);
     validateAppendRowsResponse(appendRowsResponseApiFuture, offset);
+    long latency = System.nanoTime() - start;
+    metrics.addAppendRequest(appendRequestRowCount, appendRequestSizeBytes, latency);
+    BigQueryConnectorMetrics.recordLatency(BigQueryConnectorMetrics.Latency.APPEND_ROWS, latency);
+    BigQueryConnectorMetrics.addInFlightAppendBytes(-appendRequestSizeBytes);
 
     clearProtoRows();
     this.writeStreamRowCount += appendRequestRowCount;
@@ -311,6 +318,9 @@ public class BigQueryDirectDataWriterHelper {
 
   private void clean() {
     clearProtoRows();
+    // rows which have not been appended are dropped
+    BigQueryConnectorMetrics.addInFlightAppendBytes(-appendRequestSizeBytes);
+    this.appendRequestSizeBytes = 0;
     if (streamWriter != null) {
       streamWriter.close();
     }
@@ -322,6 +332,10 @@ public class BigQueryDirectDataWriterHelper {
     }
   }
 
+  public AppendRowsMetrics getMetrics() {
+    return metrics;
+  }
+
   public String getWriteStreamName() {
     return writeStreamName;
   }
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import com.google.cloud.BaseServiceException;
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQueryException;
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobId;
+import com.google.cloud.bigquery.JobInfo;
+import com.google.cloud.bigquery.JobStatus;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs BigQuery jobs asynchronously, allowing independent jobs (such as the materialization of
+ * several views) to run in parallel.
+ *
+ * <p>At most {@code maxConcurrentJobs} jobs are tracked at the same time, additional jobs are
+ * queued and submitted to BigQuery once a previous job completes. The status of each job is polled
+ * with an increasing delay, so that short jobs are noticed quickly while long jobs do not result in
+ * excessive API calls. Cancelling the returned future cancels the BigQuery job.
+ */
+public class BigQueryJobExecutor {
+
+  private static final Logger log = LoggerFactory.getLogger(BigQueryJobExecutor.class);
+
+  static final Duration DEFAULT_INITIAL_POLLING_DELAY = Duration.ofMillis(100);
+  static final Duration DEFAULT_MAX_POLLING_DELAY = Duration.ofSeconds(5);
+  static final double POLLING_DELAY_MULTIPLIER = 1.5;
+
+  private final ExecutorService executor;
+  private final long initialPollingDelayMillis;
+  private final long maxPollingDelayMillis;
+
+  public BigQueryJobExecutor(int maxConcurrentJobs) {
+    this(maxConcurrentJobs, DEFAULT_INITIAL_POLLING_DELAY, DEFAULT_MAX_POLLING_DELAY);
+  }
+
+  // visible for testing
+  BigQueryJobExecutor(
+      int maxConcurrentJobs, Duration initialPollingDelay, Duration maxPollingDelay) {
+    this.executor =
+        Executors.newFixedThreadPool(
+            maxConcurrentJobs,
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("bigquery-job-executor-%d")
+                .build());
+    this.initialPollingDelayMillis = initialPollingDelay.toMillis();
+    this.maxPollingDelayMillis = maxPollingDelay.toMillis();
+  }
+
+  /**
+   * Submits the job to BigQuery and tracks it until it is done.
+   *
+   * @param bigQuery the client used to create and poll the job
+   * @param jobInfo the job to run
+   * @return a future holding the completed job. Notice that the job may have completed with an
+   *     error, which is available in the job's status. The future completes exceptionally if the
+   *     job could not be created or polled.
+   */
+  public CompletableFuture<Job> submit(BigQuery bigQuery, JobInfo jobInfo) {
+    CompletableFuture<Job> result = new CompletableFuture<>();
+    AtomicReference<JobId> jobId = new AtomicReference<>();
+    result.whenComplete(
+        (job, error) -> {
+          if (result.isCancelled() && jobId.get() != null) {
+            cancel(bigQuery, jobId.get());
+          }
+        });
+    executor.execute(() -> run(bigQuery, jobInfo, jobId, result));
+    return result;
+  }
+
+  private void run(
+      BigQuery bigQuery,
+      JobInfo jobInfo,
+      AtomicReference<JobId> jobId,
+      CompletableFuture<Job> result) {
+    if (result.isDone()) {
+      // cancelled before being submitted
+      return;
+    }
+    try {
+      long start = System.nanoTime();
+      Job job = bigQuery.create(jobInfo);
+      BigQueryConnectorMetrics.recordLatency(
+          BigQueryConnectorMetrics.Latency.JOB_CREATION, System.nanoTime() - start);
+      jobId.set(job.getJobId());
+      log.info("Submitted job {}. jobId: {}", jobInfo.getConfiguration(), job.getJobId());
+      if (result.isCancelled()) {
+        // the future has been cancelled while the job was being created
+        cancel(bigQuery, job.getJobId());
+        return;
+      }
+      long delay = initialPollingDelayMillis;
+      while (!isDone(job)) {
+        Thread.sleep(delay);
+        if (result.isDone()) {
+          return;
+        }
+        delay = Math.min((long) (delay * POLLING_DELAY_MULTIPLIER), maxPollingDelayMillis);
+        job = bigQuery.getJob(job.getJobId());
+        if (job == null) {
+          throw new BigQueryException(
+              BaseServiceException.UNKNOWN_CODE,
+              String.format("Job %s no longer exists", jobId.get()));
+        }
+      }
+      result.complete(job);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      result.completeExceptionally(e);
+    } catch (RuntimeException e) {
+      result.completeExceptionally(e);
+    }
+  }
+
+  private static boolean isDone(Job job) {
+    JobStatus status = job.getStatus();
+    return status != null && status.getState() == JobStatus.State.DONE;
+  }
+
+  private static void cancel(BigQuery bigQuery, JobId jobId) {
+    try {
+      log.info("Cancelling job {}", jobId);
+      bigQuery.cancel(jobId);
+    } catch (BigQueryException e) {
+      log.warn("Failed to cancel job {}", jobId, e);
+    }
+  }
+
+  /**
+   * Blocks until the given future completes. If the calling thread is interrupted, for example when
+   * the Spark job is cancelled, the future and the underlying BigQuery job are cancelled.
+   */
+  public static <T> T await(CompletableFuture<T> future) {
+    return await(future, Optional.empty());
+  }
+
+  /**
+   * Blocks until the given future completes, for at most the given timeout. If the timeout expires
+   * or the calling thread is interrupted, the future and the underlying BigQuery job are cancelled.
+   */
+  public static <T> T await(CompletableFuture<T> future, Duration timeout) {
+    return await(future, Optional.of(timeout));
+  }
+
+  private static <T> T await(CompletableFuture<T> future, Optional<Duration> timeout) {
+    try {
+      return timeout.isPresent()
+          ? future.get(timeout.get().toMillis(), TimeUnit.MILLISECONDS)
+          : future.get();
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      throw new BigQueryException(
+          BaseServiceException.UNKNOWN_CODE,
+          String.format("The BigQuery job has not completed within %s", timeout.get()),
+          e);
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new BigQueryException(
+          BaseServiceException.UNKNOWN_CODE, "Interrupted while waiting for a BigQuery job", e);
+    } catch (CancellationException e) {
+      throw new BigQueryException(
+          BaseServiceException.UNKNOWN_CODE, "The BigQuery job has been cancelled", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new BigQueryException(
+          BaseServiceException.UNKNOWN_CODE, "Failed to run the BigQuery job", cause);
+    }
+  }
+}
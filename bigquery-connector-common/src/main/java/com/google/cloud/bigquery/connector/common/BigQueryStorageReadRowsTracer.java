@@ -42,6 +42,14 @@ public interface BigQueryStorageReadRowsTracer extends Serializable {
   /** Indicates the next ReadRowsResponse was requested from the server. */
   void readRowsResponseObtained(long bytesReceived);
 
+  /**
+   * Indicates the progress of the stream as reported by the last ReadRowsResponse.
+   *
+   * @param fraction The fraction of the stream read, between 0 and 1.
+   * @param throttlePercent How much the service throttles the stream, between 0 and 100.
+   */
+  void progressUpdated(double fraction, int throttlePercent);
+
   /** The ReadRows stream has finished. */
   void finished();
 
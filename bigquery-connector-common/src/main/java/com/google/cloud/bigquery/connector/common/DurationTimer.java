@@ -29,6 +29,7 @@ final class DurationTimer implements Serializable {
   private long start = Long.MIN_VALUE;
   private long accumulatedNanos = 0;
   private long samples = 0;
+  private final LatencyHistogram histogram = new LatencyHistogram();
 
   public void start() {
     start = System.nanoTime();
@@ -39,6 +40,7 @@ final class DurationTimer implements Serializable {
     if (start != Long.MIN_VALUE) {
       accumulatedNanos += now - start;
       samples++;
+      histogram.record(now - start);
     }
     start = now;
   }
@@ -50,4 +52,9 @@ final class DurationTimer implements Serializable {
   public long getSamples() {
     return samples;
   }
+
+  /** The distribution of the measured durations, for reporting tail latencies. */
+  LatencyHistogram getHistogram() {
+    return histogram;
+  }
 }
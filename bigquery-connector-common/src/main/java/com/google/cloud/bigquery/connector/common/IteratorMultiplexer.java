@@ -26,7 +26,9 @@ import org.slf4j.LoggerFactory;
  * Manages reading ahead from an iterator and dividing it across multiple iterators that can be read
  * in a round-robin fashion.
  *
- * <p>Useful to parallelizing work from an iterator where order must still be maintained.
+ * <p>Useful to parallelizing work from an iterator where order must still be maintained. When the
+ * order does not matter, the elements can instead be handed to whichever iterator asks first, so
+ * that a slow consumer does not hold back the others.
  *
  * @param <T> Type of iterable object.
  */
@@ -35,6 +37,7 @@ public class IteratorMultiplexer<T> implements AutoCloseable {
   private static final Object TERMINAL_SENTINEL = new Object();
   private final Iterator<T> iterator;
   private final int splits;
+  private final boolean preserveOrder;
   private final QueueIterator<T>[] iterators;
   private Thread worker;
 
@@ -45,13 +48,37 @@ public class IteratorMultiplexer<T> implements AutoCloseable {
    * @param splits The number of output iterators that will read from iterator.
    */
   public IteratorMultiplexer(Iterator<T> iterator, int splits) {
+    this(iterator, splits, /*preserveOrder=*/ true);
+  }
+
+  /**
+   * Construct a new instance.
+   *
+   * @param iterator The Iterator to read from.
+   * @param splits The number of output iterators that will read from iterator.
+   * @param preserveOrder Whether the elements are divided in a round-robin fashion. Otherwise, each
+   *     element goes to the first output iterator asking for it.
+   */
+  public IteratorMultiplexer(Iterator<T> iterator, int splits, boolean preserveOrder) {
     this.iterator = iterator;
     this.splits = splits;
+    this.preserveOrder = preserveOrder;
 
     // Filled in when initializing iterators.
     iterators = new QueueIterator[splits];
-    for (int x = 0; x < splits; x++) {
-      iterators[x] = new QueueIterator<>();
+    if (preserveOrder) {
+      for (int x = 0; x < splits; x++) {
+        iterators[x] =
+            new QueueIterator<>(new ArrayBlockingQueue<>(/*capacity=*/ 2), new Semaphore(1));
+      }
+    } else {
+      // All the iterators share the same queue, with room for the read ahead elements and for the
+      // terminal sentinel of each iterator.
+      ArrayBlockingQueue<Object> queue = new ArrayBlockingQueue<>(/*capacity=*/ 2 * splits);
+      Semaphore sem = new Semaphore(splits);
+      for (int x = 0; x < splits; x++) {
+        iterators[x] = new QueueIterator<>(queue, sem);
+      }
     }
   }
 
@@ -79,8 +106,9 @@ public class IteratorMultiplexer<T> implements AutoCloseable {
         for (int x = 0; x < splits; x++) {
           if (iterator.hasNext()) {
             T value = iterator.next();
-            iterators[x].sem.acquire();
-            iterators[x].queue.put(value);
+            QueueIterator<T> target = iterators[preserveOrder ? x : 0];
+            target.sem.acquire();
+            target.queue.put(value);
           } else {
             hasMore = false;
             break;
@@ -109,11 +137,16 @@ public class IteratorMultiplexer<T> implements AutoCloseable {
   }
 
   private class QueueIterator<T> implements Iterator<T> {
-    private final ArrayBlockingQueue<Object> queue = new ArrayBlockingQueue<>(/*capacity=*/ 2);
-    private final Semaphore sem = new Semaphore(1);
+    private final ArrayBlockingQueue<Object> queue;
+    private final Semaphore sem;
 
     private Object t = null;
 
+    QueueIterator(ArrayBlockingQueue<Object> queue, Semaphore sem) {
+      this.queue = queue;
+      this.sem = sem;
+    }
+
     @Override
     public boolean hasNext() {
       if (t == TERMINAL_SENTINEL) {
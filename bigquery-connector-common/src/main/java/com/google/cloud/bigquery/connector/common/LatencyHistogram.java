@@ -0,0 +1,122 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import java.io.Serializable;
+import java.time.Duration;
+
+/**
+ * A fixed size, log-linear histogram of latencies in nanoseconds, in the spirit of HdrHistogram.
+ * Each power of two is split into {@value #SUB_BUCKETS} linear buckets, so the reported percentiles
+ * are within 1/{@value #SUB_BUCKETS} of the actual value, while recording a sample is a couple of
+ * bit operations and an array increment.
+ *
+ * <p>Recording is not synchronized, as each histogram is expected to be updated by a single thread
+ * (like the tracer of a single stream). Histograms of several streams can be merged into a shared
+ * histogram with {@link #merge(LatencyHistogram)}, which is synchronized along with the reads.
+ */
+final class LatencyHistogram implements Serializable {
+
+  private static final long serialVersionUID = -6377461582040823613L;
+
+  private static final int SUB_BUCKET_BITS = 4;
+  static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  // Latencies of 2^40 nanos (about 18 minutes) and above are recorded in the last bucket
+  private static final int MAX_EXPONENT = 39;
+  private static final long MAX_TRACKABLE_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+  private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+  private final long[] counts = new long[BUCKET_COUNT];
+  private long totalCount = 0;
+  private long max = 0;
+
+  void record(long nanos) {
+    long value = Math.max(0, nanos);
+    counts[bucketIndex(Math.min(value, MAX_TRACKABLE_VALUE))]++;
+    totalCount++;
+    if (value > max) {
+      max = value;
+    }
+  }
+
+  synchronized void merge(LatencyHistogram other) {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts[i] += other.counts[i];
+    }
+    totalCount += other.totalCount;
+    max = Math.max(max, other.max);
+  }
+
+  synchronized long getTotalCount() {
+    return totalCount;
+  }
+
+  synchronized Duration getMax() {
+    return Duration.ofNanos(max);
+  }
+
+  /**
+   * Returns the value below which the given percentage of the samples fall. The value is the upper
+   * bound of the matching bucket, capped by the maximal recorded value.
+   */
+  synchronized Duration getValueAtPercentile(double percentile) {
+    if (totalCount == 0) {
+      return Duration.ZERO;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Duration.ofNanos(Math.min(bucketUpperBound(i), max));
+      }
+    }
+    return Duration.ofNanos(max);
+  }
+
+  /** Formats the p50, p90, p99 and max latencies, as used in the tracer logs. */
+  synchronized String formatPercentiles() {
+    if (totalCount == 0) {
+      return "Not enough samples.";
+    }
+    return String.format(
+        "p50: %s p90: %s p99: %s Max: %s Samples: %d",
+        getValueAtPercentile(50),
+        getValueAtPercentile(90),
+        getValueAtPercentile(99),
+        getMax(),
+        totalCount);
+  }
+
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int shift = exponent - SUB_BUCKET_BITS;
+    int mantissa = (int) (value >>> shift); // between SUB_BUCKETS and 2 * SUB_BUCKETS - 1
+    return (shift + 1) * SUB_BUCKETS + (mantissa - SUB_BUCKETS);
+  }
+
+  static long bucketUpperBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = index / SUB_BUCKETS - 1;
+    long mantissa = index % SUB_BUCKETS + SUB_BUCKETS;
+    return ((mantissa + 1) << shift) - 1;
+  }
+}
@@ -30,6 +30,12 @@ public class LoggingBigQueryStorageReadRowsTracer implements BigQueryStorageRead
   private static final Logger log =
       LoggerFactory.getLogger(LoggingBigQueryStorageReadRowsTracer.class);
 
+  // The latencies of all the streams read by this executor since it has started, merged when each
+  // stream finishes. As they span all the tasks run by the executor they are only logged at DEBUG.
+  static final LatencyHistogram EXECUTOR_PARSE_TIME = new LatencyHistogram();
+  static final LatencyHistogram EXECUTOR_SPARK_TIME = new LatencyHistogram();
+  static final LatencyHistogram EXECUTOR_SERVICE_TIME = new LatencyHistogram();
+
   private final String streamName;
   private final int logIntervalPowerOf2;
   // Visible for testing.
@@ -40,6 +46,8 @@ public class LoggingBigQueryStorageReadRowsTracer implements BigQueryStorageRead
   Instant endTime;
   long rows = 0;
   long bytes = 0;
+  double progress = 0;
+  long throttledResponses = 0;
   // For confirming data is logged.
   long linesLogged = 0;
 
@@ -75,10 +83,24 @@ public class LoggingBigQueryStorageReadRowsTracer implements BigQueryStorageRead
     serviceTime.finish();
   }
 
+  @Override
+  public void progressUpdated(double fraction, int throttlePercent) {
+    progress = fraction;
+    if (throttlePercent > 0) {
+      throttledResponses++;
+    }
+  }
+
   @Override
   public void finished() {
     endTime = Instant.now();
     logData();
+    EXECUTOR_PARSE_TIME.merge(parseTime.getHistogram());
+    EXECUTOR_SPARK_TIME.merge(sparkTime.getHistogram());
+    EXECUTOR_SERVICE_TIME.merge(serviceTime.getHistogram());
+    if (log.isDebugEnabled()) {
+      logExecutorData();
+    }
   }
 
   private static Duration average(DurationTimer durationTimer) {
@@ -129,11 +151,28 @@ public class LoggingBigQueryStorageReadRowsTracer implements BigQueryStorageRead
     jsonObject.addProperty("Rows/s", perSecond(parseTime, rows));
     jsonObject.addProperty("Bytes", bytes);
     jsonObject.addProperty("Rows", rows);
+    jsonObject.addProperty("Progress", progress);
+    jsonObject.addProperty("Throttled responses", throttledResponses);
     jsonObject.addProperty("I/O time", serviceTime.getAccumulatedTime().toMillis());
+    jsonObject.addProperty("Parse Percentiles", parseTime.getHistogram().formatPercentiles());
+    jsonObject.addProperty(
+        "Time between batches Percentiles", sparkTime.getHistogram().formatPercentiles());
+    jsonObject.addProperty(
+        "Time waiting for service Percentiles", serviceTime.getHistogram().formatPercentiles());
     log.info("Tracer Logs:{}", new Gson().toJson(jsonObject));
     linesLogged++;
   }
 
+  private static void logExecutorData() {
+    JsonObject jsonObject = new JsonObject();
+    jsonObject.addProperty("Parse Percentiles", EXECUTOR_PARSE_TIME.formatPercentiles());
+    jsonObject.addProperty(
+        "Time between batches Percentiles", EXECUTOR_SPARK_TIME.formatPercentiles());
+    jsonObject.addProperty(
+        "Time waiting for service Percentiles", EXECUTOR_SERVICE_TIME.formatPercentiles());
+    log.debug("Executor Tracer Logs:{}", new Gson().toJson(jsonObject));
+  }
+
   @Override
   public void nextBatchNeeded() {
     sparkTime.finish();
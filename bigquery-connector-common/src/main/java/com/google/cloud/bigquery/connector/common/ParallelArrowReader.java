@@ -35,9 +35,9 @@ import org.slf4j.LoggerFactory;
 
 /*
  * A utility class for taking up to N {@link ArrowReader} objects and reading data from them
- * asynchronously. This tries to round robin between all readers given to it to maintain
- * a consistent order. It does not appear spark actually cares about this though
- * so it could be relaxed in the future.
+ * asynchronously. By default this tries to round robin between all readers given to it to
+ * maintain a consistent order. As spark does not care about the order of the rows in a partition,
+ * it can also return the batches in the order they are loaded.
  *
  * This is useful in a few contexts:
  * * For InputPartitionReaders that have expensive synchronous CPU operations
@@ -60,6 +60,13 @@ public class ParallelArrowReader implements AutoCloseable {
   private final BigQueryStorageReadRowsTracer rootTracer;
   private final BigQueryStorageReadRowsTracer tracers[];
   private final AtomicInteger readersReady;
+  private final boolean preserveOrder;
+  // Per reader state, initialized by the background thread.
+  // Tracks which readers have exhausted all of there elements
+  private final AtomicBoolean[] hasData;
+  private final long[] lastBytesRead;
+  private final VectorUnloader[] unloader;
+  private final VectorSchemaRoot[] roots;
 
   // Background thread for reading from delegates.
   private Thread readerThread;
@@ -74,7 +81,29 @@ public class ParallelArrowReader implements AutoCloseable {
       ExecutorService executor,
       VectorLoader loader,
       BigQueryStorageReadRowsTracer tracer) {
+    this(readers, executor, loader, tracer, /*preserveOrder=*/ true);
+  }
+
+  /**
+   * @param readers The readers to read from.
+   * @param executor An ExecutorService to process the get method on the delegates. The service will
+   *     be shutdown when this object is closed.
+   * @param preserveOrder Whether the batches are returned in a round robin order of the readers.
+   *     Otherwise, they are returned as soon as any reader loads them, so that a slow reader does
+   *     not delay the batches of the other ones.
+   */
+  public ParallelArrowReader(
+      List<ArrowReader> readers,
+      ExecutorService executor,
+      VectorLoader loader,
+      BigQueryStorageReadRowsTracer tracer,
+      boolean preserveOrder) {
     this.readers = readers;
+    this.preserveOrder = preserveOrder;
+    this.hasData = new AtomicBoolean[readers.size()];
+    this.lastBytesRead = new long[readers.size()];
+    this.unloader = new VectorUnloader[readers.size()];
+    this.roots = new VectorSchemaRoot[readers.size()];
     // Reserve extra space for sentinel and one extra element processing.
     queue = new ArrayBlockingQueue<>(readers.size() + 2);
     this.executor = executor;
@@ -107,6 +136,7 @@ public class ParallelArrowReader implements AutoCloseable {
       }
       Preconditions.checkState(nextObject instanceof ArrowRecordBatch, "Expected future object");
       resolvedBatch = (ArrowRecordBatch) nextObject;
+      BigQueryConnectorMetrics.addBufferedBatchBytes(-resolvedBatch.computeBodyLength());
     } catch (InterruptedException e) {
       log.info("Interrupted when waiting for next batch.");
       return false;
@@ -134,14 +164,7 @@ public class ParallelArrowReader implements AutoCloseable {
 
   private void consumeReaders() {
     try {
-      // Tracks which readers have exhausted all of there elements
-      AtomicBoolean[] hasData = new AtomicBoolean[readers.size()];
-      long lastBytesRead[] = new long[readers.size()];
-
-      VectorUnloader[] unloader = new VectorUnloader[readers.size()];
-      VectorSchemaRoot[] roots = new VectorSchemaRoot[readers.size()];
-
-      for (int x = 0; x < hasData.length; x++) {
+      for (int x = 0; x < readers.size(); x++) {
         hasData[x] = new AtomicBoolean();
         hasData[x].set(true);
         lastBytesRead[x] = 0;
@@ -151,62 +174,10 @@ public class ParallelArrowReader implements AutoCloseable {
         tracers[x].startStream();
       }
 
-      while (readersReady.get() > 0) {
-        for (int readerIdx = 0; readerIdx < readers.size(); readerIdx++) {
-          // Ensure that we don't submit another task for the same reader
-          // until the last one completed. This is necessary when some readers run out of
-          // tasks.
-          if (!hasData[readerIdx].get()) {
-            continue;
-          }
-          ArrowReader reader = readers.get(readerIdx);
-          final int idx = readerIdx;
-          queueSemaphore.acquire();
-          executor.submit(
-              () -> {
-                synchronized (roots[idx]) {
-                  if (!hasData[idx].get()) {
-                    return;
-                  }
-                  try {
-                    tracers[idx].readRowsResponseRequested();
-                    hasData[idx].set(reader.loadNextBatch());
-                    if (!hasData[idx].get()) {
-                      queueSemaphore.release();
-                    }
-                    long incrementalBytesRead = reader.bytesRead() - lastBytesRead[idx];
-                    tracers[idx].readRowsResponseObtained(/*bytesReceived=*/ incrementalBytesRead);
-                    lastBytesRead[idx] = reader.bytesRead();
-                  } catch (Throwable e) {
-                    log.info("Exception caught while consuming reader.", e);
-                    hasData[idx].set(false);
-                    readersReady.set(0);
-                    Preconditions.checkState(queue.offer(e), "Expected space in queue");
-                  }
-                  ArrowRecordBatch batch = null;
-                  if (!hasData[idx].get()) {
-                    readersReady.addAndGet(-1);
-                    return;
-                  }
-                  int rows = 0;
-                  try {
-                    rows = reader.getVectorSchemaRoot().getRowCount();
-                  } catch (IOException e) {
-                    queue.offer(e);
-                  }
-                  // Not quite parsing but re-use it here.
-                  tracers[idx].rowsParseStarted();
-                  batch = unloader[idx].getRecordBatch();
-                  tracers[idx].rowsParseFinished(rows);
-                  try {
-                    Preconditions.checkState(queue.offer(batch), "Expected space in queue");
-                  } catch (Exception e) {
-                    batch.close();
-                    throw e;
-                  }
-                }
-              });
-        }
+      if (preserveOrder) {
+        submitInRoundRobin();
+      } else {
+        submitWhenReaderIsIdle();
       }
     } catch (Throwable e) {
       log.info("Read ahead caught exceptions", e);
@@ -216,6 +187,94 @@ public class ParallelArrowReader implements AutoCloseable {
     Preconditions.checkState(queue.offer(DONE_SENTINEL), "Expected available capacity");
   }
 
+  private void submitInRoundRobin() throws InterruptedException {
+    while (readersReady.get() > 0) {
+      for (int readerIdx = 0; readerIdx < readers.size(); readerIdx++) {
+        // Ensure that we don't submit another task for the same reader
+        // until the last one completed. This is necessary when some readers run out of
+        // tasks.
+        if (!hasData[readerIdx].get()) {
+          continue;
+        }
+        final int idx = readerIdx;
+        queueSemaphore.acquire();
+        executor.submit(() -> loadNextBatch(idx));
+      }
+    }
+  }
+
+  // Each reader has at most one pending task, and is submitted again as soon as its previous batch
+  // has been queued, so the batches are consumed in the order they are loaded.
+  private void submitWhenReaderIsIdle() throws InterruptedException {
+    BlockingQueue<Integer> idleReaders = new ArrayBlockingQueue<>(readers.size());
+    for (int x = 0; x < readers.size(); x++) {
+      idleReaders.add(x);
+    }
+    while (readersReady.get() > 0) {
+      int idx = idleReaders.take();
+      if (!hasData[idx].get()) {
+        continue;
+      }
+      queueSemaphore.acquire();
+      executor.submit(
+          () -> {
+            try {
+              loadNextBatch(idx);
+            } finally {
+              // also wakes up the loop once the last reader is exhausted
+              idleReaders.add(idx);
+            }
+          });
+    }
+  }
+
+  private void loadNextBatch(int idx) {
+    ArrowReader reader = readers.get(idx);
+    synchronized (roots[idx]) {
+      if (!hasData[idx].get()) {
+        return;
+      }
+      try {
+        tracers[idx].readRowsResponseRequested();
+        hasData[idx].set(reader.loadNextBatch());
+        if (!hasData[idx].get()) {
+          queueSemaphore.release();
+        }
+        long incrementalBytesRead = reader.bytesRead() - lastBytesRead[idx];
+        tracers[idx].readRowsResponseObtained(/*bytesReceived=*/ incrementalBytesRead);
+        lastBytesRead[idx] = reader.bytesRead();
+      } catch (Throwable e) {
+        log.info("Exception caught while consuming reader.", e);
+        hasData[idx].set(false);
+        readersReady.set(0);
+        Preconditions.checkState(queue.offer(e), "Expected space in queue");
+      }
+      ArrowRecordBatch batch = null;
+      if (!hasData[idx].get()) {
+        readersReady.addAndGet(-1);
+        return;
+      }
+      int rows = 0;
+      try {
+        rows = reader.getVectorSchemaRoot().getRowCount();
+      } catch (IOException e) {
+        queue.offer(e);
+      }
+      // Not quite parsing but re-use it here.
+      tracers[idx].rowsParseStarted();
+      batch = unloader[idx].getRecordBatch();
+      tracers[idx].rowsParseFinished(rows);
+      try {
+        BigQueryConnectorMetrics.addBufferedBatchBytes(batch.computeBodyLength());
+        Preconditions.checkState(queue.offer(batch), "Expected space in queue");
+      } catch (Exception e) {
+        BigQueryConnectorMetrics.addBufferedBatchBytes(-batch.computeBodyLength());
+        batch.close();
+        throw e;
+      }
+    }
+  }
+
   @Override
   public void close() {
     rootTracer.finished();
@@ -248,7 +307,11 @@ public class ParallelArrowReader implements AutoCloseable {
     queue.stream()
         .filter(x -> x instanceof ArrowRecordBatch)
         .map(x -> (ArrowRecordBatch) x)
-        .forEach(ArrowRecordBatch::close);
+        .forEach(
+            batch -> {
+              BigQueryConnectorMetrics.addBufferedBatchBytes(-batch.computeBodyLength());
+              batch.close();
+            });
 
     for (BigQueryStorageReadRowsTracer tracer : tracers) {
       tracer.finished();
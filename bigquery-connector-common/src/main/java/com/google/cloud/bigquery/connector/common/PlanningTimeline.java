@@ -0,0 +1,139 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The steps taken by the driver in order to plan a read, such as creating the configuration,
+ * fetching the table metadata, materializing views and creating the read session. The timeline
+ * helps finding which step dominates the time between the creation of the DataFrame and the
+ * execution of the first task.
+ */
+public class PlanningTimeline {
+
+  public static final String INJECTOR_CREATION = "injectorCreation";
+  public static final String CONFIG_CREATION = "configCreation";
+  public static final String TABLE_METADATA = "getTable";
+  public static final String VIEW_MATERIALIZATION = "viewMaterialization";
+  public static final String READ_SESSION_CREATION = "readSessionCreation";
+  // prefixes the steps re-creating the read session with the dynamic partition pruning filters
+  public static final String DYNAMIC_PARTITION_PRUNING_PREFIX = "dynamicPartitionPruning.";
+
+  private final List<Step> steps = new ArrayList<>();
+
+  /** Runs the action, recording its duration under the given step name. */
+  public <T> T time(String name, Supplier<T> action) {
+    Instant start = Instant.now();
+    try {
+      return action.get();
+    } finally {
+      record(name, start, Instant.now());
+    }
+  }
+
+  public synchronized void record(String name, Instant start, Instant end) {
+    steps.add(new Step(name, start, Duration.between(start, end)));
+  }
+
+  /** Adds the steps of the given timeline, prefixing their names. */
+  public synchronized void addAll(PlanningTimeline other, String prefix) {
+    for (Step step : other.getSteps()) {
+      steps.add(new Step(prefix + step.getName(), step.getStart(), step.getDuration()));
+    }
+  }
+
+  public PlanningTimeline copy() {
+    PlanningTimeline copy = new PlanningTimeline();
+    copy.addAll(this, "");
+    return copy;
+  }
+
+  /** Moves the steps of this timeline to a new timeline, leaving this one empty. */
+  public synchronized PlanningTimeline drain() {
+    PlanningTimeline drained = copy();
+    steps.clear();
+    return drained;
+  }
+
+  public synchronized ImmutableList<Step> getSteps() {
+    return ImmutableList.copyOf(steps);
+  }
+
+  /**
+   * The wall clock time from the start of the first step to the end of the last one. Notice that it
+   * includes the time spent by Spark between the steps.
+   */
+  public synchronized Duration getTotalDuration() {
+    if (steps.isEmpty()) {
+      return Duration.ZERO;
+    }
+    Instant start = steps.stream().map(Step::getStart).min(Instant::compareTo).get();
+    Instant end = steps.stream().map(Step::getEnd).max(Instant::compareTo).get();
+    return Duration.between(start, end);
+  }
+
+  public String toJson() {
+    JsonArray jsonSteps = new JsonArray();
+    for (Step step : getSteps()) {
+      JsonObject jsonStep = new JsonObject();
+      jsonStep.addProperty("name", step.getName());
+      jsonStep.addProperty("start", step.getStart().toString());
+      jsonStep.addProperty("durationMillis", step.getDuration().toMillis());
+      jsonSteps.add(jsonStep);
+    }
+    JsonObject jsonObject = new JsonObject();
+    jsonObject.addProperty("totalDurationMillis", getTotalDuration().toMillis());
+    jsonObject.add("steps", jsonSteps);
+    return new Gson().toJson(jsonObject);
+  }
+
+  public static class Step {
+    private final String name;
+    private final Instant start;
+    private final Duration duration;
+
+    Step(String name, Instant start, Duration duration) {
+      this.name = name;
+      this.start = start;
+      this.duration = duration;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public Instant getStart() {
+      return start;
+    }
+
+    public Duration getDuration() {
+      return duration;
+    }
+
+    Instant getEnd() {
+      return start.plus(duration);
+    }
+  }
+}
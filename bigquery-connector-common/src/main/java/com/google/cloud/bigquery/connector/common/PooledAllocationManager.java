@@ -0,0 +1,158 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.arrow.memory.AllocationManager;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.NettyAllocationManager;
+import org.apache.arrow.memory.util.MemoryUtil;
+
+/**
+ * An {@link AllocationManager} recycling the memory of large Arrow buffers. The requested sizes are
+ * rounded up to size classes, four per power of two, and released memory is kept in a free list per
+ * size class until the retained memory reaches the limit of the {@link Factory}. Buffers smaller
+ * than {@link #MIN_POOLED_SIZE} are delegated to Netty, which already pools them.
+ */
+final class PooledAllocationManager extends AllocationManager {
+
+  static final int MIN_POOLED_SIZE = 256 * 1024;
+  // the sizes of the smallest size classes, (MIN_POOLED_SIZE, 1.25 * MIN_POOLED_SIZE], etc., have
+  // this exponent
+  private static final int MIN_EXPONENT = 63 - Long.numberOfLeadingZeros(MIN_POOLED_SIZE - 1);
+  private static final int SIZE_CLASSES = (63 - MIN_EXPONENT) * 4;
+
+  private final Factory factory;
+  private final long address;
+  private final long size;
+  private final int sizeClass;
+
+  private PooledAllocationManager(
+      BufferAllocator accountingAllocator,
+      Factory factory,
+      long address,
+      long size,
+      int sizeClass) {
+    super(accountingAllocator);
+    this.factory = factory;
+    this.address = address;
+    this.size = size;
+    this.sizeClass = sizeClass;
+  }
+
+  @Override
+  public long getSize() {
+    // the accounted size must be the requested one, not the capacity of the size class
+    return size;
+  }
+
+  @Override
+  protected long memoryAddress() {
+    return address;
+  }
+
+  @Override
+  protected void release0() {
+    factory.recycle(address, sizeClass);
+  }
+
+  static int sizeClass(long size) {
+    int exponent = 63 - Long.numberOfLeadingZeros(size - 1);
+    int subClass = (int) ((size - 1) >>> (exponent - 2)) & 3;
+    return (exponent - MIN_EXPONENT) * 4 + subClass;
+  }
+
+  static long capacity(int sizeClass) {
+    int exponent = sizeClass / 4 + MIN_EXPONENT;
+    return (long) (4 + sizeClass % 4 + 1) << (exponent - 2);
+  }
+
+  static final class Factory implements AllocationManager.Factory {
+
+    private final long maxPooledBytes;
+    private final ConcurrentLinkedDeque<Long>[] freeLists;
+    private final AtomicLong pooledBytes = new AtomicLong();
+    private final AtomicLong newAllocations = new AtomicLong();
+    private final AtomicLong reusedAllocations = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    Factory(long maxPooledBytes) {
+      this.maxPooledBytes = maxPooledBytes;
+      this.freeLists = new ConcurrentLinkedDeque[SIZE_CLASSES];
+      for (int x = 0; x < SIZE_CLASSES; x++) {
+        freeLists[x] = new ConcurrentLinkedDeque<>();
+      }
+    }
+
+    @Override
+    public AllocationManager create(BufferAllocator accountingAllocator, long size) {
+      if (size < MIN_POOLED_SIZE) {
+        return NettyAllocationManager.FACTORY.create(accountingAllocator, size);
+      }
+      int sizeClass = sizeClass(size);
+      // most recently released first, its memory is more likely to be in the CPU caches
+      Long address = freeLists[sizeClass].pollFirst();
+      if (address != null) {
+        pooledBytes.addAndGet(-capacity(sizeClass));
+        reusedAllocations.incrementAndGet();
+      } else {
+        address = MemoryUtil.UNSAFE.allocateMemory(capacity(sizeClass));
+        newAllocations.incrementAndGet();
+      }
+      return new PooledAllocationManager(accountingAllocator, this, address, size, sizeClass);
+    }
+
+    @Override
+    public ArrowBuf empty() {
+      return NettyAllocationManager.FACTORY.empty();
+    }
+
+    void recycle(long address, int sizeClass) {
+      long capacity = capacity(sizeClass);
+      if (pooledBytes.addAndGet(capacity) <= maxPooledBytes) {
+        freeLists[sizeClass].addFirst(address);
+      } else {
+        pooledBytes.addAndGet(-capacity);
+        MemoryUtil.UNSAFE.freeMemory(address);
+      }
+    }
+
+    /** Frees the memory retained in the free lists. */
+    void trim() {
+      for (int sizeClass = 0; sizeClass < SIZE_CLASSES; sizeClass++) {
+        Long address;
+        while ((address = freeLists[sizeClass].pollFirst()) != null) {
+          pooledBytes.addAndGet(-capacity(sizeClass));
+          MemoryUtil.UNSAFE.freeMemory(address);
+        }
+      }
+    }
+
+    long getPooledBytes() {
+      return pooledBytes.get();
+    }
+
+    long getNewAllocations() {
+      return newAllocations.get();
+    }
+
+    long getReusedAllocations() {
+      return reusedAllocations.get();
+    }
+  }
+}
@@ -39,16 +39,44 @@ public class ReadRowsHelper implements AutoCloseable {
     private final String nullableEndpoint;
     private final int backgroundParsingThreads;
     private final int prebufferResponses;
+    private final int decodeThreadsPerExecutor;
+    private final boolean preserveBatchOrder;
+    private final int targetBatchRows;
+    private final long targetBatchBytes;
 
     public Options(
         int maxReadRowsRetries,
         Optional<String> endpoint,
         int backgroundParsingThreads,
         int prebufferResponses) {
+      this(
+          maxReadRowsRetries,
+          endpoint,
+          backgroundParsingThreads,
+          prebufferResponses,
+          /*decodeThreadsPerExecutor=*/ 0,
+          /*preserveBatchOrder=*/ true,
+          /*targetBatchRows=*/ 0,
+          /*targetBatchBytes=*/ 0);
+    }
+
+    public Options(
+        int maxReadRowsRetries,
+        Optional<String> endpoint,
+        int backgroundParsingThreads,
+        int prebufferResponses,
+        int decodeThreadsPerExecutor,
+        boolean preserveBatchOrder,
+        int targetBatchRows,
+        long targetBatchBytes) {
       this.maxReadRowsRetries = maxReadRowsRetries;
       this.nullableEndpoint = endpoint.orElse(null);
       this.backgroundParsingThreads = backgroundParsingThreads;
       this.prebufferResponses = prebufferResponses;
+      this.decodeThreadsPerExecutor = decodeThreadsPerExecutor;
+      this.preserveBatchOrder = preserveBatchOrder;
+      this.targetBatchRows = targetBatchRows;
+      this.targetBatchBytes = targetBatchBytes;
     }
 
     public int getMaxReadRowsRetries() {
@@ -66,10 +94,43 @@ public class ReadRowsHelper implements AutoCloseable {
     public int numPrebufferResponses() {
       return prebufferResponses;
     }
+
+    /**
+     * The size of the Arrow decode pool shared by the readers of an executor, 0 means the number of
+     * executor cores.
+     */
+    public int numDecodeThreadsPerExecutor() {
+      return decodeThreadsPerExecutor;
+    }
+
+    /**
+     * Whether the batches parsed by several background threads are returned in the order of the
+     * responses, rather than as soon as they are parsed.
+     */
+    public boolean preserveBatchOrder() {
+      return preserveBatchOrder;
+    }
+
+    /**
+     * The number of rows that consecutive smaller Arrow batches are merged into before being
+     * returned, 0 disables merging by row count.
+     */
+    public int targetBatchRows() {
+      return targetBatchRows;
+    }
+
+    /**
+     * The size in bytes that consecutive smaller Arrow batches are merged into before being
+     * returned, 0 disables merging by size.
+     */
+    public long targetBatchBytes() {
+      return targetBatchBytes;
+    }
   }
 
   private final BigQueryClientFactory bigQueryReadClientFactory;
   private final List<ReadRowsRequest.Builder> requests;
+  private final ReadRowsMetrics metrics = new ReadRowsMetrics();
   private StreamCombiningIterator incomingStream;
 
   public ReadRowsHelper(
@@ -105,12 +166,18 @@ public class ReadRowsHelper implements AutoCloseable {
     bigQueryStorageReadRowsTracer.ifPresent(tracer -> tracer.startStream());
     BigQueryReadClient client = bigQueryReadClientFactory.getBigQueryReadClient();
 
+    metrics.addStreams(requests.size());
     incomingStream =
         new StreamCombiningIterator(
-            client, requests, options.prebufferResponses, options.getMaxReadRowsRetries());
+            client, requests, options.prebufferResponses, options.getMaxReadRowsRetries(), metrics);
     return incomingStream;
   }
 
+  /** The metrics of the streams read by this helper. */
+  public ReadRowsMetrics getMetrics() {
+    return metrics;
+  }
+
   @Override
   public String toString() {
     return requests.toString();
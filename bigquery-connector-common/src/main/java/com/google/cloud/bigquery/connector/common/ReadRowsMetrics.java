@@ -0,0 +1,230 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates the metrics of the streams read by a {@link ReadRowsHelper}. The metrics are updated
+ * by the threads receiving and parsing the responses, and can be read at any time, for example to
+ * report them to Spark while the partition is being read.
+ */
+public class ReadRowsMetrics implements Serializable {
+
+  private static final long serialVersionUID = -2470218385338434722L;
+
+  private final LongAdder streams = new LongAdder();
+  private final LongAdder bytesReceived = new LongAdder();
+  private final LongAdder decompressedBytes = new LongAdder();
+  private final LongAdder rows = new LongAdder();
+  private final LongAdder serviceTimeNanos = new LongAdder();
+  private final LongAdder parseTimeNanos = new LongAdder();
+  private final LongAdder decompressionTimeNanos = new LongAdder();
+  private final LongAdder retries = new LongAdder();
+  private final LongAdder throttledResponses = new LongAdder();
+  // The fraction of each stream read so far, as reported by the service
+  private final Map<String, Double> streamProgress = new ConcurrentHashMap<>();
+
+  public void addStreams(long count) {
+    streams.add(count);
+  }
+
+  public void addBytesReceived(long bytes) {
+    bytesReceived.add(bytes);
+  }
+
+  public void addDecompressedBytes(long bytes) {
+    decompressedBytes.add(bytes);
+  }
+
+  public void addRows(long count) {
+    rows.add(count);
+  }
+
+  public void addServiceTimeNanos(long nanos) {
+    serviceTimeNanos.add(nanos);
+  }
+
+  public void addParseTimeNanos(long nanos) {
+    parseTimeNanos.add(nanos);
+  }
+
+  public void addDecompressionTimeNanos(long nanos) {
+    decompressionTimeNanos.add(nanos);
+  }
+
+  public void addRetry() {
+    retries.increment();
+  }
+
+  public void addThrottledResponse() {
+    throttledResponses.increment();
+  }
+
+  public void updateStreamProgress(String streamName, double fraction) {
+    streamProgress.merge(streamName, fraction, Math::max);
+  }
+
+  /** Adds the metrics of another reader, for example to aggregate the partitions of a read. */
+  public void add(ReadRowsMetrics other) {
+    streams.add(other.getStreams());
+    bytesReceived.add(other.getBytesReceived());
+    decompressedBytes.add(other.getDecompressedBytes());
+    rows.add(other.getRows());
+    serviceTimeNanos.add(other.getServiceTimeNanos());
+    parseTimeNanos.add(other.getParseTimeNanos());
+    decompressionTimeNanos.add(other.getDecompressionTimeNanos());
+    retries.add(other.getRetries());
+    throttledResponses.add(other.getThrottledResponses());
+    other.streamProgress.forEach(this::updateStreamProgress);
+  }
+
+  public long getStreams() {
+    return streams.sum();
+  }
+
+  public long getBytesReceived() {
+    return bytesReceived.sum();
+  }
+
+  public long getDecompressedBytes() {
+    return decompressedBytes.sum();
+  }
+
+  public long getRows() {
+    return rows.sum();
+  }
+
+  public long getServiceTimeNanos() {
+    return serviceTimeNanos.sum();
+  }
+
+  public long getParseTimeNanos() {
+    return parseTimeNanos.sum();
+  }
+
+  /** The part of the parse time spent decompressing Arrow record batches. */
+  public long getDecompressionTimeNanos() {
+    return decompressionTimeNanos.sum();
+  }
+
+  public long getRetries() {
+    return retries.sum();
+  }
+
+  /** The number of responses received while the service was throttling the stream. */
+  public long getThrottledResponses() {
+    return throttledResponses.sum();
+  }
+
+  /** The fraction of each stream read so far, by stream name. */
+  public ImmutableMap<String, Double> getStreamProgress() {
+    return ImmutableMap.copyOf(streamProgress);
+  }
+
+  /**
+   * The fraction of the streams read so far, between 0 and 1. Streams which have not received any
+   * response yet count as not started.
+   */
+  public double getProgress() {
+    long streamCount = Math.max(getStreams(), streamProgress.size());
+    if (streamCount == 0) {
+      return 0;
+    }
+    return streamProgress.values().stream().mapToDouble(Double::doubleValue).sum() / streamCount;
+  }
+
+  /**
+   * Wraps the given tracer, so that the bytes received, the rows parsed and the time spent waiting
+   * for the service and parsing are also recorded in these metrics. Tracers forked from the
+   * returned tracer record into the same metrics.
+   */
+  public BigQueryStorageReadRowsTracer wrap(BigQueryStorageReadRowsTracer tracer) {
+    return new MetricsRecordingTracer(tracer, this);
+  }
+
+  static class MetricsRecordingTracer implements BigQueryStorageReadRowsTracer {
+
+    private static final long serialVersionUID = 2868523375632046932L;
+
+    private final BigQueryStorageReadRowsTracer delegate;
+    private final ReadRowsMetrics metrics;
+    // Each tracer is used by a single thread, so the start times need no synchronization
+    private long parseStartNanos;
+    private long serviceStartNanos;
+
+    MetricsRecordingTracer(BigQueryStorageReadRowsTracer delegate, ReadRowsMetrics metrics) {
+      this.delegate = delegate;
+      this.metrics = metrics;
+    }
+
+    @Override
+    public void startStream() {
+      delegate.startStream();
+    }
+
+    @Override
+    public void rowsParseStarted() {
+      parseStartNanos = System.nanoTime();
+      delegate.rowsParseStarted();
+    }
+
+    @Override
+    public void rowsParseFinished(long rowsParsed) {
+      metrics.addParseTimeNanos(System.nanoTime() - parseStartNanos);
+      metrics.addRows(rowsParsed);
+      delegate.rowsParseFinished(rowsParsed);
+    }
+
+    @Override
+    public void readRowsResponseRequested() {
+      serviceStartNanos = System.nanoTime();
+      delegate.readRowsResponseRequested();
+    }
+
+    @Override
+    public void readRowsResponseObtained(long bytesReceived) {
+      metrics.addServiceTimeNanos(System.nanoTime() - serviceStartNanos);
+      metrics.addBytesReceived(bytesReceived);
+      delegate.readRowsResponseObtained(bytesReceived);
+    }
+
+    @Override
+    public void progressUpdated(double fraction, int throttlePercent) {
+      // the progress and the throttling are recorded by the StreamCombiningIterator
+      delegate.progressUpdated(fraction, throttlePercent);
+    }
+
+    @Override
+    public void finished() {
+      delegate.finished();
+    }
+
+    @Override
+    public void nextBatchNeeded() {
+      delegate.nextBatchNeeded();
+    }
+
+    @Override
+    public BigQueryStorageReadRowsTracer forkWithPrefix(String id) {
+      return new MetricsRecordingTracer(delegate.forkWithPrefix(id), metrics);
+    }
+  }
+}
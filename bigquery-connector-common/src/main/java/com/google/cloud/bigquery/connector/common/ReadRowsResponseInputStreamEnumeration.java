@@ -63,5 +63,10 @@ public class ReadRowsResponseInputStreamEnumeration implements java.util.Enumera
         currentResponse == null
             ? 0
             : currentResponse.getArrowRecordBatch().getSerializedRecordBatch().size());
+    if (currentResponse != null) {
+      tracer.progressUpdated(
+          currentResponse.getStats().getProgress().getAtResponseEnd(),
+          currentResponse.getThrottleState().getThrottlePercent());
+    }
   }
 }
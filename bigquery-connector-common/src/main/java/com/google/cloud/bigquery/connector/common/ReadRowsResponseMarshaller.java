@@ -0,0 +1,96 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import com.google.cloud.bigquery.storage.v1.BigQueryReadGrpc;
+import com.google.cloud.bigquery.storage.v1.ReadRowsResponse;
+import com.google.common.io.ByteStreams;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.UnsafeByteOperations;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.protobuf.ProtoUtils;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Parses the {@link ReadRowsResponse} messages so that their serialized rows are not copied. The
+ * default protobuf marshaller reads each message into a buffer and then copies every bytes field
+ * out of it, this marshaller reads each message into its own array and parses it with aliasing
+ * enabled, so that the serialized Arrow record batch or Avro rows are views of that array.
+ *
+ * <p>The marshaller is installed on the ReadRows calls by {@link #INTERCEPTOR}.
+ */
+public class ReadRowsResponseMarshaller implements MethodDescriptor.Marshaller<ReadRowsResponse> {
+
+  static final ReadRowsResponseMarshaller INSTANCE = new ReadRowsResponseMarshaller();
+
+  /** Replaces the response marshaller of the ReadRows method, leaving other methods untouched. */
+  public static final ClientInterceptor INTERCEPTOR =
+      new ClientInterceptor() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+            MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+          if (!method
+              .getFullMethodName()
+              .equals(BigQueryReadGrpc.getReadRowsMethod().getFullMethodName())) {
+            return next.newCall(method, callOptions);
+          }
+          MethodDescriptor<ReqT, RespT> readRows =
+              method
+                  .toBuilder(
+                      method.getRequestMarshaller(), (MethodDescriptor.Marshaller<RespT>) INSTANCE)
+                  .build();
+          return next.newCall(readRows, callOptions);
+        }
+      };
+
+  private final MethodDescriptor.Marshaller<ReadRowsResponse> delegate =
+      ProtoUtils.marshaller(ReadRowsResponse.getDefaultInstance());
+
+  @Override
+  public InputStream stream(ReadRowsResponse value) {
+    return delegate.stream(value);
+  }
+
+  @Override
+  public ReadRowsResponse parse(InputStream stream) {
+    if (!(stream instanceof KnownLength)) {
+      // e.g. compressed messages, whose size is unknown until they are read
+      return delegate.parse(stream);
+    }
+    try {
+      byte[] message = new byte[stream.available()];
+      ByteStreams.readFully(stream, message);
+      // protobuf only aliases the bytes of an input it knows to be immutable
+      CodedInputStream input = UnsafeByteOperations.unsafeWrap(message).newCodedInput();
+      input.enableAliasing(true);
+      input.setSizeLimit(Integer.MAX_VALUE);
+      return ReadRowsResponse.parseFrom(input);
+    } catch (IOException e) {
+      throw Status.INTERNAL
+          .withDescription("Invalid ReadRowsResponse")
+          .withCause(e)
+          .asRuntimeException();
+    }
+  }
+}
@@ -22,8 +22,10 @@ import com.google.cloud.bigquery.TableDefinition;
 import com.google.cloud.bigquery.TableId;
 import com.google.cloud.bigquery.TableInfo;
 import com.google.cloud.bigquery.storage.v1.ArrowSerializationOptions;
+import com.google.cloud.bigquery.storage.v1.ArrowSerializationOptions.CompressionCodec;
 import com.google.cloud.bigquery.storage.v1.BigQueryReadClient;
 import com.google.cloud.bigquery.storage.v1.CreateReadSessionRequest;
+import com.google.cloud.bigquery.storage.v1.DataFormat;
 import com.google.cloud.bigquery.storage.v1.ReadSession;
 import com.google.cloud.bigquery.storage.v1.ReadSession.TableReadOptions;
 import com.google.common.cache.Cache;
@@ -76,10 +78,50 @@ public class ReadSessionCreator {
    */
   public ReadSessionResponse create(
       TableId table, ImmutableList<String> selectedFields, Optional<String> filter) {
+    return create(bigQueryClient.getTable(table), selectedFields, filter);
+  }
+
+  /**
+   * Creates a new ReadSession for parallel reads, using table metadata that was already fetched by
+   * the caller, thus saving a call to the BigQuery API.
+   *
+   * @param tableDetails The metadata of the table to create the session for.
+   * @param selectedFields
+   * @param filter
+   * @return
+   */
+  public ReadSessionResponse create(
+      TableInfo tableDetails, ImmutableList<String> selectedFields, Optional<String> filter) {
+    return create(tableDetails, selectedFields, filter, /* readMetricsRecorded= */ false);
+  }
+
+  /**
+   * Creates a new ReadSession for parallel reads, using table metadata that was already fetched by
+   * the caller.
+   *
+   * @param tableDetails The metadata of the table to create the session for.
+   * @param selectedFields
+   * @param filter
+   * @param readMetricsRecorded Whether the caller records the metrics of the read with the {@link
+   *     ArrowCompressionAdvisor}. The Arrow compression codec is chosen adaptively only for such
+   *     reads, the other reads use the configured codec.
+   * @return
+   */
+  public ReadSessionResponse create(
+      TableInfo tableDetails,
+      ImmutableList<String> selectedFields,
+      Optional<String> filter,
+      boolean readMetricsRecorded) {
     Instant sessionPrepStartTime = Instant.now();
-    TableInfo tableDetails = bigQueryClient.getTable(table);
+    TableId table = tableDetails.getTableId();
 
-    TableInfo actualTable = getActualTable(tableDetails, selectedFields, filter);
+    PlanningTimeline timeline = new PlanningTimeline();
+    TableInfo actualTable =
+        isInputTableAView(tableDetails)
+            ? timeline.time(
+                PlanningTimeline.VIEW_MATERIALIZATION,
+                () -> getActualTable(tableDetails, selectedFields, filter))
+            : getActualTable(tableDetails, selectedFields, filter);
 
     BigQueryReadClient bigQueryReadClient = bigQueryReadClientFactory.getBigQueryReadClient();
 
@@ -105,10 +147,14 @@ public class ReadSessionCreator {
       filter.ifPresent(readOptions::setRowRestriction);
     }
     readOptions.addAllSelectedFields(selectedFields);
+    CompressionCodec arrowCompressionCodec =
+        readMetricsRecorded
+                && config.isAdaptiveArrowCompression()
+                && config.getReadDataFormat() == DataFormat.ARROW
+            ? ArrowCompressionAdvisor.getInstance().chooseCodec(table)
+            : config.getArrowCompressionCodec();
     readOptions.setArrowSerializationOptions(
-        ArrowSerializationOptions.newBuilder()
-            .setBufferCompression(config.getArrowCompressionCodec())
-            .build());
+        ArrowSerializationOptions.newBuilder().setBufferCompression(arrowCompressionCodec).build());
 
     int preferredMinStreamCount =
         config
@@ -161,9 +207,15 @@ public class ReadSessionCreator {
         && getReadSessionCache().asMap().containsKey(createReadSessionRequest)) {
       ReadSession readSession = getReadSessionCache().asMap().get(createReadSessionRequest);
       log.info("Reusing read session: {}, for table: {}", readSession.getName(), table);
-      return new ReadSessionResponse(readSession, actualTable);
+      return new ReadSessionResponse(readSession, actualTable, timeline, arrowCompressionCodec);
     }
     ReadSession readSession = bigQueryReadClient.createReadSession(createReadSessionRequest);
+    Instant readSessionCreatedTime = Instant.now();
+    timeline.record(
+        PlanningTimeline.READ_SESSION_CREATION, sessionPrepEndTime, readSessionCreatedTime);
+    BigQueryConnectorMetrics.recordLatency(
+        BigQueryConnectorMetrics.Latency.READ_SESSION_CREATION,
+        Duration.between(sessionPrepEndTime, readSessionCreatedTime).toNanos());
 
     if (readSession != null) {
       Instant sessionCreationEndTime = Instant.now();
@@ -197,7 +249,7 @@ public class ReadSessionCreator {
       }
     }
 
-    return new ReadSessionResponse(readSession, actualTable);
+    return new ReadSessionResponse(readSession, actualTable, timeline, arrowCompressionCodec);
   }
 
   static String toTablePath(TableId tableId) {
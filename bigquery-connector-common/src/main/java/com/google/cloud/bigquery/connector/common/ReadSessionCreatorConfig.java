@@ -35,10 +35,15 @@ public class ReadSessionCreatorConfig {
   private final Optional<String> bigQueryStorageGrpcEndpoint;
   private final Optional<String> bigQueryHttpEndpoint;
   private final int backgroundParsingThreads;
+  private final int decodeThreadsPerExecutor;
+  private final boolean preserveBatchOrder;
+  private final int targetBatchRows;
+  private final long targetBatchBytes;
   private final boolean pushAllFilters;
   private final int prebufferResponses;
   private final int streamsPerPartition;
   private final CompressionCodec arrowCompressionCodec;
+  private final boolean adaptiveArrowCompression;
   private final Optional<String> traceId;
   private final boolean enableReadSessionCaching;
 
@@ -57,10 +62,15 @@ public class ReadSessionCreatorConfig {
       Optional<String> bigQueryStorageGrpcEndpoint,
       Optional<String> bigQueryHttpEndpoint,
       int backgroundParsingThreads,
+      int decodeThreadsPerExecutor,
+      boolean preserveBatchOrder,
+      int targetBatchRows,
+      long targetBatchBytes,
       boolean pushAllFilters,
       int prebufferResponses,
       int streamsPerPartition,
       CompressionCodec arrowCompressionCodec,
+      boolean adaptiveArrowCompression,
       Optional<String> traceId,
       boolean enableReadSessionCaching) {
     this.viewsEnabled = viewsEnabled;
@@ -77,10 +87,15 @@ public class ReadSessionCreatorConfig {
     this.bigQueryStorageGrpcEndpoint = bigQueryStorageGrpcEndpoint;
     this.bigQueryHttpEndpoint = bigQueryHttpEndpoint;
     this.backgroundParsingThreads = backgroundParsingThreads;
+    this.decodeThreadsPerExecutor = decodeThreadsPerExecutor;
+    this.preserveBatchOrder = preserveBatchOrder;
+    this.targetBatchRows = targetBatchRows;
+    this.targetBatchBytes = targetBatchBytes;
     this.pushAllFilters = pushAllFilters;
     this.prebufferResponses = prebufferResponses;
     this.streamsPerPartition = streamsPerPartition;
     this.arrowCompressionCodec = arrowCompressionCodec;
+    this.adaptiveArrowCompression = adaptiveArrowCompression;
     this.traceId = traceId;
     this.enableReadSessionCaching = enableReadSessionCaching;
   }
@@ -113,6 +128,14 @@ public class ReadSessionCreatorConfig {
     return arrowCompressionCodec;
   }
 
+  /**
+   * Whether the Arrow compression codec of each read session is chosen by the {@link
+   * ArrowCompressionAdvisor}, instead of using {@link #getArrowCompressionCodec()}.
+   */
+  public boolean isAdaptiveArrowCompression() {
+    return adaptiveArrowCompression;
+  }
+
   public int getMaxReadRowsRetries() {
     return maxReadRowsRetries;
   }
@@ -141,6 +164,22 @@ public class ReadSessionCreatorConfig {
     return this.backgroundParsingThreads;
   }
 
+  public int decodeThreadsPerExecutor() {
+    return this.decodeThreadsPerExecutor;
+  }
+
+  public boolean preserveBatchOrder() {
+    return this.preserveBatchOrder;
+  }
+
+  public int targetBatchRows() {
+    return this.targetBatchRows;
+  }
+
+  public long targetBatchBytes() {
+    return this.targetBatchBytes;
+  }
+
   public boolean getPushAllFilters() {
     return this.pushAllFilters;
   }
@@ -150,7 +189,11 @@ public class ReadSessionCreatorConfig {
         getMaxReadRowsRetries(),
         getBigQueryStorageGrpcEndpoint(),
         backgroundParsingThreads(),
-        getPrebufferResponses());
+        getPrebufferResponses(),
+        decodeThreadsPerExecutor(),
+        preserveBatchOrder(),
+        targetBatchRows(),
+        targetBatchBytes());
   }
 
   public int streamsPerPartition() {
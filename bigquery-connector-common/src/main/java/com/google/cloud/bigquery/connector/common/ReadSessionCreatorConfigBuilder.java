@@ -37,10 +37,15 @@ public class ReadSessionCreatorConfigBuilder {
   private Optional<String> bigQueryStorageGrpcEndpoint = Optional.empty();
   private Optional<String> bigQueryHttpEndpoint = Optional.empty();
   private int backgroundParsingThreads = 0;
+  private int decodeThreadsPerExecutor = 0;
+  private boolean preserveBatchOrder = true;
+  private int targetBatchRows = 0;
+  private long targetBatchBytes = 0;
   private boolean pushAllFilters = true;
   int prebufferResponses = 1;
   int streamsPerPartition = 1;
   private CompressionCodec arrowCompressionCodec = CompressionCodec.COMPRESSION_UNSPECIFIED;
+  private boolean adaptiveArrowCompression = false;
   private Optional<String> traceId = Optional.empty();
   private boolean enableReadSessionCaching = false;
 
@@ -135,6 +140,30 @@ public class ReadSessionCreatorConfigBuilder {
     return this;
   }
 
+  @CanIgnoreReturnValue
+  public ReadSessionCreatorConfigBuilder setDecodeThreadsPerExecutor(int decodeThreadsPerExecutor) {
+    this.decodeThreadsPerExecutor = decodeThreadsPerExecutor;
+    return this;
+  }
+
+  @CanIgnoreReturnValue
+  public ReadSessionCreatorConfigBuilder setPreserveBatchOrder(boolean preserveBatchOrder) {
+    this.preserveBatchOrder = preserveBatchOrder;
+    return this;
+  }
+
+  @CanIgnoreReturnValue
+  public ReadSessionCreatorConfigBuilder setTargetBatchRows(int targetBatchRows) {
+    this.targetBatchRows = targetBatchRows;
+    return this;
+  }
+
+  @CanIgnoreReturnValue
+  public ReadSessionCreatorConfigBuilder setTargetBatchBytes(long targetBatchBytes) {
+    this.targetBatchBytes = targetBatchBytes;
+    return this;
+  }
+
   @CanIgnoreReturnValue
   public ReadSessionCreatorConfigBuilder setPushAllFilters(boolean pushAllFilters) {
     this.pushAllFilters = pushAllFilters;
@@ -160,6 +189,13 @@ public class ReadSessionCreatorConfigBuilder {
     return this;
   }
 
+  @CanIgnoreReturnValue
+  public ReadSessionCreatorConfigBuilder setAdaptiveArrowCompression(
+      boolean adaptiveArrowCompression) {
+    this.adaptiveArrowCompression = adaptiveArrowCompression;
+    return this;
+  }
+
   @CanIgnoreReturnValue
   public ReadSessionCreatorConfigBuilder setTraceId(Optional<String> traceId) {
     this.traceId = traceId;
@@ -188,10 +224,15 @@ public class ReadSessionCreatorConfigBuilder {
         bigQueryStorageGrpcEndpoint,
         bigQueryHttpEndpoint,
         backgroundParsingThreads,
+        decodeThreadsPerExecutor,
+        preserveBatchOrder,
+        targetBatchRows,
+        targetBatchBytes,
         pushAllFilters,
         prebufferResponses,
         streamsPerPartition,
         arrowCompressionCodec,
+        adaptiveArrowCompression,
         traceId,
         enableReadSessionCaching);
   }
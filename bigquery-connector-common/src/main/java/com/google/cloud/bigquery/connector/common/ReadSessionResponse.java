@@ -16,16 +16,34 @@
 package com.google.cloud.bigquery.connector.common;
 
 import com.google.cloud.bigquery.TableInfo;
+import com.google.cloud.bigquery.storage.v1.ArrowSerializationOptions.CompressionCodec;
 import com.google.cloud.bigquery.storage.v1.ReadSession;
 
 public class ReadSessionResponse {
 
   private final ReadSession readSession;
   private final TableInfo readTableInfo;
+  private final PlanningTimeline timeline;
+  private final CompressionCodec arrowCompressionCodec;
 
   public ReadSessionResponse(ReadSession readSession, TableInfo readTableInfo) {
+    this(readSession, readTableInfo, new PlanningTimeline());
+  }
+
+  public ReadSessionResponse(
+      ReadSession readSession, TableInfo readTableInfo, PlanningTimeline timeline) {
+    this(readSession, readTableInfo, timeline, CompressionCodec.COMPRESSION_UNSPECIFIED);
+  }
+
+  public ReadSessionResponse(
+      ReadSession readSession,
+      TableInfo readTableInfo,
+      PlanningTimeline timeline,
+      CompressionCodec arrowCompressionCodec) {
     this.readSession = readSession;
     this.readTableInfo = readTableInfo;
+    this.timeline = timeline;
+    this.arrowCompressionCodec = arrowCompressionCodec;
   }
 
   public ReadSession getReadSession() {
@@ -35,4 +53,14 @@ public class ReadSessionResponse {
   public TableInfo getReadTableInfo() {
     return readTableInfo;
   }
+
+  /** The time taken to materialize the view, if needed, and to create the read session. */
+  public PlanningTimeline getTimeline() {
+    return timeline;
+  }
+
+  /** The compression codec requested for the Arrow record batches of the session. */
+  public CompressionCodec getArrowCompressionCodec() {
+    return arrowCompressionCodec;
+  }
 }
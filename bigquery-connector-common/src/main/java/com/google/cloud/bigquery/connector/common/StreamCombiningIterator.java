@@ -40,6 +40,10 @@ import org.slf4j.LoggerFactory;
  * high latency between client and server this can processing costs. It also allows combining one or
  * more ReadRows calls into single iterator to potentially increase perceived client throughput if
  * that becomes a bottleneck for processing.
+ *
+ * <p>When the service throttles a stream, fewer responses are requested in advance from it, in
+ * proportion to the throttling, so that the buffer is filled by the other streams of the iterator
+ * instead.
  */
 public class StreamCombiningIterator implements Iterator<ReadRowsResponse> {
   private static final Logger log = LoggerFactory.getLogger(StreamCombiningIterator.class);
@@ -57,14 +61,23 @@ public class StreamCombiningIterator implements Iterator<ReadRowsResponse> {
   Object last;
   volatile boolean cancelled = false;
   private final Collection<Observer> observers;
+  private final ReadRowsMetrics metrics;
+  // The size of the responses in the queue, for the process wide metrics. Once the stream is
+  // completed the bytes are released, so that responses arriving or consumed afterwards are not
+  // accounted for.
+  private final Object bufferedBytesLock = new Object();
+  private long bufferedBytes = 0;
 
   StreamCombiningIterator(
       BigQueryReadClient client,
       Collection<ReadRowsRequest.Builder> requests,
       int bufferEntriesPerStream,
-      int numRetries) {
+      int numRetries,
+      ReadRowsMetrics metrics) {
     this.client = client;
+    this.metrics = metrics;
     observersLeft = new AtomicInteger(requests.size());
+    BigQueryConnectorMetrics.addActiveReadStreams(requests.size());
     this.bufferEntriesPerStream = bufferEntriesPerStream;
     Preconditions.checkArgument(
         this.bufferEntriesPerStream > 0,
@@ -119,6 +132,7 @@ public class StreamCombiningIterator implements Iterator<ReadRowsResponse> {
       observer.request();
       @SuppressWarnings("unchecked")
       ReadRowsResponse tmp = (ReadRowsResponse) last;
+      addBufferedBytes(-tmp.getSerializedSize());
       return tmp;
     } finally {
       if (last != EOS) {
@@ -165,10 +179,26 @@ public class StreamCombiningIterator implements Iterator<ReadRowsResponse> {
 
   public void cancel() {
     synchronized (lock) {
+      if (!cancelled) {
+        completeStream(/*addEos=*/ true);
+      }
+    }
+  }
+
+  private void addBufferedBytes(long delta) {
+    synchronized (bufferedBytesLock) {
       if (cancelled) {
         return;
       }
-      completeStream(/*addEos=*/ true);
+      bufferedBytes += delta;
+      BigQueryConnectorMetrics.addBufferedResponseBytes(delta);
+    }
+  }
+
+  private void releaseBufferedBytes() {
+    synchronized (bufferedBytesLock) {
+      BigQueryConnectorMetrics.addBufferedResponseBytes(-bufferedBytes);
+      bufferedBytes = 0;
     }
   }
 
@@ -189,7 +219,8 @@ public class StreamCombiningIterator implements Iterator<ReadRowsResponse> {
 
   private void completeStream(boolean addEos) {
     cancelled = true;
-    observersLeft.set(0);
+    BigQueryConnectorMetrics.addActiveReadStreams(-observersLeft.getAndSet(0));
+    releaseBufferedBytes();
     try {
       for (Observer observer : observers) {
         observer.cancel();
@@ -201,6 +232,14 @@ public class StreamCombiningIterator implements Iterator<ReadRowsResponse> {
     }
   }
 
+  /**
+   * The number of responses to request in advance from a stream, given how much the service
+   * throttles it. At least one response is always requested, so that the stream progresses.
+   */
+  static int prefetchDepth(int bufferEntriesPerStream, int throttlePercent) {
+    return Math.max(1, bufferEntriesPerStream * (100 - throttlePercent) / 100);
+  }
+
   private void newConnection(Observer observer, ReadRowsRequest.Builder request) {
     synchronized (lock) {
       if (!cancelled) {
@@ -214,6 +253,8 @@ public class StreamCombiningIterator implements Iterator<ReadRowsResponse> {
     private long readRowsCount = 0;
     /* Number of retries so far on this observer */
     private int retries = 0;
+    /* The throttling of the stream reported by the last response, between 0 and 100 */
+    private volatile int throttlePercent = 0;
     /**
      * All methods accessing controller must be synchronized using controllerLock. The states of
      * this object are: - Fresh object: null - Stream ready (receiving responses): not null -
@@ -235,11 +276,20 @@ public class StreamCombiningIterator implements Iterator<ReadRowsResponse> {
     @Override
     public void onResponse(ReadRowsResponse value) {
       readRowsCount += value.getRowCount();
+      throttlePercent = value.getThrottleState().getThrottlePercent();
+      if (throttlePercent > 0) {
+        metrics.addThrottledResponse();
+      }
+      if (value.hasStats()) {
+        metrics.updateStreamProgress(
+            builder.getReadStream(), value.getStats().getProgress().getAtResponseEnd());
+      }
       // Note we don't take a global lock here, so ordering of observers might be different then
       // responses.  This should be OK because it should balance out in the end (there should
       // never be more then bufferResponses enquered from any given observer at any time).
       // Ordering is important to ensure there is always an observer present for the given response.
       Preconditions.checkState(observersQueue.add(this));
+      addBufferedBytes(value.getSerializedSize());
       Preconditions.checkState(responses.add(value), "Expected capacity in responses");
     }
 
@@ -270,6 +320,8 @@ public class StreamCombiningIterator implements Iterator<ReadRowsResponse> {
         builder.setOffset(readRowsCount);
         newConnection(this, builder);
         retries++;
+        metrics.addRetry();
+        BigQueryConnectorMetrics.addReadRetry();
       } else {
         stopWithError(t);
       }
@@ -280,7 +332,11 @@ public class StreamCombiningIterator implements Iterator<ReadRowsResponse> {
       synchronized (controllerLock) {
         controller = null;
       }
-      int left = observersLeft.decrementAndGet();
+      metrics.updateStreamProgress(builder.getReadStream(), 1.0);
+      // the stream may have already been accounted for, if the iterator has been cancelled
+      if (observersLeft.getAndUpdate(left -> left > 0 ? left - 1 : left) > 0) {
+        BigQueryConnectorMetrics.addActiveReadStreams(-1);
+      }
       maybeFinished();
     }
 
@@ -291,17 +347,18 @@ public class StreamCombiningIterator implements Iterator<ReadRowsResponse> {
       }
       boolean canExit = false;
       int count = enqueuedCount.decrementAndGet();
+      int depth = prefetchDepth(bufferEntriesPerStream, throttlePercent);
 
       // Division by is somewhat arbitrary, a better solution would instument
       // timing and start refreshing just in time.
-      if (count > (bufferEntriesPerStream / 4)) {
+      if (count > (depth / 4)) {
         // Default netty/gRPC values can oversubscribe streams which can
         // cause thread contention.  By waiting for the buffer to run down
         // it causes natural thead back-pressure to allow application work
         // to succeed.
         return;
       }
-      int addBack = bufferEntriesPerStream - count;
+      int addBack = depth - count;
       Preconditions.checkState(addBack > 0);
       enqueuedCount.addAndGet(addBack);
 
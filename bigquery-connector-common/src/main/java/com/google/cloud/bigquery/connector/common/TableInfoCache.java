@@ -0,0 +1,156 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.TableInfo;
+import com.google.common.base.Objects;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A driver side cache of table metadata, keyed by the {@link TableId}.
+ *
+ * <p>An entry is returned as is while it is younger than the configured expiration time. Once it
+ * gets older, the table's etag and last modified time are fetched (a much cheaper call than
+ * fetching the full table metadata) and compared to the cached ones. If they match the entry is
+ * revalidated, otherwise the full metadata is fetched again. Tables that do not exist are not
+ * cached.
+ */
+public class TableInfoCache {
+
+  private static final Logger log = LoggerFactory.getLogger(TableInfoCache.class);
+  static final int MAX_SIZE = 1000;
+
+  private final long expirationTimeInNanos;
+  private final Ticker ticker;
+  private final Cache<TableId, Entry> cache;
+
+  public TableInfoCache(int expirationTimeInSeconds) {
+    this(expirationTimeInSeconds, Ticker.systemTicker());
+  }
+
+  // visible for testing
+  TableInfoCache(int expirationTimeInSeconds, Ticker ticker) {
+    this.expirationTimeInNanos = TimeUnit.SECONDS.toNanos(expirationTimeInSeconds);
+    this.ticker = ticker;
+    this.cache = CacheBuilder.newBuilder().maximumSize(MAX_SIZE).build();
+  }
+
+  public static TableInfoCache disabled() {
+    return new TableInfoCache(0);
+  }
+
+  public boolean isEnabled() {
+    return expirationTimeInNanos > 0;
+  }
+
+  /**
+   * Returns the metadata of the given table, either from the cache or using the given loaders.
+   *
+   * @param tableId The table to get
+   * @param tableLoader Fetches the full table metadata, returns null if the table does not exist
+   * @param versionLoader Fetches only the etag and last modified time of the table, returns null if
+   *     the table does not exist
+   * @return The table metadata, or null if the table does not exist
+   */
+  public TableInfo get(
+      TableId tableId,
+      Function<TableId, TableInfo> tableLoader,
+      Function<TableId, TableInfo> versionLoader) {
+    if (!isEnabled()) {
+      return tableLoader.apply(tableId);
+    }
+    long now = ticker.read();
+    Entry entry = cache.getIfPresent(tableId);
+    if (entry != null) {
+      if (now - entry.validationTime < expirationTimeInNanos) {
+        return entry.table;
+      }
+      TableInfo version = versionLoader.apply(tableId);
+      if (version == null) {
+        cache.invalidate(tableId);
+        return null;
+      }
+      if (isSameVersion(entry.table, version)) {
+        log.debug("Revalidated the cached metadata of table {}", tableId);
+        cache.put(tableId, new Entry(entry.table, now));
+        return entry.table;
+      }
+    }
+    TableInfo table = tableLoader.apply(tableId);
+    if (table == null) {
+      cache.invalidate(tableId);
+    } else {
+      cache.put(tableId, new Entry(table, now));
+    }
+    return table;
+  }
+
+  /** Stores metadata we already have, usually the result of a create or update operation. */
+  public void put(TableId tableId, TableInfo table) {
+    if (isEnabled() && table != null) {
+      cache.put(tableId, new Entry(table, ticker.read()));
+    }
+  }
+
+  /**
+   * Removes the table from the cache. If the table id contains a partition decorator, the entry of
+   * the table itself is removed as well.
+   */
+  public void invalidate(TableId tableId) {
+    cache.invalidate(tableId);
+    String table = tableId.getTable();
+    int partitionIndex = table.indexOf('$');
+    if (partitionIndex > 0) {
+      String tableWithoutPartition = table.substring(0, partitionIndex);
+      cache.invalidate(
+          tableId.getProject() == null
+              ? TableId.of(tableId.getDataset(), tableWithoutPartition)
+              : TableId.of(tableId.getProject(), tableId.getDataset(), tableWithoutPartition));
+    }
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  // visible for testing
+  long size() {
+    return cache.size();
+  }
+
+  static boolean isSameVersion(TableInfo cached, TableInfo version) {
+    return cached.getEtag() != null
+        && Objects.equal(cached.getEtag(), version.getEtag())
+        && Objects.equal(cached.getLastModifiedTime(), version.getLastModifiedTime());
+  }
+
+  private static class Entry {
+    final TableInfo table;
+    final long validationTime;
+
+    Entry(TableInfo table, long validationTime) {
+      this.table = table;
+      this.validationTime = validationTime;
+    }
+  }
+}
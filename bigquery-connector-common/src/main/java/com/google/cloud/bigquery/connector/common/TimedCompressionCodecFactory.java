@@ -0,0 +1,77 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.compression.CompressionCodec;
+import org.apache.arrow.vector.compression.CompressionUtil;
+
+/**
+ * Wraps an Arrow compression codec factory, so that the time spent decompressing the record batches
+ * is recorded in the given {@link ReadRowsMetrics}. The {@link ArrowCompressionAdvisor} uses this
+ * time as the CPU cost of the codec.
+ */
+public class TimedCompressionCodecFactory implements CompressionCodec.Factory {
+
+  private final CompressionCodec.Factory delegate;
+  private final ReadRowsMetrics metrics;
+
+  public TimedCompressionCodecFactory(CompressionCodec.Factory delegate, ReadRowsMetrics metrics) {
+    this.delegate = delegate;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public CompressionCodec createCodec(CompressionUtil.CodecType codecType) {
+    CompressionCodec codec = delegate.createCodec(codecType);
+    if (codecType == CompressionUtil.CodecType.NO_COMPRESSION) {
+      return codec;
+    }
+    return new TimedCompressionCodec(codec, metrics);
+  }
+
+  static class TimedCompressionCodec implements CompressionCodec {
+
+    private final CompressionCodec delegate;
+    private final ReadRowsMetrics metrics;
+
+    TimedCompressionCodec(CompressionCodec delegate, ReadRowsMetrics metrics) {
+      this.delegate = delegate;
+      this.metrics = metrics;
+    }
+
+    @Override
+    public ArrowBuf compress(BufferAllocator allocator, ArrowBuf uncompressedBuffer) {
+      return delegate.compress(allocator, uncompressedBuffer);
+    }
+
+    @Override
+    public ArrowBuf decompress(BufferAllocator allocator, ArrowBuf compressedBuffer) {
+      long start = System.nanoTime();
+      try {
+        return delegate.decompress(allocator, compressedBuffer);
+      } finally {
+        metrics.addDecompressionTimeNanos(System.nanoTime() - start);
+      }
+    }
+
+    @Override
+    public CompressionUtil.CodecType getCodecType() {
+      return delegate.getCodecType();
+    }
+  }
+}
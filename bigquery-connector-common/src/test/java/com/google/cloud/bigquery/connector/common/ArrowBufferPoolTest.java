@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.junit.After;
+import org.junit.Test;
+
+public class ArrowBufferPoolTest {
+
+  private static final long MB = 1024 * 1024;
+
+  ArrowBufferPool pool = new ArrowBufferPool(Long.MAX_VALUE, 4 * MB);
+
+  @After
+  public void closePool() {
+    pool.close();
+  }
+
+  @Test
+  public void testSizeClasses() {
+    assertThat(capacityOf(PooledAllocationManager.MIN_POOLED_SIZE))
+        .isEqualTo(PooledAllocationManager.MIN_POOLED_SIZE);
+    assertThat(capacityOf(MB)).isEqualTo(MB);
+    assertThat(capacityOf(MB + 1)).isEqualTo(MB + MB / 4);
+    assertThat(capacityOf(MB + MB / 4)).isEqualTo(MB + MB / 4);
+    assertThat(capacityOf(2 * MB - 1)).isEqualTo(2 * MB);
+    assertThat(capacityOf(3 * MB)).isEqualTo(3 * MB);
+    assertThat(capacityOf(Long.MAX_VALUE / 2)).isAtLeast(Long.MAX_VALUE / 2);
+  }
+
+  @Test
+  public void testBuffersAreReusedAcrossTasks() {
+    for (int task = 0; task < 3; task++) {
+      BufferAllocator allocator = pool.newTaskAllocator("task-" + task, Long.MAX_VALUE);
+      ArrowBuf first = allocator.buffer(MB);
+      ArrowBuf second = allocator.buffer(MB);
+      first.setLong(0, task);
+      first.close();
+      second.close();
+      ArrowBufferPool.closeTaskAllocator(allocator);
+    }
+
+    assertThat(pool.getNewAllocations()).isEqualTo(2);
+    assertThat(pool.getReusedAllocations()).isEqualTo(4);
+    assertThat(pool.getPooledBytes()).isEqualTo(2 * MB);
+  }
+
+  @Test
+  public void testSmallBuffersAreNotPooled() {
+    BufferAllocator allocator = pool.newTaskAllocator("task", Long.MAX_VALUE);
+    allocator.buffer(1024).close();
+    ArrowBufferPool.closeTaskAllocator(allocator);
+
+    assertThat(pool.getNewAllocations()).isEqualTo(0);
+    assertThat(pool.getPooledBytes()).isEqualTo(0);
+  }
+
+  @Test
+  public void testRetainedMemoryIsLimited() {
+    BufferAllocator allocator = pool.newTaskAllocator("task", Long.MAX_VALUE);
+    ArrowBuf first = allocator.buffer(3 * MB);
+    ArrowBuf second = allocator.buffer(3 * MB);
+    first.close();
+    second.close();
+    ArrowBufferPool.closeTaskAllocator(allocator);
+
+    // the allocator rounds the requests up to 4MB, only one of the buffers is retained
+    assertThat(pool.getPooledBytes()).isEqualTo(4 * MB);
+  }
+
+  @Test
+  public void testLeaksAreReported() {
+    long leakedBefore = BigQueryConnectorMetrics.getArrowLeakedBytes();
+    // the leaked memory can not be released, so the shared pool can not be closed either
+    ArrowBufferPool leakingPool = new ArrowBufferPool(Long.MAX_VALUE, 4 * MB);
+    BufferAllocator allocator = leakingPool.newTaskAllocator("task", Long.MAX_VALUE);
+    allocator.buffer(MB);
+
+    assertThrows(IllegalStateException.class, () -> ArrowBufferPool.closeTaskAllocator(allocator));
+    assertThat(BigQueryConnectorMetrics.getArrowLeakedBytes() - leakedBefore).isEqualTo(MB);
+  }
+
+  private static long capacityOf(long size) {
+    return PooledAllocationManager.capacity(PooledAllocationManager.sizeClass(size));
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.storage.v1.ArrowSerializationOptions.CompressionCodec;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import org.junit.Test;
+
+public class ArrowCompressionAdvisorTest {
+
+  private static final TableId TABLE = TableId.of("project", "dataset", "table");
+  private static final TableId OTHER_TABLE = TableId.of("project", "dataset", "other");
+
+  ArrowCompressionAdvisor advisor = new ArrowCompressionAdvisor();
+
+  @Test
+  public void testEachCodecIsTriedFirst() {
+    assertThat(advisor.getLastDecision(TABLE)).isEqualTo(Optional.empty());
+
+    assertThat(advisor.chooseCodec(TABLE)).isEqualTo(CompressionCodec.COMPRESSION_UNSPECIFIED);
+    assertThat(advisor.chooseCodec(TABLE)).isEqualTo(CompressionCodec.LZ4_FRAME);
+    assertThat(advisor.chooseCodec(TABLE)).isEqualTo(CompressionCodec.ZSTD);
+    assertThat(advisor.getLastDecision(TABLE)).isEqualTo(Optional.of(CompressionCodec.ZSTD));
+    // the decisions are per table
+    assertThat(advisor.chooseCodec(OTHER_TABLE))
+        .isEqualTo(CompressionCodec.COMPRESSION_UNSPECIFIED);
+  }
+
+  @Test
+  public void testCheapestCodecIsChosen() {
+    exploreAllCodecs(1000, 400, 600);
+
+    assertThat(advisor.estimateCost(TABLE, CompressionCodec.LZ4_FRAME))
+        .isEqualTo(OptionalDouble.of(0.4));
+    assertThat(advisor.chooseCodec(TABLE)).isEqualTo(CompressionCodec.LZ4_FRAME);
+    assertThat(advisor.getLastDecision(TABLE)).isEqualTo(Optional.of(CompressionCodec.LZ4_FRAME));
+  }
+
+  @Test
+  public void testMetricsAreReadWhenChoosing() {
+    ReadRowsMetrics zstd = exploreAllCodecs(1000, 400, 600);
+    // the ZSTD read completes after the other reads, and turns out to be the cheapest
+    zstd.addDecompressedBytes(2000);
+
+    assertThat(advisor.chooseCodec(TABLE)).isEqualTo(CompressionCodec.ZSTD);
+  }
+
+  @Test
+  public void testCodecsWithoutMetricsAreIgnored() {
+    for (int i = 0; i < ArrowCompressionAdvisor.CODECS.size(); i++) {
+      advisor.chooseCodec(TABLE);
+    }
+    advisor.recordRead(TABLE, CompressionCodec.LZ4_FRAME, () -> metrics(500));
+    advisor.recordRead(TABLE, CompressionCodec.ZSTD, ReadRowsMetrics::new);
+
+    assertThat(advisor.estimateCost(TABLE, CompressionCodec.ZSTD))
+        .isEqualTo(OptionalDouble.empty());
+    assertThat(advisor.chooseCodec(TABLE)).isEqualTo(CompressionCodec.LZ4_FRAME);
+  }
+
+  @Test
+  public void testLastDecisionIsKeptWithoutMetrics() {
+    for (int i = 0; i < ArrowCompressionAdvisor.CODECS.size(); i++) {
+      advisor.chooseCodec(TABLE);
+    }
+
+    assertThat(advisor.chooseCodec(TABLE)).isEqualTo(CompressionCodec.ZSTD);
+  }
+
+  @Test
+  public void testLeastRecentlyUsedCodecIsExploredPeriodically() {
+    exploreAllCodecs(1000, 400, 600);
+    for (int session = 4; session < ArrowCompressionAdvisor.EXPLORATION_INTERVAL; session++) {
+      assertThat(advisor.chooseCodec(TABLE)).isEqualTo(CompressionCodec.LZ4_FRAME);
+    }
+
+    assertThat(advisor.chooseCodec(TABLE)).isEqualTo(CompressionCodec.COMPRESSION_UNSPECIFIED);
+    assertThat(advisor.chooseCodec(TABLE)).isEqualTo(CompressionCodec.LZ4_FRAME);
+  }
+
+  @Test
+  public void testOnlyRecentReadsAreConsidered() {
+    exploreAllCodecs(1000, 400, 600);
+    for (int i = 0; i < ArrowCompressionAdvisor.READS_PER_CODEC; i++) {
+      advisor.recordRead(TABLE, CompressionCodec.LZ4_FRAME, () -> metrics(2000));
+    }
+
+    assertThat(advisor.estimateCost(TABLE, CompressionCodec.LZ4_FRAME))
+        .isEqualTo(OptionalDouble.of(2.0));
+    assertThat(advisor.chooseCodec(TABLE)).isEqualTo(CompressionCodec.ZSTD);
+  }
+
+  /**
+   * Tries each codec once, with reads of 1000 decompressed bytes taking the given nanoseconds.
+   * Returns the metrics of the ZSTD read.
+   */
+  private ReadRowsMetrics exploreAllCodecs(long uncompressedNanos, long lz4Nanos, long zstdNanos) {
+    ReadRowsMetrics zstd = metrics(zstdNanos);
+    advisor.recordRead(TABLE, advisor.chooseCodec(TABLE), () -> metrics(uncompressedNanos));
+    advisor.recordRead(TABLE, advisor.chooseCodec(TABLE), () -> metrics(lz4Nanos));
+    advisor.recordRead(TABLE, advisor.chooseCodec(TABLE), () -> zstd);
+    return zstd;
+  }
+
+  private static ReadRowsMetrics metrics(long nanos) {
+    ReadRowsMetrics metrics = new ReadRowsMetrics();
+    metrics.addServiceTimeNanos(nanos / 2);
+    metrics.addDecompressionTimeNanos(nanos - nanos / 2);
+    metrics.addDecompressedBytes(1000);
+    return metrics;
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Test;
+
+public class ArrowDecodePoolTest {
+
+  ArrowDecodePool pool = new ArrowDecodePool(2);
+  CountDownLatch release = new CountDownLatch(1);
+
+  @After
+  public void tearDown() {
+    release.countDown();
+    pool.shutdown();
+  }
+
+  @Test
+  public void testTasksBeyondTheFairShareRunOnTheCaller() throws Exception {
+    ExecutorService first = pool.newTaskExecutor(2);
+    ExecutorService second = pool.newTaskExecutor(2);
+    CountDownLatch started = new CountDownLatch(1);
+    first.execute(() -> block(started));
+    started.await(1, TimeUnit.SECONDS);
+
+    // each executor gets one of the two threads
+    AtomicReference<Thread> runner = new AtomicReference<>();
+    first.execute(() -> runner.set(Thread.currentThread()));
+    assertThat(runner.get()).isSameInstanceAs(Thread.currentThread());
+
+    CountDownLatch secondStarted = new CountDownLatch(1);
+    second.execute(() -> block(secondStarted));
+    assertThat(secondStarted.await(1, TimeUnit.SECONDS)).isTrue();
+    assertThat(pool.getActiveThreads()).isEqualTo(2);
+  }
+
+  @Test
+  public void testShareGrowsWhenOtherExecutorsShutDown() throws Exception {
+    ExecutorService first = pool.newTaskExecutor(2);
+    ExecutorService second = pool.newTaskExecutor(2);
+    second.shutdown();
+    assertThat(pool.getActiveTaskExecutors()).isEqualTo(1);
+
+    CountDownLatch started = new CountDownLatch(2);
+    first.execute(() -> block(started));
+    first.execute(() -> block(started));
+    assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  public void testShutdownNowInterruptsOnlyItsTasks() throws Exception {
+    ExecutorService executor = pool.newTaskExecutor(1);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch interrupted = new CountDownLatch(1);
+    executor.execute(
+        () -> {
+          started.countDown();
+          try {
+            Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+          } catch (InterruptedException e) {
+            interrupted.countDown();
+          }
+        });
+    assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+    executor.shutdownNow();
+
+    assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+    assertThat(executor.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+    assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {}));
+
+    // the shared pool is still usable, and its threads are not interrupted
+    ExecutorService other = pool.newTaskExecutor(1);
+    AtomicReference<Boolean> otherInterrupted = new AtomicReference<>();
+    CountDownLatch done = new CountDownLatch(1);
+    other.execute(
+        () -> {
+          otherInterrupted.set(Thread.currentThread().isInterrupted());
+          done.countDown();
+        });
+    assertThat(done.await(1, TimeUnit.SECONDS)).isTrue();
+    assertThat(otherInterrupted.get()).isFalse();
+  }
+
+  private void block(CountDownLatch started) {
+    started.countDown();
+    try {
+      release.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -555,6 +555,21 @@ public class BigQueryClientFactoryTest {
       return 0;
     }
 
+    @Override
+    public int getTableMetadataCacheExpirationTimeInSeconds() {
+      return 0;
+    }
+
+    @Override
+    public boolean isPersistentMaterializationCachingEnabled() {
+      return false;
+    }
+
+    @Override
+    public int getMaxConcurrentJobs() {
+      return 10;
+    }
+
     @Override
     public ImmutableMap<String, String> getBigQueryJobLabels() {
       return ImmutableMap.<String, String>of();
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQueryException;
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobInfo;
+import com.google.cloud.bigquery.JobStatistics;
+import com.google.cloud.bigquery.JobStatus;
+import com.google.cloud.bigquery.QueryJobConfiguration;
+import com.google.cloud.bigquery.Table;
+import com.google.cloud.bigquery.TableDefinition;
+import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.TableInfo;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class BigQueryClientTest {
+
+  private static final String QUERY = "SELECT * FROM `project.dataset.source` WHERE x > 1";
+  private static final TableId SOURCE_TABLE = TableId.of("project", "dataset", "source");
+
+  BigQuery bigQuery = mock(BigQuery.class);
+
+  @Test
+  public void testDeterministicTableNameIsStable() {
+    String name =
+        BigQueryClient.createDeterministicTableName(
+            QUERY, ImmutableMap.of("p.d.t1", 1L, "p.d.t2", 2L));
+
+    assertThat(name).startsWith("_bqc_cached_");
+    assertThat(
+            BigQueryClient.createDeterministicTableName(
+                QUERY, ImmutableMap.of("p.d.t2", 2L, "p.d.t1", 1L)))
+        .isEqualTo(name);
+  }
+
+  @Test
+  public void testDeterministicTableNameChangesWithQueryAndData() {
+    String name = BigQueryClient.createDeterministicTableName(QUERY, ImmutableMap.of("p.d.t", 1L));
+
+    assertThat(BigQueryClient.createDeterministicTableName(QUERY, ImmutableMap.of("p.d.t", 2L)))
+        .isNotEqualTo(name);
+    assertThat(
+            BigQueryClient.createDeterministicTableName(
+                QUERY + " AND y > 2", ImmutableMap.of("p.d.t", 1L)))
+        .isNotEqualTo(name);
+  }
+
+  @Test
+  public void testRandomDestinationTableWhenCachingIsDisabled() {
+    BigQueryClient bigQueryClient = createClient(false);
+
+    BigQueryClient.DestinationTable destinationTable =
+        bigQueryClient.createDestinationTable(QUERY, Optional.empty(), Optional.empty());
+
+    assertThat(destinationTable.reusable).isFalse();
+    verify(bigQuery, never()).create(any(JobInfo.class));
+  }
+
+  @Test
+  public void testExternalTablesAreNotCached() {
+    mockDryRun(TableDefinition.Type.EXTERNAL, 1L);
+    BigQueryClient bigQueryClient = createClient(true);
+
+    BigQueryClient.DestinationTable destinationTable =
+        bigQueryClient.createDestinationTable(QUERY, Optional.empty(), Optional.empty());
+
+    assertThat(destinationTable.reusable).isFalse();
+  }
+
+  @Test
+  public void testExistingMaterializationIsReused() {
+    mockDryRun(TableDefinition.Type.TABLE, 1L);
+    BigQueryClient bigQueryClient = createClient(true);
+    BigQueryClient.DestinationTable destinationTable =
+        bigQueryClient.createDestinationTable(QUERY, Optional.empty(), Optional.empty());
+    assertThat(destinationTable.reusable).isTrue();
+    assertThat(destinationTable.tableId)
+        .isEqualTo(
+            TableId.of(
+                "p",
+                "d",
+                BigQueryClient.createDeterministicTableName(
+                    QUERY, ImmutableMap.of("project.dataset.source", 1L))));
+
+    Table existingTable = mock(Table.class);
+    when(existingTable.getExpirationTime())
+        .thenReturn(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+    when(bigQuery.getTable(destinationTable.tableId)).thenReturn(existingTable);
+
+    TableInfo materializedTable = bigQueryClient.materializeQueryToTable(QUERY, 60);
+
+    assertThat(materializedTable).isSameInstanceAs(existingTable);
+    // no query job has been run, only dry runs
+    ArgumentCaptor<JobInfo> jobs = ArgumentCaptor.forClass(JobInfo.class);
+    verify(bigQuery, times(2)).create(jobs.capture());
+    for (JobInfo job : jobs.getAllValues()) {
+      assertThat(((QueryJobConfiguration) job.getConfiguration()).dryRun()).isTrue();
+    }
+  }
+
+  @Test
+  public void testCachedMaterializationIsReusedWithoutDryRun() {
+    mockDryRun(TableDefinition.Type.TABLE, 1L);
+    BigQueryClient bigQueryClient = createClient(true);
+    Table existingTable = mock(Table.class);
+    when(existingTable.getExpirationTime())
+        .thenReturn(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+    when(bigQuery.getTable(
+            TableId.of(
+                "p",
+                "d",
+                BigQueryClient.createDeterministicTableName(
+                    QUERY, ImmutableMap.of("project.dataset.source", 1L)))))
+        .thenReturn(existingTable);
+
+    TableInfo materializedTable = bigQueryClient.materializeQueryToTable(QUERY, 60);
+    TableInfo secondMaterializedTable =
+        bigQueryClient.materializeViewToTable(QUERY, SOURCE_TABLE, 60);
+
+    assertThat(secondMaterializedTable).isSameInstanceAs(materializedTable);
+    // only the first materialization needs the dry run naming the table
+    verify(bigQuery, times(1)).create(any(JobInfo.class));
+  }
+
+  @Test
+  public void testExpiredMaterializationIsRewrittenWithNewExpiration() {
+    mockDryRun(TableDefinition.Type.TABLE, 1L);
+    JobStatus status = mock(JobStatus.class);
+    when(status.getState()).thenReturn(JobStatus.State.DONE);
+    Job queryJob = mock(Job.class);
+    when(queryJob.getStatus()).thenReturn(status);
+    when(bigQuery.create(argThat((JobInfo job) -> !isDryRun(job)))).thenReturn(queryJob);
+    BigQueryClient bigQueryClient = createClient(true);
+    TableId destinationTableId =
+        bigQueryClient.createDestinationTable(QUERY, Optional.empty(), Optional.empty()).tableId;
+    // the table has been created a week ago, has expired but has not been deleted yet
+    long creationTime = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(7);
+    Table expiredTable = mock(Table.class);
+    when(expiredTable.getExpirationTime()).thenReturn(creationTime + 1);
+    Table truncatedTable = mock(Table.class);
+    Table.Builder truncatedTableBuilder = mock(Table.Builder.class);
+    when(truncatedTable.getCreationTime()).thenReturn(creationTime);
+    when(truncatedTable.toBuilder()).thenReturn(truncatedTableBuilder);
+    when(truncatedTableBuilder.setExpirationTime(any(Long.class)))
+        .thenReturn(truncatedTableBuilder);
+    when(truncatedTableBuilder.build()).thenReturn(truncatedTable);
+    when(truncatedTable.getTableId()).thenReturn(destinationTableId);
+    when(bigQuery.update(truncatedTable)).thenReturn(truncatedTable);
+    when(bigQuery.getTable(destinationTableId)).thenReturn(expiredTable, truncatedTable);
+
+    long start = System.currentTimeMillis();
+    bigQueryClient.materializeQueryToTable(QUERY, 60);
+
+    ArgumentCaptor<JobInfo> jobs = ArgumentCaptor.forClass(JobInfo.class);
+    verify(bigQuery, times(3)).create(jobs.capture());
+    QueryJobConfiguration query = jobs.getValue().getConfiguration();
+    assertThat(query.dryRun()).isNotEqualTo(Boolean.TRUE);
+    assertThat(query.getWriteDisposition()).isEqualTo(JobInfo.WriteDisposition.WRITE_TRUNCATE);
+    ArgumentCaptor<Long> expirationTime = ArgumentCaptor.forClass(Long.class);
+    verify(truncatedTableBuilder).setExpirationTime(expirationTime.capture());
+    assertThat(expirationTime.getValue()).isAtLeast(start + TimeUnit.MINUTES.toMillis(60));
+  }
+
+  @Test
+  public void testTableSizeEstimateIsCached() {
+    mockDryRunBytesProcessed(1000L);
+    BigQueryClient bigQueryClient = createClient(false);
+
+    assertThat(
+            bigQueryClient.estimateTableSize(
+                SOURCE_TABLE, ImmutableList.of("x"), new String[] {"x > 1"}))
+        .isEqualTo(OptionalLong.of(1000L));
+    assertThat(
+            bigQueryClient.estimateTableSize(
+                SOURCE_TABLE, ImmutableList.of("x"), new String[] {"x > 1"}))
+        .isEqualTo(OptionalLong.of(1000L));
+
+    ArgumentCaptor<JobInfo> jobs = ArgumentCaptor.forClass(JobInfo.class);
+    verify(bigQuery, times(1)).create(jobs.capture());
+    QueryJobConfiguration dryRun = jobs.getValue().getConfiguration();
+    assertThat(dryRun.dryRun()).isTrue();
+    assertThat(dryRun.getQuery())
+        .isEqualTo("SELECT `x` FROM `project.dataset.source` WHERE (x > 1)");
+  }
+
+  @Test
+  public void testTableSizeIsUnknownWhenNoBytesAreProcessed() {
+    mockDryRunBytesProcessed(0L);
+    BigQueryClient bigQueryClient = createClient(false);
+
+    assertThat(bigQueryClient.estimateTableSize(SOURCE_TABLE, ImmutableList.of(), new String[0]))
+        .isEqualTo(OptionalLong.empty());
+    assertThat(bigQueryClient.estimateTableSize(SOURCE_TABLE, ImmutableList.of(), new String[0]))
+        .isEqualTo(OptionalLong.empty());
+    // the unknown size is cached too
+    verify(bigQuery, times(1)).create(any(JobInfo.class));
+  }
+
+  @Test
+  public void testTableSizeIsUnknownWhenDryRunFails() {
+    when(bigQuery.create(any(JobInfo.class))).thenThrow(new BigQueryException(400, "error"));
+    BigQueryClient bigQueryClient = createClient(false);
+
+    assertThat(bigQueryClient.estimateTableSize(SOURCE_TABLE, ImmutableList.of(), new String[0]))
+        .isEqualTo(OptionalLong.empty());
+    assertThat(bigQueryClient.estimateTableSize(SOURCE_TABLE, ImmutableList.of(), new String[0]))
+        .isEqualTo(OptionalLong.empty());
+    verify(bigQuery, times(1)).create(any(JobInfo.class));
+  }
+
+  private static boolean isDryRun(JobInfo job) {
+    return job != null
+        && Boolean.TRUE.equals(((QueryJobConfiguration) job.getConfiguration()).dryRun());
+  }
+
+  private void mockDryRunBytesProcessed(Long bytesProcessed) {
+    JobStatistics.QueryStatistics statistics = mock(JobStatistics.QueryStatistics.class);
+    when(statistics.getTotalBytesProcessed()).thenReturn(bytesProcessed);
+    Job dryRunJob = mock(Job.class);
+    when(dryRunJob.getStatistics()).thenReturn(statistics);
+    when(bigQuery.create(any(JobInfo.class))).thenReturn(dryRunJob);
+  }
+
+  private void mockDryRun(TableDefinition.Type sourceTableType, long lastModifiedTime) {
+    JobStatistics.QueryStatistics statistics = mock(JobStatistics.QueryStatistics.class);
+    when(statistics.getReferencedTables()).thenReturn(ImmutableList.of(SOURCE_TABLE));
+    Job dryRunJob = mock(Job.class);
+    when(dryRunJob.getStatistics()).thenReturn(statistics);
+    when(bigQuery.create(any(JobInfo.class))).thenReturn(dryRunJob);
+
+    TableDefinition definition = mock(TableDefinition.class);
+    when(definition.getType()).thenReturn(sourceTableType);
+    Table sourceTable = mock(Table.class);
+    when(sourceTable.getTableId()).thenReturn(SOURCE_TABLE);
+    when(sourceTable.getLastModifiedTime()).thenReturn(lastModifiedTime);
+    when(sourceTable.getDefinition()).thenReturn(definition);
+    when(bigQuery.getTable(SOURCE_TABLE)).thenReturn(sourceTable);
+  }
+
+  private BigQueryClient createClient(boolean persistentMaterializationCachingEnabled) {
+    return new BigQueryClient(
+        bigQuery,
+        Optional.of("p"),
+        Optional.of("d"),
+        CacheBuilder.newBuilder().build(),
+        CacheBuilder.newBuilder().build(),
+        TableInfoCache.disabled(),
+        new BigQueryJobExecutor(1),
+        persistentMaterializationCachingEnabled,
+        ImmutableMap.of(),
+        QueryJobConfiguration.Priority.INTERACTIVE);
+  }
+}
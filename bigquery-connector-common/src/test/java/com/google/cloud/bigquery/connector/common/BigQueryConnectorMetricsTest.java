@@ -0,0 +1,50 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.cloud.bigquery.connector.common.BigQueryConnectorMetrics.Latency;
+import java.time.Duration;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.RootAllocator;
+import org.junit.Test;
+
+public class BigQueryConnectorMetricsTest {
+
+  @Test
+  public void testArrowAllocationsAreTracked() {
+    try (RootAllocator allocator = ArrowUtil.newRootAllocator(Integer.MAX_VALUE)) {
+      long before = BigQueryConnectorMetrics.getArrowAllocatedBytes();
+      ArrowBuf buffer = allocator.buffer(1024);
+      assertThat(BigQueryConnectorMetrics.getArrowAllocatedBytes()).isAtLeast(before + 1024);
+      buffer.close();
+      assertThat(BigQueryConnectorMetrics.getArrowAllocatedBytes()).isEqualTo(before);
+    }
+  }
+
+  @Test
+  public void testLatencies() {
+    long count = BigQueryConnectorMetrics.getLatencyCount(Latency.READ_SESSION_CREATION);
+    BigQueryConnectorMetrics.recordLatency(
+        Latency.READ_SESSION_CREATION, Duration.ofSeconds(3).toNanos());
+
+    assertThat(BigQueryConnectorMetrics.getLatencyCount(Latency.READ_SESSION_CREATION))
+        .isEqualTo(count + 1);
+    assertThat(BigQueryConnectorMetrics.getMaxLatency(Latency.READ_SESSION_CREATION))
+        .isAtLeast(Duration.ofSeconds(3));
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQueryException;
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobId;
+import com.google.cloud.bigquery.JobInfo;
+import com.google.cloud.bigquery.JobStatus;
+import com.google.cloud.bigquery.QueryJobConfiguration;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import org.junit.Test;
+
+public class BigQueryJobExecutorTest {
+
+  private static final JobInfo JOB_INFO = JobInfo.of(QueryJobConfiguration.of("SELECT 1"));
+
+  BigQuery bigQuery = mock(BigQuery.class);
+  BigQueryJobExecutor executor =
+      new BigQueryJobExecutor(1, Duration.ofMillis(1), Duration.ofMillis(10));
+
+  @Test
+  public void testJobIsPolledUntilDone() {
+    Job running = job("job1", JobStatus.State.RUNNING);
+    Job done = job("job1", JobStatus.State.DONE);
+    when(bigQuery.create(JOB_INFO)).thenReturn(running);
+    when(bigQuery.getJob(JobId.of("job1"))).thenReturn(running, running, done);
+
+    Job result = BigQueryJobExecutor.await(executor.submit(bigQuery, JOB_INFO));
+
+    assertThat(result).isSameInstanceAs(done);
+    verify(bigQuery, times(3)).getJob(JobId.of("job1"));
+  }
+
+  @Test
+  public void testJobDoneOnCreationIsNotPolled() {
+    Job done = job("job1", JobStatus.State.DONE);
+    when(bigQuery.create(JOB_INFO)).thenReturn(done);
+
+    Job result = BigQueryJobExecutor.await(executor.submit(bigQuery, JOB_INFO));
+
+    assertThat(result).isSameInstanceAs(done);
+    verify(bigQuery, never()).getJob(any(JobId.class));
+  }
+
+  @Test
+  public void testCreationFailure() {
+    when(bigQuery.create(JOB_INFO)).thenThrow(new BigQueryException(400, "invalid query"));
+
+    BigQueryException e =
+        assertThrows(
+            BigQueryException.class,
+            () -> BigQueryJobExecutor.await(executor.submit(bigQuery, JOB_INFO)));
+
+    assertThat(e).hasMessageThat().isEqualTo("invalid query");
+  }
+
+  @Test
+  public void testCancellationCancelsTheJob() {
+    Job running = job("job1", JobStatus.State.RUNNING);
+    when(bigQuery.create(JOB_INFO)).thenReturn(running);
+    when(bigQuery.getJob(JobId.of("job1"))).thenReturn(running);
+
+    CompletableFuture<Job> future = executor.submit(bigQuery, JOB_INFO);
+    verify(bigQuery, timeout(1000).atLeastOnce()).getJob(JobId.of("job1"));
+    future.cancel(true);
+
+    verify(bigQuery, timeout(1000)).cancel(JobId.of("job1"));
+    assertThrows(BigQueryException.class, () -> BigQueryJobExecutor.await(future));
+  }
+
+  @Test
+  public void testTimeoutCancelsTheJob() {
+    Job running = job("job1", JobStatus.State.RUNNING);
+    when(bigQuery.create(JOB_INFO)).thenReturn(running);
+    when(bigQuery.getJob(JobId.of("job1"))).thenReturn(running);
+
+    CompletableFuture<Job> future = executor.submit(bigQuery, JOB_INFO);
+    BigQueryException e =
+        assertThrows(
+            BigQueryException.class,
+            () -> BigQueryJobExecutor.await(future, Duration.ofMillis(100)));
+
+    assertThat(e).hasMessageThat().contains("has not completed within");
+    assertThat(future.isCancelled()).isTrue();
+    verify(bigQuery, timeout(1000)).cancel(JobId.of("job1"));
+  }
+
+  @Test
+  public void testConcurrentJobsAreLimited() {
+    JobInfo otherJobInfo = JobInfo.of(QueryJobConfiguration.of("SELECT 2"));
+    Job running = job("job1", JobStatus.State.RUNNING);
+    Job done = job("job1", JobStatus.State.DONE);
+    Job otherDone = job("job2", JobStatus.State.DONE);
+    when(bigQuery.create(JOB_INFO)).thenReturn(running);
+    when(bigQuery.getJob(JobId.of("job1"))).thenReturn(running);
+    when(bigQuery.create(otherJobInfo)).thenReturn(otherDone);
+
+    CompletableFuture<Job> first = executor.submit(bigQuery, JOB_INFO);
+    CompletableFuture<Job> second = executor.submit(bigQuery, otherJobInfo);
+    verify(bigQuery, timeout(1000).atLeast(2)).getJob(JobId.of("job1"));
+
+    // the executor allows a single job, the second job waits for the first one to complete
+    verify(bigQuery, never()).create(otherJobInfo);
+    assertThat(second.isDone()).isFalse();
+
+    when(bigQuery.getJob(JobId.of("job1"))).thenReturn(done);
+    assertThat(BigQueryJobExecutor.await(first)).isSameInstanceAs(done);
+    assertThat(BigQueryJobExecutor.await(second)).isSameInstanceAs(otherDone);
+  }
+
+  private static Job job(String id, JobStatus.State state) {
+    JobStatus status = mock(JobStatus.class);
+    when(status.getState()).thenReturn(state);
+    Job job = mock(Job.class);
+    when(job.getJobId()).thenReturn(JobId.of(id));
+    when(job.getStatus()).thenReturn(status);
+    return job;
+  }
+}
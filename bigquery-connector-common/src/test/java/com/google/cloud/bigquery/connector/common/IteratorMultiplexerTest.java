@@ -173,4 +173,24 @@ public class IteratorMultiplexerTest {
       executorService.shutdown();
     }
   }
+
+  @Test
+  public void testUnorderedIteratorIsNotBlockedByIdleSplit() throws InterruptedException {
+    ImmutableList<Integer> values = ImmutableList.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+    try (IteratorMultiplexer multiplexer =
+        new IteratorMultiplexer<>(
+            values.iterator(), /*multiplexedIterators=*/ 3, /*preserveOrder=*/ false)) {
+      // only the first split is consumed
+      Iterator<Integer> iterator = multiplexer.getSplit(0);
+      List<Integer> read = new ArrayList<>();
+      while (iterator.hasNext()) {
+        read.add(iterator.next());
+      }
+
+      assertThat(read).containsExactlyElementsIn(values).inOrder();
+      assertThat(multiplexer.getSplit(1).hasNext()).isFalse();
+      assertThat(multiplexer.getSplit(2).hasNext()).isFalse();
+    }
+  }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.time.Duration;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void testEmptyHistogram() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertThat(histogram.getTotalCount()).isEqualTo(0);
+    assertThat(histogram.getValueAtPercentile(99)).isEqualTo(Duration.ZERO);
+    assertThat(histogram.formatPercentiles()).isEqualTo("Not enough samples.");
+  }
+
+  @Test
+  public void testBucketsCoverAllValues() {
+    long previousUpperBound = -1;
+    for (long value : new long[] {0, 1, 15, 16, 17, 100, 1_000, 123_456_789, 1L << 39}) {
+      int index = LatencyHistogram.bucketIndex(value);
+      long upperBound = LatencyHistogram.bucketUpperBound(index);
+      assertThat(upperBound).isAtLeast(value);
+      assertThat(upperBound).isGreaterThan(previousUpperBound);
+      // the relative error is bounded by the number of sub buckets
+      assertThat(upperBound - value).isAtMost(value / LatencyHistogram.SUB_BUCKETS);
+      previousUpperBound = upperBound;
+    }
+  }
+
+  @Test
+  public void testPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long millis = 1; millis <= 100; millis++) {
+      histogram.record(Duration.ofMillis(millis).toNanos());
+    }
+
+    assertThat(histogram.getTotalCount()).isEqualTo(100);
+    assertApproximately(histogram.getValueAtPercentile(50), Duration.ofMillis(50));
+    assertApproximately(histogram.getValueAtPercentile(90), Duration.ofMillis(90));
+    assertApproximately(histogram.getValueAtPercentile(99), Duration.ofMillis(99));
+    assertThat(histogram.getValueAtPercentile(100)).isEqualTo(Duration.ofMillis(100));
+    assertThat(histogram.getMax()).isEqualTo(Duration.ofMillis(100));
+  }
+
+  @Test
+  public void testMerge() {
+    LatencyHistogram fast = new LatencyHistogram();
+    LatencyHistogram slow = new LatencyHistogram();
+    for (int i = 0; i < 99; i++) {
+      fast.record(Duration.ofMillis(1).toNanos());
+    }
+    slow.record(Duration.ofSeconds(10).toNanos());
+
+    LatencyHistogram merged = new LatencyHistogram();
+    merged.merge(fast);
+    merged.merge(slow);
+
+    assertThat(merged.getTotalCount()).isEqualTo(100);
+    assertApproximately(merged.getValueAtPercentile(99), Duration.ofMillis(1));
+    assertThat(merged.getMax()).isEqualTo(Duration.ofSeconds(10));
+  }
+
+  @Test
+  public void testRecordingManySamples() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    int samples = 1_000_000;
+    for (int i = 0; i < samples; i++) {
+      histogram.record(i * 1_000L);
+    }
+
+    assertThat(histogram.getTotalCount()).isEqualTo(samples);
+    assertThat(histogram.getMax()).isEqualTo(Duration.ofNanos((samples - 1) * 1_000L));
+    assertApproximately(histogram.getValueAtPercentile(50), Duration.ofNanos(samples / 2 * 1_000L));
+  }
+
+  private static void assertApproximately(Duration actual, Duration expected) {
+    Duration tolerance = expected.dividedBy(LatencyHistogram.SUB_BUCKETS);
+    assertThat(actual).isAtLeast(expected);
+    assertThat(actual).isAtMost(expected.plus(tolerance));
+  }
+}
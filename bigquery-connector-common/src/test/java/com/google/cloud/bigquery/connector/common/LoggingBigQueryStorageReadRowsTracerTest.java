@@ -99,6 +99,19 @@ public class LoggingBigQueryStorageReadRowsTracerTest {
     assertThat(loggingTracer.linesLogged).isEqualTo(2);
   }
 
+  @Test
+  public void testPercentilesAreMergedIntoExecutorHistograms() {
+    long executorSamples =
+        LoggingBigQueryStorageReadRowsTracer.EXECUTOR_SERVICE_TIME.getTotalCount();
+    tracer.readRowsResponseRequested();
+    tracer.readRowsResponseObtained(10000);
+    assertThat(loggingTracer.serviceTime.getHistogram().getTotalCount()).isEqualTo(1);
+
+    tracer.finished();
+    assertThat(LoggingBigQueryStorageReadRowsTracer.EXECUTOR_SERVICE_TIME.getTotalCount())
+        .isAtLeast(executorSamples + 1);
+  }
+
   @Test
   public void testFinishedNoLogs() {
     tracer.finished();
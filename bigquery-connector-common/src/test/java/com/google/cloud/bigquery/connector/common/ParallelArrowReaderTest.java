@@ -27,6 +27,8 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -211,4 +213,45 @@ public class ParallelArrowReaderTest {
       assertThat(Duration.between(start, endTime.get())).isLessThan(Duration.ofMillis(100));
     }
   }
+
+  @Test
+  public void testUnorderedReadsAreNotBlockedBySlowReader() throws Exception {
+    ArrowReader fast = getReaderWithSequence(1, 2, 3);
+    CountDownLatch release = new CountDownLatch(1);
+    ArrowReader slow = mock(ArrowReader.class);
+    when(slow.loadNextBatch())
+        .thenAnswer(
+            (InvocationOnMock invocation) -> {
+              release.await();
+              return false;
+            });
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    List<Integer> read = new ArrayList<>();
+    try (VectorSchemaRoot slowRoot =
+            VectorSchemaRoot.create(fast.getVectorSchemaRoot().getSchema(), allocator);
+        VectorSchemaRoot root =
+            VectorSchemaRoot.create(fast.getVectorSchemaRoot().getSchema(), allocator)) {
+      when(slow.getVectorSchemaRoot()).thenReturn(slowRoot);
+      ParallelArrowReader reader =
+          new ParallelArrowReader(
+              ImmutableList.of(slow, fast),
+              executor,
+              new VectorLoader(root),
+              new LoggingBigQueryStorageReadRowsTracer("stream_name", 2),
+              /*preserveOrder=*/ false);
+
+      // all the batches of the fast reader are available while the slow one is still loading
+      for (int x = 0; x < 3; x++) {
+        assertThat(reader.next()).isTrue();
+        read.add(((IntVector) root.getVector(0)).get(0));
+      }
+      release.countDown();
+      assertThat(reader.next()).isFalse();
+      reader.close();
+    }
+
+    assertThat(read).containsExactly(1, 2, 3).inOrder();
+    assertThat(executor.isShutdown()).isTrue();
+    fast.close();
+  }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.Test;
+
+public class PlanningTimelineTest {
+
+  private static final Instant START = Instant.parse("2023-01-01T00:00:00Z");
+
+  @Test
+  public void testStepsAndTotalDuration() {
+    PlanningTimeline timeline = new PlanningTimeline();
+    timeline.record(PlanningTimeline.INJECTOR_CREATION, START, START.plusMillis(100));
+    timeline.record(
+        PlanningTimeline.READ_SESSION_CREATION, START.plusMillis(400), START.plusMillis(1000));
+
+    assertThat(timeline.getSteps()).hasSize(2);
+    assertThat(timeline.getSteps().get(1).getDuration()).isEqualTo(Duration.ofMillis(600));
+    // the total includes the gap between the steps
+    assertThat(timeline.getTotalDuration()).isEqualTo(Duration.ofSeconds(1));
+    assertThat(timeline.toJson()).contains("\"totalDurationMillis\":1000");
+  }
+
+  @Test
+  public void testTime() {
+    PlanningTimeline timeline = new PlanningTimeline();
+
+    String result = timeline.time(PlanningTimeline.TABLE_METADATA, () -> "table");
+
+    assertThat(result).isEqualTo("table");
+    assertThat(timeline.getSteps().get(0).getName()).isEqualTo(PlanningTimeline.TABLE_METADATA);
+  }
+
+  @Test
+  public void testAddAllWithPrefix() {
+    PlanningTimeline readSessionTimeline = new PlanningTimeline();
+    readSessionTimeline.record(PlanningTimeline.READ_SESSION_CREATION, START, START.plusMillis(10));
+    PlanningTimeline timeline = new PlanningTimeline();
+    timeline.record(PlanningTimeline.CONFIG_CREATION, START, START.plusMillis(1));
+
+    PlanningTimeline copy = timeline.copy();
+    copy.addAll(readSessionTimeline, PlanningTimeline.DYNAMIC_PARTITION_PRUNING_PREFIX);
+
+    assertThat(timeline.getSteps()).hasSize(1);
+    assertThat(copy.getSteps()).hasSize(2);
+    assertThat(copy.getSteps().get(1).getName())
+        .isEqualTo("dynamicPartitionPruning.readSessionCreation");
+  }
+
+  @Test
+  public void testDrain() {
+    PlanningTimeline timeline = new PlanningTimeline();
+    timeline.record(PlanningTimeline.INJECTOR_CREATION, START, START.plusMillis(100));
+
+    PlanningTimeline firstScan = timeline.drain();
+    timeline.record(PlanningTimeline.CONFIG_CREATION, START.plusSeconds(60), START.plusSeconds(61));
+    PlanningTimeline secondScan = timeline.drain();
+
+    assertThat(firstScan.getSteps()).hasSize(1);
+    // the second scan does not include the idle time since the table has been created
+    assertThat(secondScan.getSteps()).hasSize(1);
+    assertThat(secondScan.getTotalDuration()).isEqualTo(Duration.ofSeconds(1));
+    assertThat(timeline.getSteps()).isEmpty();
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+public class ReadRowsMetricsTest {
+
+  ReadRowsMetrics metrics = new ReadRowsMetrics();
+  BigQueryStorageReadRowsTracer delegate = mock(BigQueryStorageReadRowsTracer.class);
+
+  @Test
+  public void testTracerRecordsBytesAndRows() {
+    BigQueryStorageReadRowsTracer tracer = metrics.wrap(delegate);
+
+    tracer.readRowsResponseRequested();
+    tracer.readRowsResponseObtained(10000);
+    tracer.rowsParseStarted();
+    tracer.rowsParseFinished(100);
+
+    assertThat(metrics.getBytesReceived()).isEqualTo(10000);
+    assertThat(metrics.getRows()).isEqualTo(100);
+    assertThat(metrics.getServiceTimeNanos()).isAtLeast(0);
+    assertThat(metrics.getParseTimeNanos()).isAtLeast(0);
+    verify(delegate).readRowsResponseObtained(10000);
+    verify(delegate).rowsParseFinished(100);
+  }
+
+  @Test
+  public void testForkedTracersShareTheMetrics() {
+    when(delegate.forkWithPrefix(anyString())).thenReturn(delegate);
+    BigQueryStorageReadRowsTracer tracer = metrics.wrap(delegate);
+
+    tracer.forkWithPrefix("stream-1").readRowsResponseObtained(10);
+    tracer.forkWithPrefix("stream-2").readRowsResponseObtained(20);
+    metrics.addStreams(2);
+    metrics.addRetry();
+
+    assertThat(metrics.getBytesReceived()).isEqualTo(30);
+    assertThat(metrics.getStreams()).isEqualTo(2);
+    assertThat(metrics.getRetries()).isEqualTo(1);
+  }
+
+  @Test
+  public void testAddMergesTheMetricsOfAnotherReader() {
+    ReadRowsMetrics other = new ReadRowsMetrics();
+    other.addStreams(2);
+    other.addDecompressedBytes(1000);
+    other.addDecompressionTimeNanos(50);
+    metrics.addStreams(1);
+    metrics.addDecompressionTimeNanos(25);
+    other.updateStreamProgress("stream1", 0.5);
+    metrics.updateStreamProgress("stream1", 0.75);
+    other.updateStreamProgress("stream2", 1.0);
+
+    metrics.add(other);
+
+    assertThat(metrics.getStreams()).isEqualTo(3);
+    assertThat(metrics.getDecompressedBytes()).isEqualTo(1000);
+    assertThat(metrics.getDecompressionTimeNanos()).isEqualTo(75);
+    assertThat(metrics.getStreamProgress()).containsExactly("stream1", 0.75, "stream2", 1.0);
+    assertThat(metrics.getProgress()).isEqualTo(1.75 / 3);
+    assertThat(other.getStreams()).isEqualTo(2);
+  }
+}
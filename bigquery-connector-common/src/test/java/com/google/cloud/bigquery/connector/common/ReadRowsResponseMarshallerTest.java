@@ -0,0 +1,114 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.google.cloud.bigquery.storage.v1.ArrowRecordBatch;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadGrpc;
+import com.google.cloud.bigquery.storage.v1.ReadRowsResponse;
+import com.google.protobuf.ByteOutput;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.MethodDescriptor;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class ReadRowsResponseMarshallerTest {
+
+  private static final ReadRowsResponse RESPONSE =
+      ReadRowsResponse.newBuilder()
+          .setRowCount(3)
+          .setArrowRecordBatch(
+              ArrowRecordBatch.newBuilder()
+                  .setSerializedRecordBatch(ByteString.copyFromUtf8("serialized record batch"))
+                  .setRowCount(3))
+          .build();
+
+  @Test
+  public void testRowsAreAViewOfTheMessage() throws Exception {
+    ReadRowsResponse parsed =
+        ReadRowsResponseMarshaller.INSTANCE.parse(
+            ReadRowsResponseMarshaller.INSTANCE.stream(RESPONSE));
+
+    assertThat(parsed).isEqualTo(RESPONSE);
+    List<byte[]> arrays = new ArrayList<>();
+    UnsafeByteOperations.unsafeWriteTo(
+        parsed.getArrowRecordBatch().getSerializedRecordBatch(), new ArrayCollector(arrays));
+    assertThat(arrays).hasSize(1);
+    // the array holds the whole message, not only the rows
+    assertThat(arrays.get(0).length).isEqualTo(RESPONSE.getSerializedSize());
+  }
+
+  @Test
+  public void testStreamsOfUnknownLengthAreParsed() {
+    // ByteArrayInputStream does not implement KnownLength
+    ReadRowsResponse parsed =
+        ReadRowsResponseMarshaller.INSTANCE.parse(new ByteArrayInputStream(RESPONSE.toByteArray()));
+
+    assertThat(parsed).isEqualTo(RESPONSE);
+  }
+
+  @Test
+  public void testInterceptorReplacesTheReadRowsMarshaller() {
+    assertThat(interceptedMethod(BigQueryReadGrpc.getReadRowsMethod()).getResponseMarshaller())
+        .isSameInstanceAs(ReadRowsResponseMarshaller.INSTANCE);
+    MethodDescriptor<?, ?> createReadSession = BigQueryReadGrpc.getCreateReadSessionMethod();
+    assertThat(interceptedMethod(createReadSession)).isSameInstanceAs(createReadSession);
+  }
+
+  private static MethodDescriptor<?, ?> interceptedMethod(MethodDescriptor<?, ?> method) {
+    Channel channel = mock(Channel.class);
+    ReadRowsResponseMarshaller.INTERCEPTOR.interceptCall(method, CallOptions.DEFAULT, channel);
+    ArgumentCaptor<MethodDescriptor> captor = ArgumentCaptor.forClass(MethodDescriptor.class);
+    verify(channel).newCall(captor.capture(), any(CallOptions.class));
+    return captor.getValue();
+  }
+
+  private static class ArrayCollector extends ByteOutput {
+    private final List<byte[]> arrays;
+
+    ArrayCollector(List<byte[]> arrays) {
+      this.arrays = arrays;
+    }
+
+    @Override
+    public void write(byte value) {}
+
+    @Override
+    public void write(byte[] value, int offset, int length) {}
+
+    @Override
+    public void writeLazy(byte[] value, int offset, int length) {
+      arrays.add(value);
+    }
+
+    @Override
+    public void write(ByteBuffer value) {}
+
+    @Override
+    public void writeLazy(ByteBuffer value) {}
+  }
+}
@@ -142,6 +142,62 @@ public class ReadSessionCreatorTest {
     assertThat(actual.getReadOptions().getSelectedFieldsList()).containsExactly("col1", "col2");
   }
 
+  @Test
+  public void testAdaptiveCompressionIsNotUsedWhenMetricsAreNotRecorded() throws Exception {
+    TableInfo adaptiveTable = table.toBuilder().setTableId(TableId.of("a", "not_recorded")).build();
+    CreateReadSessionRequest request =
+        createAdaptiveCompressionReadSession(adaptiveTable, /* readMetricsRecorded= */ false);
+
+    assertThat(
+            request
+                .getReadSession()
+                .getReadOptions()
+                .getArrowSerializationOptions()
+                .getBufferCompression())
+        .isEqualTo(CompressionCodec.ZSTD);
+    assertThat(ArrowCompressionAdvisor.getInstance().getLastDecision(adaptiveTable.getTableId()))
+        .isEqualTo(Optional.empty());
+  }
+
+  @Test
+  public void testAdaptiveCompressionIsUsedWhenMetricsAreRecorded() throws Exception {
+    TableInfo adaptiveTable = table.toBuilder().setTableId(TableId.of("a", "recorded")).build();
+    CreateReadSessionRequest request =
+        createAdaptiveCompressionReadSession(adaptiveTable, /* readMetricsRecorded= */ true);
+
+    // the first read of a table tries the first codec
+    assertThat(
+            request
+                .getReadSession()
+                .getReadOptions()
+                .getArrowSerializationOptions()
+                .getBufferCompression())
+        .isEqualTo(CompressionCodec.COMPRESSION_UNSPECIFIED);
+    assertThat(ArrowCompressionAdvisor.getInstance().getLastDecision(adaptiveTable.getTableId()))
+        .isEqualTo(Optional.of(CompressionCodec.COMPRESSION_UNSPECIFIED));
+  }
+
+  private CreateReadSessionRequest createAdaptiveCompressionReadSession(
+      TableInfo adaptiveTable, boolean readMetricsRecorded) {
+    mockBigQueryRead.reset();
+    mockBigQueryRead.addResponse(
+        ReadSession.newBuilder().addStreams(ReadStream.newBuilder().setName("0")).build());
+    BigQueryClientFactory mockBigQueryClientFactory = mock(BigQueryClientFactory.class);
+    when(mockBigQueryClientFactory.getBigQueryReadClient()).thenReturn(client);
+    ReadSessionCreatorConfig config =
+        new ReadSessionCreatorConfigBuilder()
+            .setReadDataFormat(DataFormat.ARROW)
+            .setArrowCompressionCodec(CompressionCodec.ZSTD)
+            .setAdaptiveArrowCompression(true)
+            .build();
+    ReadSessionCreator creator =
+        new ReadSessionCreator(config, bigQueryClient, mockBigQueryClientFactory);
+
+    creator.create(adaptiveTable, ImmutableList.of(), Optional.empty(), readMetricsRecorded);
+
+    return (CreateReadSessionRequest) mockBigQueryRead.getRequests().get(0);
+  }
+
   @Test
   public void testDefaultMinMaxStreamCount() throws Exception {
     // setting up
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.api.gax.rpc.ResponseObserver;
+import com.google.api.gax.rpc.ServerStreamingCallable;
+import com.google.api.gax.rpc.StreamController;
+import com.google.cloud.bigquery.storage.v1.BigQueryReadClient;
+import com.google.cloud.bigquery.storage.v1.ReadRowsRequest;
+import com.google.cloud.bigquery.storage.v1.ReadRowsResponse;
+import com.google.cloud.bigquery.storage.v1.StreamStats;
+import com.google.cloud.bigquery.storage.v1.ThrottleState;
+import com.google.cloud.bigquery.storage.v1.stub.EnhancedBigQueryReadStub;
+import com.google.common.collect.ImmutableList;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class StreamCombiningIteratorTest {
+
+  private static final int BUFFER_ENTRIES = 8;
+
+  ReadRowsMetrics metrics = new ReadRowsMetrics();
+  Map<String, ResponseObserver<ReadRowsResponse>> observers = new HashMap<>();
+
+  @Test
+  public void testPrefetchDepth() {
+    assertThat(StreamCombiningIterator.prefetchDepth(8, 0)).isEqualTo(8);
+    assertThat(StreamCombiningIterator.prefetchDepth(8, 50)).isEqualTo(4);
+    assertThat(StreamCombiningIterator.prefetchDepth(8, 99)).isEqualTo(1);
+    assertThat(StreamCombiningIterator.prefetchDepth(8, 100)).isEqualTo(1);
+  }
+
+  @Test
+  public void testThrottledStreamRequestsFewerResponses() {
+    StreamCombiningIterator iterator = createIterator("stream1");
+    StreamController controller = mock(StreamController.class);
+    observers.get("stream1").onStart(controller);
+    verify(controller).request(BUFFER_ENTRIES);
+
+    for (int i = 0; i < BUFFER_ENTRIES; i++) {
+      observers.get("stream1").onResponse(response(75, 0.1 * i));
+    }
+    for (int i = 0; i < BUFFER_ENTRIES; i++) {
+      iterator.next();
+    }
+
+    // the stream is throttled by 75%, hence only a quarter of the responses are requested again
+    verify(controller).request(BUFFER_ENTRIES / 4);
+    assertThat(metrics.getThrottledResponses()).isEqualTo(BUFFER_ENTRIES);
+  }
+
+  @Test
+  public void testStreamProgressIsRecorded() {
+    StreamCombiningIterator iterator = createIterator("stream1", "stream2");
+    observers.get("stream1").onStart(mock(StreamController.class));
+    observers.get("stream2").onStart(mock(StreamController.class));
+    metrics.addStreams(2);
+
+    observers.get("stream1").onResponse(response(0, 0.5));
+    assertThat(metrics.getStreamProgress()).containsExactly("stream1", 0.5);
+    assertThat(metrics.getProgress()).isEqualTo(0.25);
+
+    observers.get("stream2").onResponse(response(0, 0.5));
+    observers.get("stream1").onComplete();
+    assertThat(metrics.getStreamProgress()).containsExactly("stream1", 1.0, "stream2", 0.5);
+    assertThat(metrics.getProgress()).isEqualTo(0.75);
+    assertThat(metrics.getThrottledResponses()).isEqualTo(0);
+    iterator.cancel();
+  }
+
+  @Test
+  public void testBufferedBytesAreNotAccountedAfterCancel() {
+    long bufferedBytes = BigQueryConnectorMetrics.getBufferedResponseBytes();
+    StreamCombiningIterator iterator = createIterator("stream1");
+    observers.get("stream1").onStart(mock(StreamController.class));
+    ReadRowsResponse response = response(0, 0.5);
+
+    observers.get("stream1").onResponse(response);
+    assertThat(BigQueryConnectorMetrics.getBufferedResponseBytes())
+        .isEqualTo(bufferedBytes + response.getSerializedSize());
+
+    iterator.cancel();
+    assertThat(BigQueryConnectorMetrics.getBufferedResponseBytes()).isEqualTo(bufferedBytes);
+
+    // a response that was in flight when the iterator got cancelled
+    observers.get("stream1").onResponse(response);
+    assertThat(BigQueryConnectorMetrics.getBufferedResponseBytes()).isEqualTo(bufferedBytes);
+  }
+
+  private StreamCombiningIterator createIterator(String... streams) {
+    @SuppressWarnings("unchecked")
+    ServerStreamingCallable<ReadRowsRequest, ReadRowsResponse> callable =
+        mock(ServerStreamingCallable.class);
+    doAnswer(
+            invocation -> {
+              ReadRowsRequest request = invocation.getArgument(0);
+              observers.put(request.getReadStream(), invocation.getArgument(1));
+              return null;
+            })
+        .when(callable)
+        .call(any(ReadRowsRequest.class), any(ResponseObserver.class));
+    EnhancedBigQueryReadStub stub = mock(EnhancedBigQueryReadStub.class);
+    when(stub.readRowsCallable()).thenReturn(callable);
+    ImmutableList.Builder<ReadRowsRequest.Builder> requests = ImmutableList.builder();
+    for (String stream : streams) {
+      requests.add(ReadRowsRequest.newBuilder().setReadStream(stream));
+    }
+    return new StreamCombiningIterator(
+        BigQueryReadClient.create(stub), requests.build(), BUFFER_ENTRIES, 0, metrics);
+  }
+
+  private static ReadRowsResponse response(int throttlePercent, double progress) {
+    return ReadRowsResponse.newBuilder()
+        .setRowCount(1)
+        .setThrottleState(ThrottleState.newBuilder().setThrottlePercent(throttlePercent))
+        .setStats(
+            StreamStats.newBuilder()
+                .setProgress(StreamStats.Progress.newBuilder().setAtResponseEnd(progress)))
+        .build();
+  }
+}
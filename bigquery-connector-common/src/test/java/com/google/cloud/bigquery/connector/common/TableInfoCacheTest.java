@@ -0,0 +1,170 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.bigquery.connector.common;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.TableInfo;
+import com.google.common.base.Ticker;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.Test;
+
+public class TableInfoCacheTest {
+
+  private static final TableId TABLE_ID = TableId.of("project", "dataset", "table");
+
+  FakeTicker ticker = new FakeTicker();
+  AtomicInteger tableLoads = new AtomicInteger();
+  AtomicInteger versionLoads = new AtomicInteger();
+
+  @Test
+  public void testDisabledCacheAlwaysLoads() {
+    TableInfoCache cache = new TableInfoCache(0, ticker);
+    TableInfo table = table("etag1", 1L);
+
+    cache.get(TABLE_ID, countingLoader(tableLoads, table), countingLoader(versionLoads, table));
+    cache.get(TABLE_ID, countingLoader(tableLoads, table), countingLoader(versionLoads, table));
+
+    assertThat(tableLoads.get()).isEqualTo(2);
+    assertThat(versionLoads.get()).isEqualTo(0);
+    assertThat(cache.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void testEntryIsReusedBeforeExpiration() {
+    TableInfoCache cache = new TableInfoCache(60, ticker);
+    TableInfo table = table("etag1", 1L);
+
+    TableInfo first =
+        cache.get(TABLE_ID, countingLoader(tableLoads, table), countingLoader(versionLoads, table));
+    ticker.advance(59, TimeUnit.SECONDS);
+    TableInfo second =
+        cache.get(TABLE_ID, countingLoader(tableLoads, table), countingLoader(versionLoads, table));
+
+    assertThat(second).isSameInstanceAs(first);
+    assertThat(tableLoads.get()).isEqualTo(1);
+    assertThat(versionLoads.get()).isEqualTo(0);
+  }
+
+  @Test
+  public void testExpiredEntryIsRevalidated() {
+    TableInfoCache cache = new TableInfoCache(60, ticker);
+    TableInfo table = table("etag1", 1L);
+
+    cache.get(TABLE_ID, countingLoader(tableLoads, table), countingLoader(versionLoads, table));
+    ticker.advance(61, TimeUnit.SECONDS);
+    TableInfo revalidated =
+        cache.get(
+            TABLE_ID,
+            countingLoader(tableLoads, table),
+            countingLoader(versionLoads, table("etag1", 1L)));
+
+    assertThat(revalidated).isSameInstanceAs(table);
+    assertThat(tableLoads.get()).isEqualTo(1);
+    assertThat(versionLoads.get()).isEqualTo(1);
+
+    // revalidation restarts the expiration period
+    ticker.advance(30, TimeUnit.SECONDS);
+    cache.get(TABLE_ID, countingLoader(tableLoads, table), countingLoader(versionLoads, table));
+    assertThat(versionLoads.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testModifiedTableIsReloaded() {
+    TableInfoCache cache = new TableInfoCache(60, ticker);
+    TableInfo table = table("etag1", 1L);
+    TableInfo modifiedTable = table("etag2", 2L);
+
+    cache.get(TABLE_ID, countingLoader(tableLoads, table), countingLoader(versionLoads, table));
+    ticker.advance(61, TimeUnit.SECONDS);
+    TableInfo reloaded =
+        cache.get(
+            TABLE_ID,
+            countingLoader(tableLoads, modifiedTable),
+            countingLoader(versionLoads, modifiedTable));
+
+    assertThat(reloaded).isSameInstanceAs(modifiedTable);
+    assertThat(tableLoads.get()).isEqualTo(2);
+    assertThat(versionLoads.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testMissingTableIsNotCached() {
+    TableInfoCache cache = new TableInfoCache(60, ticker);
+
+    assertThat(cache.get(TABLE_ID, countingLoader(tableLoads, null), id -> null)).isNull();
+    assertThat(cache.get(TABLE_ID, countingLoader(tableLoads, null), id -> null)).isNull();
+
+    assertThat(tableLoads.get()).isEqualTo(2);
+    assertThat(cache.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void testInvalidateRemovesTableAndPartitionedTable() {
+    TableInfoCache cache = new TableInfoCache(60, ticker);
+    TableInfo table = table("etag1", 1L);
+    cache.put(TABLE_ID, table);
+    assertThat(cache.size()).isEqualTo(1);
+
+    cache.invalidate(TableId.of("project", "dataset", "table$20230101"));
+
+    assertThat(cache.size()).isEqualTo(0);
+    cache.get(TABLE_ID, countingLoader(tableLoads, table), countingLoader(versionLoads, table));
+    assertThat(tableLoads.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testIsSameVersion() {
+    assertThat(TableInfoCache.isSameVersion(table("etag1", 1L), table("etag1", 1L))).isTrue();
+    assertThat(TableInfoCache.isSameVersion(table("etag1", 1L), table("etag2", 1L))).isFalse();
+    assertThat(TableInfoCache.isSameVersion(table("etag1", 1L), table("etag1", 2L))).isFalse();
+    assertThat(TableInfoCache.isSameVersion(table(null, 1L), table(null, 1L))).isFalse();
+  }
+
+  private static TableInfo table(String etag, Long lastModifiedTime) {
+    TableInfo table = mock(TableInfo.class);
+    when(table.getTableId()).thenReturn(TABLE_ID);
+    when(table.getEtag()).thenReturn(etag);
+    when(table.getLastModifiedTime()).thenReturn(lastModifiedTime);
+    return table;
+  }
+
+  private static Function<TableId, TableInfo> countingLoader(
+      AtomicInteger counter, TableInfo result) {
+    return id -> {
+      counter.incrementAndGet();
+      return result;
+    };
+  }
+
+  static class FakeTicker extends Ticker {
+    private long nanos = 0;
+
+    void advance(long duration, TimeUnit unit) {
+      nanos += unit.toNanos(duration);
+    }
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+  }
+}
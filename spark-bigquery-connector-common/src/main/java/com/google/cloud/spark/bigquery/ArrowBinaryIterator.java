@@ -15,12 +15,11 @@
  */
 package com.google.cloud.spark.bigquery;
 
+import com.google.cloud.bigquery.connector.common.ArrowBufferPool;
 import com.google.cloud.bigquery.connector.common.ArrowReaderIterator;
-import com.google.cloud.bigquery.connector.common.ArrowUtil;
 import com.google.cloud.bigquery.connector.common.BigQueryStorageReadRowsTracer;
 import com.google.common.collect.ImmutableList;
 import com.google.protobuf.ByteString;
-import java.io.ByteArrayInputStream;
 import java.io.SequenceInputStream;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -46,6 +45,8 @@ public class ArrowBinaryIterator implements Iterator<InternalRow> {
   ArrowReaderIterator arrowReaderIterator;
   Iterator<InternalRow> currentIterator;
   List<String> columnsInOrder;
+  private final BufferAllocator allocator;
+  private boolean allocatorClosed = false;
   Map<String, StructField> userProvidedFieldMap;
 
   public ArrowBinaryIterator(
@@ -54,14 +55,13 @@ public class ArrowBinaryIterator implements Iterator<InternalRow> {
       ByteString rowsInBytes,
       Optional<StructType> userProvidedSchema,
       Optional<BigQueryStorageReadRowsTracer> bigQueryStorageReadRowsTracer) {
-    BufferAllocator allocator =
-        ArrowUtil.newRootAllocator(maxAllocation)
-            .newChildAllocator("ArrowBinaryIterator", 0, maxAllocation);
+    this.allocator =
+        SparkBigQueryUtil.getArrowBufferPool()
+            .newTaskAllocator("ArrowBinaryIterator", maxAllocation);
 
+    // read the bytes in place, the rows may be a view of the gRPC message
     SequenceInputStream bytesWithSchemaStream =
-        new SequenceInputStream(
-            new ByteArrayInputStream(schema.toByteArray()),
-            new ByteArrayInputStream(rowsInBytes.toByteArray()));
+        new SequenceInputStream(schema.newInput(), rowsInBytes.newInput());
 
     ArrowStreamReader arrowStreamReader =
         new ArrowStreamReader(bytesWithSchemaStream, allocator, CommonsCompressionFactory.INSTANCE);
@@ -84,6 +84,11 @@ public class ArrowBinaryIterator implements Iterator<InternalRow> {
   public boolean hasNext() {
     while (!currentIterator.hasNext()) {
       if (!arrowReaderIterator.hasNext()) {
+        // the reader has been closed, releasing its buffers
+        if (!allocatorClosed) {
+          allocatorClosed = true;
+          ArrowBufferPool.closeTaskAllocator(allocator);
+        }
         return false;
       }
       currentIterator = toArrowRows(arrowReaderIterator.next(), columnsInOrder);
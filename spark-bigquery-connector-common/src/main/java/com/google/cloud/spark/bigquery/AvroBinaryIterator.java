@@ -17,9 +17,12 @@ package com.google.cloud.spark.bigquery;
 
 import com.google.cloud.bigquery.Schema;
 import com.google.cloud.bigquery.connector.common.BigQueryStorageReadRowsTracer;
+import com.google.protobuf.ByteOutput;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
@@ -64,12 +67,63 @@ public class AvroBinaryIterator implements Iterator<InternalRow> {
     reader = new GenericDatumReader<GenericRecord>(schema);
     this.bqSchema = bqSchema;
     this.columnsInOrder = columnsInOrder;
-    in = new DecoderFactory().binaryDecoder(rowsInBytes.toByteArray(), null);
+    in = newDecoder(rowsInBytes);
     this.userProvidedSchema = userProvidedSchema;
     this.bigQueryStorageReadRowsTracer = bigQueryStorageReadRowsTracer;
     this.schemaConverters = SchemaConverters.from(schemaConvertersConfiguration);
   }
 
+  // Decodes the rows in place when they are a view of a single array, as it is the case for the
+  // responses parsed by ReadRowsResponseMarshaller, and from a copy otherwise.
+  static BinaryDecoder newDecoder(ByteString rowsInBytes) {
+    ArrayView view = new ArrayView();
+    try {
+      UnsafeByteOperations.unsafeWriteTo(rowsInBytes, view);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    if (view.singleArray && view.array != null) {
+      return new DecoderFactory().binaryDecoder(view.array, view.offset, view.length, null);
+    }
+    return new DecoderFactory().binaryDecoder(rowsInBytes.toByteArray(), null);
+  }
+
+  // Captures the array of a ByteString written as a single lazy chunk
+  private static class ArrayView extends ByteOutput {
+    byte[] array;
+    int offset;
+    int length;
+    boolean singleArray = true;
+
+    @Override
+    public void write(byte value) {
+      singleArray = false;
+    }
+
+    @Override
+    public void write(byte[] value, int offset, int length) {
+      singleArray = false;
+    }
+
+    @Override
+    public void writeLazy(byte[] value, int offset, int length) {
+      singleArray &= array == null;
+      this.array = value;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public void write(ByteBuffer value) {
+      singleArray = false;
+    }
+
+    @Override
+    public void writeLazy(ByteBuffer value) {
+      singleArray = false;
+    }
+  }
+
   @Override
   public boolean hasNext() {
     try {
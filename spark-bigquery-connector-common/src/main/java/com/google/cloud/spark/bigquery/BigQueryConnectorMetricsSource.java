@@ -0,0 +1,111 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.spark.bigquery;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.cloud.bigquery.connector.common.BigQueryConnectorMetrics;
+import com.google.cloud.bigquery.connector.common.BigQueryConnectorMetrics.Latency;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.LongSupplier;
+import org.apache.spark.SparkEnv;
+import org.apache.spark.metrics.MetricsSystem;
+import org.apache.spark.metrics.source.Source;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exposes the process wide {@link BigQueryConnectorMetrics} through the Spark metrics system, so
+ * they are reported by the configured sinks (JMX, Prometheus, etc.) under the "bigquery" namespace.
+ * The source is registered once per metrics system, on the driver when the first BigQuery relation
+ * is created and on the executors when the first partition is read or written.
+ */
+public class BigQueryConnectorMetricsSource implements Source {
+
+  private static final Logger log = LoggerFactory.getLogger(BigQueryConnectorMetricsSource.class);
+  // The metrics systems the source has been registered in. A new SparkContext in the same JVM comes
+  // with a new metrics system, in which the source has to be registered again.
+  private static final Set<MetricsSystem> registeredMetricsSystems =
+      Collections.newSetFromMap(new WeakHashMap<>());
+
+  private final MetricRegistry metricRegistry = new MetricRegistry();
+
+  BigQueryConnectorMetricsSource() {
+    gauge("read.activeStreams", BigQueryConnectorMetrics::getActiveReadStreams);
+    gauge("read.bufferedResponseBytes", BigQueryConnectorMetrics::getBufferedResponseBytes);
+    gauge("read.bufferedBatchBytes", BigQueryConnectorMetrics::getBufferedBatchBytes);
+    gauge("read.retries", BigQueryConnectorMetrics::getReadRetries);
+    gauge("arrow.allocatedBytes", BigQueryConnectorMetrics::getArrowAllocatedBytes);
+    gauge("arrow.pooledBytes", BigQueryConnectorMetrics::getArrowPooledBytes);
+    gauge("arrow.leakedBytes", BigQueryConnectorMetrics::getArrowLeakedBytes);
+    gauge("write.inFlightBytes", BigQueryConnectorMetrics::getInFlightAppendBytes);
+    latencyGauges("write.appendRows", Latency.APPEND_ROWS);
+    latencyGauges("driver.readSessionCreation", Latency.READ_SESSION_CREATION);
+    latencyGauges("driver.jobCreation", Latency.JOB_CREATION);
+    latencyGauges("driver.planning", Latency.PLANNING);
+  }
+
+  /**
+   * Registers the source in the metrics system of the current Spark environment, unless it has
+   * already been registered there. Failures are logged and ignored, as metrics should never fail a
+   * job, and the registration is attempted again on the next call.
+   */
+  public static void registerIfNeeded() {
+    SparkEnv sparkEnv = SparkEnv.get();
+    if (sparkEnv == null) {
+      return;
+    }
+    MetricsSystem metricsSystem = sparkEnv.metricsSystem();
+    synchronized (registeredMetricsSystems) {
+      if (registeredMetricsSystems.contains(metricsSystem)) {
+        return;
+      }
+      try {
+        metricsSystem.registerSource(new BigQueryConnectorMetricsSource());
+        registeredMetricsSystems.add(metricsSystem);
+      } catch (RuntimeException e) {
+        log.warn("Failed to register the BigQuery connector metrics source", e);
+      }
+    }
+  }
+
+  @Override
+  public String sourceName() {
+    return "bigquery";
+  }
+
+  @Override
+  public MetricRegistry metricRegistry() {
+    return metricRegistry;
+  }
+
+  private void gauge(String name, LongSupplier value) {
+    metricRegistry.register(name, (Gauge<Long>) value::getAsLong);
+  }
+
+  private void latencyGauges(String name, Latency latency) {
+    gauge(name + ".count", () -> BigQueryConnectorMetrics.getLatencyCount(latency));
+    gauge(
+        name + ".p50Millis",
+        () -> BigQueryConnectorMetrics.getLatencyPercentile(latency, 50).toMillis());
+    gauge(
+        name + ".p99Millis",
+        () -> BigQueryConnectorMetrics.getLatencyPercentile(latency, 99).toMillis());
+    gauge(name + ".maxMillis", () -> BigQueryConnectorMetrics.getMaxLatency(latency).toMillis());
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.spark.bigquery;
+
+import com.google.cloud.bigquery.connector.common.BigQueryConnectorMetrics;
+import com.google.cloud.bigquery.connector.common.PlanningTimeline;
+import com.google.common.collect.ImmutableMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.spark.SparkContext;
+import org.apache.spark.scheduler.SparkListenerEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Posted to the Spark listener bus once the driver has created a read session, with the timeline of
+ * the steps taken to plan the read. Listeners can match it in {@code onOtherEvent}.
+ */
+public class BigQueryPlanningTimelineEvent implements SparkListenerEvent {
+
+  private static final Logger log = LoggerFactory.getLogger(BigQueryPlanningTimelineEvent.class);
+
+  private final String tableName;
+  private final String readSessionName;
+  private final long totalDurationMillis;
+  private final ImmutableMap<String, Long> stepDurationsMillis;
+
+  public BigQueryPlanningTimelineEvent(
+      String tableName, String readSessionName, PlanningTimeline timeline) {
+    this.tableName = tableName;
+    this.readSessionName = readSessionName;
+    this.totalDurationMillis = timeline.getTotalDuration().toMillis();
+    // steps may repeat, for example when several configurations are created
+    Map<String, Long> durations = new LinkedHashMap<>();
+    for (PlanningTimeline.Step step : timeline.getSteps()) {
+      durations.merge(step.getName(), step.getDuration().toMillis(), Long::sum);
+    }
+    this.stepDurationsMillis = ImmutableMap.copyOf(durations);
+  }
+
+  /**
+   * Logs the timeline, records the planning time in the connector metrics and posts the event to
+   * the listener bus.
+   */
+  public static void post(
+      SparkContext sparkContext,
+      String tableName,
+      String readSessionName,
+      PlanningTimeline timeline) {
+    log.info("Planning timeline of {}: {}", tableName, timeline.toJson());
+    BigQueryConnectorMetrics.recordLatency(
+        BigQueryConnectorMetrics.Latency.PLANNING, timeline.getTotalDuration().toNanos());
+    sparkContext
+        .listenerBus()
+        .post(new BigQueryPlanningTimelineEvent(tableName, readSessionName, timeline));
+  }
+
+  public String getTableName() {
+    return tableName;
+  }
+
+  public String getReadSessionName() {
+    return readSessionName;
+  }
+
+  public long getTotalDurationMillis() {
+    return totalDurationMillis;
+  }
+
+  public ImmutableMap<String, Long> getStepDurationsMillis() {
+    return stepDurationsMillis;
+  }
+
+  // The event is meant for live listeners, and is not written to the event log as the history
+  // server would not be able to read it back.
+  @Override
+  public boolean logEvent() {
+    return false;
+  }
+}
@@ -16,9 +16,11 @@
 package com.google.cloud.spark.bigquery;
 
 import com.google.cloud.bigquery.connector.common.BigQueryClientModule;
+import com.google.cloud.bigquery.connector.common.PlanningTimeline;
 import com.google.common.collect.ImmutableMap;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
+import java.time.Instant;
 import java.util.Map;
 import java.util.Optional;
 import org.apache.spark.sql.SparkSession;
@@ -70,9 +72,22 @@ public class InjectorBuilder {
   }
 
   public Injector build() {
-    return Guice.createInjector(
-        new BigQueryClientModule(),
-        new SparkBigQueryConnectorModule(
-            spark, options, customDefaults, schema, dataSourceVersion, tableIsMandatory, config));
+    BigQueryConnectorMetricsSource.registerIfNeeded();
+    Instant start = Instant.now();
+    Injector injector =
+        Guice.createInjector(
+            new BigQueryClientModule(),
+            new SparkBigQueryConnectorModule(
+                spark,
+                options,
+                customDefaults,
+                schema,
+                dataSourceVersion,
+                tableIsMandatory,
+                config));
+    injector
+        .getInstance(PlanningTimeline.class)
+        .record(PlanningTimeline.INJECTOR_CREATION, start, Instant.now());
+    return injector;
   }
 }
@@ -62,6 +62,11 @@ public class InternalRowIterator implements Iterator<InternalRow> {
       ReadRowsResponse readRowsResponse = readRowsResponses.next();
       bigQueryStorageReadRowsTracer.readRowsResponseObtained(
           readRowsResponse == null ? 0 : converter.getBatchSizeInBytes(readRowsResponse));
+      if (readRowsResponse != null) {
+        bigQueryStorageReadRowsTracer.progressUpdated(
+            readRowsResponse.getStats().getProgress().getAtResponseEnd(),
+            readRowsResponse.getThrottleState().getThrottlePercent());
+      }
       bigQueryStorageReadRowsTracer.nextBatchNeeded();
       bigQueryStorageReadRowsTracer.rowsParseStarted();
       rows = converter.convert(readRowsResponse);
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.spark.bigquery;
+
+import com.google.cloud.bigquery.connector.common.ReadRowsMetrics;
+import org.apache.spark.util.AccumulatorV2;
+
+/**
+ * Aggregates the {@link ReadRowsMetrics} of the tasks of a read on the driver, for example so that
+ * the Arrow compression codec of the next reads can be chosen according to them.
+ */
+public class ReadRowsMetricsAccumulator extends AccumulatorV2<ReadRowsMetrics, ReadRowsMetrics> {
+
+  private static final long serialVersionUID = 3512287315467421069L;
+
+  private ReadRowsMetrics metrics = new ReadRowsMetrics();
+
+  @Override
+  public boolean isZero() {
+    return metrics.getStreams() == 0 && metrics.getBytesReceived() == 0 && metrics.getRows() == 0;
+  }
+
+  @Override
+  public ReadRowsMetricsAccumulator copy() {
+    ReadRowsMetricsAccumulator copy = new ReadRowsMetricsAccumulator();
+    copy.metrics.add(metrics);
+    return copy;
+  }
+
+  @Override
+  public void reset() {
+    metrics = new ReadRowsMetrics();
+  }
+
+  @Override
+  public void add(ReadRowsMetrics other) {
+    metrics.add(other);
+  }
+
+  @Override
+  public void merge(AccumulatorV2<ReadRowsMetrics, ReadRowsMetrics> other) {
+    metrics.add(other.value());
+  }
+
+  @Override
+  public ReadRowsMetrics value() {
+    return metrics;
+  }
+}
@@ -18,6 +18,8 @@ package com.google.cloud.spark.bigquery;
 import com.google.cloud.bigquery.Field;
 import com.google.cloud.bigquery.Field.Mode;
 import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.FieldValue;
+import com.google.cloud.bigquery.FieldValueList;
 import com.google.cloud.bigquery.LegacySQLTypeName;
 import com.google.cloud.bigquery.Schema;
 import com.google.cloud.bigquery.StandardTableDefinition;
@@ -26,9 +28,15 @@ import com.google.cloud.bigquery.TableInfo;
 import com.google.cloud.bigquery.TimePartitioning;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Maps;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.math.RoundingMode;
 import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -38,6 +46,7 @@ import org.apache.spark.bigquery.BigNumericUDT;
 import org.apache.spark.bigquery.BigQueryDataTypes;
 import org.apache.spark.sql.catalyst.InternalRow;
 import org.apache.spark.sql.catalyst.expressions.GenericInternalRow;
+import org.apache.spark.sql.catalyst.util.ArrayBasedMapData;
 import org.apache.spark.sql.catalyst.util.GenericArrayData;
 import org.apache.spark.sql.types.*;
 import org.apache.spark.unsafe.types.UTF8String;
@@ -52,6 +61,10 @@ public class SchemaConverters {
       DataTypes.createDecimalType(BQ_NUMERIC_PRECISION, BQ_NUMERIC_SCALE);
   // The maximum nesting depth of a BigQuery RECORD:
   static final int MAX_BIGQUERY_NESTED_DEPTH = 15;
+  // The conversion depends on the BigQuery schema and the configuration only, and the result is
+  // immutable, so it can be safely shared by all the readers of the same table.
+  private static final Cache<Map.Entry<SchemaConvertersConfiguration, Schema>, StructType>
+      SPARK_SCHEMA_CACHE = CacheBuilder.newBuilder().maximumSize(1000).build();
 
   private final SchemaConvertersConfiguration configuration;
 
@@ -65,6 +78,18 @@ public class SchemaConverters {
 
   /** Convert a BigQuery schema to a Spark schema */
   public StructType toSpark(Schema schema) {
+    Map.Entry<SchemaConvertersConfiguration, Schema> key =
+        Maps.immutableEntry(configuration, schema);
+    StructType cached = SPARK_SCHEMA_CACHE.getIfPresent(key);
+    if (cached != null) {
+      return cached;
+    }
+    StructType structType = convertToSpark(schema);
+    SPARK_SCHEMA_CACHE.put(key, structType);
+    return structType;
+  }
+
+  private StructType convertToSpark(Schema schema) {
     List<StructField> fieldList =
         schema.getFields().stream().map(this::convert).collect(Collectors.toList());
     StructType structType = new StructType(fieldList.toArray(new StructField[0]));
@@ -115,6 +140,134 @@ public class SchemaConverters {
     return convertAll(schema.getFields(), record, namesInOrder, userProvidedFieldList);
   }
 
+  /**
+   * Converts a row fetched using the BigQuery API (such as a page of query results) to a Spark SQL
+   * row. The values are the same as the ones created when reading the row using the BigQuery
+   * Storage Read API.
+   *
+   * @param schema the schema of the row, its fields are expected to be in the same order as the row
+   *     values
+   * @param row the row to convert
+   */
+  public InternalRow convertToInternalRow(Schema schema, FieldValueList row) {
+    return convertToInternalRow(schema, row, Optional.empty());
+  }
+
+  /**
+   * Converts a row fetched using the BigQuery API to a Spark SQL row, reading the values with the
+   * types of the matching fields of the user provided schema, as it is done when reading the row
+   * using the BigQuery Storage Read API.
+   */
+  public InternalRow convertToInternalRow(
+      Schema schema, FieldValueList row, Optional<StructType> userProvidedSchema) {
+    List<StructField> userProvidedFieldList =
+        Arrays.stream(userProvidedSchema.orElse(new StructType()).fields())
+            .collect(Collectors.toList());
+
+    return convertAll(schema.getFields(), row, userProvidedFieldList);
+  }
+
+  private GenericInternalRow convertAll(
+      FieldList fieldList, FieldValueList row, List<StructField> userProvidedFieldList) {
+    Map<String, StructField> userProvidedFieldMap =
+        userProvidedFieldList == null
+            ? new HashMap<>()
+            : userProvidedFieldList.stream()
+                .collect(Collectors.toMap(StructField::name, Function.identity()));
+
+    Object[] values = new Object[fieldList.size()];
+    for (int i = 0; i < values.length; i++) {
+      Field field = fieldList.get(i);
+      values[i] = convert(field, row.get(i), userProvidedFieldMap.get(field.getName()));
+    }
+    return new GenericInternalRow(values);
+  }
+
+  Object convert(Field field, FieldValue value, StructField userProvidedField) {
+    if (value == null || value.isNull()) {
+      return null;
+    }
+
+    if (field.getMode() == Field.Mode.REPEATED) {
+      List<FieldValue> valueList = value.getRepeatedValue();
+      if (convertMap(field, Metadata.empty()).isPresent()) {
+        Field keyField = field.getSubFields().get("key");
+        Field valueField = field.getSubFields().get("value");
+        int keyIndex = field.getSubFields().getIndex("key");
+        int valueIndex = field.getSubFields().getIndex("value");
+        Object[] keys = new Object[valueList.size()];
+        Object[] values = new Object[valueList.size()];
+        for (int i = 0; i < valueList.size(); i++) {
+          FieldValueList entry = valueList.get(i).getRecordValue();
+          keys[i] = convert(keyField, entry.get(keyIndex), null);
+          values[i] = convert(valueField, entry.get(valueIndex), null);
+        }
+        return new ArrayBasedMapData(new GenericArrayData(keys), new GenericArrayData(values));
+      }
+      Field elementField = field.toBuilder().setMode(Field.Mode.REQUIRED).build();
+      StructField userProvidedElementField = getStructFieldForRepeatedMode(userProvidedField);
+      return new GenericArrayData(
+          valueList.stream()
+              .map(v -> convert(elementField, v, userProvidedElementField))
+              .collect(Collectors.toList()));
+    }
+
+    Object datum = convertByBigQueryType(field, value, userProvidedField);
+    Optional<Object> customDatum =
+        getCustomDataType(field).map(dt -> ((UserDefinedType) dt).deserialize(datum));
+    return customDatum.orElse(datum);
+  }
+
+  Object convertByBigQueryType(Field bqField, FieldValue value, StructField userProvidedField) {
+    LegacySQLTypeName type = bqField.getType();
+    if (LegacySQLTypeName.INTEGER.equals(type)) {
+      return value.getLongValue();
+    }
+    if (LegacySQLTypeName.FLOAT.equals(type)) {
+      return value.getDoubleValue();
+    }
+    if (LegacySQLTypeName.BOOLEAN.equals(type)) {
+      return value.getBooleanValue();
+    }
+    if (LegacySQLTypeName.DATE.equals(type)) {
+      return (int) LocalDate.parse(value.getStringValue()).toEpochDay();
+    }
+    if (LegacySQLTypeName.TIME.equals(type)) {
+      // microseconds since midnight, as in the Avro time-micros logical type
+      return LocalTime.parse(value.getStringValue()).toNanoOfDay() / 1000;
+    }
+    if (LegacySQLTypeName.TIMESTAMP.equals(type)) {
+      return value.getTimestampValue();
+    }
+    if (LegacySQLTypeName.STRING.equals(type)
+        || LegacySQLTypeName.DATETIME.equals(type)
+        || LegacySQLTypeName.GEOGRAPHY.equals(type)
+        || LegacySQLTypeName.JSON.equals(type)) {
+      return UTF8String.fromString(value.getStringValue());
+    }
+    if (LegacySQLTypeName.BYTES.equals(type)) {
+      return value.getBytesValue();
+    }
+    if (LegacySQLTypeName.NUMERIC.equals(type)) {
+      return Decimal.apply(
+          value.getNumericValue().setScale(BQ_NUMERIC_SCALE),
+          BQ_NUMERIC_PRECISION,
+          BQ_NUMERIC_SCALE);
+    }
+    if (LegacySQLTypeName.BIGNUMERIC.equals(type)) {
+      return convertBigNumeric(bqField, value.getNumericValue(), userProvidedField);
+    }
+    if (LegacySQLTypeName.RECORD.equals(type)) {
+      List<StructField> structList =
+          userProvidedField == null
+              ? null
+              : Arrays.asList(((StructType) userProvidedField.dataType()).fields());
+      return convertAll(bqField.getSubFields(), value.getRecordValue(), structList);
+    }
+
+    throw new IllegalStateException("Unexpected type: " + type);
+  }
+
   Object convert(Field field, Object value, StructField userProvidedField) {
     if (value == null) {
       return null;
@@ -192,7 +345,7 @@ public class SchemaConverters {
     if (LegacySQLTypeName.BIGNUMERIC.equals(bqField.getType())) {
       byte[] bytes = getBytes((ByteBuffer) value);
       BigDecimal bigDecimal = new BigDecimal(new BigInteger(bytes), BQ_BIG_NUMERIC_SCALE);
-      return UTF8String.fromString(bigDecimal.toString());
+      return convertBigNumeric(bqField, bigDecimal, userProvidedField);
     }
 
     if (LegacySQLTypeName.RECORD.equals(bqField.getType())) {
@@ -216,6 +369,47 @@ public class SchemaConverters {
     throw new IllegalStateException("Unexpected type: " + bqField.getType());
   }
 
+  /**
+   * Converts a BIGNUMERIC value to a Decimal when the field is read as a DecimalType, either
+   * because of its declared precision or because of the user provided schema, and to the string
+   * held by a BigNumericUDT otherwise.
+   */
+  private Object convertBigNumeric(Field bqField, BigDecimal value, StructField userProvidedField) {
+    Optional<DecimalType> decimalType =
+        userProvidedField != null
+            ? Optional.of(userProvidedField.dataType())
+                .filter(DecimalType.class::isInstance)
+                .map(DecimalType.class::cast)
+            : getBigNumericDecimalType(bqField);
+    if (!decimalType.isPresent()) {
+      return UTF8String.fromString(value.setScale(BQ_BIG_NUMERIC_SCALE).toPlainString());
+    }
+    int precision = decimalType.get().precision();
+    int scale = decimalType.get().scale();
+    BigDecimal scaled = value.setScale(scale, RoundingMode.HALF_UP);
+    if (precision <= Decimal.MAX_LONG_DIGITS() && scaled.precision() <= precision) {
+      // Small decimals are held as an unscaled long, there is no need for a BigDecimal
+      return Decimal.createUnsafe(scaled.unscaledValue().longValue(), precision, scale);
+    }
+    return Decimal.apply(scaled, precision, scale);
+  }
+
+  /**
+   * BIGNUMERIC fields whose declared precision fits in a Spark decimal, such as BIGNUMERIC(20, 10),
+   * are read as a DecimalType. Unparameterized BIGNUMERIC fields hold up to 76 digits, and are read
+   * using the BigNumericUDT type.
+   */
+  private Optional<DecimalType> getBigNumericDecimalType(Field field) {
+    Long precision = field.getPrecision();
+    if (configuration.isBigNumericAsString()
+        || precision == null
+        || precision > DecimalType.MAX_PRECISION()) {
+      return Optional.empty();
+    }
+    int scale = field.getScale() == null ? 0 : field.getScale().intValue();
+    return Optional.of(DataTypes.createDecimalType(precision.intValue(), scale));
+  }
+
   private byte[] getBytes(ByteBuffer buf) {
     byte[] bytes = new byte[buf.remaining()];
     buf.get(bytes);
@@ -339,7 +533,9 @@ public class SchemaConverters {
     } else if (LegacySQLTypeName.NUMERIC.equals(field.getType())) {
       return NUMERIC_SPARK_TYPE;
     } else if (LegacySQLTypeName.BIGNUMERIC.equals(field.getType())) {
-      return BigQueryDataTypes.BigNumericType;
+      return getBigNumericDecimalType(field)
+          .<DataType>map(DataType.class::cast)
+          .orElse(BigQueryDataTypes.BigNumericType);
     } else if (LegacySQLTypeName.STRING.equals(field.getType())) {
       return DataTypes.StringType;
     } else if (LegacySQLTypeName.BOOLEAN.equals(field.getType())) {
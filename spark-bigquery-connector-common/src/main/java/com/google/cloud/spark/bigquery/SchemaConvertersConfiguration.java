@@ -23,38 +23,60 @@ import javax.annotation.Nonnull;
 public class SchemaConvertersConfiguration implements Serializable {
 
   private final ZoneId datetimeZoneId;
+  private final boolean bigNumericAsString;
 
-  private SchemaConvertersConfiguration(ZoneId datetimeZoneId) {
+  private SchemaConvertersConfiguration(ZoneId datetimeZoneId, boolean bigNumericAsString) {
     this.datetimeZoneId = datetimeZoneId;
+    this.bigNumericAsString = bigNumericAsString;
   }
 
   public static SchemaConvertersConfiguration from(SparkBigQueryConfig config) {
-    return SchemaConvertersConfiguration.of(config.getDatetimeZoneId());
+    return SchemaConvertersConfiguration.of(
+        config.getDatetimeZoneId(), config.isBigNumericAsString());
   }
 
   public static SchemaConvertersConfiguration of(@Nonnull ZoneId datetimeZoneId) {
-    return new SchemaConvertersConfiguration(datetimeZoneId);
+    return of(datetimeZoneId, false);
+  }
+
+  public static SchemaConvertersConfiguration of(
+      @Nonnull ZoneId datetimeZoneId, boolean bigNumericAsString) {
+    return new SchemaConvertersConfiguration(datetimeZoneId, bigNumericAsString);
   }
 
   public ZoneId getDatetimeZoneId() {
     return datetimeZoneId;
   }
 
+  /**
+   * Whether BIGNUMERIC values are always read as strings (using the BigNumericUDT type), even when
+   * their declared precision fits in a Spark DecimalType.
+   */
+  public boolean isBigNumericAsString() {
+    return bigNumericAsString;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     SchemaConvertersConfiguration that = (SchemaConvertersConfiguration) o;
-    return Objects.equal(datetimeZoneId, that.datetimeZoneId);
+    return Objects.equal(datetimeZoneId, that.datetimeZoneId)
+        && bigNumericAsString == that.bigNumericAsString;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(datetimeZoneId);
+    return Objects.hashCode(datetimeZoneId, bigNumericAsString);
   }
 
   @Override
   public String toString() {
-    return "SchemaConvertersConfiguration{" + "datetimeZoneId=" + datetimeZoneId + '}';
+    return "SchemaConvertersConfiguration{"
+        + "datetimeZoneId="
+        + datetimeZoneId
+        + ", bigNumericAsString="
+        + bigNumericAsString
+        + '}';
   }
 }
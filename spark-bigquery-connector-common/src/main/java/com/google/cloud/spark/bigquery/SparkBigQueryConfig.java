@@ -138,8 +138,14 @@ public class SparkBigQueryConfig
   public static final int MIN_STREAMS_PER_PARTITION = 1;
   private static final int DEFAULT_BIGQUERY_CLIENT_RETRIES = 10;
   private static final String ARROW_COMPRESSION_CODEC_OPTION = "arrowCompressionCodec";
+  // Chooses the Arrow compression codec of each read session from the previous reads of the table
+  static final String ADAPTIVE_ARROW_COMPRESSION_CODEC = "ADAPTIVE";
   private static final WriteMethod DEFAULT_WRITE_METHOD = WriteMethod.INDIRECT;
   public static final int DEFAULT_CACHE_EXPIRATION_IN_MINUTES = 15;
+  public static final int DEFAULT_TABLE_METADATA_CACHE_EXPIRATION_IN_SECONDS = 0;
+  public static final int DEFAULT_MAX_CONCURRENT_JOBS = 10;
+  public static final long DEFAULT_DRIVER_READ_THRESHOLD_IN_BYTES = 0;
+  public static final double DEFAULT_COST_BASED_PUSHDOWN_MAX_OUTPUT_RATIO = 1.0;
   static final String BIGQUERY_JOB_LABEL_PREFIX = "bigQueryJobLabel.";
   static final String BIGQUERY_TABLE_LABEL_PREFIX = "bigQueryTableLabel.";
   public static final Priority DEFAULT_JOB_PRIORITY = Priority.INTERACTIVE;
@@ -193,18 +199,32 @@ public class SparkBigQueryConfig
   private com.google.common.base.Optional<String> bigQueryStorageGrpcEndpoint = empty();
   private com.google.common.base.Optional<String> bigQueryHttpEndpoint = empty();
   private int numBackgroundThreadsPerStream = 0;
+  private int numDecodeThreadsPerExecutor = 0;
+  private boolean preserveBatchOrder = false;
+  private int targetBatchRows = 0;
+  private long targetBatchBytes = 0;
   private int numPrebufferReadRowsResponses = MIN_BUFFERED_RESPONSES_PER_STREAM;
   private int numStreamsPerPartition = MIN_STREAMS_PER_PARTITION;
   private com.google.common.base.Optional<Integer> flowControlWindowBytes =
       com.google.common.base.Optional.absent();
   private boolean enableReadSessionCaching = false;
+  private boolean avroColumnarReadsEnabled = false;
+  private boolean bigNumericAsString = false;
   private SparkBigQueryProxyAndHttpConfig sparkBigQueryProxyAndHttpConfig;
   private CompressionCodec arrowCompressionCodec = DEFAULT_ARROW_COMPRESSION_CODEC;
+  private boolean adaptiveArrowCompression = false;
   private WriteMethod writeMethod = DEFAULT_WRITE_METHOD;
   // for V2 write with BigQuery Storage Write API
   RetrySettings bigqueryDataWriteHelperRetrySettings =
       RetrySettings.newBuilder().setMaxAttempts(5).build();
   private int cacheExpirationTimeInMinutes = DEFAULT_CACHE_EXPIRATION_IN_MINUTES;
+  private int tableMetadataCacheExpirationTimeInSeconds =
+      DEFAULT_TABLE_METADATA_CACHE_EXPIRATION_IN_SECONDS;
+  private boolean persistentMaterializationCachingEnabled = false;
+  private int maxConcurrentJobs = DEFAULT_MAX_CONCURRENT_JOBS;
+  private long driverReadThresholdInBytes = DEFAULT_DRIVER_READ_THRESHOLD_IN_BYTES;
+  private boolean costBasedPushdownEnabled = false;
+  private double costBasedPushdownMaxOutputRatio = DEFAULT_COST_BASED_PUSHDOWN_MAX_OUTPUT_RATIO;
   // used to create BigQuery ReadSessions
   private com.google.common.base.Optional<String> traceId;
   private ImmutableMap<String, String> bigQueryJobLabels = ImmutableMap.of();
@@ -441,6 +461,20 @@ public class SparkBigQueryConfig
         getAnyOption(globalOptions, options, "bqBackgroundThreadsPerStream")
             .transform(Integer::parseInt)
             .or(0);
+    config.numDecodeThreadsPerExecutor =
+        getAnyOption(globalOptions, options, "bqDecodeThreadsPerExecutor")
+            .transform(Integer::parseInt)
+            .or(0);
+    config.preserveBatchOrder =
+        getAnyBooleanOption(globalOptions, options, "bqPreserveBatchOrder", false);
+    config.targetBatchRows =
+        getAnyOption(globalOptions, options, "bqTargetBatchRows")
+            .transform(Integer::parseInt)
+            .or(0);
+    config.targetBatchBytes =
+        getAnyOption(globalOptions, options, "bqTargetBatchBytes")
+            .transform(Long::parseLong)
+            .or(0L);
     config.pushAllFilters = getAnyBooleanOption(globalOptions, options, "pushAllFilters", true);
     config.enableModeCheckForSchemaFields =
         getAnyBooleanOption(globalOptions, options, "enableModeCheckForSchemaFields", true);
@@ -458,19 +492,29 @@ public class SparkBigQueryConfig
             .or(MIN_STREAMS_PER_PARTITION);
     config.enableReadSessionCaching =
         getAnyBooleanOption(globalOptions, options, "enableReadSessionCaching", false);
+    config.avroColumnarReadsEnabled =
+        getAnyBooleanOption(globalOptions, options, "enableAvroColumnarReads", false);
+    config.bigNumericAsString =
+        getAnyBooleanOption(globalOptions, options, "readBigNumericAsString", false);
 
     String arrowCompressionCodecParam =
         getAnyOption(globalOptions, options, ARROW_COMPRESSION_CODEC_OPTION)
             .transform(String::toUpperCase)
             .or(DEFAULT_ARROW_COMPRESSION_CODEC.toString());
 
-    try {
-      config.arrowCompressionCodec = CompressionCodec.valueOf(arrowCompressionCodecParam);
-    } catch (IllegalArgumentException e) {
-      throw new IllegalArgumentException(
-          format(
-              "Compression codec '%s' for Arrow is not supported. Supported formats are %s",
-              arrowCompressionCodecParam, Arrays.toString(CompressionCodec.values())));
+    if (ADAPTIVE_ARROW_COMPRESSION_CODEC.equals(arrowCompressionCodecParam)) {
+      config.adaptiveArrowCompression = true;
+    } else {
+      try {
+        config.arrowCompressionCodec = CompressionCodec.valueOf(arrowCompressionCodecParam);
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException(
+            format(
+                "Compression codec '%s' for Arrow is not supported. Supported formats are %s and %s",
+                arrowCompressionCodecParam,
+                Arrays.toString(CompressionCodec.values()),
+                ADAPTIVE_ARROW_COMPRESSION_CODEC));
+      }
     }
 
     config.cacheExpirationTimeInMinutes =
@@ -483,6 +527,38 @@ public class SparkBigQueryConfig
               + config.cacheExpirationTimeInMinutes);
     }
 
+    config.tableMetadataCacheExpirationTimeInSeconds =
+        getAnyOption(globalOptions, options, "tableMetadataCacheExpirationTimeInSeconds")
+            .transform(Integer::parseInt)
+            .or(DEFAULT_TABLE_METADATA_CACHE_EXPIRATION_IN_SECONDS);
+    if (config.tableMetadataCacheExpirationTimeInSeconds < 0) {
+      throw new IllegalArgumentException(
+          "tableMetadataCacheExpirationTimeInSeconds must have a positive value, the configured value is "
+              + config.tableMetadataCacheExpirationTimeInSeconds);
+    }
+    config.persistentMaterializationCachingEnabled =
+        getAnyBooleanOption(
+            globalOptions, options, "enablePersistentMaterializationCaching", false);
+    config.maxConcurrentJobs =
+        getAnyOption(globalOptions, options, "maxConcurrentJobs")
+            .transform(Integer::parseInt)
+            .or(DEFAULT_MAX_CONCURRENT_JOBS);
+    if (config.maxConcurrentJobs < 1) {
+      throw new IllegalArgumentException(
+          "maxConcurrentJobs must have a positive value, the configured value is "
+              + config.maxConcurrentJobs);
+    }
+    config.driverReadThresholdInBytes =
+        getAnyOption(globalOptions, options, "driverReadThresholdInBytes")
+            .transform(Long::parseLong)
+            .or(DEFAULT_DRIVER_READ_THRESHOLD_IN_BYTES);
+    config.costBasedPushdownEnabled =
+        getAnyBooleanOption(globalOptions, options, "enableCostBasedPushdown", false);
+    config.costBasedPushdownMaxOutputRatio =
+        getAnyOption(globalOptions, options, "costBasedPushdownMaxOutputRatio")
+            .transform(Double::parseDouble)
+            .or(DEFAULT_COST_BASED_PUSHDOWN_MAX_OUTPUT_RATIO);
+
     com.google.common.base.Optional<String> traceApplicationNameParam =
         getAnyOption(globalOptions, options, "traceApplicationName");
     config.traceId =
@@ -743,6 +819,10 @@ public class SparkBigQueryConfig
     return arrowCompressionCodec;
   }
 
+  public boolean isAdaptiveArrowCompression() {
+    return adaptiveArrowCompression;
+  }
+
   public boolean isCombinePushedDownFilters() {
     return combinePushedDownFilters;
   }
@@ -804,6 +884,14 @@ public class SparkBigQueryConfig
     return optimizedEmptyProjection;
   }
 
+  public boolean isAvroColumnarReadsEnabled() {
+    return avroColumnarReadsEnabled;
+  }
+
+  public boolean isBigNumericAsString() {
+    return bigNumericAsString;
+  }
+
   public ImmutableList<JobInfo.SchemaUpdateOption> getLoadSchemaUpdateOptions() {
     return loadSchemaUpdateOptions;
   }
@@ -861,6 +949,33 @@ public class SparkBigQueryConfig
     return cacheExpirationTimeInMinutes;
   }
 
+  @Override
+  public int getTableMetadataCacheExpirationTimeInSeconds() {
+    return tableMetadataCacheExpirationTimeInSeconds;
+  }
+
+  @Override
+  public boolean isPersistentMaterializationCachingEnabled() {
+    return persistentMaterializationCachingEnabled;
+  }
+
+  @Override
+  public int getMaxConcurrentJobs() {
+    return maxConcurrentJobs;
+  }
+
+  public long getDriverReadThresholdInBytes() {
+    return driverReadThresholdInBytes;
+  }
+
+  public boolean isCostBasedPushdownEnabled() {
+    return costBasedPushdownEnabled;
+  }
+
+  public double getCostBasedPushdownMaxOutputRatio() {
+    return costBasedPushdownMaxOutputRatio;
+  }
+
   @Override
   public Optional<Long> getCreateReadSessionTimeoutInSeconds() {
     return createReadSessionTimeoutInSeconds.toJavaUtil();
@@ -939,10 +1054,15 @@ public class SparkBigQueryConfig
         .setBigQueryStorageGrpcEndpoint(bigQueryStorageGrpcEndpoint.toJavaUtil())
         .setBigQueryHttpEndpoint(bigQueryHttpEndpoint.toJavaUtil())
         .setBackgroundParsingThreads(numBackgroundThreadsPerStream)
+        .setDecodeThreadsPerExecutor(numDecodeThreadsPerExecutor)
+        .setPreserveBatchOrder(preserveBatchOrder)
+        .setTargetBatchRows(targetBatchRows)
+        .setTargetBatchBytes(targetBatchBytes)
         .setPushAllFilters(pushAllFilters)
         .setPrebufferReadRowsResponses(numPrebufferReadRowsResponses)
         .setStreamsPerPartition(numStreamsPerPartition)
         .setArrowCompressionCodec(arrowCompressionCodec)
+        .setAdaptiveArrowCompression(adaptiveArrowCompression)
         .setTraceId(traceId.toJavaUtil())
         .setEnableReadSessionCaching(enableReadSessionCaching)
         .build();
@@ -16,6 +16,7 @@
 package com.google.cloud.spark.bigquery;
 
 import com.google.cloud.bigquery.connector.common.BigQueryConfig;
+import com.google.cloud.bigquery.connector.common.PlanningTimeline;
 import com.google.cloud.bigquery.connector.common.UserAgentProvider;
 import com.google.common.collect.ImmutableMap;
 import com.google.inject.Binder;
@@ -56,7 +57,7 @@ public class SparkBigQueryConnectorModule implements Module {
 
   @Override
   public void configure(Binder binder) {
-    binder.bind(BigQueryConfig.class).toProvider(this::provideSparkBigQueryConfig);
+    binder.bind(BigQueryConfig.class).toProvider(this::createSparkBigQueryConfig);
   }
 
   @Singleton
@@ -73,7 +74,13 @@ public class SparkBigQueryConnectorModule implements Module {
 
   @Singleton
   @Provides
-  public SparkBigQueryConfig provideSparkBigQueryConfig() {
+  public SparkBigQueryConfig provideSparkBigQueryConfig(PlanningTimeline timeline) {
+    return config.isPresent()
+        ? config.get()
+        : timeline.time(PlanningTimeline.CONFIG_CREATION, this::createSparkBigQueryConfig);
+  }
+
+  private SparkBigQueryConfig createSparkBigQueryConfig() {
     return config.orElseGet(
         () ->
             SparkBigQueryConfig.from(
@@ -85,6 +92,12 @@ public class SparkBigQueryConnectorModule implements Module {
                 tableIsMandatory));
   }
 
+  @Singleton
+  @Provides
+  public PlanningTimeline providePlanningTimeline() {
+    return new PlanningTimeline();
+  }
+
   @Singleton
   @Provides
   public UserAgentProvider provideUserAgentProvider() {
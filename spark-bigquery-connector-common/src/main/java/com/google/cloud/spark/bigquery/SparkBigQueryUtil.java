@@ -21,6 +21,7 @@ import static com.google.cloud.bigquery.connector.common.BigQueryConfigurationUt
 import com.google.cloud.bigquery.JobInfo;
 import com.google.cloud.bigquery.TableId;
 import com.google.cloud.bigquery.TableInfo;
+import com.google.cloud.bigquery.connector.common.ArrowBufferPool;
 import com.google.cloud.bigquery.connector.common.BigQueryConfigurationUtil;
 import com.google.cloud.bigquery.connector.common.BigQueryUtil;
 import com.google.common.annotations.VisibleForTesting;
@@ -38,6 +39,8 @@ import java.util.stream.Stream;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.spark.SparkConf;
+import org.apache.spark.SparkEnv;
 import org.apache.spark.sql.SaveMode;
 import org.apache.spark.sql.SparkSession;
 import org.apache.spark.sql.internal.SQLConf;
@@ -62,6 +65,25 @@ public class SparkBigQueryUtil {
       throw new UncheckedIOException(e);
     }
   }
+  /**
+   * Returns the Arrow buffer pool of this executor. When Spark is configured to use off heap
+   * memory, the pool is limited to the off heap size and retains up to a quarter of it for reuse.
+   */
+  public static ArrowBufferPool getArrowBufferPool() {
+    long maxAllocation = Long.MAX_VALUE;
+    long maxPooledBytes = ArrowBufferPool.DEFAULT_MAX_POOLED_BYTES;
+    SparkEnv sparkEnv = SparkEnv.get();
+    if (sparkEnv != null) {
+      SparkConf conf = sparkEnv.conf();
+      long offHeapSize = conf.getSizeAsBytes("spark.memory.offHeap.size", "0");
+      if (conf.getBoolean("spark.memory.offHeap.enabled", false) && offHeapSize > 0) {
+        maxAllocation = offHeapSize;
+        maxPooledBytes = Math.min(maxPooledBytes, offHeapSize / 4);
+      }
+    }
+    return ArrowBufferPool.getOrCreate(maxAllocation, maxPooledBytes);
+  }
+
   /**
    * Optimizing the URI list for BigQuery load, using the Spark specific file prefix and suffix
    * patterns, based on <code>BigQueryUtil.optimizeLoadUriList()</code>
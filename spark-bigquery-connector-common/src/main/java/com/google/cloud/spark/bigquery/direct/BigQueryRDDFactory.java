@@ -17,6 +17,7 @@
 package com.google.cloud.spark.bigquery.direct;
 
 import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.FieldValueList;
 import com.google.cloud.bigquery.Schema;
 import com.google.cloud.bigquery.StandardTableDefinition;
 import com.google.cloud.bigquery.TableDefinition;
@@ -25,11 +26,19 @@ import com.google.cloud.bigquery.TableInfo;
 import com.google.cloud.bigquery.connector.common.BigQueryClient;
 import com.google.cloud.bigquery.connector.common.BigQueryClientFactory;
 import com.google.cloud.bigquery.connector.common.BigQueryConnectorException;
+import com.google.cloud.bigquery.connector.common.BigQueryStorageReadRowsTracer;
 import com.google.cloud.bigquery.connector.common.BigQueryTracerFactory;
 import com.google.cloud.bigquery.connector.common.BigQueryUtil;
+import com.google.cloud.bigquery.connector.common.ReadRowsHelper;
 import com.google.cloud.bigquery.connector.common.ReadSessionCreator;
 import com.google.cloud.bigquery.connector.common.ReadSessionResponse;
+import com.google.cloud.bigquery.storage.v1.DataFormat;
+import com.google.cloud.bigquery.storage.v1.ReadRowsRequest;
 import com.google.cloud.bigquery.storage.v1.ReadSession;
+import com.google.cloud.bigquery.storage.v1.ReadStream;
+import com.google.cloud.spark.bigquery.BigQueryPlanningTimelineEvent;
+import com.google.cloud.spark.bigquery.InternalRowIterator;
+import com.google.cloud.spark.bigquery.ReadRowsResponseToInternalRowIteratorConverter;
 import com.google.cloud.spark.bigquery.SchemaConverters;
 import com.google.cloud.spark.bigquery.SchemaConvertersConfiguration;
 import com.google.cloud.spark.bigquery.SparkBigQueryConfig;
@@ -38,15 +47,21 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Streams;
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.spark.Partition;
 import org.apache.spark.SparkContext;
+import org.apache.spark.api.java.JavaSparkContext;
 import org.apache.spark.rdd.RDD;
 import org.apache.spark.sql.SQLContext;
 import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.types.StructType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -80,6 +95,45 @@ public class BigQueryRDDFactory {
     this.sqlContext = sqlContext;
   }
 
+  /**
+   * Decides whether pushing down the given query is expected to be cheaper than reading its inputs
+   * directly. When cost based pushdown is enabled, the query is dry run and pushed down only if its
+   * estimated output is not significantly larger than the bytes it processes, which approximate the
+   * amount of data a direct read of the inputs would transfer. Queries whose output size is unknown
+   * are pushed down without a dry run. This is invoked from the query pushdown module
+   *
+   * @param sql the query generated by the pushdown
+   * @param estimatedOutputSizeInBytes Spark's estimate of the size of the query result, if any
+   */
+  public boolean shouldPushdownQuery(String sql, OptionalLong estimatedOutputSizeInBytes) {
+    if (!options.isCostBasedPushdownEnabled()) {
+      return true;
+    }
+    if (!estimatedOutputSizeInBytes.isPresent()) {
+      log.info("Unknown output size for query [{}], pushing it down", sql);
+      return true;
+    }
+    // The estimate is cached, as Spark plans the subtrees of a query whose pushdown is rejected
+    // again, generating the same queries
+    OptionalLong estimatedBytesProcessed = bigQueryClient.estimateBytesProcessed(sql);
+    if (!estimatedBytesProcessed.isPresent()) {
+      log.info("No bytes processed estimate for query [{}], pushing it down", sql);
+      return true;
+    }
+    long bytesProcessed = estimatedBytesProcessed.getAsLong();
+    double maxOutputRatio = options.getCostBasedPushdownMaxOutputRatio();
+    boolean pushdown = estimatedOutputSizeInBytes.getAsLong() <= bytesProcessed * maxOutputRatio;
+    log.info(
+        "{} query pushdown: estimated output size {} bytes, bytes processed {} bytes, max output"
+            + " ratio {}. Query: [{}]",
+        pushdown ? "Using" : "Skipping",
+        estimatedOutputSizeInBytes.getAsLong(),
+        bytesProcessed,
+        maxOutputRatio,
+        sql);
+    return pushdown;
+  }
+
   /**
    * Creates RDD from the SQL string that is passed in. This functionality is invoked from the query
    * pushdown module
@@ -98,6 +152,11 @@ public class BigQueryRDDFactory {
 
     TableDefinition actualTableDefinition = actualTable.getDefinition();
 
+    if (isSmallerThanDriverReadThreshold(actualTableDefinition)) {
+      // For small results, fetching the rows directly is faster than creating a read session
+      return fetchOnDriver(actualTable);
+    }
+
     // We do require requiredColumns to be passed in for pushdown. If we don't, an
     // ArrayIndexOutOfBounds
     // exception is thrown
@@ -121,23 +180,21 @@ public class BigQueryRDDFactory {
 
     return (RDD<InternalRow>)
         createRddFromTable(
-            actualTable.getTableId(),
-            readSessionCreator,
-            requiredColumns.toArray(new String[0]),
-            "");
+            actualTable, readSessionCreator, requiredColumns.toArray(new String[0]), "");
   }
 
   // Creates BigQueryRDD from the BigQuery table that is passed in. Note that we return RDD<?>
   // instead of BigQueryRDD or RDD<InternalRow>. This is because the casting rules in Java are a lot
   // stricter than Java due to which we cannot go from RDD<InternalRow> to RDD<Row>
   public RDD<?> createRddFromTable(
-      TableId tableId,
+      TableInfo table,
       ReadSessionCreator readSessionCreator,
       String[] requiredColumns,
       String filter) {
+    TableId tableId = table.getTableId();
     ReadSessionResponse readSessionResponse =
         readSessionCreator.create(
-            tableId, ImmutableList.copyOf(requiredColumns), BigQueryUtil.emptyIfNeeded(filter));
+            table, ImmutableList.copyOf(requiredColumns), BigQueryUtil.emptyIfNeeded(filter));
     ReadSession readSession = readSessionResponse.getReadSession();
     TableInfo actualTable = readSessionResponse.getReadTableInfo();
 
@@ -152,6 +209,11 @@ public class BigQueryRDDFactory {
         "Created read session for table '{}': {}",
         BigQueryUtil.friendlyTableName(tableId),
         readSession.getName());
+    BigQueryPlanningTimelineEvent.post(
+        sqlContext.sparkContext(),
+        BigQueryUtil.friendlyTableName(tableId),
+        readSession.getName(),
+        readSessionResponse.getTimeline());
 
     Set<String> requiredColumnSet = Stream.of(requiredColumns).collect(Collectors.toSet());
     Schema prunedSchema =
@@ -161,6 +223,14 @@ public class BigQueryRDDFactory {
                 .filter(f -> requiredColumnSet.contains(f.getName()))
                 .collect(Collectors.toList()));
 
+    if (shouldReadOnDriver(readSession, actualTable)) {
+      log.info(
+          "Reading {} estimated bytes of table '{}' on the driver",
+          readSession.getEstimatedTotalBytesScanned(),
+          BigQueryUtil.friendlyTableName(tableId));
+      return readOnDriver(readSession, prunedSchema, requiredColumns);
+    }
+
     return createRDD(
         sqlContext,
         partitions.toArray(new BigQueryPartition[0]),
@@ -172,6 +242,93 @@ public class BigQueryRDDFactory {
         bigQueryTracerFactory);
   }
 
+  // The estimate of the read session is 0 when the service has not populated it, in which case the
+  // size of the whole table, which bounds the bytes read, is used instead
+  @VisibleForTesting
+  boolean shouldReadOnDriver(ReadSession readSession, TableInfo table) {
+    long driverReadThreshold = options.getDriverReadThresholdInBytes();
+    if (driverReadThreshold <= 0) {
+      return false;
+    }
+    long estimatedBytesScanned = readSession.getEstimatedTotalBytesScanned();
+    if (estimatedBytesScanned > 0) {
+      return estimatedBytesScanned <= driverReadThreshold;
+    }
+    return isSmallerThanDriverReadThreshold(table.getDefinition());
+  }
+
+  private boolean isSmallerThanDriverReadThreshold(TableDefinition tableDefinition) {
+    long driverReadThreshold = options.getDriverReadThresholdInBytes();
+    if (driverReadThreshold <= 0 || !(tableDefinition instanceof StandardTableDefinition)) {
+      return false;
+    }
+    Long numBytes = ((StandardTableDefinition) tableDefinition).getNumBytes();
+    return numBytes != null && numBytes <= driverReadThreshold;
+  }
+
+  private RDD<InternalRow> fetchOnDriver(TableInfo table) {
+    Schema schema = table.getDefinition().getSchema();
+    SchemaConverters schemaConverters =
+        SchemaConverters.from(SchemaConvertersConfiguration.from(options));
+    List<InternalRow> rows = new ArrayList<>();
+    for (FieldValueList row :
+        bigQueryClient.listTableData(table.getTableId(), schema).iterateAll()) {
+      rows.add(schemaConverters.convertToInternalRow(schema, row, options.getSchema()));
+    }
+    log.info(
+        "Fetched {} rows of table '{}' on the driver",
+        rows.size(),
+        BigQueryUtil.friendlyTableName(table.getTableId()));
+    return toSinglePartitionRDD(rows);
+  }
+
+  private RDD<InternalRow> toSinglePartitionRDD(List<InternalRow> rows) {
+    return JavaSparkContext.fromSparkContext(sqlContext.sparkContext()).parallelize(rows, 1).rdd();
+  }
+
+  // Small tables are read by the driver, sparing the executors from creating a read client and
+  // opening a stream. The rows are then handed to Spark as a single partition RDD.
+  private RDD<InternalRow> readOnDriver(
+      ReadSession readSession, Schema bqSchema, String[] columnsInOrder) {
+    StructType schema =
+        options
+            .getSchema()
+            .orElse(
+                SchemaConverters.from(SchemaConvertersConfiguration.from(options))
+                    .toSpark(bqSchema));
+    List<InternalRow> rows = new ArrayList<>();
+    for (ReadStream stream : readSession.getStreamsList()) {
+      BigQueryStorageReadRowsTracer tracer =
+          bigQueryTracerFactory.newReadRowsTracer(stream.getName());
+      ReadRowsHelper readRowsHelper =
+          new ReadRowsHelper(
+              bigQueryReadClientFactory,
+              ReadRowsRequest.newBuilder().setReadStream(stream.getName()),
+              options.toReadSessionCreatorConfig().toReadRowsHelperOptions(),
+              Optional.of(tracer));
+      ReadRowsResponseToInternalRowIteratorConverter converter =
+          options.getReadDataFormat().equals(DataFormat.AVRO)
+              ? ReadRowsResponseToInternalRowIteratorConverter.avro(
+                  bqSchema,
+                  Arrays.asList(columnsInOrder),
+                  readSession.getAvroSchema().getSchema(),
+                  Optional.of(schema),
+                  Optional.of(tracer),
+                  SchemaConvertersConfiguration.from(options))
+              : ReadRowsResponseToInternalRowIteratorConverter.arrow(
+                  Arrays.asList(columnsInOrder),
+                  readSession.getArrowSchema().getSerializedSchema(),
+                  Optional.of(schema),
+                  Optional.of(tracer));
+      InternalRowIterator iterator =
+          new InternalRowIterator(readRowsHelper.readRows(), converter, readRowsHelper, tracer);
+      // the converted rows may be backed by a buffer which is reused for the next batch
+      iterator.forEachRemaining(row -> rows.add(row.copy()));
+    }
+    log.info("Read {} rows on the driver from session {}", rows.size(), readSession.getName());
+    return toSinglePartitionRDD(rows);
+  }
+
   // Moved from BigQueryRDD.scanTable
   @VisibleForTesting
   RDD<InternalRow> createRDD(
@@ -232,13 +389,17 @@ public class BigQueryRDDFactory {
     }
   }
 
-  public long getNumBytes(TableDefinition tableDefinition) {
+  public long getNumBytes(TableInfo table) {
+    TableDefinition tableDefinition = table.getDefinition();
     TableDefinition.Type tableType = tableDefinition.getType();
     if (TableDefinition.Type.EXTERNAL == tableType
         || (options.isViewsEnabled()
             && (TableDefinition.Type.VIEW == tableType
                 || TableDefinition.Type.MATERIALIZED_VIEW == tableType))) {
-      return sqlContext.sparkSession().sessionState().conf().defaultSizeInBytes();
+      // Without a known size Spark would never broadcast the table in a join
+      return bigQueryClient
+          .estimateTableSize(table.getTableId(), ImmutableList.of(), new String[0])
+          .orElse(sqlContext.sparkSession().sessionState().conf().defaultSizeInBytes());
     } else {
       StandardTableDefinition standardTableDefinition = (StandardTableDefinition) tableDefinition;
       return standardTableDefinition.getNumBytes();
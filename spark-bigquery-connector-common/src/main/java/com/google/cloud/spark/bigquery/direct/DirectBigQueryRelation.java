@@ -16,7 +16,6 @@
 
 package com.google.cloud.spark.bigquery.direct;
 
-import com.google.cloud.bigquery.TableDefinition;
 import com.google.cloud.bigquery.TableId;
 import com.google.cloud.bigquery.TableInfo;
 import com.google.cloud.bigquery.connector.common.BigQueryClient;
@@ -61,7 +60,6 @@ public class DirectBigQueryRelation extends BigQueryRelation
   private final BigQueryClientFactory bigQueryReadClientFactory;
   private final BigQueryTracerFactory bigQueryTracerFactory;
   private final SQLContext sqlContext;
-  private final TableDefinition defaultTableDefinition;
   private final BigQueryRDDFactory bigQueryRDDFactory;
 
   private String compiledFilter = "";
@@ -83,7 +81,6 @@ public class DirectBigQueryRelation extends BigQueryRelation
     this.bigQueryReadClientFactory = bigQueryReadClientFactory;
     this.bigQueryTracerFactory = bigQueryTracerFactory;
     this.sqlContext = sqlContext;
-    this.defaultTableDefinition = table.getDefinition();
     this.bigQueryRDDFactory =
         new BigQueryRDDFactory(
             bigQueryClient, bigQueryReadClientFactory, bigQueryTracerFactory, options, sqlContext);
@@ -96,7 +93,7 @@ public class DirectBigQueryRelation extends BigQueryRelation
 
   @Override
   public long sizeInBytes() {
-    return bigQueryRDDFactory.getNumBytes(defaultTableDefinition);
+    return bigQueryRDDFactory.getNumBytes(table);
   }
 
   @Override
@@ -137,7 +134,7 @@ public class DirectBigQueryRelation extends BigQueryRelation
 
     return (RDD<Row>)
         bigQueryRDDFactory.createRddFromTable(
-            getTableId(), readSessionCreator, requiredColumns, compiledFilter);
+            table, readSessionCreator, requiredColumns, compiledFilter);
   }
 
   @Override
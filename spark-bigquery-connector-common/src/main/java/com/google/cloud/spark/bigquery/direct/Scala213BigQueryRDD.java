@@ -26,6 +26,7 @@ import com.google.cloud.bigquery.storage.v1.DataFormat;
 import com.google.cloud.bigquery.storage.v1.ReadRowsRequest;
 import com.google.cloud.bigquery.storage.v1.ReadRowsResponse;
 import com.google.cloud.bigquery.storage.v1.ReadSession;
+import com.google.cloud.spark.bigquery.BigQueryConnectorMetricsSource;
 import com.google.cloud.spark.bigquery.InternalRowIterator;
 import com.google.cloud.spark.bigquery.ReadRowsResponseToInternalRowIteratorConverter;
 import com.google.cloud.spark.bigquery.SchemaConverters;
@@ -88,6 +89,7 @@ class Scala213BigQueryRDD extends RDD<InternalRow> {
 
   @Override
   public scala.collection.Iterator<InternalRow> compute(Partition split, TaskContext context) {
+    BigQueryConnectorMetricsSource.registerIfNeeded();
     BigQueryPartition bigQueryPartition = (BigQueryPartition) split;
 
     BigQueryStorageReadRowsTracer tracer =
@@ -25,6 +25,7 @@ import com.google.cloud.bigquery.TableInfo;
 import com.google.cloud.bigquery.connector.common.BigQueryClient;
 import com.google.cloud.bigquery.connector.common.BigQueryClientFactory;
 import com.google.cloud.bigquery.connector.common.BigQueryConnectorException;
+import com.google.cloud.bigquery.connector.common.BigQueryJobExecutor;
 import com.google.cloud.bigquery.connector.common.BigQueryUtil;
 import com.google.cloud.bigquery.storage.v1.BatchCommitWriteStreamsRequest;
 import com.google.cloud.bigquery.storage.v1.BatchCommitWriteStreamsResponse;
@@ -35,6 +36,7 @@ import com.google.cloud.spark.bigquery.SchemaConvertersConfiguration;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
 import java.util.Arrays;
 import org.apache.spark.sql.SaveMode;
 import org.apache.spark.sql.catalyst.InternalRow;
@@ -46,6 +48,9 @@ public class BigQueryDirectDataSourceWriterContext implements DataSourceWriterCo
 
   final Logger logger = LoggerFactory.getLogger(BigQueryDirectDataSourceWriterContext.class);
 
+  // The overwrite job is cancelled if it has not completed by then
+  private static final Duration OVERWRITE_JOB_TIMEOUT = Duration.ofMinutes(3);
+
   private final BigQueryClient bigQueryClient;
   private final BigQueryClientFactory writeClientFactory;
   private final TableId destinationTableId;
@@ -129,8 +134,8 @@ public class BigQueryDirectDataSourceWriterContext implements DataSourceWriterCo
   private BigQueryTable getOrCreateTable(
       SaveMode saveMode, TableId destinationTableId, Schema bigQuerySchema)
       throws IllegalArgumentException {
-    if (bigQueryClient.tableExists(destinationTableId)) {
-      TableInfo destinationTable = bigQueryClient.getTable(destinationTableId);
+    TableInfo destinationTable = bigQueryClient.getTable(destinationTableId);
+    if (destinationTable != null) {
       Schema tableSchema = destinationTable.getDefinition().getSchema();
       Preconditions.checkArgument(
           BigQueryUtil.schemaWritable(
@@ -220,14 +225,26 @@ public class BigQueryDirectDataSourceWriterContext implements DataSourceWriterCo
 
     if (writingMode.equals(WritingMode.OVERWRITE)) {
       Job overwriteJob =
-          bigQueryClient.overwriteDestinationWithTemporary(
-              tableToWrite.getTableId(), destinationTableId);
-      BigQueryClient.waitForJob(overwriteJob);
+          BigQueryJobExecutor.await(
+              bigQueryClient.overwriteDestinationWithTemporaryAsync(
+                  tableToWrite.getTableId(), destinationTableId),
+              OVERWRITE_JOB_TIMEOUT);
+      if (overwriteJob.getStatus().getError() != null) {
+        throw new BigQueryConnectorException(
+            String.format(
+                "Failed to overwrite %s with the data of %s in job %s: %s",
+                BigQueryUtil.friendlyTableName(destinationTableId),
+                BigQueryUtil.friendlyTableName(tableToWrite.getTableId()),
+                overwriteJob.getJobId(),
+                overwriteJob.getStatus().getError()));
+      }
       Preconditions.checkState(
           bigQueryClient.deleteTable(tableToWrite.getTableId()),
           new BigQueryConnectorException(
               String.format("Could not delete temporary table %s from BigQuery", tableToWrite)));
     }
+    // the data has changed, the cached metadata (row count, size, etc.) is no longer valid
+    bigQueryClient.invalidateTableMetadata(destinationTableId);
 
     if (!tableLabels.isEmpty()) {
       TableInfo originalTableInfo = bigQueryClient.getTable(destinationTableId);
@@ -19,10 +19,12 @@ import static com.google.cloud.spark.bigquery.ProtobufUtils.buildSingleRowMessag
 import static com.google.cloud.spark.bigquery.ProtobufUtils.toDescriptor;
 
 import com.google.api.gax.retrying.RetrySettings;
+import com.google.cloud.bigquery.connector.common.AppendRowsMetrics;
 import com.google.cloud.bigquery.connector.common.BigQueryClientFactory;
 import com.google.cloud.bigquery.connector.common.BigQueryConnectorException;
 import com.google.cloud.bigquery.connector.common.BigQueryDirectDataWriterHelper;
 import com.google.cloud.bigquery.storage.v1.ProtoSchema;
+import com.google.cloud.spark.bigquery.BigQueryConnectorMetricsSource;
 import com.google.common.base.Optional;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.Descriptors;
@@ -58,6 +60,7 @@ public class BigQueryDirectDataWriterContext implements DataWriterContext<Intern
       ProtoSchema protoSchema,
       RetrySettings bigqueryDataWriterHelperRetrySettings,
       Optional<String> traceId) {
+    BigQueryConnectorMetricsSource.registerIfNeeded();
     this.partitionId = partitionId;
     this.taskId = taskId;
     this.epochId = epochId;
@@ -106,6 +109,11 @@ public class BigQueryDirectDataWriterContext implements DataWriterContext<Intern
     writerHelper.abort();
   }
 
+  @Override
+  public java.util.Optional<AppendRowsMetrics> getAppendRowsMetrics() {
+    return java.util.Optional.of(writerHelper.getMetrics());
+  }
+
   @Override
   public void close() throws IOException {
     // empty
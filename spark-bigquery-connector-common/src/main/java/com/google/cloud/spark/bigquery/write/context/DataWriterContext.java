@@ -15,8 +15,10 @@
  */
 package com.google.cloud.spark.bigquery.write.context;
 
+import com.google.cloud.bigquery.connector.common.AppendRowsMetrics;
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * An internal version to Spark DataSource DataWriter interface
@@ -29,4 +31,9 @@ public interface DataWriterContext<T> extends Closeable {
   WriterCommitMessageContext commit() throws IOException;
 
   void abort() throws IOException;
+
+  /** The metrics of the rows appended so far, if the writer sends them directly to BigQuery. */
+  default Optional<AppendRowsMetrics> getAppendRowsMetrics() {
+    return Optional.empty();
+  }
 }
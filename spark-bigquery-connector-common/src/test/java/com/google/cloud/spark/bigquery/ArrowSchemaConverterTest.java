@@ -0,0 +1,340 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.spark.bigquery;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import com.google.common.collect.ImmutableList;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.catalyst.expressions.SpecializedGetters;
+import org.apache.spark.sql.catalyst.util.ArrayData;
+import org.apache.spark.sql.catalyst.util.MapData;
+import org.apache.spark.sql.types.ArrayType;
+import org.apache.spark.sql.types.DataType;
+import org.apache.spark.sql.types.DataTypes;
+import org.apache.spark.sql.types.MapType;
+import org.apache.spark.sql.types.Metadata;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
+import org.apache.spark.sql.vectorized.ColumnVector;
+import org.apache.spark.sql.vectorized.ColumnarBatch;
+import org.junit.After;
+import org.junit.Test;
+
+public class ArrowSchemaConverterTest {
+
+  private static final int NUM_SCHEMAS = 50;
+  private static final int NUM_COLUMNS = 4;
+  private static final int NUM_ROWS = 20;
+  private static final int MAX_DEPTH = 4;
+
+  private final BufferAllocator allocator = new RootAllocator();
+  private final List<FieldVector> vectors = new ArrayList<>();
+
+  @After
+  public void tearDown() {
+    vectors.forEach(ValueVector::close);
+    allocator.close();
+  }
+
+  @Test
+  public void testRandomNestedSchemas() {
+    for (long seed = 0; seed < NUM_SCHEMAS; seed++) {
+      Random random = new Random(seed);
+      List<Field> fields = new ArrayList<>();
+      List<List<Object>> columnValues = new ArrayList<>();
+      ColumnVector[] columns = new ColumnVector[NUM_COLUMNS];
+      for (int c = 0; c < NUM_COLUMNS; c++) {
+        Field field = randomField(random, "c" + c, /*depth=*/ 0);
+        List<Object> values = new ArrayList<>();
+        for (int row = 0; row < NUM_ROWS; row++) {
+          values.add(randomValue(random, field));
+        }
+        fields.add(field);
+        columnValues.add(values);
+        columns[c] =
+            ArrowSchemaConverter.newArrowSchemaConverter(
+                newVector(field, values), /*userProvidedField=*/ null);
+      }
+
+      ColumnarBatch batch = new ColumnarBatch(columns, NUM_ROWS);
+      for (int c = 0; c < NUM_COLUMNS; c++) {
+        DataType type = columns[c].dataType();
+        assertThat(type).isEqualTo(sparkType(fields.get(c)));
+        for (int row = 0; row < NUM_ROWS; row++) {
+          Object expected = columnValues.get(c).get(row);
+          String message = String.format("seed %d, column %s, row %d", seed, fields.get(c), row);
+          assertWithMessage(message).that(read(batch.getRow(row), c, type)).isEqualTo(expected);
+          if (expected == null && type instanceof ArrayType) {
+            assertThat(columns[c].getArray(row)).isNull();
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testRepeatedKeyValueRecordsAreReadAsMaps() {
+    // the value comes first, the fields are matched by name
+    Field field =
+        listOf(
+            "m",
+            new Field(
+                "element",
+                FieldType.notNullable(ArrowType.Struct.INSTANCE),
+                ImmutableList.of(
+                    new Field("value", FieldType.nullable(new ArrowType.Int(64, true)), null),
+                    new Field("key", FieldType.notNullable(new ArrowType.Utf8()), null))));
+    List<Object> values =
+        Arrays.asList(
+            ImmutableList.of(Arrays.asList(1L, "a"), Arrays.asList(null, "b")),
+            null,
+            ImmutableList.of());
+    ValueVector vector = newVector(field, values);
+    MapType mapType = DataTypes.createMapType(DataTypes.StringType, DataTypes.LongType, true);
+
+    for (StructField userProvidedField :
+        Arrays.asList(null, new StructField("m", mapType, true, Metadata.empty()))) {
+      ColumnVector column = ArrowSchemaConverter.newArrowSchemaConverter(vector, userProvidedField);
+
+      assertThat(column.dataType()).isEqualTo(mapType);
+      assertThat(read(column.getMap(0), mapType))
+          .containsExactly(pair("a", 1L), pair("b", null))
+          .inOrder();
+      assertThat(column.getMap(1)).isNull();
+      assertThat(read(column.getMap(2), mapType)).isEmpty();
+    }
+  }
+
+  @Test
+  public void testStructFieldsFollowTheUserProvidedField() {
+    Field field =
+        new Field(
+            "s",
+            FieldType.nullable(ArrowType.Struct.INSTANCE),
+            ImmutableList.of(
+                new Field("a", FieldType.nullable(new ArrowType.Int(64, true)), null),
+                listOf("b", new Field("element", FieldType.nullable(new ArrowType.Utf8()), null)),
+                new Field("c", FieldType.nullable(new ArrowType.Utf8()), null)));
+    ValueVector vector =
+        newVector(field, Arrays.asList(Arrays.asList(1L, ImmutableList.of("x", "y"), "z"), null));
+    StructType userType =
+        new StructType()
+            .add("c", DataTypes.StringType)
+            .add("b", DataTypes.createArrayType(DataTypes.StringType));
+
+    ColumnVector column =
+        ArrowSchemaConverter.newArrowSchemaConverter(
+            vector, new StructField("s", userType, true, Metadata.empty()));
+    InternalRow row = new ColumnarBatch(new ColumnVector[] {column}, 2).getRow(0).copy();
+
+    assertThat(column.dataType()).isEqualTo(userType);
+    assertThat(read(row, 0, userType)).isEqualTo(Arrays.asList("z", ImmutableList.of("x", "y")));
+    assertThat(column.isNullAt(1)).isTrue();
+  }
+
+  private static Field randomField(Random random, String name, int depth) {
+    switch (random.nextInt(depth < MAX_DEPTH ? 5 : 2)) {
+      case 0:
+        return new Field(name, FieldType.nullable(new ArrowType.Int(64, true)), null);
+      case 1:
+        return new Field(name, FieldType.nullable(new ArrowType.Utf8()), null);
+      case 2:
+        return listOf(name, randomField(random, "element", depth + 1));
+      case 3:
+        List<Field> children = new ArrayList<>();
+        for (int i = 0, size = 1 + random.nextInt(3); i < size; i++) {
+          children.add(randomField(random, "f" + i, depth + 1));
+        }
+        return new Field(name, FieldType.nullable(ArrowType.Struct.INSTANCE), children);
+      default:
+        Field entries =
+            new Field(
+                "entries",
+                FieldType.notNullable(ArrowType.Struct.INSTANCE),
+                ImmutableList.of(
+                    new Field("key", FieldType.notNullable(new ArrowType.Utf8()), null),
+                    randomField(random, "value", depth + 1)));
+        return new Field(
+            name,
+            FieldType.nullable(new ArrowType.Map(/*keysSorted=*/ false)),
+            ImmutableList.of(entries));
+    }
+  }
+
+  private static Field listOf(String name, Field element) {
+    return new Field(name, FieldType.nullable(ArrowType.List.INSTANCE), ImmutableList.of(element));
+  }
+
+  // Values are Longs, Strings, and Lists for arrays, structs and the key and value pairs of maps
+  private static Object randomValue(Random random, Field field) {
+    if (field.isNullable() && random.nextInt(5) == 0) {
+      return null;
+    }
+    List<Object> values = new ArrayList<>();
+    switch (field.getType().getTypeID()) {
+      case Int:
+        return random.nextLong();
+      case Utf8:
+        return "s" + random.nextInt(1000);
+      case Struct:
+        for (Field child : field.getChildren()) {
+          values.add(randomValue(random, child));
+        }
+        return values;
+      default:
+        // lists and maps
+        for (int i = 0, size = random.nextInt(4); i < size; i++) {
+          values.add(randomValue(random, field.getChildren().get(0)));
+        }
+        return values;
+    }
+  }
+
+  private static DataType sparkType(Field field) {
+    switch (field.getType().getTypeID()) {
+      case Int:
+        return DataTypes.LongType;
+      case Utf8:
+        return DataTypes.StringType;
+      case List:
+        Field element = field.getChildren().get(0);
+        return DataTypes.createArrayType(sparkType(element), element.isNullable());
+      case Map:
+        Field value = field.getChildren().get(0).getChildren().get(1);
+        return DataTypes.createMapType(DataTypes.StringType, sparkType(value), value.isNullable());
+      default:
+        StructType structType = new StructType();
+        for (Field child : field.getChildren()) {
+          structType = structType.add(child.getName(), sparkType(child), child.isNullable());
+        }
+        return structType;
+    }
+  }
+
+  private ValueVector newVector(Field field, List<Object> values) {
+    FieldVector vector = field.createVector(allocator);
+    vectors.add(vector);
+    vector.allocateNew();
+    for (int i = 0; i < values.size(); i++) {
+      write(vector, i, values.get(i));
+    }
+    vector.setValueCount(values.size());
+    return vector;
+  }
+
+  private static void write(ValueVector vector, int index, Object value) {
+    if (vector instanceof BigIntVector) {
+      if (value == null) {
+        ((BigIntVector) vector).setNull(index);
+      } else {
+        ((BigIntVector) vector).setSafe(index, (Long) value);
+      }
+    } else if (vector instanceof VarCharVector) {
+      if (value == null) {
+        ((VarCharVector) vector).setNull(index);
+      } else {
+        ((VarCharVector) vector).setSafe(index, ((String) value).getBytes(StandardCharsets.UTF_8));
+      }
+    } else if (vector instanceof StructVector) {
+      StructVector struct = (StructVector) vector;
+      if (value == null) {
+        struct.setNull(index);
+        return;
+      }
+      struct.setIndexDefined(index);
+      List<?> fields = (List<?>) value;
+      for (int i = 0; i < fields.size(); i++) {
+        write(struct.getChildByOrdinal(i), index, fields.get(i));
+      }
+    } else {
+      // also writes maps, as lists of key and value structs
+      ListVector list = (ListVector) vector;
+      if (value == null) {
+        list.setNull(index);
+        return;
+      }
+      List<?> elements = (List<?>) value;
+      int offset = list.startNewValue(index);
+      for (int i = 0; i < elements.size(); i++) {
+        write(list.getDataVector(), offset + i, elements.get(i));
+      }
+      list.endValue(index, elements.size());
+    }
+  }
+
+  private static Object read(SpecializedGetters data, int ordinal, DataType type) {
+    if (data.isNullAt(ordinal)) {
+      return null;
+    }
+    if (type instanceof StructType) {
+      StructField[] fields = ((StructType) type).fields();
+      InternalRow struct = data.getStruct(ordinal, fields.length);
+      List<Object> values = new ArrayList<>();
+      for (int i = 0; i < fields.length; i++) {
+        values.add(read(struct, i, fields[i].dataType()));
+      }
+      return values;
+    }
+    if (type instanceof ArrayType) {
+      ArrayData array = data.getArray(ordinal);
+      List<Object> values = new ArrayList<>();
+      for (int i = 0; i < array.numElements(); i++) {
+        values.add(read(array, i, ((ArrayType) type).elementType()));
+      }
+      return values;
+    }
+    if (type instanceof MapType) {
+      return read(data.getMap(ordinal), (MapType) type);
+    }
+    if (type.equals(DataTypes.LongType)) {
+      return data.getLong(ordinal);
+    }
+    return data.getUTF8String(ordinal).toString();
+  }
+
+  private static List<Object> read(MapData map, MapType type) {
+    List<Object> entries = new ArrayList<>();
+    for (int i = 0; i < map.numElements(); i++) {
+      entries.add(
+          pair(
+              read(map.keyArray(), i, type.keyType()),
+              read(map.valueArray(), i, type.valueType())));
+    }
+    return entries;
+  }
+
+  private static List<Object> pair(Object key, Object value) {
+    return Arrays.asList(key, value);
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.spark.bigquery;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.codahale.metrics.Gauge;
+import org.apache.spark.SparkEnv;
+import org.apache.spark.metrics.MetricsSystem;
+import org.apache.spark.metrics.source.Source;
+import org.junit.After;
+import org.junit.Test;
+
+public class BigQueryConnectorMetricsSourceTest {
+
+  @After
+  public void resetSparkEnv() {
+    SparkEnv.set(null);
+  }
+
+  @Test
+  public void testGauges() {
+    BigQueryConnectorMetricsSource source = new BigQueryConnectorMetricsSource();
+
+    assertThat(source.sourceName()).isEqualTo("bigquery");
+    assertThat(source.metricRegistry().getGauges().keySet())
+        .containsAtLeast(
+            "read.activeStreams",
+            "read.bufferedResponseBytes",
+            "read.bufferedBatchBytes",
+            "read.retries",
+            "arrow.allocatedBytes",
+            "write.inFlightBytes",
+            "write.appendRows.p99Millis",
+            "driver.readSessionCreation.p50Millis",
+            "driver.jobCreation.maxMillis");
+    Gauge<?> retries = source.metricRegistry().getGauges().get("read.retries");
+    assertThat((Long) retries.getValue()).isAtLeast(0L);
+  }
+
+  @Test
+  public void testRegistrationIsRetriedAfterFailure() {
+    MetricsSystem metricsSystem = setMetricsSystem();
+    doThrow(new IllegalStateException("metrics system is not ready"))
+        .doNothing()
+        .when(metricsSystem)
+        .registerSource(any(Source.class));
+
+    BigQueryConnectorMetricsSource.registerIfNeeded();
+    BigQueryConnectorMetricsSource.registerIfNeeded();
+    BigQueryConnectorMetricsSource.registerIfNeeded();
+
+    verify(metricsSystem, times(2)).registerSource(any(BigQueryConnectorMetricsSource.class));
+  }
+
+  @Test
+  public void testSourceIsRegisteredInEachMetricsSystem() {
+    MetricsSystem firstMetricsSystem = setMetricsSystem();
+    BigQueryConnectorMetricsSource.registerIfNeeded();
+    BigQueryConnectorMetricsSource.registerIfNeeded();
+    // a new SparkContext in the same JVM
+    MetricsSystem secondMetricsSystem = setMetricsSystem();
+    BigQueryConnectorMetricsSource.registerIfNeeded();
+
+    verify(firstMetricsSystem, times(1)).registerSource(any(BigQueryConnectorMetricsSource.class));
+    verify(secondMetricsSystem, times(1)).registerSource(any(BigQueryConnectorMetricsSource.class));
+  }
+
+  private static MetricsSystem setMetricsSystem() {
+    MetricsSystem metricsSystem = mock(MetricsSystem.class);
+    SparkEnv sparkEnv = mock(SparkEnv.class);
+    when(sparkEnv.metricsSystem()).thenReturn(metricsSystem);
+    SparkEnv.set(sparkEnv);
+    return metricsSystem;
+  }
+}
@@ -22,15 +22,25 @@ import static org.junit.Assert.fail;
 import com.google.cloud.bigquery.Field;
 import com.google.cloud.bigquery.Field.Mode;
 import com.google.cloud.bigquery.FieldList;
+import com.google.cloud.bigquery.FieldValue;
+import com.google.cloud.bigquery.FieldValueList;
 import com.google.cloud.bigquery.LegacySQLTypeName;
 import com.google.cloud.bigquery.Schema;
 import com.google.cloud.bigquery.StandardTableDefinition;
 import com.google.cloud.bigquery.TableId;
 import com.google.cloud.bigquery.TableInfo;
 import com.google.cloud.bigquery.TimePartitioning;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.ZoneId;
+import java.util.Arrays;
 import java.util.Optional;
+import org.apache.spark.bigquery.BigNumericUDT;
 import org.apache.spark.ml.linalg.SQLDataTypes;
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.catalyst.util.MapData;
 import org.apache.spark.sql.types.*;
+import org.apache.spark.unsafe.types.UTF8String;
 import org.junit.Test;
 
 public class SchemaConverterTest {
@@ -301,6 +311,182 @@ public class SchemaConverterTest {
     assertThat(field.name()).isEqualTo("foo");
   }
 
+  @Test
+  public void testConvertFieldValueListToInternalRow() {
+    Field mapField =
+        Field.newBuilder(
+                "map",
+                LegacySQLTypeName.RECORD,
+                Field.of("key", LegacySQLTypeName.STRING),
+                Field.of("value", LegacySQLTypeName.INTEGER))
+            .setMode(Mode.REPEATED)
+            .build();
+    Schema schema =
+        Schema.of(
+            Field.of("int", LegacySQLTypeName.INTEGER),
+            Field.of("float", LegacySQLTypeName.FLOAT),
+            Field.of("bool", LegacySQLTypeName.BOOLEAN),
+            Field.of("str", LegacySQLTypeName.STRING),
+            Field.of("date", LegacySQLTypeName.DATE),
+            Field.of("time", LegacySQLTypeName.TIME),
+            Field.of("ts", LegacySQLTypeName.TIMESTAMP),
+            Field.of("num", LegacySQLTypeName.NUMERIC),
+            Field.of("record", LegacySQLTypeName.RECORD, Field.of("a", LegacySQLTypeName.INTEGER)),
+            Field.newBuilder("arr", LegacySQLTypeName.INTEGER).setMode(Mode.REPEATED).build(),
+            mapField,
+            Field.of("null", LegacySQLTypeName.STRING));
+    FieldValueList row =
+        FieldValueList.of(
+            Arrays.asList(
+                primitive("42"),
+                primitive("1.5"),
+                primitive("true"),
+                primitive("foo"),
+                primitive("1970-01-11"),
+                primitive("00:00:01.5"),
+                primitive("1.000001"),
+                primitive("3.14"),
+                FieldValue.of(
+                    FieldValue.Attribute.RECORD, FieldValueList.of(Arrays.asList(primitive("7")))),
+                FieldValue.of(
+                    FieldValue.Attribute.REPEATED, Arrays.asList(primitive("1"), primitive("2"))),
+                FieldValue.of(
+                    FieldValue.Attribute.REPEATED,
+                    Arrays.asList(
+                        FieldValue.of(
+                            FieldValue.Attribute.RECORD,
+                            FieldValueList.of(Arrays.asList(primitive("k"), primitive("9")))))),
+                primitive(null)),
+            schema.getFields());
+
+    InternalRow result =
+        SchemaConverters.from(SCHEMA_CONVERTERS_CONFIGURATION).convertToInternalRow(schema, row);
+
+    assertThat(result.getLong(0)).isEqualTo(42L);
+    assertThat(result.getDouble(1)).isEqualTo(1.5);
+    assertThat(result.getBoolean(2)).isTrue();
+    assertThat(result.getUTF8String(3).toString()).isEqualTo("foo");
+    assertThat(result.getInt(4)).isEqualTo(10);
+    assertThat(result.getLong(5)).isEqualTo(1_500_000L);
+    assertThat(result.getLong(6)).isEqualTo(1_000_001L);
+    assertThat(result.getDecimal(7, 38, 9).toJavaBigDecimal())
+        .isEqualTo(new BigDecimal("3.140000000"));
+    assertThat(result.getStruct(8, 1).getLong(0)).isEqualTo(7L);
+    assertThat(result.getArray(9).toLongArray()).isEqualTo(new long[] {1L, 2L});
+    MapData map = result.getMap(10);
+    assertThat(map.keyArray().getUTF8String(0).toString()).isEqualTo("k");
+    assertThat(map.valueArray().getLong(0)).isEqualTo(9L);
+    assertThat(result.isNullAt(11)).isTrue();
+  }
+
+  @Test
+  public void testBigNumericWithSmallPrecisionIsReadAsDecimal() {
+    Field parameterized =
+        Field.newBuilder("parameterized", LegacySQLTypeName.BIGNUMERIC)
+            .setPrecision(20L)
+            .setScale(10L)
+            .build();
+    Field unparameterized = Field.of("unparameterized", LegacySQLTypeName.BIGNUMERIC);
+    Schema schema = Schema.of(parameterized, unparameterized);
+
+    StructType result = SchemaConverters.from(SCHEMA_CONVERTERS_CONFIGURATION).toSpark(schema);
+    StructType asString =
+        SchemaConverters.from(SchemaConvertersConfiguration.of(ZoneId.of("UTC"), true))
+            .toSpark(schema);
+
+    assertThat(result.apply("parameterized").dataType())
+        .isEqualTo(DataTypes.createDecimalType(20, 10));
+    assertThat(result.apply("unparameterized").dataType()).isInstanceOf(BigNumericUDT.class);
+    assertThat(asString.apply("parameterized").dataType()).isInstanceOf(BigNumericUDT.class);
+    assertThat(asString.apply("unparameterized").dataType()).isInstanceOf(BigNumericUDT.class);
+  }
+
+  @Test
+  public void testConvertBigNumericFromAvro() {
+    Field parameterized =
+        Field.newBuilder("parameterized", LegacySQLTypeName.BIGNUMERIC)
+            .setPrecision(20L)
+            .setScale(10L)
+            .build();
+    Field unparameterized = Field.of("unparameterized", LegacySQLTypeName.BIGNUMERIC);
+    BigDecimal value = new BigDecimal("-1234567890.0123456789");
+    SchemaConverters schemaConverters = SchemaConverters.from(SCHEMA_CONVERTERS_CONFIGURATION);
+
+    assertThat(schemaConverters.convertByBigQueryType(parameterized, avroBigNumeric(value), null))
+        .isEqualTo(Decimal.apply(value, 20, 10));
+    assertThat(schemaConverters.convertByBigQueryType(unparameterized, avroBigNumeric(value), null))
+        .isEqualTo(UTF8String.fromString("-1234567890.01234567890000000000000000000000000000"));
+    // the user provided schema reads the unparameterized value as a decimal
+    StructField userProvidedField =
+        new StructField(
+            "unparameterized", DataTypes.createDecimalType(38, 12), true, Metadata.empty());
+    assertThat(
+            schemaConverters.convertByBigQueryType(
+                unparameterized, avroBigNumeric(value), userProvidedField))
+        .isEqualTo(Decimal.apply(value, 38, 12));
+    assertThat(
+            SchemaConverters.from(SchemaConvertersConfiguration.of(ZoneId.of("UTC"), true))
+                .convertByBigQueryType(parameterized, avroBigNumeric(value), null))
+        .isInstanceOf(UTF8String.class);
+  }
+
+  @Test
+  public void testConvertBigNumericFieldValue() {
+    Schema schema =
+        Schema.of(
+            Field.newBuilder("bignumeric", LegacySQLTypeName.BIGNUMERIC)
+                .setPrecision(10L)
+                .setScale(2L)
+                .build());
+    FieldValueList row =
+        FieldValueList.of(Arrays.asList(primitive("12345678.9")), schema.getFields());
+
+    InternalRow result =
+        SchemaConverters.from(SCHEMA_CONVERTERS_CONFIGURATION).convertToInternalRow(schema, row);
+
+    assertThat(result.getDecimal(0, 10, 2).toJavaBigDecimal())
+        .isEqualTo(new BigDecimal("12345678.90"));
+  }
+
+  @Test
+  public void testConvertBigNumericFieldValueWithUserProvidedSchema() {
+    Schema schema =
+        Schema.of(
+            Field.of("bignumeric", LegacySQLTypeName.BIGNUMERIC),
+            Field.newBuilder("bignumerics", LegacySQLTypeName.BIGNUMERIC)
+                .setMode(Field.Mode.REPEATED)
+                .build());
+    FieldValueList row =
+        FieldValueList.of(
+            Arrays.asList(
+                primitive("-1234567890.0123456789"),
+                FieldValue.of(FieldValue.Attribute.REPEATED, Arrays.asList(primitive("1.5")))),
+            schema.getFields());
+    StructType userProvidedSchema =
+        new StructType()
+            .add("bignumeric", DataTypes.createDecimalType(38, 12))
+            .add("bignumerics", DataTypes.createArrayType(DataTypes.createDecimalType(20, 2)));
+
+    InternalRow result =
+        SchemaConverters.from(SCHEMA_CONVERTERS_CONFIGURATION)
+            .convertToInternalRow(schema, row, Optional.of(userProvidedSchema));
+
+    assertThat(result.getDecimal(0, 38, 12).toJavaBigDecimal())
+        .isEqualTo(new BigDecimal("-1234567890.012345678900"));
+    assertThat(result.getArray(1).getDecimal(0, 20, 2).toJavaBigDecimal())
+        .isEqualTo(new BigDecimal("1.50"));
+  }
+
+  // BigQuery serializes BIGNUMERIC values to Avro as the unscaled value with a scale of 38
+  private static ByteBuffer avroBigNumeric(BigDecimal value) {
+    return ByteBuffer.wrap(
+        value.setScale(SchemaConverters.BQ_BIG_NUMERIC_SCALE).unscaledValue().toByteArray());
+  }
+
+  private static FieldValue primitive(String value) {
+    return FieldValue.of(FieldValue.Attribute.PRIMITIVE, value);
+  }
+
   public final StructType MY_STRUCT =
       DataTypes.createStructType(
           new StructField[] {
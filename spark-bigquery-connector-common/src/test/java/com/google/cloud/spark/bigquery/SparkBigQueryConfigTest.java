@@ -127,6 +127,12 @@ public class SparkBigQueryConfigTest {
     assertThat(config.getDatetimeZoneId()).isEqualTo(ZoneId.of("UTC"));
     assertThat(config.getQueryJobPriority()).isEqualTo(SparkBigQueryConfig.DEFAULT_JOB_PRIORITY);
     assertThat(config.getKmsKeyName()).isEqualTo(Optional.empty());
+    assertThat(config.getDriverReadThresholdInBytes()).isEqualTo(0);
+    assertThat(config.isCostBasedPushdownEnabled()).isFalse();
+    assertThat(config.getCostBasedPushdownMaxOutputRatio()).isEqualTo(1.0);
+    assertThat(config.isBigNumericAsString()).isFalse();
+    assertThat(config.isAdaptiveArrowCompression()).isFalse();
+    assertThat(config.isAvroColumnarReadsEnabled()).isFalse();
   }
 
   @Test
@@ -173,6 +179,9 @@ public class SparkBigQueryConfigTest {
                 .put("datetimeZoneId", "Asia/Jerusalem")
                 .put("queryJobPriority", "batch")
                 .put("destinationTableKmsKeyName", "some/key/name")
+                .put("driverReadThresholdInBytes", "1000000")
+                .put("enableCostBasedPushdown", "true")
+                .put("costBasedPushdownMaxOutputRatio", "2.5")
                 .build());
     SparkBigQueryConfig config =
         SparkBigQueryConfig.from(
@@ -225,6 +234,9 @@ public class SparkBigQueryConfigTest {
     assertThat(config.getDatetimeZoneId()).isEqualTo(ZoneId.of("Asia/Jerusalem"));
     assertThat(config.getQueryJobPriority()).isEqualTo(Priority.valueOf("BATCH"));
     assertThat(config.getKmsKeyName()).isEqualTo(Optional.of("some/key/name"));
+    assertThat(config.getDriverReadThresholdInBytes()).isEqualTo(1000000);
+    assertThat(config.isCostBasedPushdownEnabled()).isTrue();
+    assertThat(config.getCostBasedPushdownMaxOutputRatio()).isEqualTo(2.5);
   }
 
   @Test
@@ -320,6 +332,35 @@ public class SparkBigQueryConfigTest {
                 + Arrays.toString(CompressionCodec.values()));
   }
 
+  @Test
+  public void testAdaptiveCompressionCodec() {
+    DataSourceOptions options =
+        new DataSourceOptions(
+            ImmutableMap.<String, String>builder()
+                .put("table", "test_t")
+                .put("dataset", "test_d")
+                .put("project", "test_p")
+                .put("arrowCompressionCodec", "adaptive")
+                .build());
+
+    SparkBigQueryConfig config =
+        SparkBigQueryConfig.from(
+            options.asMap(),
+            ImmutableMap.of(),
+            new Configuration(),
+            ImmutableMap.of(),
+            DEFAULT_PARALLELISM,
+            new SQLConf(),
+            SPARK_VERSION,
+            Optional.empty(), /* tableIsMandatory */
+            true);
+
+    assertThat(config.isAdaptiveArrowCompression()).isTrue();
+    assertThat(config.getArrowCompressionCodec())
+        .isEqualTo(CompressionCodec.COMPRESSION_UNSPECIFIED);
+    assertThat(config.toReadSessionCreatorConfig().isAdaptiveArrowCompression()).isTrue();
+  }
+
   @Test
   public void testConfigFromGlobalOptions() {
     Configuration hadoopConfiguration = new Configuration();
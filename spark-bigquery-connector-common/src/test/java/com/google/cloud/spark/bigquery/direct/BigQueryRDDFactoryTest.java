@@ -0,0 +1,171 @@
+/*
+ * Copyright 2023 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.spark.bigquery.direct;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.Job;
+import com.google.cloud.bigquery.JobInfo;
+import com.google.cloud.bigquery.JobStatistics;
+import com.google.cloud.bigquery.QueryJobConfiguration;
+import com.google.cloud.bigquery.StandardTableDefinition;
+import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.TableInfo;
+import com.google.cloud.bigquery.connector.common.BigQueryClient;
+import com.google.cloud.bigquery.connector.common.BigQueryJobExecutor;
+import com.google.cloud.bigquery.connector.common.TableInfoCache;
+import com.google.cloud.bigquery.storage.v1.ReadSession;
+import com.google.cloud.spark.bigquery.SparkBigQueryConfig;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import java.util.Optional;
+import java.util.OptionalLong;
+import org.junit.Test;
+
+public class BigQueryRDDFactoryTest {
+
+  private static final String QUERY = "SELECT a, b FROM `project.dataset.table` WHERE a > 1";
+
+  BigQueryClient bigQueryClient = mock(BigQueryClient.class);
+  SparkBigQueryConfig options = mock(SparkBigQueryConfig.class);
+  BigQueryRDDFactory bigQueryRDDFactory =
+      new BigQueryRDDFactory(bigQueryClient, null, null, options, null);
+
+  @Test
+  public void testQueryIsPushedDownWhenCostBasedPushdownIsDisabled() {
+    when(options.isCostBasedPushdownEnabled()).thenReturn(false);
+
+    assertThat(bigQueryRDDFactory.shouldPushdownQuery(QUERY, OptionalLong.of(Long.MAX_VALUE)))
+        .isTrue();
+    verify(bigQueryClient, never()).estimateBytesProcessed(anyString());
+  }
+
+  @Test
+  public void testQueryIsPushedDownWhenOutputIsSmall() {
+    mockDryRun(1000L);
+
+    assertThat(bigQueryRDDFactory.shouldPushdownQuery(QUERY, OptionalLong.of(1500L))).isTrue();
+  }
+
+  @Test
+  public void testQueryIsNotPushedDownWhenOutputIsLarge() {
+    mockDryRun(1000L);
+
+    assertThat(bigQueryRDDFactory.shouldPushdownQuery(QUERY, OptionalLong.of(2001L))).isFalse();
+  }
+
+  @Test
+  public void testQueryIsPushedDownWithoutDryRunWhenOutputSizeIsUnknown() {
+    when(options.isCostBasedPushdownEnabled()).thenReturn(true);
+
+    assertThat(bigQueryRDDFactory.shouldPushdownQuery(QUERY, OptionalLong.empty())).isTrue();
+    verify(bigQueryClient, never()).estimateBytesProcessed(anyString());
+  }
+
+  @Test
+  public void testQueryIsPushedDownWhenBytesProcessedAreUnknown() {
+    when(options.isCostBasedPushdownEnabled()).thenReturn(true);
+    when(bigQueryClient.estimateBytesProcessed(QUERY)).thenReturn(OptionalLong.empty());
+
+    assertThat(bigQueryRDDFactory.shouldPushdownQuery(QUERY, OptionalLong.of(Long.MAX_VALUE)))
+        .isTrue();
+  }
+
+  @Test
+  public void testSameQueryIsDryRunOnce() {
+    when(options.isCostBasedPushdownEnabled()).thenReturn(true);
+    when(options.getCostBasedPushdownMaxOutputRatio()).thenReturn(2.0);
+    BigQuery bigQuery = mock(BigQuery.class);
+    JobStatistics.QueryStatistics statistics = mock(JobStatistics.QueryStatistics.class);
+    when(statistics.getTotalBytesProcessed()).thenReturn(1000L);
+    Job dryRunJob = mock(Job.class);
+    when(dryRunJob.getStatistics()).thenReturn(statistics);
+    when(bigQuery.create(any(JobInfo.class))).thenReturn(dryRunJob);
+    BigQueryRDDFactory factory =
+        new BigQueryRDDFactory(
+            new BigQueryClient(
+                bigQuery,
+                Optional.empty(),
+                Optional.empty(),
+                CacheBuilder.newBuilder().build(),
+                CacheBuilder.newBuilder().build(),
+                TableInfoCache.disabled(),
+                new BigQueryJobExecutor(1),
+                false,
+                ImmutableMap.of(),
+                QueryJobConfiguration.Priority.INTERACTIVE),
+            null,
+            null,
+            options,
+            null);
+
+    assertThat(factory.shouldPushdownQuery(QUERY, OptionalLong.of(3000L))).isFalse();
+    // Spark plans the query again, e.g. when another strategy rejected its plan
+    assertThat(factory.shouldPushdownQuery(QUERY, OptionalLong.of(1500L))).isTrue();
+
+    verify(bigQuery, times(1)).create(any(JobInfo.class));
+  }
+
+  @Test
+  public void testSmallReadSessionIsReadOnDriver() {
+    when(options.getDriverReadThresholdInBytes()).thenReturn(1000L);
+
+    assertThat(bigQueryRDDFactory.shouldReadOnDriver(readSession(500), table(10_000L))).isTrue();
+    assertThat(bigQueryRDDFactory.shouldReadOnDriver(readSession(1500), table(500L))).isFalse();
+  }
+
+  @Test
+  public void testTableSizeIsUsedWhenReadSessionEstimateIsNotPopulated() {
+    when(options.getDriverReadThresholdInBytes()).thenReturn(1000L);
+
+    assertThat(bigQueryRDDFactory.shouldReadOnDriver(readSession(0), table(500L))).isTrue();
+    assertThat(bigQueryRDDFactory.shouldReadOnDriver(readSession(0), table(1_000_000L))).isFalse();
+    assertThat(bigQueryRDDFactory.shouldReadOnDriver(readSession(0), table(null))).isFalse();
+  }
+
+  @Test
+  public void testNothingIsReadOnDriverWhenThresholdIsDisabled() {
+    when(options.getDriverReadThresholdInBytes()).thenReturn(0L);
+
+    assertThat(bigQueryRDDFactory.shouldReadOnDriver(readSession(0), table(0L))).isFalse();
+  }
+
+  private static ReadSession readSession(long estimatedTotalBytesScanned) {
+    return ReadSession.newBuilder()
+        .setEstimatedTotalBytesScanned(estimatedTotalBytesScanned)
+        .build();
+  }
+
+  private static TableInfo table(Long numBytes) {
+    return TableInfo.of(
+        TableId.of("project", "dataset", "table"),
+        StandardTableDefinition.newBuilder().setNumBytes(numBytes).build());
+  }
+
+  private void mockDryRun(long bytesProcessed) {
+    when(options.isCostBasedPushdownEnabled()).thenReturn(true);
+    when(options.getCostBasedPushdownMaxOutputRatio()).thenReturn(2.0);
+    when(bigQueryClient.estimateBytesProcessed(QUERY)).thenReturn(OptionalLong.of(bytesProcessed));
+  }
+}
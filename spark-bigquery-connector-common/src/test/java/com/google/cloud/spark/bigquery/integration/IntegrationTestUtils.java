@@ -28,6 +28,8 @@ import com.google.cloud.bigquery.TableId;
 import com.google.cloud.bigquery.TableInfo;
 import com.google.cloud.bigquery.ViewDefinition;
 import com.google.cloud.bigquery.connector.common.BigQueryClient;
+import com.google.cloud.bigquery.connector.common.BigQueryJobExecutor;
+import com.google.cloud.bigquery.connector.common.TableInfoCache;
 import com.google.cloud.spark.bigquery.SchemaConverters;
 import com.google.cloud.spark.bigquery.SchemaConvertersConfiguration;
 import com.google.cloud.spark.bigquery.SparkBigQueryConfig;
@@ -71,6 +73,10 @@ public class IntegrationTestUtils {
             Optional.empty(),
             Optional.empty(),
             destinationTableCache,
+            CacheBuilder.newBuilder().build(),
+            TableInfoCache.disabled(),
+            new BigQueryJobExecutor(1),
+            false,
             ImmutableMap.of(),
             SparkBigQueryConfig.DEFAULT_JOB_PRIORITY);
     bigQueryClient.query(query);
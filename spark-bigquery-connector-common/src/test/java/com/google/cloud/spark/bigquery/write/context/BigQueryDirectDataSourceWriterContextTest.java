@@ -83,7 +83,6 @@ public class BigQueryDirectDataSourceWriterContextTest {
 
   @Test
   public void testDeleteOnAbort_saveModeAppend() {
-    when(bigQueryClient.tableExists(any())).thenReturn(true);
     when(bigQueryClient.getTable(any())).thenReturn(destinationTable);
     when(bigQueryClient.createTablePathForBigQueryStorage(any())).thenReturn("");
     BigQueryDirectDataSourceWriterContext ctx =
@@ -94,7 +93,6 @@ public class BigQueryDirectDataSourceWriterContextTest {
 
   @Test
   public void testDeleteOnAbort_saveModeErrorIfExists() {
-    when(bigQueryClient.tableExists(any())).thenReturn(true);
     when(bigQueryClient.getTable(any())).thenReturn(destinationTable);
     assertThrows(
         IllegalArgumentException.class,
@@ -106,7 +104,6 @@ public class BigQueryDirectDataSourceWriterContextTest {
 
   @Test
   public void testDeleteOnAbort_saveModeIgnore() {
-    when(bigQueryClient.tableExists(any())).thenReturn(true);
     when(bigQueryClient.getTable(any())).thenReturn(destinationTable);
     when(bigQueryClient.createTablePathForBigQueryStorage(any())).thenReturn("");
     BigQueryDirectDataSourceWriterContext ctx =
@@ -117,7 +114,6 @@ public class BigQueryDirectDataSourceWriterContextTest {
 
   @Test
   public void testDeleteOnAbort_saveModeOverwrite() {
-    when(bigQueryClient.tableExists(any())).thenReturn(true);
     when(bigQueryClient.getTable(any())).thenReturn(destinationTable);
     when(bigQueryClient.createTempTable(any(), any())).thenReturn(tempTable);
     when(bigQueryClient.createTablePathForBigQueryStorage(any())).thenReturn("");
@@ -129,7 +125,7 @@ public class BigQueryDirectDataSourceWriterContextTest {
 
   @Test
   public void testDeleteOnAbort_newTable() {
-    when(bigQueryClient.tableExists(destinationTableId)).thenReturn(false);
+    when(bigQueryClient.getTable(destinationTableId)).thenReturn(null);
     when(bigQueryClient.createTable(any(), any(), any())).thenReturn(destinationTable);
     when(bigQueryClient.createTablePathForBigQueryStorage(any())).thenReturn("");
     BigQueryDirectDataSourceWriterContext ctx =
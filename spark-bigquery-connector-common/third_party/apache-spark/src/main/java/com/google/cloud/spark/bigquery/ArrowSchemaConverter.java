@@ -17,6 +17,7 @@ package com.google.cloud.spark.bigquery;
 
 import com.google.common.collect.ImmutableList;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -134,7 +135,12 @@ public abstract class ArrowSchemaConverter extends ColumnVector {
       case Date: return DataTypes.DateType;
       case Time:
       case Timestamp: return DataTypes.TimestampType;
-      case Decimal: return DataTypes.createDecimalType();
+      case Decimal:
+        ArrowType.Decimal decimal = (ArrowType.Decimal) arrowType;
+        // wider decimals, such as unparameterized BIGNUMERIC values, are read as strings
+        return decimal.getPrecision() <= DecimalType.MAX_PRECISION()
+            ? DataTypes.createDecimalType(decimal.getPrecision(), decimal.getScale())
+            : DataTypes.StringType;
     }
 
     throw new UnsupportedOperationException("Unsupported data type " + arrowType.toString());
@@ -142,6 +148,14 @@ public abstract class ArrowSchemaConverter extends ColumnVector {
 
   private static DataType fromArrowField(Field field)
   {
+    if (field.getType().getTypeID() == ArrowTypeID.Map)
+    {
+      // The entries of a map are a struct of the key and the value
+      java.util.List<Field> entryFields = field.getChildren().get(0).getChildren();
+      Field valueField = entryFields.get(1);
+      return new MapType(fromArrowField(entryFields.get(0)), fromArrowField(valueField), valueField.isNullable());
+    }
+
     if (field.getType().getTypeID() == ArrowTypeID.List)
     {
       Field elementField = field.getChildren().get(0);
@@ -173,6 +187,11 @@ public abstract class ArrowSchemaConverter extends ColumnVector {
     super(fromArrowField(vector.getField()));
   }
 
+  // Used by the nested accessors, whose type is derived from the accessors of their children
+  ArrowSchemaConverter(DataType type) {
+    super(type);
+  }
+
   public static ArrowSchemaConverter newArrowSchemaConverter(ValueVector vector, StructField userProvidedField) {
     if (vector instanceof BitVector) {
       return new ArrowSchemaConverter.BooleanAccessor((BitVector) vector);
@@ -197,11 +216,12 @@ public abstract class ArrowSchemaConverter extends ColumnVector {
     } else if (vector instanceof TimeStampMicroTZVector) {
       return new ArrowSchemaConverter.TimestampMicroTZVectorAccessor((TimeStampMicroTZVector) vector);
     } else if (vector instanceof ListVector) {
+      // also covers MapVector, which is a list of key and value entries
       ListVector listVector = (ListVector) vector;
-      return new ArrowSchemaConverter.ArrayAccessor(listVector, userProvidedField);
+      return ArrowSchemaConverter.ArrayAccessor.create(listVector, userProvidedField);
     } else if (vector instanceof StructVector) {
       StructVector structVector = (StructVector) vector;
-      return new ArrowSchemaConverter.StructAccessor(structVector, userProvidedField);
+      return ArrowSchemaConverter.StructAccessor.create(structVector, userProvidedField);
     } else {
       throw new UnsupportedOperationException();
     }
@@ -351,11 +371,16 @@ public abstract class ArrowSchemaConverter extends ColumnVector {
       return UTF8String.fromString(bigDecimal.toPlainString());
     }
 
-    // Implemented this method for reading BigNumeric values
+    // Implemented this method for reading BigNumeric values as decimals, the same way as
+    // SchemaConverters does for Avro
     @Override
     public final Decimal getDecimal(int rowId, int precision, int scale) {
       if (isNullAt(rowId)) return null;
-      return Decimal.apply(((Decimal256Vector)vector).getObject(rowId), precision, scale);
+      BigDecimal value = vector.getObject(rowId).setScale(scale, RoundingMode.HALF_UP);
+      if (precision <= Decimal.MAX_LONG_DIGITS() && value.precision() <= precision) {
+        return Decimal.createUnsafe(value.unscaledValue().longValue(), precision, scale);
+      }
+      return Decimal.apply(value, precision, scale);
     }
 
     @Override
@@ -559,20 +584,42 @@ public abstract class ArrowSchemaConverter extends ColumnVector {
     }
   }
 
+  /**
+   * Reads a list, or a map when the list is read as a Spark map or holds records of exactly a key
+   * and a value, as they are converted to maps by SchemaConverters. The elements are read in place
+   * through the accessor of the data vector.
+   */
   private static class ArrayAccessor extends ArrowSchemaConverter {
     private final ListVector vector;
 
     private final ArrowSchemaConverter arrayData;
+    // the columns of the entries when the list is read as a map
+    private final ColumnVector keys;
+    private final ColumnVector values;
 
-    ArrayAccessor(ListVector vector, StructField userProvidedField) {
-      super(vector);
+    private ArrayAccessor(ListVector vector, ArrowSchemaConverter arrayData, DataType type) {
+      super(type);
       this.vector = vector;
+      this.arrayData = arrayData;
+      if (type instanceof MapType) {
+        StructAccessor entries = (StructAccessor) arrayData;
+        this.keys = entries.getChild("key");
+        this.values = entries.getChild("value");
+      } else {
+        this.keys = null;
+        this.values = null;
+      }
+    }
+
+    static ArrayAccessor create(ListVector vector, StructField userProvidedField) {
       StructField structField = null;
+      boolean readAsMap = false;
 
       // this is to support Array of StructType/StructVector
       if(userProvidedField != null) {
         DataType dataType = userProvidedField.dataType();
-        ArrayType arrayType = dataType instanceof MapType ? convertMapTypeToArrayType((MapType) dataType) : (ArrayType) dataType;
+        readAsMap = dataType instanceof MapType;
+        ArrayType arrayType = readAsMap ? convertMapTypeToArrayType((MapType) dataType) : (ArrayType) dataType;
         structField =
             new StructField(
                 vector.getDataVector().getName(),
@@ -581,9 +628,33 @@ public abstract class ArrowSchemaConverter extends ColumnVector {
                 Metadata.empty());// safe to pass empty metadata as it is not used anywhere
       }
 
-      this.arrayData = newArrowSchemaConverter(vector.getDataVector(), structField);
+      ArrowSchemaConverter arrayData = newArrowSchemaConverter(vector.getDataVector(), structField);
+      DataType elementType = arrayData.dataType();
+      if (userProvidedField == null) {
+        readAsMap = isKeyValueStruct(elementType);
+      }
+      DataType type;
+      if (readAsMap) {
+        if (!isKeyValueStruct(elementType)) {
+          throw new UnsupportedOperationException(
+              "Only lists of key and value records can be read as a map, got " + elementType);
+        }
+        StructType entryType = (StructType) elementType;
+        StructField valueField = entryType.apply("value");
+        type = new MapType(entryType.apply("key").dataType(), valueField.dataType(), valueField.nullable());
+      } else {
+        type = new ArrayType(elementType, vector.getDataVector().getField().isNullable());
+      }
+      return new ArrayAccessor(vector, arrayData, type);
     }
 
+    private static boolean isKeyValueStruct(DataType dataType) {
+      if (!(dataType instanceof StructType)) {
+        return false;
+      }
+      List<String> names = Arrays.asList(((StructType) dataType).fieldNames());
+      return names.size() == 2 && names.contains("key") && names.contains("value");
+    }
 
     static ArrayType convertMapTypeToArrayType(MapType mapType) {
       StructField key = StructField.apply("key", mapType.keyType(), false, Metadata.empty());
@@ -600,7 +671,10 @@ public abstract class ArrowSchemaConverter extends ColumnVector {
 
     @Override
     public final ColumnarArray getArray(int rowId) {
-      ArrowBuf offsets = ((ListVector)vector).getOffsetBuffer();
+      if (isNullAt(rowId)) {
+        return null;
+      }
+      ArrowBuf offsets = vector.getOffsetBuffer();
       int index = rowId * ListVector.OFFSET_WIDTH;
       int start = offsets.getInt(index);
       int end = offsets.getInt(index + ListVector.OFFSET_WIDTH);
@@ -609,12 +683,16 @@ public abstract class ArrowSchemaConverter extends ColumnVector {
 
     @Override
     public ColumnarMap getMap(int rowId) {
-      ArrowBuf offsets = ((ListVector)vector).getOffsetBuffer();
+      if (keys == null) {
+        throw new UnsupportedOperationException("Cannot read a list of " + arrayData.dataType() + " as a map");
+      }
+      if (isNullAt(rowId)) {
+        return null;
+      }
+      ArrowBuf offsets = vector.getOffsetBuffer();
       int index = rowId * ListVector.OFFSET_WIDTH;
       int start = offsets.getInt(index);
       int end = offsets.getInt(index + ListVector.OFFSET_WIDTH);
-      ColumnVector keys = ((StructAccessor)arrayData).childColumns[0];
-      ColumnVector values = ((StructAccessor)arrayData).childColumns[1];
       return new ColumnarMap(keys, values, start, end - start);
     }
 
@@ -626,39 +704,60 @@ public abstract class ArrowSchemaConverter extends ColumnVector {
   }
 
   /**
-   * Any call to "get" method will throw UnsupportedOperationException.
+   * Any call to "get" method will throw UnsupportedOperationException. The fields are read in place
+   * through the accessors of the child vectors, in the order of the user provided field if any.
    */
   private static class StructAccessor extends ArrowSchemaConverter {
     private final StructVector vector;
     private ArrowSchemaConverter childColumns[];
 
-    StructAccessor(StructVector structVector, StructField userProvidedField) {
-      super(structVector);
+    private StructAccessor(StructVector structVector, ArrowSchemaConverter[] childColumns, StructType type) {
+      super(type);
       this.vector = structVector;
+      this.childColumns = childColumns;
+    }
+
+    static StructAccessor create(StructVector structVector, StructField userProvidedField) {
+      List<ValueVector> childVectors;
+      List<StructField> childFields;
       if(userProvidedField !=null) {
-        List<StructField> structList =
+        childFields =
               Arrays.stream(((StructType) userProvidedField.dataType()).fields())
                     .collect(Collectors.toList());
 
-        this.childColumns = new ArrowSchemaConverter[structList.size()];
-
         Map<String, ValueVector> valueVectorMap =
                 structVector
                         .getChildrenFromFields()
                         .stream()
                         .collect(Collectors.toMap(ValueVector::getName, valueVector -> valueVector));
 
-        for (int i = 0; i < childColumns.length; ++i) {
-          StructField structField = structList.get(i);
-          childColumns[i] =
-                  newArrowSchemaConverter(valueVectorMap.get(structField.name()), structField);
+        childVectors = new java.util.ArrayList<>();
+        for (StructField structField : childFields) {
+          ValueVector childVector = valueVectorMap.get(structField.name());
+          if (childVector == null) {
+            throw new IllegalArgumentException(
+                String.format("Field %s does not exist in the struct %s", structField.name(), structVector.getName()));
+          }
+          childVectors.add(childVector);
         }
       } else {
-        childColumns = new ArrowSchemaConverter[structVector.size()];
-        for (int i = 0; i < childColumns.length; ++i) {
-          childColumns[i] = newArrowSchemaConverter(structVector.getVectorById(i), /*userProvidedField=*/null);
-        }
+        childVectors = structVector.getChildrenFromFields().stream().collect(Collectors.toList());
+        childFields = java.util.Collections.nCopies(childVectors.size(), null);
+      }
+
+      ArrowSchemaConverter[] childColumns = new ArrowSchemaConverter[childVectors.size()];
+      StructField[] fields = new StructField[childVectors.size()];
+      for (int i = 0; i < childColumns.length; ++i) {
+        ValueVector childVector = childVectors.get(i);
+        childColumns[i] = newArrowSchemaConverter(childVector, childFields.get(i));
+        fields[i] =
+            new StructField(
+                childVector.getName(),
+                childColumns[i].dataType(),
+                childVector.getField().isNullable(),
+                Metadata.empty());
       }
+      return new StructAccessor(structVector, childColumns, new StructType(fields));
     }
 
     @Override
@@ -670,6 +769,10 @@ public abstract class ArrowSchemaConverter extends ColumnVector {
     @Override
     public ColumnVector getChild(int ordinal) { return childColumns[ordinal]; }
 
+    ColumnVector getChild(String name) {
+      return childColumns[((StructType) dataType()).fieldIndex(name)];
+    }
+
 
     @Override
     public void close() {
@@ -25,7 +25,7 @@ import org.apache.spark.sql.connector.write.WriterCommitMessage;
 
 public class BigQueryBatchWrite implements BatchWrite {
 
-  private DataSourceWriterContext ctx;
+  protected DataSourceWriterContext ctx;
 
   public BigQueryBatchWrite(DataSourceWriterContext ctx) {
     this.ctx = ctx;
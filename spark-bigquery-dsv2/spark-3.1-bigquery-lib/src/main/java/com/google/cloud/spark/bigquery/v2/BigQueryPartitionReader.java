@@ -21,7 +21,7 @@ import org.apache.spark.sql.connector.read.PartitionReader;
 
 public class BigQueryPartitionReader<T> implements PartitionReader<T> {
 
-  private InputPartitionReaderContext<T> context;
+  protected InputPartitionReaderContext<T> context;
 
   public BigQueryPartitionReader(InputPartitionReaderContext<T> context) {
     this.context = context;
@@ -23,7 +23,7 @@ import org.apache.spark.sql.connector.write.WriterCommitMessage;
 
 public class Spark31BigQueryDataWriter implements DataWriter<InternalRow> {
 
-  private DataWriterContext<InternalRow> ctx;
+  protected DataWriterContext<InternalRow> ctx;
 
   public Spark31BigQueryDataWriter(DataWriterContext<InternalRow> ctx) {
     this.ctx = ctx;
@@ -22,7 +22,7 @@ import org.apache.spark.sql.connector.write.DataWriterFactory;
 
 public class Spark31BigQueryDataWriterFactory implements DataWriterFactory {
 
-  private DataWriterContextFactory<InternalRow> writerContextFactory;
+  protected DataWriterContextFactory<InternalRow> writerContextFactory;
 
   public Spark31BigQueryDataWriterFactory(
       DataWriterContextFactory<InternalRow> writerContextFactory) {
@@ -16,6 +16,7 @@
 package com.google.cloud.spark.bigquery.v2;
 
 import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.connector.common.PlanningTimeline;
 import com.google.cloud.spark.bigquery.DataSourceVersion;
 import com.google.cloud.spark.bigquery.SparkBigQueryConfig;
 import com.google.cloud.spark.bigquery.v2.context.BigQueryDataSourceReaderContext;
@@ -61,17 +62,25 @@ public class Spark31BigQueryTable implements Table, SupportsRead, SupportsWrite
 
   protected BigQueryDataSourceReaderContext createBigQueryDataSourceReaderContext(
       CaseInsensitiveStringMap options) {
+    // each scan has its own timeline. The steps taken to create the table are reported by the
+    // first scan only, otherwise the planning of a later action on the same DataFrame would include
+    // all the time elapsed since the table was created
+    PlanningTimeline timeline = injector.getInstance(PlanningTimeline.class).drain();
     SparkBigQueryConfig tableScanConfig =
-        SparkBigQueryConfig.from(
-            options,
-            ImmutableMap.of(),
-            injector.getInstance(DataSourceVersion.class),
-            injector.getInstance(SparkSession.class),
-            Optional.of(schema), /*tableIsMandatory*/
-            true);
+        timeline.time(
+            PlanningTimeline.CONFIG_CREATION,
+            () ->
+                SparkBigQueryConfig.from(
+                    options,
+                    ImmutableMap.of(),
+                    injector.getInstance(DataSourceVersion.class),
+                    injector.getInstance(SparkSession.class),
+                    Optional.of(schema), /*tableIsMandatory*/
+                    true));
     Injector readerInjector =
         injector.createChildInjector(
-            new BigQueryDataSourceReaderModule(Optional.of(tableScanConfig)));
+            new BigQueryDataSourceReaderModule(
+                Optional.of(tableScanConfig), Optional.of(timeline)));
     BigQueryDataSourceReaderContext ctx =
         readerInjector.getInstance(BigQueryDataSourceReaderContext.class);
     return ctx;
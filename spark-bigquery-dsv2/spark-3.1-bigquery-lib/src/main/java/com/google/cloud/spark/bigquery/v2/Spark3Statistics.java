@@ -32,8 +32,12 @@ public class Spark3Statistics implements Statistics {
     return context.sizeInBytes();
   }
 
+  // Needed by the cost based optimizer, which only reorders joins when the row count of every
+  // joined relation is known. BigQuery leaves the estimated row count at 0 when it does not
+  // populate it, so a count of 0 is reported as unknown rather than as an empty relation.
   @Override
   public OptionalLong numRows() {
-    return OptionalLong.empty();
+    OptionalLong numRows = context.numRows();
+    return numRows.isPresent() && numRows.getAsLong() > 0 ? numRows : OptionalLong.empty();
   }
 }
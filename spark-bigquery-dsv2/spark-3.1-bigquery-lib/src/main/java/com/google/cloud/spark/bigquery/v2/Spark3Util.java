@@ -17,6 +17,7 @@ package com.google.cloud.spark.bigquery.v2;
 
 import com.google.cloud.bigquery.TableInfo;
 import com.google.cloud.bigquery.connector.common.BigQueryClient;
+import com.google.cloud.bigquery.connector.common.PlanningTimeline;
 import com.google.cloud.spark.bigquery.DataSourceVersion;
 import com.google.cloud.spark.bigquery.InjectorBuilder;
 import com.google.cloud.spark.bigquery.SchemaConverters;
@@ -42,7 +43,12 @@ public class Spark3Util {
             .build();
     BigQueryClient bigQueryClient = injector.getInstance(BigQueryClient.class);
     SparkBigQueryConfig config = injector.getInstance(SparkBigQueryConfig.class);
-    TableInfo tableInfo = bigQueryClient.getReadTable(config.toReadTableOptions());
+    TableInfo tableInfo =
+        injector
+            .getInstance(PlanningTimeline.class)
+            .time(
+                PlanningTimeline.TABLE_METADATA,
+                () -> bigQueryClient.getReadTable(config.toReadTableOptions()));
     if (tableInfo == null) {
       return bigQueryTableCreator.create(injector, config.getTableId(), sparkProvidedSchema);
     }
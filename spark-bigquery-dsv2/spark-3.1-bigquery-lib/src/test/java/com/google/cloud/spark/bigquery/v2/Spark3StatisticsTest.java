@@ -0,0 +1,57 @@
+/*
+ * Copyright 2021 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.spark.bigquery.v2;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.cloud.spark.bigquery.v2.context.StatisticsContext;
+import java.util.OptionalLong;
+import org.junit.Test;
+
+public class Spark3StatisticsTest {
+
+  StatisticsContext context = mock(StatisticsContext.class);
+
+  @Test
+  public void testNumRows() {
+    when(context.numRows()).thenReturn(OptionalLong.of(100));
+
+    assertThat(new Spark3Statistics(context).numRows()).isEqualTo(OptionalLong.of(100));
+  }
+
+  @Test
+  public void testNumRowsIsUnknownWhenNotPopulated() {
+    when(context.numRows()).thenReturn(OptionalLong.of(0));
+
+    assertThat(new Spark3Statistics(context).numRows()).isEqualTo(OptionalLong.empty());
+  }
+
+  @Test
+  public void testNumRowsIsUnknownWhenAbsent() {
+    when(context.numRows()).thenReturn(OptionalLong.empty());
+
+    assertThat(new Spark3Statistics(context).numRows()).isEqualTo(OptionalLong.empty());
+  }
+
+  @Test
+  public void testSizeInBytes() {
+    when(context.sizeInBytes()).thenReturn(OptionalLong.of(1000));
+
+    assertThat(new Spark3Statistics(context).sizeInBytes()).isEqualTo(OptionalLong.of(1000));
+  }
+}
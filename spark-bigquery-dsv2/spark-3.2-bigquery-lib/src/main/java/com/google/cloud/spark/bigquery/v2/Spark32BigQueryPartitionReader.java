@@ -0,0 +1,31 @@
+/*
+ * Copyright 2023 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.spark.bigquery.v2;
+
+import com.google.cloud.spark.bigquery.v2.context.InputPartitionReaderContext;
+import org.apache.spark.sql.connector.metric.CustomTaskMetric;
+
+public class Spark32BigQueryPartitionReader<T> extends BigQueryPartitionReader<T> {
+
+  public Spark32BigQueryPartitionReader(InputPartitionReaderContext<T> context) {
+    super(context);
+  }
+
+  @Override
+  public CustomTaskMetric[] currentMetricsValues() {
+    return Spark32CustomMetrics.toTaskMetrics(context.getReadRowsMetrics());
+  }
+}
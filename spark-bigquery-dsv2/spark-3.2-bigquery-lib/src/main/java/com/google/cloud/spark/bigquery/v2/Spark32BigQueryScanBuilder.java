@@ -22,6 +22,8 @@ import com.google.common.collect.ImmutableSet;
 import java.util.Arrays;
 import org.apache.spark.sql.connector.expressions.Expressions;
 import org.apache.spark.sql.connector.expressions.NamedReference;
+import org.apache.spark.sql.connector.metric.CustomMetric;
+import org.apache.spark.sql.connector.read.PartitionReaderFactory;
 import org.apache.spark.sql.connector.read.SupportsRuntimeFiltering;
 import org.apache.spark.sql.sources.Filter;
 
@@ -51,4 +53,14 @@ public class Spark32BigQueryScanBuilder extends Spark31BigQueryScanBuilder
   public void filter(Filter[] filters) {
     ctx.filter(filters);
   }
+
+  @Override
+  public PartitionReaderFactory createReaderFactory() {
+    return new Spark32BigQueryPartitionReaderFactory();
+  }
+
+  @Override
+  public CustomMetric[] supportedCustomMetrics() {
+    return Spark32CustomMetrics.readMetrics();
+  }
 }
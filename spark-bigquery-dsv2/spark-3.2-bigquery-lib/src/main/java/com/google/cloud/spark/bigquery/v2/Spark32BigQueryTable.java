@@ -18,7 +18,10 @@ package com.google.cloud.spark.bigquery.v2;
 import com.google.cloud.bigquery.TableId;
 import com.google.cloud.spark.bigquery.v2.context.BigQueryDataSourceReaderContext;
 import com.google.inject.Injector;
+import org.apache.spark.sql.SaveMode;
 import org.apache.spark.sql.connector.read.ScanBuilder;
+import org.apache.spark.sql.connector.write.LogicalWriteInfo;
+import org.apache.spark.sql.connector.write.WriteBuilder;
 import org.apache.spark.sql.types.StructType;
 import org.apache.spark.sql.util.CaseInsensitiveStringMap;
 
@@ -33,4 +36,9 @@ public class Spark32BigQueryTable extends Spark31BigQueryTable {
     BigQueryDataSourceReaderContext ctx = createBigQueryDataSourceReaderContext(options);
     return new Spark32BigQueryScanBuilder(ctx);
   }
+
+  @Override
+  public WriteBuilder newWriteBuilder(LogicalWriteInfo info) {
+    return new Spark32BigQueryWriteBuilder(injector, info, SaveMode.Append);
+  }
 }
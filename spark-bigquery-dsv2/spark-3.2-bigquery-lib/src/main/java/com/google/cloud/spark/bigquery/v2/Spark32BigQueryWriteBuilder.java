@@ -0,0 +1,61 @@
+/*
+ * Copyright 2023 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.spark.bigquery.v2;
+
+import com.google.cloud.spark.bigquery.write.context.DataSourceWriterContext;
+import com.google.inject.Injector;
+import java.util.Optional;
+import org.apache.spark.sql.SaveMode;
+import org.apache.spark.sql.connector.metric.CustomMetric;
+import org.apache.spark.sql.connector.write.BatchWrite;
+import org.apache.spark.sql.connector.write.LogicalWriteInfo;
+import org.apache.spark.sql.connector.write.Write;
+import org.apache.spark.sql.connector.write.WriteBuilder;
+
+public class Spark32BigQueryWriteBuilder extends BigQueryWriteBuilder {
+
+  public Spark32BigQueryWriteBuilder(Injector injector, LogicalWriteInfo info, SaveMode mode) {
+    super(injector, info, mode);
+  }
+
+  @Override
+  public Write build() {
+    return new Write() {
+      @Override
+      public BatchWrite toBatch() {
+        return buildForBatch();
+      }
+
+      @Override
+      public CustomMetric[] supportedCustomMetrics() {
+        return Spark32CustomMetrics.writeMetrics();
+      }
+    };
+  }
+
+  @Override
+  public BatchWrite buildForBatch() {
+    Optional<DataSourceWriterContext> dataSourceWriterContext =
+        DataSourceWriterContext.create(
+            injector, info.queryId(), info.schema(), mode, info.options());
+    return new Spark32BigQueryBatchWrite(dataSourceWriterContext.get());
+  }
+
+  @Override
+  public WriteBuilder truncate() {
+    return new Spark32BigQueryWriteBuilder(injector, info, SaveMode.Overwrite);
+  }
+}
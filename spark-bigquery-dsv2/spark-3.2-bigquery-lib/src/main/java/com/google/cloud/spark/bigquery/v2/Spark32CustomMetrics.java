@@ -0,0 +1,243 @@
+/*
+ * Copyright 2023 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.spark.bigquery.v2;
+
+import com.google.cloud.bigquery.connector.common.AppendRowsMetrics;
+import com.google.cloud.bigquery.connector.common.ReadRowsMetrics;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.apache.spark.sql.connector.metric.CustomAvgMetric;
+import org.apache.spark.sql.connector.metric.CustomMetric;
+import org.apache.spark.sql.connector.metric.CustomSumMetric;
+import org.apache.spark.sql.connector.metric.CustomTaskMetric;
+
+/**
+ * The custom metrics reported by the connector to the Spark SQL UI. Spark instantiates the metric
+ * classes on the driver in order to aggregate the task values, hence each metric needs a public
+ * no-args constructor.
+ */
+public class Spark32CustomMetrics {
+
+  static final CustomTaskMetric[] NO_TASK_METRICS = new CustomTaskMetric[0];
+
+  private Spark32CustomMetrics() {}
+
+  public static CustomMetric[] readMetrics() {
+    return new CustomMetric[] {
+      new StreamsMetric(),
+      new BytesReceivedMetric(),
+      new DecompressedBytesMetric(),
+      new RowsReadMetric(),
+      new ReadServiceTimeMetric(),
+      new ParseTimeMetric(),
+      new RetriesMetric(),
+      new ThrottledResponsesMetric(),
+      new ReadProgressMetric()
+    };
+  }
+
+  public static CustomMetric[] writeMetrics() {
+    return new CustomMetric[] {
+      new AppendRequestsMetric(),
+      new BytesSentMetric(),
+      new RowsAppendedMetric(),
+      new AppendServiceTimeMetric()
+    };
+  }
+
+  static CustomTaskMetric[] toTaskMetrics(Optional<ReadRowsMetrics> metrics) {
+    return metrics
+        .map(
+            m ->
+                new CustomTaskMetric[] {
+                  taskMetric(StreamsMetric.NAME, m.getStreams()),
+                  taskMetric(BytesReceivedMetric.NAME, m.getBytesReceived()),
+                  taskMetric(DecompressedBytesMetric.NAME, m.getDecompressedBytes()),
+                  taskMetric(RowsReadMetric.NAME, m.getRows()),
+                  taskMetric(ReadServiceTimeMetric.NAME, toMillis(m.getServiceTimeNanos())),
+                  taskMetric(ParseTimeMetric.NAME, toMillis(m.getParseTimeNanos())),
+                  taskMetric(RetriesMetric.NAME, m.getRetries()),
+                  taskMetric(ThrottledResponsesMetric.NAME, m.getThrottledResponses()),
+                  taskMetric(ReadProgressMetric.NAME, Math.round(m.getProgress() * 100))
+                })
+        .orElse(NO_TASK_METRICS);
+  }
+
+  static CustomTaskMetric[] toWriteTaskMetrics(Optional<AppendRowsMetrics> metrics) {
+    return metrics
+        .map(
+            m ->
+                new CustomTaskMetric[] {
+                  taskMetric(AppendRequestsMetric.NAME, m.getAppendRequests()),
+                  taskMetric(BytesSentMetric.NAME, m.getBytesSent()),
+                  taskMetric(RowsAppendedMetric.NAME, m.getRows()),
+                  taskMetric(AppendServiceTimeMetric.NAME, toMillis(m.getServiceTimeNanos()))
+                })
+        .orElse(NO_TASK_METRICS);
+  }
+
+  private static long toMillis(long nanos) {
+    return TimeUnit.NANOSECONDS.toMillis(nanos);
+  }
+
+  private static CustomTaskMetric taskMetric(String name, long value) {
+    return new CustomTaskMetric() {
+      @Override
+      public String name() {
+        return name;
+      }
+
+      @Override
+      public long value() {
+        return value;
+      }
+    };
+  }
+
+  abstract static class NamedSumMetric extends CustomSumMetric {
+    private final String name;
+    private final String description;
+
+    NamedSumMetric(String name, String description) {
+      this.name = name;
+      this.description = description;
+    }
+
+    @Override
+    public String name() {
+      return name;
+    }
+
+    @Override
+    public String description() {
+      return description;
+    }
+  }
+
+  public static class StreamsMetric extends NamedSumMetric {
+    static final String NAME = "bigQueryReadStreams";
+
+    public StreamsMetric() {
+      super(NAME, "number of BigQuery read streams");
+    }
+  }
+
+  public static class BytesReceivedMetric extends NamedSumMetric {
+    static final String NAME = "bigQueryBytesReceived";
+
+    public BytesReceivedMetric() {
+      super(NAME, "bytes received from BigQuery");
+    }
+  }
+
+  public static class DecompressedBytesMetric extends NamedSumMetric {
+    static final String NAME = "bigQueryDecompressedBytes";
+
+    public DecompressedBytesMetric() {
+      super(NAME, "decompressed bytes read from BigQuery");
+    }
+  }
+
+  public static class RowsReadMetric extends NamedSumMetric {
+    static final String NAME = "bigQueryRowsRead";
+
+    public RowsReadMetric() {
+      super(NAME, "rows read from BigQuery");
+    }
+  }
+
+  public static class ReadServiceTimeMetric extends NamedSumMetric {
+    static final String NAME = "bigQueryReadServiceTimeMs";
+
+    public ReadServiceTimeMetric() {
+      super(NAME, "time waiting for BigQuery read responses (ms)");
+    }
+  }
+
+  public static class ParseTimeMetric extends NamedSumMetric {
+    static final String NAME = "bigQueryParseTimeMs";
+
+    public ParseTimeMetric() {
+      super(NAME, "time parsing BigQuery read responses (ms)");
+    }
+  }
+
+  public static class RetriesMetric extends NamedSumMetric {
+    static final String NAME = "bigQueryReadRetries";
+
+    public RetriesMetric() {
+      super(NAME, "number of BigQuery read stream retries");
+    }
+  }
+
+  public static class ThrottledResponsesMetric extends NamedSumMetric {
+    static final String NAME = "bigQueryThrottledResponses";
+
+    public ThrottledResponsesMetric() {
+      super(NAME, "BigQuery read responses received while throttled");
+    }
+  }
+
+  /**
+   * The progress of the read streams of the tasks as reported by BigQuery, averaged over the tasks.
+   * The tasks report it while they run, so it is updated before the tasks complete.
+   */
+  public static class ReadProgressMetric extends CustomAvgMetric {
+    static final String NAME = "bigQueryReadProgressPercent";
+
+    @Override
+    public String name() {
+      return NAME;
+    }
+
+    @Override
+    public String description() {
+      return "progress of the BigQuery read streams (%)";
+    }
+  }
+
+  public static class AppendRequestsMetric extends NamedSumMetric {
+    static final String NAME = "bigQueryAppendRequests";
+
+    public AppendRequestsMetric() {
+      super(NAME, "number of BigQuery append requests");
+    }
+  }
+
+  public static class BytesSentMetric extends NamedSumMetric {
+    static final String NAME = "bigQueryBytesSent";
+
+    public BytesSentMetric() {
+      super(NAME, "bytes sent to BigQuery");
+    }
+  }
+
+  public static class RowsAppendedMetric extends NamedSumMetric {
+    static final String NAME = "bigQueryRowsAppended";
+
+    public RowsAppendedMetric() {
+      super(NAME, "rows appended to BigQuery");
+    }
+  }
+
+  public static class AppendServiceTimeMetric extends NamedSumMetric {
+    static final String NAME = "bigQueryAppendServiceTimeMs";
+
+    public AppendServiceTimeMetric() {
+      super(NAME, "time waiting for BigQuery append responses (ms)");
+    }
+  }
+}
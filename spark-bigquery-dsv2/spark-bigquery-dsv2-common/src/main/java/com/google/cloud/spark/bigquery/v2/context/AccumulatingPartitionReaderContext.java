@@ -0,0 +1,58 @@
+/*
+ * Copyright 2021 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.spark.bigquery.v2.context;
+
+import com.google.cloud.bigquery.connector.common.ReadRowsMetrics;
+import com.google.cloud.spark.bigquery.ReadRowsMetricsAccumulator;
+import java.io.IOException;
+import java.util.Optional;
+
+/** Adds the metrics of a partition to an accumulator, so that they reach the driver. */
+class AccumulatingPartitionReaderContext<T> implements InputPartitionReaderContext<T> {
+
+  private final InputPartitionReaderContext<T> delegate;
+  private final ReadRowsMetricsAccumulator accumulator;
+
+  AccumulatingPartitionReaderContext(
+      InputPartitionReaderContext<T> delegate, ReadRowsMetricsAccumulator accumulator) {
+    this.delegate = delegate;
+    this.accumulator = accumulator;
+  }
+
+  @Override
+  public boolean next() throws IOException {
+    return delegate.next();
+  }
+
+  @Override
+  public T get() {
+    return delegate.get();
+  }
+
+  @Override
+  public Optional<ReadRowsMetrics> getReadRowsMetrics() {
+    return delegate.getReadRowsMetrics();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      delegate.close();
+    } finally {
+      delegate.getReadRowsMetrics().ifPresent(accumulator::add);
+    }
+  }
+}
@@ -15,15 +15,19 @@
  */
 package com.google.cloud.spark.bigquery.v2.context;
 
-import com.google.cloud.bigquery.connector.common.ArrowUtil;
+import com.google.cloud.bigquery.connector.common.ArrowBufferPool;
+import com.google.cloud.bigquery.connector.common.ArrowDecodePool;
 import com.google.cloud.bigquery.connector.common.BigQueryStorageReadRowsTracer;
 import com.google.cloud.bigquery.connector.common.IteratorMultiplexer;
 import com.google.cloud.bigquery.connector.common.NonInterruptibleBlockingBytesChannel;
 import com.google.cloud.bigquery.connector.common.ParallelArrowReader;
 import com.google.cloud.bigquery.connector.common.ReadRowsHelper;
+import com.google.cloud.bigquery.connector.common.ReadRowsMetrics;
 import com.google.cloud.bigquery.connector.common.ReadRowsResponseInputStreamEnumeration;
+import com.google.cloud.bigquery.connector.common.TimedCompressionCodecFactory;
 import com.google.cloud.bigquery.storage.v1.ReadRowsResponse;
 import com.google.cloud.spark.bigquery.ArrowSchemaConverter;
+import com.google.cloud.spark.bigquery.SparkBigQueryUtil;
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.protobuf.ByteString;
@@ -37,18 +41,18 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.SynchronousQueue;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.apache.arrow.compression.CommonsCompressionFactory;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.util.AutoCloseables;
+import org.apache.arrow.vector.ValueVector;
 import org.apache.arrow.vector.VectorLoader;
 import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.arrow.vector.ipc.ArrowReader;
 import org.apache.arrow.vector.ipc.ArrowStreamReader;
 import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.arrow.vector.util.VectorSchemaRootAppender;
+import org.apache.spark.SparkEnv;
 import org.apache.spark.sql.types.StructField;
 import org.apache.spark.sql.types.StructType;
 import org.apache.spark.sql.vectorized.ColumnVector;
@@ -103,7 +107,8 @@ public class ArrowColumnBatchPartitionReaderContext
         List<ArrowReader> readers,
         ExecutorService executor,
         BigQueryStorageReadRowsTracer tracer,
-        AutoCloseable closeable) {
+        AutoCloseable closeable,
+        boolean preserveOrder) {
       Schema schema = null;
       closeables.add(closeable);
       try {
@@ -121,7 +126,7 @@ public class ArrowColumnBatchPartitionReaderContext
       root = VectorSchemaRoot.create(schema, readerAllocator);
       closeables.add(root);
       loader = new VectorLoader(root);
-      this.reader = new ParallelArrowReader(readers, executor, loader, tracer);
+      this.reader = new ParallelArrowReader(readers, executor, loader, tracer, preserveOrder);
       closeables.add(0, reader);
       closeables.add(readerAllocator);
     }
@@ -149,9 +154,16 @@ public class ArrowColumnBatchPartitionReaderContext
   private final ArrowReaderAdapter reader;
   private final BufferAllocator allocator;
   private final List<String> namesInOrder;
+  private final int targetBatchRows;
+  private final long targetBatchBytes;
+  // The root holding the merged batches, created with the first batch smaller than the target
+  private VectorSchemaRoot coalescedRoot;
+  private ColumnarBatch readerBatch;
+  private ColumnarBatch coalescedBatch;
   private ColumnarBatch currentBatch;
   private final BigQueryStorageReadRowsTracer tracer;
   private boolean closed = false;
+  private boolean readerExhausted = false;
   private final Map<String, StructField> userProvidedFieldMap;
   private final List<AutoCloseable> closeables = new ArrayList<>();
 
@@ -162,11 +174,19 @@ public class ArrowColumnBatchPartitionReaderContext
       List<String> namesInOrder,
       BigQueryStorageReadRowsTracer tracer,
       Optional<StructType> userProvidedSchema,
-      int numBackgroundThreads) {
-    this.allocator = ArrowUtil.newRootAllocator(maxAllocation);
+      int numBackgroundThreads,
+      int decodeThreadsPerExecutor,
+      boolean preserveBatchOrder,
+      int targetBatchRows,
+      long targetBatchBytes) {
+    this.allocator =
+        SparkBigQueryUtil.getArrowBufferPool()
+            .newTaskAllocator("ArrowColumnBatchPartitionReader", maxAllocation);
     this.readRowsHelper = readRowsHelper;
     this.namesInOrder = namesInOrder;
     this.tracer = tracer;
+    this.targetBatchRows = targetBatchRows;
+    this.targetBatchBytes = targetBatchBytes;
     // place holder for reader.
     closeables.add(null);
 
@@ -187,20 +207,17 @@ public class ArrowColumnBatchPartitionReaderContext
               ImmutableList.of(newArrowStreamReader(fullStream)),
               MoreExecutors.newDirectExecutorService(),
               tracer.forkWithPrefix("BackgroundReader"),
-              /*closeable=*/ null);
+              /*closeable=*/ null,
+              /*preserveOrder=*/ true);
     } else if (numBackgroundThreads > 1) {
       // Subtract one because current excess tasks will be executed
-      // on round robin thread in ParallelArrowReader.
+      // on round robin thread in ParallelArrowReader. The threads are taken from
+      // a pool shared by all the readers of the executor.
       ExecutorService backgroundParsingService =
-          new ThreadPoolExecutor(
-              /*corePoolSize=*/ 1,
-              /*maximumPoolSize=*/ numBackgroundThreads - 1,
-              /*keepAliveTime=*/ 2,
-              /*keepAlivetimeUnit=*/ TimeUnit.SECONDS,
-              new SynchronousQueue<>(),
-              new ThreadPoolExecutor.CallerRunsPolicy());
+          ArrowDecodePool.getOrCreate(decodePoolSize(decodeThreadsPerExecutor))
+              .newTaskExecutor(numBackgroundThreads - 1);
       IteratorMultiplexer multiplexer =
-          new IteratorMultiplexer(readRowsResponses, numBackgroundThreads);
+          new IteratorMultiplexer(readRowsResponses, numBackgroundThreads, preserveBatchOrder);
       List<ArrowReader> readers = new ArrayList<>();
       for (int x = 0; x < numBackgroundThreads; x++) {
         BigQueryStorageReadRowsTracer multiplexedTracer = tracer.forkWithPrefix("multiplexed-" + x);
@@ -218,7 +235,8 @@ public class ArrowColumnBatchPartitionReaderContext
               readers,
               backgroundParsingService,
               tracer.forkWithPrefix("MultithreadReader"),
-              multiplexer);
+              multiplexer,
+              preserveBatchOrder);
     } else {
       // Zero background threads.
       InputStream fullStream = makeSingleInputStream(readRowsResponses, schema, tracer);
@@ -226,6 +244,17 @@ public class ArrowColumnBatchPartitionReaderContext
     }
   }
 
+  static int decodePoolSize(int decodeThreadsPerExecutor) {
+    if (decodeThreadsPerExecutor > 0) {
+      return decodeThreadsPerExecutor;
+    }
+    int availableProcessors = Runtime.getRuntime().availableProcessors();
+    SparkEnv sparkEnv = SparkEnv.get();
+    return sparkEnv == null
+        ? availableProcessors
+        : sparkEnv.conf().getInt("spark.executor.cores", availableProcessors);
+  }
+
   // Note this method consumes inputs.
   private InputStream makeSingleInputStream(
       Iterator<ReadRowsResponse> readRowsResponses,
@@ -243,43 +272,99 @@ public class ArrowColumnBatchPartitionReaderContext
       return false;
     }
     tracer.rowsParseStarted();
-    closed = !reader.loadNextBatch();
+    VectorSchemaRoot root =
+        targetBatchRows > 0 || targetBatchBytes > 0 ? loadCoalescedBatch() : loadNextBatch();
+    closed = root == null;
 
     if (closed) {
       return false;
     }
 
-    VectorSchemaRoot root = reader.root();
-    if (currentBatch == null) {
-      // trying to verify from dev@spark but this object
-      // should only need to get created once.  The underlying
-      // vectors should stay the same.
-      ColumnVector[] columns =
-          namesInOrder.stream()
-              .map(root::getVector)
-              .map(
-                  vector ->
-                      ArrowSchemaConverter.newArrowSchemaConverter(
-                          vector, userProvidedFieldMap.get(vector.getName())))
-              .toArray(ColumnVector[]::new);
-
-      currentBatch = new ColumnarBatch(columns);
+    if (root == coalescedRoot) {
+      coalescedBatch = coalescedBatch == null ? newColumnarBatch(root) : coalescedBatch;
+      currentBatch = coalescedBatch;
+    } else {
+      readerBatch = readerBatch == null ? newColumnarBatch(root) : readerBatch;
+      currentBatch = readerBatch;
     }
     currentBatch.setNumRows(root.getRowCount());
     tracer.rowsParseFinished(currentBatch.numRows());
     return true;
   }
 
+  // Returns the root holding the next batch of the reader, or null once all the batches have been
+  // read.
+  private VectorSchemaRoot loadNextBatch() throws IOException {
+    if (readerExhausted || !reader.loadNextBatch()) {
+      readerExhausted = true;
+      return null;
+    }
+    VectorSchemaRoot root = reader.root();
+    readRowsHelper.getMetrics().addDecompressedBytes(sizeInBytes(root));
+    return root;
+  }
+
+  // Appends consecutive batches of the reader until the target size is reached. A batch reaching
+  // the target on its own is returned as is, avoiding the copy.
+  private VectorSchemaRoot loadCoalescedBatch() throws IOException {
+    VectorSchemaRoot root = loadNextBatch();
+    if (root == null || reachesTargetSize(root)) {
+      return root;
+    }
+    if (coalescedRoot == null) {
+      coalescedRoot = VectorSchemaRoot.create(root.getSchema(), allocator);
+      closeables.add(coalescedRoot);
+      // the appender expects the offset buffers of the target vectors to be allocated
+      coalescedRoot.allocateNew();
+    } else {
+      // keeps the buffers of the previous batch, so that they are reused by the appended rows
+      coalescedRoot.getFieldVectors().forEach(ValueVector::reset);
+      coalescedRoot.setRowCount(0);
+    }
+    do {
+      VectorSchemaRootAppender.append(/*checkSchema=*/ false, coalescedRoot, root);
+    } while (!reachesTargetSize(coalescedRoot) && (root = loadNextBatch()) != null);
+    return coalescedRoot;
+  }
+
+  private boolean reachesTargetSize(VectorSchemaRoot root) {
+    return (targetBatchRows > 0 && root.getRowCount() >= targetBatchRows)
+        || (targetBatchBytes > 0 && sizeInBytes(root) >= targetBatchBytes);
+  }
+
+  private static long sizeInBytes(VectorSchemaRoot root) {
+    return root.getFieldVectors().stream().mapToLong(ValueVector::getBufferSize).sum();
+  }
+
+  // The column vectors wrap the vectors of the root, so a batch only needs to be created once per
+  // root.
+  private ColumnarBatch newColumnarBatch(VectorSchemaRoot root) {
+    ColumnVector[] columns =
+        namesInOrder.stream()
+            .map(root::getVector)
+            .map(
+                vector ->
+                    ArrowSchemaConverter.newArrowSchemaConverter(
+                        vector, userProvidedFieldMap.get(vector.getName())))
+            .toArray(ColumnVector[]::new);
+    return new ColumnarBatch(columns);
+  }
+
   public ColumnarBatch get() {
     return currentBatch;
   }
 
+  @Override
+  public Optional<ReadRowsMetrics> getReadRowsMetrics() {
+    return Optional.of(readRowsHelper.getMetrics());
+  }
+
   public void close() throws IOException {
     closed = true;
     try {
       tracer.finished();
       closeables.set(0, reader);
-      closeables.add(allocator);
+      closeables.add(() -> ArrowBufferPool.closeTaskAllocator(allocator));
       AutoCloseables.close(closeables);
     } catch (Exception e) {
       throw new IOException("Failure closing arrow components. stream: " + readRowsHelper, e);
@@ -299,6 +384,7 @@ public class ArrowColumnBatchPartitionReaderContext
     return new ArrowStreamReader(
         new NonInterruptibleBlockingBytesChannel(fullStream),
         childAllocator,
-        CommonsCompressionFactory.INSTANCE);
+        new TimedCompressionCodecFactory(
+            CommonsCompressionFactory.INSTANCE, readRowsHelper.getMetrics()));
   }
 }
@@ -24,6 +24,8 @@ import com.google.cloud.bigquery.connector.common.ReadRowsHelper;
 import com.google.cloud.bigquery.connector.common.ReadSessionResponse;
 import com.google.cloud.bigquery.storage.v1.ReadRowsRequest;
 import com.google.cloud.bigquery.storage.v1.ReadRowsResponse;
+import com.google.cloud.spark.bigquery.BigQueryConnectorMetricsSource;
+import com.google.cloud.spark.bigquery.ReadRowsMetricsAccumulator;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.protobuf.ByteString;
@@ -44,6 +46,7 @@ public class ArrowInputPartitionContext implements InputPartitionContext<Columna
   private final ImmutableList<String> selectedFields;
   private final ByteString serializedArrowSchema;
   private final com.google.common.base.Optional<StructType> userProvidedSchema;
+  private final com.google.common.base.Optional<ReadRowsMetricsAccumulator> metricsAccumulator;
 
   public ArrowInputPartitionContext(
       BigQueryClientFactory bigQueryReadClientFactory,
@@ -53,6 +56,30 @@ public class ArrowInputPartitionContext implements InputPartitionContext<Columna
       ImmutableList<String> selectedFields,
       ReadSessionResponse readSessionResponse,
       Optional<StructType> userProvidedSchema) {
+    this(
+        bigQueryReadClientFactory,
+        tracerFactory,
+        names,
+        options,
+        selectedFields,
+        readSessionResponse,
+        userProvidedSchema,
+        Optional.empty());
+  }
+
+  /**
+   * @param metricsAccumulator when present, the metrics of the partition are added to it once the
+   *     partition is read
+   */
+  public ArrowInputPartitionContext(
+      BigQueryClientFactory bigQueryReadClientFactory,
+      BigQueryTracerFactory tracerFactory,
+      List<String> names,
+      ReadRowsHelper.Options options,
+      ImmutableList<String> selectedFields,
+      ReadSessionResponse readSessionResponse,
+      Optional<StructType> userProvidedSchema,
+      Optional<ReadRowsMetricsAccumulator> metricsAccumulator) {
     this.bigQueryReadClientFactory = bigQueryReadClientFactory;
     this.streamNames = names;
     this.options = options;
@@ -61,11 +88,11 @@ public class ArrowInputPartitionContext implements InputPartitionContext<Columna
         readSessionResponse.getReadSession().getArrowSchema().getSerializedSchema();
     this.tracerFactory = tracerFactory;
     this.userProvidedSchema = fromJavaUtil(userProvidedSchema);
+    this.metricsAccumulator = fromJavaUtil(metricsAccumulator);
   }
 
   public InputPartitionReaderContext<ColumnarBatch> createPartitionReaderContext() {
-    BigQueryStorageReadRowsTracer tracer =
-        tracerFactory.newReadRowsTracer(Joiner.on(",").join(streamNames));
+    BigQueryConnectorMetricsSource.registerIfNeeded();
     List<ReadRowsRequest.Builder> readRowsRequests =
         streamNames.stream()
             .map(name -> ReadRowsRequest.newBuilder().setReadStream(name))
@@ -73,17 +100,29 @@ public class ArrowInputPartitionContext implements InputPartitionContext<Columna
 
     ReadRowsHelper readRowsHelper =
         new ReadRowsHelper(bigQueryReadClientFactory, readRowsRequests, options);
+    BigQueryStorageReadRowsTracer tracer =
+        readRowsHelper
+            .getMetrics()
+            .wrap(tracerFactory.newReadRowsTracer(Joiner.on(",").join(streamNames)));
     tracer.startStream();
     Iterator<ReadRowsResponse> readRowsResponses = readRowsHelper.readRows();
 
-    return new ArrowColumnBatchPartitionReaderContext(
-        readRowsResponses,
-        serializedArrowSchema,
-        readRowsHelper,
-        selectedFields,
-        tracer,
-        userProvidedSchema.toJavaUtil(),
-        options.numBackgroundThreads());
+    InputPartitionReaderContext<ColumnarBatch> context =
+        new ArrowColumnBatchPartitionReaderContext(
+            readRowsResponses,
+            serializedArrowSchema,
+            readRowsHelper,
+            selectedFields,
+            tracer,
+            userProvidedSchema.toJavaUtil(),
+            options.numBackgroundThreads(),
+            options.numDecodeThreadsPerExecutor(),
+            options.preserveBatchOrder(),
+            options.targetBatchRows(),
+            options.targetBatchBytes());
+    return metricsAccumulator.isPresent()
+        ? new AccumulatingPartitionReaderContext<>(context, metricsAccumulator.get())
+        : context;
   }
 
   @Override
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2021 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.spark.bigquery.v2.context;
+
+import com.google.cloud.bigquery.connector.common.ReadRowsHelper;
+import com.google.cloud.bigquery.connector.common.ReadRowsMetrics;
+import com.google.cloud.bigquery.storage.v1.ReadRowsResponse;
+import com.google.cloud.spark.bigquery.ReadRowsResponseToInternalRowIteratorConverter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Optional;
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.execution.vectorized.OffHeapColumnVector;
+import org.apache.spark.sql.execution.vectorized.OnHeapColumnVector;
+import org.apache.spark.sql.execution.vectorized.WritableColumnVector;
+import org.apache.spark.sql.internal.SQLConf;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
+import org.apache.spark.sql.vectorized.ColumnarBatch;
+
+/**
+ * Returns the rows of each Avro response as a columnar batch. The rows are converted as in the row
+ * based reads, and then appended to column vectors which are reused for all the responses.
+ */
+class AvroColumnBatchPartitionReaderContext implements InputPartitionReaderContext<ColumnarBatch> {
+
+  private final Iterator<ReadRowsResponse> readRowsResponses;
+  private final ReadRowsResponseToInternalRowIteratorConverter converter;
+  private final ReadRowsHelper readRowsHelper;
+  private final WritableColumnVector[] columns;
+  private final ColumnVectorAppender[] appenders;
+  private final ColumnarBatch currentBatch;
+
+  AvroColumnBatchPartitionReaderContext(
+      Iterator<ReadRowsResponse> readRowsResponses,
+      ReadRowsResponseToInternalRowIteratorConverter converter,
+      ReadRowsHelper readRowsHelper,
+      StructType schema) {
+    this.readRowsResponses = readRowsResponses;
+    this.converter = converter;
+    this.readRowsHelper = readRowsHelper;
+    // the vectors grow as needed when a response holds more rows
+    SQLConf conf = SQLConf.get();
+    this.columns =
+        conf.offHeapColumnVectorEnabled()
+            ? OffHeapColumnVector.allocateColumns(conf.columnBatchSize(), schema)
+            : OnHeapColumnVector.allocateColumns(conf.columnBatchSize(), schema);
+    this.appenders =
+        Arrays.stream(schema.fields())
+            .map(StructField::dataType)
+            .map(ColumnVectorAppender::forType)
+            .toArray(ColumnVectorAppender[]::new);
+    this.currentBatch = new ColumnarBatch(columns);
+  }
+
+  @Override
+  public boolean next() throws IOException {
+    ReadRowsResponse readRowsResponse;
+    do {
+      long serviceStartNanos = System.nanoTime();
+      if (!readRowsResponses.hasNext()) {
+        return false;
+      }
+      readRowsResponse = readRowsResponses.next();
+      ReadRowsMetrics metrics = readRowsHelper.getMetrics();
+      metrics.addServiceTimeNanos(System.nanoTime() - serviceStartNanos);
+      metrics.addBytesReceived(readRowsResponse.getSerializedSize());
+      metrics.addRows(readRowsResponse.getRowCount());
+    } while (readRowsResponse.getRowCount() == 0);
+
+    long parseStartNanos = System.nanoTime();
+    for (WritableColumnVector column : columns) {
+      column.reset();
+    }
+    int numRows = 0;
+    Iterator<InternalRow> rows = converter.convert(readRowsResponse);
+    while (rows.hasNext()) {
+      InternalRow row = rows.next();
+      for (int i = 0; i < appenders.length; i++) {
+        appenders[i].append(row, i, columns[i]);
+      }
+      numRows++;
+    }
+    currentBatch.setNumRows(numRows);
+    readRowsHelper.getMetrics().addParseTimeNanos(System.nanoTime() - parseStartNanos);
+    return true;
+  }
+
+  @Override
+  public ColumnarBatch get() {
+    return currentBatch;
+  }
+
+  @Override
+  public Optional<ReadRowsMetrics> getReadRowsMetrics() {
+    return Optional.of(readRowsHelper.getMetrics());
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      currentBatch.close();
+    } finally {
+      readRowsHelper.close();
+    }
+  }
+}
@@ -20,16 +20,20 @@ import com.google.cloud.bigquery.Schema;
 import com.google.cloud.bigquery.TableDefinition;
 import com.google.cloud.bigquery.TableId;
 import com.google.cloud.bigquery.TableInfo;
+import com.google.cloud.bigquery.connector.common.ArrowCompressionAdvisor;
 import com.google.cloud.bigquery.connector.common.BigQueryClient;
 import com.google.cloud.bigquery.connector.common.BigQueryClientFactory;
 import com.google.cloud.bigquery.connector.common.BigQueryTracerFactory;
 import com.google.cloud.bigquery.connector.common.BigQueryUtil;
+import com.google.cloud.bigquery.connector.common.PlanningTimeline;
 import com.google.cloud.bigquery.connector.common.ReadSessionCreator;
 import com.google.cloud.bigquery.connector.common.ReadSessionCreatorConfig;
 import com.google.cloud.bigquery.connector.common.ReadSessionResponse;
 import com.google.cloud.bigquery.storage.v1.DataFormat;
 import com.google.cloud.bigquery.storage.v1.ReadSession;
 import com.google.cloud.bigquery.storage.v1.ReadStream;
+import com.google.cloud.spark.bigquery.BigQueryPlanningTimelineEvent;
+import com.google.cloud.spark.bigquery.ReadRowsMetricsAccumulator;
 import com.google.cloud.spark.bigquery.ReadRowsResponseToInternalRowIteratorConverter;
 import com.google.cloud.spark.bigquery.SchemaConverters;
 import com.google.cloud.spark.bigquery.SchemaConvertersConfiguration;
@@ -112,6 +116,9 @@ public class BigQueryDataSourceReaderContext {
   // "planInputPartitionContexts". We will use this to get table statistics in estimateStatistics.
   private Supplier<ReadSessionResponse> readSessionResponse;
   private final ExecutorService asyncReadSessionExecutor = Executors.newSingleThreadExecutor();
+  private final PlanningTimeline timeline;
+  // distinguishes the steps of the read session re-created for dynamic partition pruning
+  private String readSessionStepPrefix = "";
 
   public BigQueryDataSourceReaderContext(
       TableInfo table,
@@ -123,8 +130,10 @@ public class BigQueryDataSourceReaderContext {
       Optional<StructType> schema,
       String applicationId,
       SparkBigQueryConfig options,
-      SQLContext sqlContext) {
+      SQLContext sqlContext,
+      PlanningTimeline timeline) {
     this.table = table;
+    this.timeline = timeline;
     this.tableId = table.getTableId();
     this.readSessionCreatorConfig = readSessionCreatorConfig;
     this.bigQueryClient = bigQueryClient;
@@ -170,7 +179,14 @@ public class BigQueryDataSourceReaderContext {
   }
 
   public boolean enableBatchRead() {
-    return readSessionCreatorConfig.getReadDataFormat() == DataFormat.ARROW && !isEmptySchema();
+    if (isEmptySchema()) {
+      return false;
+    }
+    DataFormat format = readSessionCreatorConfig.getReadDataFormat();
+    return format == DataFormat.ARROW
+        || (format == DataFormat.AVRO
+            && options.isAvroColumnarReadsEnabled()
+            && ColumnVectorAppender.isSupported(readSchema()));
   }
 
   public Stream<InputPartitionContext<InternalRow>> planInputPartitionContexts() {
@@ -208,6 +224,22 @@ public class BigQueryDataSourceReaderContext {
 
     ReadSession readSession = readSessionResponse.get().getReadSession();
 
+    if (readSessionCreatorConfig.getReadDataFormat() == DataFormat.AVRO) {
+      // The rows are converted as in the row based reads, so each stream is read on its own
+      ReadRowsResponseToInternalRowIteratorConverter converter =
+          createConverter(selectedFields, readSessionResponse.get(), userProvidedSchema);
+      StructType batchSchema = readSchema();
+      return readSession.getStreamsList().stream()
+          .map(
+              stream ->
+                  new AvroInputPartitionContext(
+                      bigQueryReadClientFactory,
+                      stream.getName(),
+                      readSessionCreatorConfig.toReadRowsHelperOptions(),
+                      converter,
+                      batchSchema));
+    }
+
     ImmutableList<String> tempSelectedFields = selectedFields;
     if (tempSelectedFields.isEmpty()) {
       // means select *
@@ -221,6 +253,10 @@ public class BigQueryDataSourceReaderContext {
     }
     ImmutableList<String> partitionSelectedFields = tempSelectedFields;
     Optional<StructType> arrowSchema = Optional.of(userProvidedSchema.orElse(readSchema()));
+    Optional<ReadRowsMetricsAccumulator> metricsAccumulator =
+        isAdaptiveArrowCompressionUsed()
+            ? Optional.of(registerCompressionMetrics(readSessionResponse.get()))
+            : Optional.empty();
     plannedInputPartitionContexts =
         Streams.stream(
                 Iterables.partition(
@@ -237,12 +273,34 @@ public class BigQueryDataSourceReaderContext {
                         readSessionCreatorConfig.toReadRowsHelperOptions(),
                         partitionSelectedFields,
                         readSessionResponse.get(),
-                        arrowSchema))
+                        arrowSchema,
+                        metricsAccumulator))
             .collect(Collectors.toList());
     return plannedInputPartitionContexts.stream()
         .map(ctx -> (InputPartitionContext<ColumnarBatch>) ctx);
   }
 
+  // Only the Arrow batch reads report the metrics of their tasks, so the compression codec is
+  // chosen adaptively only for them
+  private boolean isAdaptiveArrowCompressionUsed() {
+    return readSessionCreatorConfig.isAdaptiveArrowCompression()
+        && readSessionCreatorConfig.getReadDataFormat() == DataFormat.ARROW
+        && enableBatchRead();
+  }
+
+  // The metrics of the tasks are sent back to the driver, where they are used to choose the
+  // compression codec of the next read sessions of the table
+  private ReadRowsMetricsAccumulator registerCompressionMetrics(ReadSessionResponse response) {
+    ReadRowsMetricsAccumulator accumulator = new ReadRowsMetricsAccumulator();
+    sqlContext
+        .sparkContext()
+        .register(
+            accumulator, "BigQuery read metrics of " + BigQueryUtil.friendlyTableName(tableId));
+    ArrowCompressionAdvisor.getInstance()
+        .recordRead(tableId, response.getArrowCompressionCodec(), accumulator::value);
+    return accumulator;
+  }
+
   private boolean isEmptySchema() {
     return schema.map(StructType::isEmpty).orElse(false);
   }
@@ -289,12 +347,23 @@ public class BigQueryDataSourceReaderContext {
             .map(requiredSchema -> ImmutableList.copyOf(requiredSchema.fieldNames()))
             .orElse(ImmutableList.copyOf(fields.keySet()));
     Optional<String> filter = getCombinedFilter();
-    ReadSessionResponse response = readSessionCreator.create(tableId, selectedFields, filter);
+    ReadSessionResponse response =
+        readSessionCreator.create(
+            table,
+            selectedFields,
+            filter,
+            /* readMetricsRecorded= */ isAdaptiveArrowCompressionUsed());
     logger.info(
         "Got read session for {}: {} for application id: {}",
         tableId.toString(),
         response.getReadSession().getName(),
         applicationId);
+    timeline.addAll(response.getTimeline(), readSessionStepPrefix);
+    BigQueryPlanningTimelineEvent.post(
+        sqlContext.sparkContext(),
+        BigQueryUtil.friendlyTableName(tableId),
+        response.getReadSession().getName(),
+        timeline);
     return response;
   }
 
@@ -371,6 +440,7 @@ public class BigQueryDataSourceReaderContext {
 
     // Copies previous planned input partition contexts.
     List<ArrowInputPartitionContext> previousInputPartitionContexts = plannedInputPartitionContexts;
+    readSessionStepPrefix = PlanningTimeline.DYNAMIC_PARTITION_PRUNING_PREFIX;
     resetReadSessionResponse();
     // Creates a new read session, this creates a new plannedInputPartitionContexts.
     planBatchInputPartitionContexts();
@@ -441,6 +511,27 @@ public class BigQueryDataSourceReaderContext {
           };
 
       return tableStatisticsContext;
+    } else if (readSessionCreator.isInputTableAView(table)
+        || table.getDefinition().getType() == TableDefinition.Type.EXTERNAL) {
+      // Creating the read session would materialize the view, so its size is estimated by a dry
+      // run of the materialization query instead
+      final OptionalLong estimatedSizeInBytes =
+          bigQueryClient.estimateTableSize(
+              tableId,
+              ImmutableList.copyOf(readSchema().fieldNames()),
+              getCombinedFilter().map(filter -> new String[] {filter}).orElse(new String[0]));
+
+      return new StatisticsContext() {
+        @Override
+        public OptionalLong sizeInBytes() {
+          return estimatedSizeInBytes;
+        }
+
+        @Override
+        public OptionalLong numRows() {
+          return OptionalLong.empty();
+        }
+      };
     } else {
       return UNKNOWN_STATISTICS;
     }
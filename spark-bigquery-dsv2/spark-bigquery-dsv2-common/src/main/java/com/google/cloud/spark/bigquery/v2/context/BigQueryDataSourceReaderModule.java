@@ -19,6 +19,7 @@ import com.google.cloud.bigquery.TableInfo;
 import com.google.cloud.bigquery.connector.common.BigQueryClient;
 import com.google.cloud.bigquery.connector.common.BigQueryClientFactory;
 import com.google.cloud.bigquery.connector.common.BigQueryTracerFactory;
+import com.google.cloud.bigquery.connector.common.PlanningTimeline;
 import com.google.cloud.spark.bigquery.SparkBigQueryConfig;
 import com.google.inject.Binder;
 import com.google.inject.Module;
@@ -30,15 +31,18 @@ import org.apache.spark.sql.SparkSession;
 public class BigQueryDataSourceReaderModule implements Module {
 
   private Optional<SparkBigQueryConfig> tableScanConfig;
+  private Optional<PlanningTimeline> tableScanTimeline;
 
   public BigQueryDataSourceReaderModule() {
-    this(Optional.empty());
+    this(Optional.empty(), Optional.empty());
   }
 
   // in practiced used only by the spark 3 connector, as there are separate phases for creating the
   // catalog and the table scan (unlike DSv1 and spark 2.4)
-  public BigQueryDataSourceReaderModule(Optional<SparkBigQueryConfig> tableScanConfig) {
+  public BigQueryDataSourceReaderModule(
+      Optional<SparkBigQueryConfig> tableScanConfig, Optional<PlanningTimeline> tableScanTimeline) {
     this.tableScanConfig = tableScanConfig;
+    this.tableScanTimeline = tableScanTimeline;
   }
 
   @Override
@@ -53,9 +57,14 @@ public class BigQueryDataSourceReaderModule implements Module {
       BigQueryClientFactory bigQueryReadClientFactory,
       BigQueryTracerFactory tracerFactory,
       SparkBigQueryConfig globalConfig,
-      SparkSession sparkSession) {
+      SparkSession sparkSession,
+      PlanningTimeline globalTimeline) {
     SparkBigQueryConfig config = tableScanConfig.orElse(globalConfig);
-    TableInfo tableInfo = bigQueryClient.getReadTable(config.toReadTableOptions());
+    PlanningTimeline timeline = tableScanTimeline.orElse(globalTimeline);
+    TableInfo tableInfo =
+        timeline.time(
+            PlanningTimeline.TABLE_METADATA,
+            () -> bigQueryClient.getReadTable(config.toReadTableOptions()));
     return new BigQueryDataSourceReaderContext(
         tableInfo,
         bigQueryClient,
@@ -66,6 +75,7 @@ public class BigQueryDataSourceReaderModule implements Module {
         config.getSchema(),
         sparkSession.sparkContext().applicationId(),
         config,
-        sparkSession.sqlContext());
+        sparkSession.sqlContext(),
+        timeline);
   }
 }
@@ -19,6 +19,7 @@ import com.google.cloud.bigquery.connector.common.BigQueryClientFactory;
 import com.google.cloud.bigquery.connector.common.ReadRowsHelper;
 import com.google.cloud.bigquery.storage.v1.ReadRowsRequest;
 import com.google.cloud.bigquery.storage.v1.ReadRowsResponse;
+import com.google.cloud.spark.bigquery.BigQueryConnectorMetricsSource;
 import com.google.cloud.spark.bigquery.ReadRowsResponseToInternalRowIteratorConverter;
 import java.util.Iterator;
 import java.util.Optional;
@@ -44,6 +45,7 @@ public class BigQueryInputPartitionContext implements InputPartitionContext<Inte
 
   @Override
   public InputPartitionReaderContext<InternalRow> createPartitionReaderContext() {
+    BigQueryConnectorMetricsSource.registerIfNeeded();
     ReadRowsRequest.Builder readRowsRequest =
         ReadRowsRequest.newBuilder().setReadStream(streamName);
     ReadRowsHelper readRowsHelper =
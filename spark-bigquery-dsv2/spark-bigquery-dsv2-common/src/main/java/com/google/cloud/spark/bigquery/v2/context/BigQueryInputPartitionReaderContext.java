@@ -16,11 +16,13 @@
 package com.google.cloud.spark.bigquery.v2.context;
 
 import com.google.cloud.bigquery.connector.common.ReadRowsHelper;
+import com.google.cloud.bigquery.connector.common.ReadRowsMetrics;
 import com.google.cloud.bigquery.storage.v1.ReadRowsResponse;
 import com.google.cloud.spark.bigquery.ReadRowsResponseToInternalRowIteratorConverter;
 import com.google.common.collect.ImmutableList;
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.Optional;
 import org.apache.spark.sql.catalyst.InternalRow;
 
 class BigQueryInputPartitionReaderContext implements InputPartitionReaderContext<InternalRow> {
@@ -43,10 +45,15 @@ class BigQueryInputPartitionReaderContext implements InputPartitionReaderContext
   @Override
   public boolean next() throws IOException {
     while (!rows.hasNext()) {
+      long serviceStartNanos = System.nanoTime();
       if (!readRowsResponses.hasNext()) {
         return false;
       }
       ReadRowsResponse readRowsResponse = readRowsResponses.next();
+      ReadRowsMetrics metrics = readRowsHelper.getMetrics();
+      metrics.addServiceTimeNanos(System.nanoTime() - serviceStartNanos);
+      metrics.addBytesReceived(readRowsResponse.getSerializedSize());
+      metrics.addRows(readRowsResponse.getRowCount());
       rows = converter.convert(readRowsResponse);
     }
     currentRow = rows.next();
@@ -58,6 +65,11 @@ class BigQueryInputPartitionReaderContext implements InputPartitionReaderContext
     return currentRow;
   }
 
+  @Override
+  public Optional<ReadRowsMetrics> getReadRowsMetrics() {
+    return Optional.of(readRowsHelper.getMetrics());
+  }
+
   @Override
   public void close() throws IOException {
     readRowsHelper.close();
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2021 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.spark.bigquery.v2.context;
+
+import java.util.Arrays;
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.catalyst.expressions.SpecializedGetters;
+import org.apache.spark.sql.catalyst.util.ArrayData;
+import org.apache.spark.sql.execution.vectorized.WritableColumnVector;
+import org.apache.spark.sql.types.ArrayType;
+import org.apache.spark.sql.types.BinaryType;
+import org.apache.spark.sql.types.BooleanType;
+import org.apache.spark.sql.types.ByteType;
+import org.apache.spark.sql.types.DataType;
+import org.apache.spark.sql.types.DateType;
+import org.apache.spark.sql.types.DecimalType;
+import org.apache.spark.sql.types.DoubleType;
+import org.apache.spark.sql.types.FloatType;
+import org.apache.spark.sql.types.IntegerType;
+import org.apache.spark.sql.types.LongType;
+import org.apache.spark.sql.types.ShortType;
+import org.apache.spark.sql.types.StringType;
+import org.apache.spark.sql.types.StructType;
+import org.apache.spark.sql.types.TimestampType;
+import org.apache.spark.unsafe.types.UTF8String;
+
+/**
+ * Appends a value of a row, or an element of an array, to a column vector. Used to build columnar
+ * batches out of the rows converted from the Avro responses.
+ */
+@FunctionalInterface
+interface ColumnVectorAppender {
+
+  void append(SpecializedGetters data, int ordinal, WritableColumnVector vector);
+
+  /** Whether the values of the given type can be appended to a column vector. */
+  static boolean isSupported(DataType dataType) {
+    if (dataType instanceof StructType) {
+      return Arrays.stream(((StructType) dataType).fields())
+          .allMatch(field -> isSupported(field.dataType()));
+    }
+    if (dataType instanceof ArrayType) {
+      return isSupported(((ArrayType) dataType).elementType());
+    }
+    return dataType instanceof BooleanType
+        || dataType instanceof ByteType
+        || dataType instanceof ShortType
+        || dataType instanceof IntegerType
+        || dataType instanceof DateType
+        || dataType instanceof LongType
+        || dataType instanceof TimestampType
+        || dataType instanceof FloatType
+        || dataType instanceof DoubleType
+        || dataType instanceof DecimalType
+        || dataType instanceof StringType
+        || dataType instanceof BinaryType;
+  }
+
+  static ColumnVectorAppender forType(DataType dataType) {
+    ColumnVectorAppender nonNullAppender = forNonNullValues(dataType);
+    boolean isStruct = dataType instanceof StructType;
+    return (data, ordinal, vector) -> {
+      if (!data.isNullAt(ordinal)) {
+        nonNullAppender.append(data, ordinal, vector);
+      } else if (isStruct) {
+        // also appends nulls to the fields, keeping them aligned with the struct
+        vector.appendStruct(/*isNull=*/ true);
+      } else {
+        vector.appendNull();
+      }
+    };
+  }
+
+  static ColumnVectorAppender forNonNullValues(DataType dataType) {
+    if (dataType instanceof BooleanType) {
+      return (data, ordinal, vector) -> vector.appendBoolean(data.getBoolean(ordinal));
+    }
+    if (dataType instanceof ByteType) {
+      return (data, ordinal, vector) -> vector.appendByte(data.getByte(ordinal));
+    }
+    if (dataType instanceof ShortType) {
+      return (data, ordinal, vector) -> vector.appendShort(data.getShort(ordinal));
+    }
+    if (dataType instanceof IntegerType || dataType instanceof DateType) {
+      return (data, ordinal, vector) -> vector.appendInt(data.getInt(ordinal));
+    }
+    if (dataType instanceof LongType || dataType instanceof TimestampType) {
+      return (data, ordinal, vector) -> vector.appendLong(data.getLong(ordinal));
+    }
+    if (dataType instanceof FloatType) {
+      return (data, ordinal, vector) -> vector.appendFloat(data.getFloat(ordinal));
+    }
+    if (dataType instanceof DoubleType) {
+      return (data, ordinal, vector) -> vector.appendDouble(data.getDouble(ordinal));
+    }
+    if (dataType instanceof DecimalType) {
+      int precision = ((DecimalType) dataType).precision();
+      int scale = ((DecimalType) dataType).scale();
+      return (data, ordinal, vector) ->
+          vector.putDecimal(
+              vector.appendNotNull(), data.getDecimal(ordinal, precision, scale), precision);
+    }
+    if (dataType instanceof StringType) {
+      return (data, ordinal, vector) -> {
+        UTF8String value = data.getUTF8String(ordinal);
+        vector.appendByteArray(value.getBytes(), 0, value.numBytes());
+      };
+    }
+    if (dataType instanceof BinaryType) {
+      return (data, ordinal, vector) -> {
+        byte[] value = data.getBinary(ordinal);
+        vector.appendByteArray(value, 0, value.length);
+      };
+    }
+    if (dataType instanceof StructType) {
+      ColumnVectorAppender[] fieldAppenders =
+          Arrays.stream(((StructType) dataType).fields())
+              .map(field -> forType(field.dataType()))
+              .toArray(ColumnVectorAppender[]::new);
+      return (data, ordinal, vector) -> {
+        InternalRow struct = data.getStruct(ordinal, fieldAppenders.length);
+        vector.appendStruct(/*isNull=*/ false);
+        for (int i = 0; i < fieldAppenders.length; i++) {
+          fieldAppenders[i].append(struct, i, vector.getChild(i));
+        }
+      };
+    }
+    if (dataType instanceof ArrayType) {
+      ColumnVectorAppender elementAppender = forType(((ArrayType) dataType).elementType());
+      return (data, ordinal, vector) -> {
+        ArrayData array = data.getArray(ordinal);
+        vector.appendArray(array.numElements());
+        WritableColumnVector elements = vector.arrayData();
+        for (int i = 0; i < array.numElements(); i++) {
+          elementAppender.append(array, i, elements);
+        }
+      };
+    }
+    throw new IllegalArgumentException("Unsupported type for columnar reads: " + dataType);
+  }
+}
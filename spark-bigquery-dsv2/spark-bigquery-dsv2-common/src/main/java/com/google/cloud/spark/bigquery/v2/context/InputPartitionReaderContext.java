@@ -15,12 +15,19 @@
  */
 package com.google.cloud.spark.bigquery.v2.context;
 
+import com.google.cloud.bigquery.connector.common.ReadRowsMetrics;
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.Optional;
 
 public interface InputPartitionReaderContext<T> extends Closeable {
 
   boolean next() throws IOException;
 
   T get();
+
+  /** The metrics of the streams read by this partition, empty if it does not read any stream. */
+  default Optional<ReadRowsMetrics> getReadRowsMetrics() {
+    return Optional.empty();
+  }
 }
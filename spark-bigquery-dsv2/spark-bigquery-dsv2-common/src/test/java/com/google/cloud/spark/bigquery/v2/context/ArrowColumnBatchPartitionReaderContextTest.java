@@ -0,0 +1,179 @@
+/*
+ * Copyright 2021 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.cloud.spark.bigquery.v2.context;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.google.cloud.bigquery.connector.common.BigQueryClientFactory;
+import com.google.cloud.bigquery.connector.common.BigQueryStorageReadRowsTracer;
+import com.google.cloud.bigquery.connector.common.ReadRowsHelper;
+import com.google.cloud.bigquery.storage.v1.ArrowRecordBatch;
+import com.google.cloud.bigquery.storage.v1.ReadRowsResponse;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.VectorUnloader;
+import org.apache.arrow.vector.ipc.WriteChannel;
+import org.apache.arrow.vector.ipc.message.MessageSerializer;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.spark.sql.vectorized.ColumnarBatch;
+import org.junit.After;
+import org.junit.Test;
+
+public class ArrowColumnBatchPartitionReaderContextTest {
+
+  private static final Schema SCHEMA =
+      new Schema(
+          ImmutableList.of(
+              new Field("id", FieldType.nullable(new ArrowType.Int(64, true)), null),
+              new Field("name", FieldType.nullable(new ArrowType.Utf8()), null)));
+
+  BufferAllocator allocator = new RootAllocator();
+
+  @After
+  public void tearDown() {
+    allocator.close();
+  }
+
+  @Test
+  public void testBatchesAreReturnedAsReceivedByDefault() throws Exception {
+    List<Integer> batchSizes =
+        readBatchSizes(/*targetBatchRows=*/ 0, /*targetBatchBytes=*/ 0, 3, 2, 5);
+
+    assertThat(batchSizes).containsExactly(3, 2, 5).inOrder();
+  }
+
+  @Test
+  public void testSmallBatchesAreMergedUpToTheTargetRows() throws Exception {
+    List<Integer> batchSizes =
+        readBatchSizes(/*targetBatchRows=*/ 4, /*targetBatchBytes=*/ 0, 1, 2, 3, 6, 1, 1);
+
+    // the batch of 6 rows reaches the target on its own, the last batch is returned even though
+    // it is smaller than the target
+    assertThat(batchSizes).containsExactly(6, 6, 2).inOrder();
+  }
+
+  @Test
+  public void testSmallBatchesAreMergedUpToTheTargetBytes() throws Exception {
+    List<Integer> batchSizes =
+        readBatchSizes(/*targetBatchRows=*/ 0, /*targetBatchBytes=*/ 1, 1, 2, 3);
+
+    assertThat(batchSizes).containsExactly(1, 2, 3).inOrder();
+  }
+
+  @Test
+  public void testMergedBatchesKeepTheValuesOfAllTheRows() throws Exception {
+    try (ArrowColumnBatchPartitionReaderContext context =
+        newContext(/*targetBatchRows=*/ 100, /*targetBatchBytes=*/ 0, 2, 3)) {
+      assertThat(context.next()).isTrue();
+      ColumnarBatch batch = context.get();
+      assertThat(batch.numRows()).isEqualTo(5);
+      // the rows of each response are numbered from 0
+      long[] ids = {0, 1, 0, 1, 2};
+      for (int i = 0; i < ids.length; i++) {
+        assertThat(batch.column(0).getLong(i)).isEqualTo(ids[i]);
+        assertThat(batch.column(1).getUTF8String(i).toString()).isEqualTo("name-" + ids[i]);
+      }
+      assertThat(context.next()).isFalse();
+      assertThat(context.next()).isFalse();
+    }
+  }
+
+  private List<Integer> readBatchSizes(
+      int targetBatchRows, long targetBatchBytes, int... responseRowCounts) throws Exception {
+    List<Integer> batchSizes = new ArrayList<>();
+    try (ArrowColumnBatchPartitionReaderContext context =
+        newContext(targetBatchRows, targetBatchBytes, responseRowCounts)) {
+      while (context.next()) {
+        batchSizes.add(context.get().numRows());
+      }
+    }
+    return batchSizes;
+  }
+
+  private ArrowColumnBatchPartitionReaderContext newContext(
+      int targetBatchRows, long targetBatchBytes, int... responseRowCounts) throws IOException {
+    List<ReadRowsResponse> responses = new ArrayList<>();
+    for (int rowCount : responseRowCounts) {
+      responses.add(response(rowCount));
+    }
+    ReadRowsHelper readRowsHelper =
+        new ReadRowsHelper(
+            mock(BigQueryClientFactory.class),
+            ImmutableList.of(),
+            new ReadRowsHelper.Options(
+                /*maxReadRowsRetries=*/ 3,
+                Optional.empty(),
+                /*backgroundParsingThreads=*/ 0,
+                /*prebufferResponses=*/ 1));
+    return new ArrowColumnBatchPartitionReaderContext(
+        responses.iterator(),
+        serializedSchema(),
+        readRowsHelper,
+        ImmutableList.of("id", "name"),
+        mock(BigQueryStorageReadRowsTracer.class),
+        Optional.empty(),
+        /*numBackgroundThreads=*/ 0,
+        /*decodeThreadsPerExecutor=*/ 1,
+        /*preserveBatchOrder=*/ true,
+        targetBatchRows,
+        targetBatchBytes);
+  }
+
+  private static ByteString serializedSchema() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    MessageSerializer.serialize(new WriteChannel(Channels.newChannel(out)), SCHEMA);
+    return ByteString.copyFrom(out.toByteArray());
+  }
+
+  private ReadRowsResponse response(int rowCount) throws IOException {
+    try (VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, allocator)) {
+      BigIntVector ids = (BigIntVector) root.getVector("id");
+      VarCharVector names = (VarCharVector) root.getVector("name");
+      for (int i = 0; i < rowCount; i++) {
+        ids.setSafe(i, i);
+        names.setSafe(i, ("name-" + i).getBytes());
+      }
+      root.setRowCount(rowCount);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (org.apache.arrow.vector.ipc.message.ArrowRecordBatch batch =
+          new VectorUnloader(root).getRecordBatch()) {
+        MessageSerializer.serialize(new WriteChannel(Channels.newChannel(out)), batch);
+      }
+      return ReadRowsResponse.newBuilder()
+          .setArrowRecordBatch(
+              ArrowRecordBatch.newBuilder()
+                  .setSerializedRecordBatch(ByteString.copyFrom(out.toByteArray()))
+                  .setRowCount(rowCount))
+          .setRowCount(rowCount)
+          .build();
+    }
+  }
+}
@@ -16,10 +16,15 @@
 package com.google.cloud.spark.bigquery.v2.context;
 
 import static com.google.common.truth.Truth.*;
+import static org.mockito.Mockito.mock;
 
 import com.google.cloud.bigquery.*;
+import com.google.cloud.bigquery.connector.common.BigQueryClientFactory;
+import com.google.cloud.bigquery.connector.common.ReadRowsHelper;
+import com.google.cloud.bigquery.connector.common.ReadRowsMetrics;
 import com.google.cloud.bigquery.storage.v1.ReadRowsResponse;
 import com.google.cloud.spark.bigquery.ReadRowsResponseToInternalRowIteratorConverter;
+import com.google.cloud.spark.bigquery.SchemaConverters;
 import com.google.cloud.spark.bigquery.SchemaConvertersConfiguration;
 import com.google.common.collect.ImmutableList;
 import com.google.protobuf.TextFormat;
@@ -27,6 +32,8 @@ import java.time.ZoneId;
 import java.util.Iterator;
 import java.util.Optional;
 import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.types.StructType;
+import org.apache.spark.sql.vectorized.ColumnarBatch;
 import org.junit.Test;
 
 public class BigQueryInputPartitionReaderContextTest {
@@ -105,14 +112,88 @@ public class BigQueryInputPartitionReaderContextTest {
             Optional.empty(),
             SchemaConvertersConfiguration.of(ZoneId.of("UTC")));
 
+    ReadRowsHelper readRowsHelper =
+        new ReadRowsHelper(
+            mock(BigQueryClientFactory.class),
+            ImmutableList.of(),
+            new ReadRowsHelper.Options(
+                /* maxReadRowsRetries= */ 3,
+                Optional.empty(),
+                /* backgroundParsingThreads= */ 0,
+                1));
     BigQueryInputPartitionReaderContext reader =
-        new BigQueryInputPartitionReaderContext(readRowsResponses, converter, null);
+        new BigQueryInputPartitionReaderContext(readRowsResponses, converter, readRowsHelper);
 
     assertThat(reader.next()).isTrue();
     InternalRow row = reader.get();
     assertThat(reader.next()).isFalse();
     assertThat(row.numFields()).isEqualTo(15);
     assertThat(row.getString(0)).isEqualTo("hello");
+    ReadRowsMetrics metrics = reader.getReadRowsMetrics().get();
+    assertThat(metrics.getRows()).isEqualTo(1);
+    assertThat(metrics.getBytesReceived()).isEqualTo(readRowsResponse.build().getSerializedSize());
+  }
+
+  @Test
+  public void testReadAvroInColumnarBatches() throws Exception {
+    ReadRowsResponse.Builder readRowsResponse = ReadRowsResponse.newBuilder();
+    TextFormat.merge(ALL_TYPES_TABLE_READ_ROWS_RESPONSE_STR, readRowsResponse);
+    SchemaConvertersConfiguration schemaConvertersConfiguration =
+        SchemaConvertersConfiguration.of(ZoneId.of("UTC"));
+    ReadRowsResponseToInternalRowIteratorConverter converter =
+        ReadRowsResponseToInternalRowIteratorConverter.avro(
+            ALL_TYPES_TABLE_BIGQUERY_SCHEMA,
+            ALL_TYPES_TABLE_FIELDS,
+            ALL_TYPES_TABLE_AVRO_RAW_SCHEMA,
+            Optional.empty(),
+            Optional.empty(),
+            schemaConvertersConfiguration);
+    StructType schema =
+        SchemaConverters.from(schemaConvertersConfiguration)
+            .toSpark(ALL_TYPES_TABLE_BIGQUERY_SCHEMA);
+    InternalRow expected = converter.convert(readRowsResponse.build()).next();
+
+    ReadRowsHelper readRowsHelper =
+        new ReadRowsHelper(
+            mock(BigQueryClientFactory.class),
+            ImmutableList.of(),
+            new ReadRowsHelper.Options(
+                /* maxReadRowsRetries= */ 3,
+                Optional.empty(),
+                /* backgroundParsingThreads= */ 0,
+                1));
+    assertThat(ColumnVectorAppender.isSupported(schema)).isTrue();
+    AvroColumnBatchPartitionReaderContext reader =
+        new AvroColumnBatchPartitionReaderContext(
+            ImmutableList.of(readRowsResponse.build(), readRowsResponse.build()).iterator(),
+            converter,
+            readRowsHelper,
+            schema);
+
+    // the vectors are reused by the second batch
+    for (int i = 0; i < 2; i++) {
+      assertThat(reader.next()).isTrue();
+      ColumnarBatch batch = reader.get();
+      assertThat(batch.numRows()).isEqualTo(1);
+      InternalRow row = batch.getRow(0);
+      assertThat(row.getString(0)).isEqualTo("hello");
+      assertThat(row.getBinary(1)).isEqualTo(expected.getBinary(1));
+      assertThat(row.getLong(2)).isEqualTo(expected.getLong(2));
+      assertThat(row.getDouble(3)).isEqualTo(expected.getDouble(3));
+      assertThat(row.getDecimal(4, 38, 9)).isEqualTo(expected.getDecimal(4, 38, 9));
+      assertThat(row.getBoolean(5)).isEqualTo(expected.getBoolean(5));
+      assertThat(row.getLong(6)).isEqualTo(expected.getLong(6));
+      assertThat(row.getInt(7)).isEqualTo(expected.getInt(7));
+      assertThat(row.getString(9)).isEqualTo(expected.getString(9));
+      assertThat(row.getStruct(11, 2).getString(0)).isEqualTo("in_rec");
+      assertThat(row.getStruct(11, 2).isNullAt(1)).isEqualTo(expected.getStruct(11, 2).isNullAt(1));
+      assertThat(row.isNullAt(12)).isTrue();
+      assertThat(row.getArray(13).numElements()).isEqualTo(2);
+      assertThat(row.getArray(13).getUTF8String(1).toString()).isEqualTo("query");
+    }
+    assertThat(reader.next()).isFalse();
+    assertThat(reader.getReadRowsMetrics().get().getRows()).isEqualTo(2);
+    reader.close();
   }
 
   private TableInfo allTypesTableInfo() {
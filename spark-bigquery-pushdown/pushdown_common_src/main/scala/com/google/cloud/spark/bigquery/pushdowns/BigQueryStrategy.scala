@@ -3,16 +3,23 @@ package com.google.cloud.spark.bigquery.pushdowns
 import com.google.cloud.bigquery.connector.common.{BigQueryPushdownException, BigQueryPushdownUnsupportedException}
 import com.google.cloud.spark.bigquery.SparkBigQueryUtil.isDataFrameShowMethodInStackTrace
 import com.google.cloud.spark.bigquery.direct.{BigQueryRDDFactory, DirectBigQueryRelation}
+import com.google.cloud.spark.bigquery.pushdowns.BigQueryStrategy.{CommonTableExpression, QueryGenerationState, queryGenerationState}
 import com.google.cloud.spark.bigquery.pushdowns.SparkBigQueryPushdownUtil.{convertExpressionToNamedExpression, removeProjectNodeFromPlan, addProjectNodeToThePlan, isLimitTheChildToProjectNode}
 import org.apache.spark.internal.Logging
 import org.apache.spark.sql.Strategy
 import org.apache.spark.sql.catalyst.analysis.NamedRelation
 import org.apache.spark.sql.catalyst.expressions.NamedExpression.unapply
-import org.apache.spark.sql.catalyst.expressions.{Alias, Cast, NamedExpression}
+import org.apache.spark.sql.catalyst.expressions.{Alias, Attribute, AttributeReference, Cast, NamedExpression}
 import org.apache.spark.sql.catalyst.plans._
 import org.apache.spark.sql.catalyst.plans.logical._
+import org.apache.spark.sql.catalyst.plans.logical.statsEstimation.EstimationUtils
 import org.apache.spark.sql.execution.datasources.LogicalRelation
 import org.apache.spark.sql.execution.{ProjectExec, SparkPlan}
+import org.apache.spark.sql.internal.SQLConf
+
+import java.util.OptionalLong
+
+import scala.collection.mutable
 
 /**
  * Our hook into Spark that converts the logical plan into physical plan.
@@ -25,12 +32,21 @@ import org.apache.spark.sql.execution.{ProjectExec, SparkPlan}
  */
 abstract class BigQueryStrategy(expressionConverter: SparkExpressionConverter, expressionFactory: SparkExpressionFactory, sparkPlanFactory: SparkPlanFactory) extends Strategy with Logging {
 
+  private val defaultAlias = Iterator.from(0).map(n => s"SUBQUERY_$n")
+
   /** This iterator automatically increments every time it is used,
-   * and is for aliasing subqueries.
+   * and is for aliasing subqueries. The aliases restart for every generated
+   * query, so that identical plans are always translated to identical SQL and
+   * can reuse the same materialized destination table.
    */
-  final val alias = Iterator.from(0).map(n => s"SUBQUERY_$n")
+  final def alias: Iterator[String] =
+    Option(queryGenerationState.get).map(_.alias).getOrElse(defaultAlias)
 
   /** Attempts to generate a SparkPlan from the provided LogicalPlan.
+   *
+   * If the plan cannot be translated, Spark plans its top node and calls the
+   * strategy again on each of its children, so that the largest translatable
+   * subtrees are still pushed down.
    *
    * @param plan The LogicalPlan provided by Spark.
    * @return An Option of Seq[BigQueryPlan] that contains the PhysicalPlan if
@@ -55,6 +71,17 @@ abstract class BigQueryStrategy(expressionConverter: SparkExpressionConverter, e
     }
   }
 
+  def containsBigQueryRelation(plan: LogicalPlan): Boolean = {
+    plan.find(isBigQueryRelation).isDefined
+  }
+
+  private def isBigQueryRelation(plan: LogicalPlan): Boolean = {
+    plan match {
+      case LogicalRelation(_: DirectBigQueryRelation, _, _, _) | _: NamedRelation => true
+      case _ => false
+    }
+  }
+
   def hasUnsupportedNodes(plan: LogicalPlan): Boolean = {
     plan.foreach {
       case UnaryOperationExtractor(_) | BinaryOperationExtractor(_) | UnionOperationExtractor(_) =>
@@ -155,18 +182,43 @@ abstract class BigQueryStrategy(expressionConverter: SparkExpressionConverter, e
    * Generates the BigQueryPlan from the Logical plan by
    * 1) Generating a BigQuerySQLQuery from the passed-in LogicalPlan
    * 2) Getting the BigQueryRDDFactory from the source query
-   * 3) Creating a BigQueryPlan by passing the query root and the BigQueryRDDFactory
+   * 3) Checking that pushing down the query is expected to be cheaper than reading its inputs
+   * 4) Creating a BigQueryPlan by passing the query root and the BigQueryRDDFactory
    */
   def generateBigQueryPlanFromLogicalPlan(plan: LogicalPlan): SparkPlan = {
     // Generate the query from the logical plan
-    val queryRoot = generateQueryFromPlan(plan)
+    val queryRoot = generateQueryWithCommonTableExpressions(plan)
     val bigQueryRDDFactory = getRDDFactory(queryRoot.get)
 
+    val estimatedOutputSizeInBytes = estimateOutputSizeInBytes(plan)
+      .map(OptionalLong.of)
+      .getOrElse(OptionalLong.empty())
+    if (!bigQueryRDDFactory.get.shouldPushdownQuery(queryRoot.get.getStatement().toString, estimatedOutputSizeInBytes)) {
+      throw new BigQueryPushdownUnsupportedException("Query pushdown is expected to be more expensive than reading the inputs")
+    }
+
     // Create the SparkPlan
     sparkPlanFactory.createBigQueryPlan(queryRoot.get, bigQueryRDDFactory.get)
       .getOrElse(throw new BigQueryPushdownException("Could not generate BigQuery physical plan from query"))
   }
 
+  /**
+   * Estimates the size of the output of the plan, from the row count computed by
+   * the cost based optimizer when it is available. Without it, Spark estimates the
+   * size of a join as the product of the sizes of its inputs, and falls back to
+   * spark.sql.defaultSizeInBytes for the plans it cannot estimate, so the size of
+   * such plans is unknown.
+   */
+  def estimateOutputSizeInBytes(plan: LogicalPlan): Option[Long] = {
+    val stats = plan.stats
+    val sizeInBytes = stats.rowCount match {
+      case Some(rowCount) => EstimationUtils.getOutputSize(plan.output, rowCount)
+      case None if plan.find(_.isInstanceOf[Join]).isEmpty => stats.sizeInBytes
+      case None => return None
+    }
+    if (sizeInBytes >= SQLConf.get.defaultSizeInBytes) None else Some(sizeInBytes.toLong)
+  }
+
   /**
    * Generates the physical Project plan from the Logical plan by
    * 1) Removing the passed-in Project node from the passed-in plan
@@ -196,6 +248,97 @@ abstract class BigQueryStrategy(expressionConverter: SparkExpressionConverter, e
     Some(sourceQuery.bigQueryRDDFactory)
   }
 
+  /**
+   * Generates the query from the LogicalPlan, translating the subtrees that appear
+   * more than once in the plan (such as both sides of a self join) only once, as
+   * common table expressions of a WITH clause.
+   */
+  def generateQueryWithCommonTableExpressions(plan: LogicalPlan): Option[BigQuerySQLQuery] = {
+    val previousState = queryGenerationState.get
+    val state = new QueryGenerationState(findSharedSubtrees(plan))
+    queryGenerationState.set(state)
+    try {
+      generateQueryFromPlan(plan).map { query =>
+        if (state.commonTableExpressions.isEmpty) {
+          query
+        } else {
+          WithQuery(expressionConverter, expressionFactory,
+            state.commonTableExpressions.values.map(cte => (cte.name, cte.definition)).toSeq, query, alias.next)
+        }
+      }
+    } finally {
+      queryGenerationState.set(previousState)
+    }
+  }
+
+  /**
+   * Returns the canonicalized subtrees that would be translated more than once.
+   * A subtree nested in another shared subtree is only counted once per
+   * translation of the enclosing subtree.
+   */
+  def findSharedSubtrees(plan: LogicalPlan): Set[LogicalPlan] = {
+    def isShareable(subtree: LogicalPlan): Boolean =
+      !isBigQueryRelation(subtree) && containsBigQueryRelation(subtree)
+
+    val repeated = plan.collect { case subtree if isShareable(subtree) => subtree.canonicalized }
+      .groupBy(identity)
+      .collect { case (subtree, occurrences) if occurrences.size > 1 => subtree }
+      .toSet
+    if (repeated.isEmpty) {
+      return Set.empty
+    }
+
+    val references = mutable.Map.empty[LogicalPlan, Int].withDefaultValue(0)
+    def countReferences(subtree: LogicalPlan): Unit = {
+      if (isShareable(subtree) && repeated.contains(subtree.canonicalized)) {
+        references(subtree.canonicalized) += 1
+        if (references(subtree.canonicalized) == 1) {
+          subtree.children.foreach(countReferences)
+        }
+      } else {
+        subtree.children.foreach(countReferences)
+      }
+    }
+    countReferences(plan)
+
+    references.collect { case (subtree, count) if count > 1 => subtree }.toSet
+  }
+
+  /**
+   * Returns a reference to the common table expression translating the given
+   * shared subtree, defining the common table expression on its first use.
+   * The reference exposes the columns of the common table expression under the
+   * attributes of the given occurrence, and is None if they cannot be matched.
+   */
+  private def generateCommonTableExpressionReference(plan: LogicalPlan, state: QueryGenerationState): Option[BigQuerySQLQuery] = {
+    val key = plan.canonicalized
+    state.commonTableExpressions.get(key)
+      .orElse {
+        generateQueryFromPlanNode(plan)
+          .map(CommonTableExpression(state.commonTableExpressionName.next, _, plan))
+          // Only defined once its columns are known to match the attributes of the subtree
+          .filter(getCommonTableExpressionColumns(_, plan).isDefined)
+          .map { cte =>
+            state.commonTableExpressions.put(key, cte)
+            cte
+          }
+      }
+      .flatMap { cte =>
+        getCommonTableExpressionColumns(cte, plan).map { columns =>
+          val outputAttributes = columns.zip(plan.output).map {
+            case (column, a) => AttributeReference(column.name, a.dataType, a.nullable, a.metadata)(a.exprId)
+          }
+          CommonTableExpressionQuery(expressionConverter, expressionFactory, cte.name, cte.definition, outputAttributes, alias.next)
+        }
+      }
+  }
+
+  /** Returns the columns of the common table expression matching the output of the given subtree */
+  private def getCommonTableExpressionColumns(cte: CommonTableExpression, plan: LogicalPlan): Option[Seq[Attribute]] = {
+    val columns = cte.plan.output.map(a => cte.definition.output.find(_.exprId == a.exprId))
+    if (columns.size == plan.output.size && columns.forall(_.isDefined)) Some(columns.flatten) else None
+  }
+
   // This method will be overridden in subclasses that support query pushdown for DSv2
   def generateQueryFromPlanForDataSourceV2(plan: LogicalPlan): Option[BigQuerySQLQuery]
 
@@ -209,6 +352,14 @@ abstract class BigQueryStrategy(expressionConverter: SparkExpressionConverter, e
    *         unsupported node type.
    */
   def generateQueryFromPlan(plan: LogicalPlan): Option[BigQuerySQLQuery] = {
+    Option(queryGenerationState.get)
+      .filter(_.sharedSubtrees.contains(plan.canonicalized))
+      .flatMap(generateCommonTableExpressionReference(plan, _))
+      .orElse(generateQueryFromPlanNode(plan))
+  }
+
+  /** Translates the given node, recursing on its children with generateQueryFromPlan */
+  private def generateQueryFromPlanNode(plan: LogicalPlan): Option[BigQuerySQLQuery] = {
     plan match {
       // NamedRelation is the superclass of DataSourceV2Relation and DataSourceV2ScanRelation.
       // DataSourceV2Relation is the Spark 2.4 DSv2 connector relation and
@@ -299,3 +450,18 @@ abstract class BigQueryStrategy(expressionConverter: SparkExpressionConverter, e
    */
   def createUnionQuery(children: Seq[LogicalPlan]): Option[BigQuerySQLQuery]
 }
+
+object BigQueryStrategy {
+
+  private case class CommonTableExpression(name: String, definition: BigQuerySQLQuery, plan: LogicalPlan)
+
+  /** The state of the query being generated by the current thread */
+  private class QueryGenerationState(val sharedSubtrees: Set[LogicalPlan]) {
+    val alias: Iterator[String] = Iterator.from(0).map(n => s"SUBQUERY_$n")
+    val commonTableExpressionName: Iterator[String] = Iterator.from(0).map(n => s"CTE_$n")
+    // Ordered by completion, so that a common table expression is defined after the ones it references
+    val commonTableExpressions = mutable.LinkedHashMap.empty[LogicalPlan, CommonTableExpression]
+  }
+
+  private val queryGenerationState = new ThreadLocal[QueryGenerationState]
+}
@@ -0,0 +1,31 @@
+package com.google.cloud.spark.bigquery.pushdowns
+
+import org.apache.spark.sql.catalyst.expressions.Attribute
+
+/** A reference to a common table expression, used in place of a subquery that
+ * appears several times in the plan.
+ *
+ * @constructor
+ * @param name             The name of the common table expression.
+ * @param definition       The query defining the common table expression.
+ * @param outputAttributes The output of the referencing subtree, named as the
+ *                         columns of the common table expression.
+ * @param alias            Query alias.
+ */
+case class CommonTableExpressionQuery(
+    expressionConverter: SparkExpressionConverter,
+    expressionFactory: SparkExpressionFactory,
+    name: String,
+    definition: BigQuerySQLQuery,
+    outputAttributes: Seq[Attribute],
+    alias: String)
+  extends BigQuerySQLQuery(
+    expressionConverter,
+    expressionFactory,
+    alias,
+    outputAttributes = Some(outputAttributes),
+    conjunctionStatement = ConstantString(name).toStatement) {
+
+  override def find[T](query: PartialFunction[BigQuerySQLQuery, T]): Option[T] =
+    query.lift(this).orElse(definition.find(query))
+}
@@ -174,6 +174,10 @@ abstract class SparkExpressionConverter {
       case StartsWith(child, Literal(pattern: UTF8String, StringType)) =>
         ConstantString("STARTS_WITH") + blockStatement(convertStatement(child, fields) + "," + s"'${pattern.toString.replace( "'", "\\'")}'")
 
+      // Spark uses Java regular expressions while BigQuery uses RE2, which does not support lookarounds and backreferences
+      case RLike(child, Literal(pattern: UTF8String, StringType)) if !containsUnsupportedRegexConstruct(pattern.toString) =>
+        ConstantString("REGEXP_CONTAINS") + blockStatement(convertStatement(child, fields) + "," + quoteStringLiteral(pattern.toString))
+
       case _ => null
     })
   }
@@ -215,6 +219,29 @@ abstract class SparkExpressionConverter {
           blockStatement(
             convertStatement(date, fields) + s", ${format.toString()}"
           )
+      case DateDiff(endDate, startDate) =>
+        ConstantString("DATE_DIFF") +
+          blockStatement(
+            convertStatement(endDate, fields) + "," + convertStatement(startDate, fields) + ", DAY"
+          )
+      case TruncTimestamp(Literal(format: UTF8String, StringType), timestamp, timeZoneId) =>
+        ConstantString("TIMESTAMP_TRUNC") +
+          blockStatement(
+            convertStatement(timestamp, fields) + "," + convertTruncFormat(format.toString) + timeZoneStatement(timeZoneId)
+          )
+      case DateFormatClass(timestamp, Literal(format: UTF8String, StringType), timeZoneId) =>
+        ConstantString("FORMAT_TIMESTAMP") +
+          blockStatement(
+            ConstantString(quoteStringLiteral(convertDateTimeFormat(format.toString))) + "," +
+              convertStatement(timestamp, fields) + timeZoneStatement(timeZoneId)
+          )
+      case FromUnixTime(seconds, Literal(format: UTF8String, StringType), timeZoneId) =>
+        ConstantString("FORMAT_TIMESTAMP") +
+          blockStatement(
+            ConstantString(quoteStringLiteral(convertDateTimeFormat(format.toString))) + "," +
+              ConstantString("TIMESTAMP_SECONDS") + blockStatement(convertStatement(seconds, fields)) +
+              timeZoneStatement(timeZoneId)
+          )
 
       case _ => null
     })
@@ -302,6 +329,35 @@ abstract class SparkExpressionConverter {
           case _ => null
         }
 
+      case size: Size if size.children.head.dataType.isInstanceOf[ArrayType] =>
+        val child = size.children.head
+        val arrayLength = ConstantString("ARRAY_LENGTH") + blockStatement(convertStatement(child, fields))
+        // Depending on spark.sql.legacy.sizeOfNull, Spark returns either -1 or null for null arrays
+        if (size.withNewChildren(Seq(Literal(null, child.dataType))).eval() == null) {
+          arrayLength
+        } else {
+          ConstantString("IFNULL") + blockStatement(arrayLength + ", -1")
+        }
+
+      case ArrayContains(array, value) =>
+        ConstantString("IF") +
+          blockStatement(
+            convertStatement(array, fields) + "IS NULL OR" + convertStatement(value, fields) + "IS NULL , NULL ," +
+              convertStatement(value, fields) + "IN UNNEST" + blockStatement(convertStatement(array, fields))
+          )
+
+      // get_json_object returns scalars unquoted, objects and arrays as JSON and JSON nulls as null.
+      // BigQuery JSONPath does not support wildcards
+      case GetJsonObject(json, Literal(path: UTF8String, StringType)) if path.toString.startsWith("$") && !path.toString.contains("*") =>
+        val jsonPath = quoteStringLiteral(path.toString)
+        ConstantString("COALESCE") +
+          blockStatement(
+            ConstantString("JSON_EXTRACT_SCALAR") + blockStatement(convertStatement(json, fields) + "," + jsonPath) + "," +
+              ConstantString("NULLIF") + blockStatement(
+                ConstantString("JSON_EXTRACT") + blockStatement(convertStatement(json, fields) + "," + jsonPath) + ", 'null'"
+              )
+          )
+
       case _: Cast =>
         convertCastExpression(expression, fields)
 
@@ -334,6 +390,22 @@ abstract class SparkExpressionConverter {
         ConstantString("FROM_BASE64") + blockStatement(convertStatements(fields, expression.children: _*))
       case _: SoundEx =>
         ConstantString("UPPER") + blockStatement(ConstantString("SOUNDEX") + blockStatement(convertStatements(fields, expression.children: _*)))
+      // ARRAY_TO_STRING skips null elements, as concat_ws does
+      case ConcatWs(separator +: strings) if strings.nonEmpty && strings.forall(_.dataType == StringType) =>
+        ConstantString("ARRAY_TO_STRING") +
+          blockStatement(
+            ConstantString("[") + convertStatements(fields, strings: _*) + "]" + "," + convertStatement(separator, fields)
+          )
+      // split takes a regular expression while SPLIT takes a delimiter, so only plain delimiters can be pushed down
+      case split: StringSplit if isPlainSplitDelimiter(split) =>
+        ConstantString("SPLIT") + blockStatement(convertStatements(fields, split.children.take(2): _*))
+      case Md5(child) =>
+        ConstantString("TO_HEX") + blockStatement(ConstantString("MD5") + blockStatement(convertStatement(child, fields)))
+      case Sha1(child) =>
+        ConstantString("TO_HEX") + blockStatement(ConstantString("SHA1") + blockStatement(convertStatement(child, fields)))
+      case Sha2(child, Literal(bitLength: Int, IntegerType)) if bitLength == 0 || bitLength == 256 || bitLength == 512 =>
+        val function = if (bitLength == 512) "SHA512" else "SHA256"
+        ConstantString("TO_HEX") + blockStatement(ConstantString(function) + blockStatement(convertStatement(child, fields)))
       case _ => null
     })
   }
@@ -458,6 +530,121 @@ abstract class SparkExpressionConverter {
       case _ => convertStatement(child, fields)
     }
 
+  final def quoteStringLiteral(value: String): String =
+    "'" + value.replace("\\", "\\\\").replace("'", "\\'") + "'"
+
+  final def timeZoneStatement(timeZoneId: Option[String]): String =
+    timeZoneId.map(timeZone => s", ${quoteStringLiteral(timeZone)}").getOrElse("")
+
+  /**
+   * Whether the Java regular expression uses a construct that BigQuery's RE2 engine rejects or
+   * interprets differently: lookarounds, atomic groups, back-references, possessive quantifiers
+   * such as a*+ or a{2}+, character class intersections such as [a-z&&[^aeiou]], the POSIX and
+   * java.lang.Character classes such as \p{Alpha}, and the \Z, \G, \h, \H, \R and \X escapes.
+   */
+  final def containsUnsupportedRegexConstruct(pattern: String): Boolean =
+    Seq("(?=", "(?!", "(?<=", "(?<!", "(?>", "\\k<").exists(pattern.contains) ||
+      "\\\\[1-9]".r.findFirstIn(pattern).isDefined ||
+      "(?<!\\\\)[*+?}]\\+".r.findFirstIn(pattern).isDefined ||
+      "\\[[^\\]]*&&".r.findFirstIn(pattern).isDefined ||
+      "\\\\[pP]\\{(Alpha|Lower|Upper|ASCII|Alnum|Punct|Graph|Print|Blank|Cntrl|XDigit|Digit|Space|java\\w*|I[sn][A-Z]\\w*|\\w+=\\w*)\\}"
+        .r.findFirstIn(pattern).isDefined ||
+      "(?<!\\\\)(\\\\\\\\)*\\\\[ZGhHRX]".r.findFirstIn(pattern).isDefined
+
+  final def isPlainSplitDelimiter(split: StringSplit): Boolean = {
+    val noLimit = split.children.drop(2).forall {
+      case Literal(limit: Int, IntegerType) => limit <= 0
+      case _ => false
+    }
+    split.children(1) match {
+      case Literal(delimiter: UTF8String, StringType) =>
+        noLimit && delimiter.numChars() > 0 && !delimiter.toString.exists(".$|()[]{}^?*+\\".contains(_))
+      case _ => false
+    }
+  }
+
+  /**
+   * Converts the unit of date_trunc to the date part of TIMESTAMP_TRUNC. Spark truncates weeks to Monday,
+   * which is BigQuery's ISOWEEK.
+   */
+  final def convertTruncFormat(format: String): String =
+    format.toUpperCase match {
+      case "YEAR" | "YYYY" | "YY" => "YEAR"
+      case "QUARTER" => "QUARTER"
+      case "MONTH" | "MON" | "MM" => "MONTH"
+      case "WEEK" => "ISOWEEK"
+      case "DAY" | "DD" => "DAY"
+      case "HOUR" => "HOUR"
+      case "MINUTE" => "MINUTE"
+      case "SECOND" => "SECOND"
+      case "MILLISECOND" => "MILLISECOND"
+      case "MICROSECOND" => "MICROSECOND"
+      case _ =>
+        throw new BigQueryPushdownUnsupportedException(s"Pushdown unsupported for date_trunc unit $format")
+    }
+
+  /**
+   * Converts a Spark datetime pattern to a BigQuery format string. Only the pattern letters
+   * that have an exact equivalent are supported.
+   */
+  final def convertDateTimeFormat(pattern: String): String = {
+    val result = new StringBuilder
+    var i = 0
+    while (i < pattern.length) {
+      val c = pattern.charAt(i)
+      if (c == '\'' && pattern.startsWith("''", i)) {
+        result.append('\'')
+        i += 2
+      } else if (c == '\'') {
+        // quoted text, where '' also stands for a single quote
+        i += 1
+        var closed = false
+        while (!closed) {
+          if (i >= pattern.length) {
+            throw new BigQueryPushdownUnsupportedException(s"Pushdown unsupported for datetime pattern $pattern")
+          }
+          if (pattern.startsWith("''", i)) {
+            result.append('\'')
+            i += 2
+          } else if (pattern.charAt(i) == '\'') {
+            closed = true
+            i += 1
+          } else {
+            result.append(if (pattern.charAt(i) == '%') "%%" else pattern.charAt(i).toString)
+            i += 1
+          }
+        }
+      } else if (c.isLetter) {
+        var end = i
+        while (end < pattern.length && pattern.charAt(end) == c) {
+          end += 1
+        }
+        result.append((c, end - i) match {
+          case ('y', 4) => "%Y"
+          case ('y', 2) => "%y"
+          case ('M', 2) => "%m"
+          case ('M', 3) => "%b"
+          case ('M', 4) => "%B"
+          case ('d', 2) => "%d"
+          case ('H', 2) => "%H"
+          case ('h', 2) => "%I"
+          case ('m', 2) => "%M"
+          case ('s', 2) => "%S"
+          case ('a', 1) => "%p"
+          case ('E', 3) => "%a"
+          case ('E', 4) => "%A"
+          case _ =>
+            throw new BigQueryPushdownUnsupportedException(s"Pushdown unsupported for datetime pattern $pattern")
+        })
+        i = end
+      } else {
+        result.append(if (c == '%') "%%" else c.toString)
+        i += 1
+      }
+    }
+    result.toString
+  }
+
   final def setToExpression(set: Set[Any]): Seq[Expression] = {
     set.map {
       case d: Decimal => Literal(d, DecimalType(d.precision, d.scale))
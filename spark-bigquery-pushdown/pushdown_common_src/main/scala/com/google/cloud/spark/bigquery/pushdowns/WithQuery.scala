@@ -0,0 +1,48 @@
+package com.google.cloud.spark.bigquery.pushdowns
+
+import com.google.cloud.spark.bigquery.pushdowns.SparkBigQueryPushdownUtil.{blockStatement, makeStatement}
+
+/** The top level query defining the common table expressions referenced by its child.
+ *
+ * @constructor
+ * @param commonTableExpressions The names and definitions of the common table expressions,
+ *                               a definition may only reference the ones before it.
+ * @param child                  The query referencing the common table expressions.
+ * @param alias                  Query alias.
+ */
+case class WithQuery(
+    expressionConverter: SparkExpressionConverter,
+    expressionFactory: SparkExpressionFactory,
+    commonTableExpressions: Seq[(String, BigQuerySQLQuery)],
+    child: BigQuerySQLQuery,
+    alias: String)
+  extends BigQuerySQLQuery(
+    expressionConverter,
+    expressionFactory,
+    alias,
+    children = Seq(child)) {
+
+  override def getStatement(useAlias: Boolean): BigQuerySQLStatement = {
+    val withClause = ConstantString("WITH") + makeStatement(
+      commonTableExpressions.map {
+        case (name, definition) => ConstantString(name) + "AS" + blockStatement(definition.getStatement())
+      },
+      ","
+    )
+    val query = withClause + super.getStatement(useAlias = false)
+
+    if (useAlias) {
+      blockStatement(query, alias)
+    } else {
+      query
+    }
+  }
+
+  override def find[T](query: PartialFunction[BigQuerySQLQuery, T]): Option[T] =
+    query.lift(this).orElse(child.find(query)).orElse(
+      commonTableExpressions
+        .map { case (_, definition) => definition.find(query) }
+        .view
+        .foldLeft[Option[T]](None)(_ orElse _)
+    )
+}
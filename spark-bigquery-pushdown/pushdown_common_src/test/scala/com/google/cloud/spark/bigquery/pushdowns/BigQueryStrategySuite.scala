@@ -5,16 +5,20 @@ import com.google.cloud.spark.bigquery.pushdowns.TestConstants._
 import org.apache.spark.sql.catalyst.analysis.NamedRelation
 import org.apache.spark.sql.catalyst.expressions.aggregate.{AggregateExpression, Complete, Count}
 import org.apache.spark.sql.catalyst.expressions.{Alias, Ascending, Attribute, Cast, EqualTo, Literal, SortOrder}
-import org.apache.spark.sql.catalyst.plans.JoinType
-import org.apache.spark.sql.catalyst.plans.logical.{Aggregate, Filter, Intersect, Join, Limit, LogicalPlan, Project, Range, ReturnAnswer, Sort}
+import org.apache.spark.sql.catalyst.dsl.plans._
+import org.apache.spark.sql.catalyst.plans.{Inner, JoinType}
+import org.apache.spark.sql.catalyst.plans.logical.{Aggregate, Filter, Intersect, Join, Limit, LogicalPlan, Project, Range, ReturnAnswer, Sort, Union}
+import org.apache.spark.sql.execution.SparkPlan
 import org.apache.spark.sql.execution.datasources.LogicalRelation
-import org.apache.spark.sql.types.{StringType, StructType}
-import org.mockito.ArgumentMatchers.any
+import org.apache.spark.sql.types.{LongType, StringType, StructField, StructType}
+import org.mockito.ArgumentMatchers.{any, anyString, eq => mockitoEq}
 import org.mockito.{Mock, MockitoAnnotations}
-import org.mockito.Mockito.when
+import org.mockito.Mockito.{mock, never, verify, when}
 import org.scalatest.BeforeAndAfter
 import org.scalatest.funsuite.AnyFunSuite
 
+import java.util.OptionalLong
+
 class BigQueryStrategySuite extends AnyFunSuite with BeforeAndAfter {
   @Mock
   private var directBigQueryRelationMock: DirectBigQueryRelation = _
@@ -293,4 +297,142 @@ class BigQueryStrategySuite extends AnyFunSuite with BeforeAndAfter {
     assert(projectNode.isDefined)
     assert(projectNode.get.fastEquals(projectPlan))
   }
+
+  test("apply leaves an unsupported node to Spark and pushes down its supported child") {
+    when(directBigQueryRelationMock.schema).thenReturn(StructType.apply(Seq()))
+    when(directBigQueryRelationMock.getTableName).thenReturn("MY_BIGQUERY_TABLE")
+    val bigQueryRDDFactory = mock(classOf[BigQueryRDDFactory])
+    when(bigQueryRDDFactory.shouldPushdownQuery(anyString(), any(classOf[OptionalLong]))).thenReturn(true)
+    when(directBigQueryRelationMock.getBigQueryRDDFactory).thenReturn(bigQueryRDDFactory)
+    val bigQueryPlan = mock(classOf[SparkPlan])
+    when(sparkPlanFactoryMock.createBigQueryPlan(any(classOf[BigQuerySQLQuery]),
+      any(classOf[BigQueryRDDFactory]))).thenReturn(Some(bigQueryPlan))
+
+    val logicalRelation = LogicalRelation(directBigQueryRelationMock)
+    val filterPlan = Filter(EqualTo.apply(schoolIdAttributeReference, Literal(1234L)), logicalRelation)
+    val unsupportedNode = Intersect(filterPlan, childPlan, isAll = true)
+
+    val bigQueryStrategy = new BigQueryStrategy(expressionConverter, expressionFactory, sparkPlanFactoryMock) {
+      override def generateQueryFromPlanForDataSourceV2(plan: LogicalPlan): Option[BigQuerySQLQuery] = None
+
+      override def createUnionQuery(children: Seq[LogicalPlan]): Option[BigQuerySQLQuery] = None
+    }
+
+    // Spark plans the unsupported node itself, and then calls the strategy on its children
+    assert(bigQueryStrategy.apply(unsupportedNode) == Nil)
+    verify(sparkPlanFactoryMock, never()).createBigQueryPlan(any(classOf[BigQuerySQLQuery]),
+      any(classOf[BigQueryRDDFactory]))
+    assert(bigQueryStrategy.apply(filterPlan) == Seq(bigQueryPlan))
+  }
+
+  test("apply does not push down a query that is expected to be more expensive") {
+    when(directBigQueryRelationMock.schema).thenReturn(StructType.apply(Seq()))
+    when(directBigQueryRelationMock.getTableName).thenReturn("MY_BIGQUERY_TABLE")
+    val bigQueryRDDFactory = mock(classOf[BigQueryRDDFactory])
+    when(bigQueryRDDFactory.shouldPushdownQuery(anyString(), any(classOf[OptionalLong]))).thenReturn(false)
+    when(directBigQueryRelationMock.getBigQueryRDDFactory).thenReturn(bigQueryRDDFactory)
+
+    val logicalRelation = LogicalRelation(directBigQueryRelationMock)
+    val filterPlan = Filter(EqualTo.apply(schoolIdAttributeReference, Literal(1234L)), logicalRelation)
+
+    val returnedPlan = new BigQueryStrategy(expressionConverter, expressionFactory, sparkPlanFactoryMock) {
+      override def generateQueryFromPlanForDataSourceV2(plan: LogicalPlan): Option[BigQuerySQLQuery] = None
+
+      override def createUnionQuery(children: Seq[LogicalPlan]): Option[BigQuerySQLQuery] = None
+    }.apply(filterPlan)
+
+    assert(returnedPlan == Nil)
+    verify(sparkPlanFactoryMock, never()).createBigQueryPlan(any(classOf[BigQuerySQLQuery]),
+      any(classOf[BigQueryRDDFactory]))
+  }
+
+  test("estimateOutputSizeInBytes uses the size of plans without joins") {
+    when(directBigQueryRelationMock.sizeInBytes).thenReturn(1000L)
+
+    val bigQueryStrategy = createStrategyWithUnionSupport()
+
+    assert(bigQueryStrategy.estimateOutputSizeInBytes(createSchoolFilterPlan()) == Some(1000L))
+  }
+
+  test("apply pushes down a join whose output size is unknown without the cost based optimizer") {
+    when(directBigQueryRelationMock.sizeInBytes).thenReturn(1000L)
+    val bigQueryRDDFactory = mock(classOf[BigQueryRDDFactory])
+    // Any known output size would prevent the pushdown
+    when(bigQueryRDDFactory.shouldPushdownQuery(anyString(), any(classOf[OptionalLong]))).thenReturn(false)
+    when(bigQueryRDDFactory.shouldPushdownQuery(anyString(), mockitoEq(OptionalLong.empty()))).thenReturn(true)
+    val bigQueryPlan = mock(classOf[SparkPlan])
+    when(sparkPlanFactoryMock.createBigQueryPlan(any(classOf[BigQuerySQLQuery]),
+      any(classOf[BigQueryRDDFactory]))).thenReturn(Some(bigQueryPlan))
+
+    val left = createSchoolFilterPlan()
+    val right = createSchoolFilterPlan()
+    when(directBigQueryRelationMock.getBigQueryRDDFactory).thenReturn(bigQueryRDDFactory)
+    val joinPlan = left.join(right, Inner, Some(EqualTo(left.output.head, right.output.head)))
+    // Spark estimates the size of the join as the product of the sizes of its inputs
+    assert(joinPlan.stats.sizeInBytes == BigInt(1000L * 1000L))
+
+    val bigQueryStrategy = createStrategyWithUnionSupport()
+
+    assert(bigQueryStrategy.estimateOutputSizeInBytes(joinPlan).isEmpty)
+    assert(bigQueryStrategy.apply(joinPlan) == Seq(bigQueryPlan))
+  }
+
+  test("generateQueryWithCommonTableExpressions translates identical subtrees once") {
+    val bigQueryStrategy = createStrategyWithUnionSupport()
+    val firstFilterPlan = createSchoolFilterPlan()
+    val secondFilterPlan = createSchoolFilterPlan()
+    assert(firstFilterPlan.output.head.exprId != secondFilterPlan.output.head.exprId)
+
+    val returnedQuery = bigQueryStrategy.generateQueryWithCommonTableExpressions(Union(Seq(firstFilterPlan, secondFilterPlan)))
+
+    assert(returnedQuery.isDefined)
+    assert(returnedQuery.get.getStatement().toString == "WITH CTE_0 AS ( SELECT * FROM " +
+      "( SELECT * FROM `MY_BIGQUERY_TABLE` AS BQ_CONNECTOR_QUERY_ALIAS ) AS SUBQUERY_0 WHERE ( SUBQUERY_0.SCHOOLID = 1234 ) ) " +
+      "SELECT * FROM ( ( SELECT * FROM CTE_0 ) UNION ALL ( SELECT * FROM CTE_0 ) ) AS SUBQUERY_4")
+    assert(returnedQuery.get.output.map(_.exprId) == firstFilterPlan.output.map(_.exprId))
+    assert(bigQueryStrategy.getRDDFactory(returnedQuery.get).isDefined)
+  }
+
+  test("generateQueryWithCommonTableExpressions generates the same SQL for the same plan") {
+    val bigQueryStrategy = createStrategyWithUnionSupport()
+    val filterPlan = createSchoolFilterPlan()
+
+    val firstQuery = bigQueryStrategy.generateQueryWithCommonTableExpressions(filterPlan)
+    val secondQuery = bigQueryStrategy.generateQueryWithCommonTableExpressions(filterPlan)
+
+    assert(firstQuery.get.getStatement().toString == secondQuery.get.getStatement().toString)
+    assert(!firstQuery.get.getStatement().toString.contains("WITH"))
+  }
+
+  test("findSharedSubtrees does not share subtrees nested in a shared subtree") {
+    val firstProjectPlan = Project(Seq(schoolNameAttributeReference), createSchoolFilterPlan())
+    val secondProjectPlan = Project(Seq(schoolNameAttributeReference), createSchoolFilterPlan())
+
+    val sharedSubtrees = createStrategyWithUnionSupport().findSharedSubtrees(Union(Seq(firstProjectPlan, secondProjectPlan)))
+
+    assert(sharedSubtrees == Set(firstProjectPlan.canonicalized))
+  }
+
+  private def createSchoolFilterPlan(): LogicalPlan = {
+    when(directBigQueryRelationMock.schema).thenReturn(
+      StructType(Seq(StructField("SchoolID", LongType), StructField("SchoolName", StringType))))
+    when(directBigQueryRelationMock.getTableName).thenReturn("MY_BIGQUERY_TABLE")
+    when(directBigQueryRelationMock.getBigQueryRDDFactory).thenReturn(mock(classOf[BigQueryRDDFactory]))
+
+    val logicalRelation = LogicalRelation(directBigQueryRelationMock)
+    Filter(EqualTo.apply(logicalRelation.output.head, Literal(1234L)), logicalRelation)
+  }
+
+  private def createStrategyWithUnionSupport(): BigQueryStrategy = {
+    new BigQueryStrategy(expressionConverter, expressionFactory, sparkPlanFactoryMock) {
+      override def generateQueryFromPlanForDataSourceV2(plan: LogicalPlan): Option[BigQuerySQLQuery] = None
+
+      override def createUnionQuery(children: Seq[LogicalPlan]): Option[BigQuerySQLQuery] = {
+        val queries = children.map { child =>
+          createStrategyWithUnionSupport().generateQueryFromPlan(child).get
+        }
+        Some(UnionQuery(expressionConverter, expressionFactory, queries, alias.next))
+      }
+    }
+  }
 }
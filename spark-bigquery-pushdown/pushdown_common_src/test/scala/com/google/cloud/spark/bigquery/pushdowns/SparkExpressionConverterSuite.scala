@@ -4,7 +4,7 @@ import com.google.cloud.bigquery.connector.common.BigQueryPushdownUnsupportedExc
 import com.google.cloud.spark.bigquery.direct.DirectBigQueryRelation
 import com.google.cloud.spark.bigquery.pushdowns.TestConstants.expressionConverter
 import org.apache.spark.sql.catalyst.expressions.aggregate._
-import org.apache.spark.sql.catalyst.expressions.{Abs, Acos, Alias, And, Ascending, Ascii, Asin, Atan, AttributeReference, Base64, BitwiseAnd, BitwiseNot, BitwiseOr, BitwiseXor, CaseWhen, Cast, Coalesce, Concat, Contains, Cos, Cosh, DateAdd, DateSub, DenseRank, Descending, EndsWith, EqualNullSafe, EqualTo, Exp, ExprId, Floor, FormatNumber, FormatString, GreaterThan, GreaterThanOrEqual, Greatest, If, In, InSet, InitCap, IsNaN, IsNotNull, IsNull, Least, Length, LessThan, LessThanOrEqual, Literal, Log10, Logarithm, Lower, Month, Not, Or, PercentRank, Pi, Pow, PromotePrecision, Quarter, Rand, Rank, RegExpExtract, RegExpReplace, Round, RowNumber, ShiftLeft, ShiftRight, Signum, Sin, Sinh, SortOrder, SoundEx, Sqrt, StartsWith, StringInstr, StringLPad, StringRPad, StringTranslate, StringTrim, StringTrimLeft, StringTrimRight, Substring, Tan, Tanh, TruncDate, UnBase64, UnscaledValue, Upper, Year}
+import org.apache.spark.sql.catalyst.expressions.{Abs, Acos, Alias, And, ArrayContains, Ascending, Ascii, Asin, Atan, AttributeReference, Base64, BitwiseAnd, BitwiseNot, BitwiseOr, BitwiseXor, CaseWhen, Cast, Coalesce, Concat, ConcatWs, Contains, Cos, Cosh, DateAdd, DateDiff, DateFormatClass, DateSub, DenseRank, Descending, EndsWith, EqualNullSafe, EqualTo, Exp, ExprId, Floor, FormatNumber, FormatString, FromUnixTime, GetJsonObject, GreaterThan, GreaterThanOrEqual, Greatest, If, In, InSet, InitCap, IsNaN, IsNotNull, IsNull, Least, Length, LessThan, LessThanOrEqual, Literal, Log10, Logarithm, Lower, Md5, Month, Not, Or, PercentRank, Pi, Pow, PromotePrecision, Quarter, Rand, Rank, RLike, RegExpExtract, RegExpReplace, Round, RowNumber, Sha1, Sha2, ShiftLeft, ShiftRight, Signum, Sin, Sinh, Size, SortOrder, SoundEx, Sqrt, StartsWith, StringInstr, StringLPad, StringRPad, StringSplit, StringTranslate, StringTrim, StringTrimLeft, StringTrimRight, Substring, Tan, Tanh, TruncDate, TruncTimestamp, UnBase64, UnscaledValue, Upper, Year}
 import org.apache.spark.sql.types._
 import org.mockito.{Mock, MockitoAnnotations}
 import org.scalatest.BeforeAndAfter
@@ -13,6 +13,11 @@ import org.scalatest.funsuite.AnyFunSuite
 class SparkExpressionConverterSuite extends AnyFunSuite with BeforeAndAfter {
   private val schoolIdAttributeReference = AttributeReference.apply("SchoolID", LongType)(ExprId.apply(1))
   private val schoolStartDateAttributeReference = AttributeReference.apply("StartDate", DateType)(ExprId.apply(2))
+  private val schoolEndDateAttributeReference = AttributeReference.apply("EndDate", DateType)(ExprId.apply(3))
+  private val schoolCreatedAttributeReference = AttributeReference.apply("Created", TimestampType)(ExprId.apply(4))
+  private val schoolNameAttributeReference = AttributeReference.apply("SchoolName", StringType)(ExprId.apply(5))
+  private val schoolCityAttributeReference = AttributeReference.apply("City", StringType)(ExprId.apply(6))
+  private val schoolTagsAttributeReference = AttributeReference.apply("Tags", ArrayType(StringType))(ExprId.apply(7))
   private val fields = List(AttributeReference.apply("SchoolID", LongType)(ExprId.apply(1), List("SUBQUERY_2")))
   @Mock
   var directBigQueryRelationMock: DirectBigQueryRelation = _
@@ -970,4 +975,157 @@ class SparkExpressionConverterSuite extends AnyFunSuite with BeforeAndAfter {
     assert(bigQuerySQLStatement.isDefined)
     assert(bigQuerySQLStatement.get.toString == "ROW_NUMBER ()")
   }
+
+  test("convertDateExpressions with DATE_DIFF") {
+    val dateDiffExpression = DateDiff(schoolEndDateAttributeReference, schoolStartDateAttributeReference)
+    val bigQuerySQLStatement = expressionConverter.convertDateExpressions(dateDiffExpression, fields)
+    assert(bigQuerySQLStatement.isDefined)
+    assert(bigQuerySQLStatement.get.toString == "DATE_DIFF ( ENDDATE , STARTDATE , DAY )")
+  }
+
+  test("convertDateExpressions with TIMESTAMP_TRUNC") {
+    val truncExpression = TruncTimestamp(Literal("week"), schoolCreatedAttributeReference, Some("America/New_York"))
+    val bigQuerySQLStatement = expressionConverter.convertDateExpressions(truncExpression, fields)
+    assert(bigQuerySQLStatement.isDefined)
+    assert(bigQuerySQLStatement.get.toString == "TIMESTAMP_TRUNC ( CREATED , ISOWEEK , 'America/New_York' )")
+  }
+
+  test("convertDateExpressions with TIMESTAMP_TRUNC and unsupported unit") {
+    val truncExpression = TruncTimestamp(Literal("decade"), schoolCreatedAttributeReference, Some("UTC"))
+    assertThrows[BigQueryPushdownUnsupportedException] {
+      expressionConverter.convertDateExpressions(truncExpression, fields)
+    }
+  }
+
+  test("convertDateExpressions with date_format") {
+    val dateFormatExpression = DateFormatClass(schoolCreatedAttributeReference, Literal("yyyy-MM-dd'T'HH:mm:ss"), Some("UTC"))
+    val bigQuerySQLStatement = expressionConverter.convertDateExpressions(dateFormatExpression, fields)
+    assert(bigQuerySQLStatement.isDefined)
+    assert(bigQuerySQLStatement.get.toString == "FORMAT_TIMESTAMP ( '%Y-%m-%dT%H:%M:%S' , CREATED , 'UTC' )")
+  }
+
+  test("convertDateExpressions with date_format and unsupported pattern") {
+    val dateFormatExpression = DateFormatClass(schoolCreatedAttributeReference, Literal("yyyy-MM-dd HH:mm:ss.SSS"), Some("UTC"))
+    assertThrows[BigQueryPushdownUnsupportedException] {
+      expressionConverter.convertDateExpressions(dateFormatExpression, fields)
+    }
+  }
+
+  test("convertDateExpressions with from_unixtime") {
+    val fromUnixTimeExpression = FromUnixTime(schoolIdAttributeReference, Literal("dd/MM/yy"), Some("UTC"))
+    val bigQuerySQLStatement = expressionConverter.convertDateExpressions(fromUnixTimeExpression, fields)
+    assert(bigQuerySQLStatement.isDefined)
+    assert(bigQuerySQLStatement.get.toString == "FORMAT_TIMESTAMP ( '%d/%m/%y' , TIMESTAMP_SECONDS ( SUBQUERY_2.SCHOOLID ) , 'UTC' )")
+  }
+
+  test("convertDateTimeFormat") {
+    assert(expressionConverter.convertDateTimeFormat("EEEE, MMMM dd, yyyy hh:mm a") == "%A, %B %d, %Y %I:%M %p")
+    assert(expressionConverter.convertDateTimeFormat("yyyy'%'MM''") == "%Y%%%m'")
+    assert(expressionConverter.convertDateTimeFormat("hh 'o''clock' a") == "%I o'clock %p")
+    assertThrows[BigQueryPushdownUnsupportedException] {
+      expressionConverter.convertDateTimeFormat("hh 'o''clock")
+    }
+  }
+
+  test("containsUnsupportedRegexConstruct") {
+    assert(!expressionConverter.containsUnsupportedRegexConstruct("^[a-z]+\\d*?(a|b){2}\\+"))
+    assert(expressionConverter.containsUnsupportedRegexConstruct("a(?=b)"))
+    assert(expressionConverter.containsUnsupportedRegexConstruct("(a)\\1"))
+    assert(expressionConverter.containsUnsupportedRegexConstruct("a*+"))
+    assert(expressionConverter.containsUnsupportedRegexConstruct("a++"))
+    assert(expressionConverter.containsUnsupportedRegexConstruct("a?+"))
+    assert(expressionConverter.containsUnsupportedRegexConstruct("a{2}+"))
+    assert(expressionConverter.containsUnsupportedRegexConstruct("(?>a|ab)c"))
+    assert(expressionConverter.containsUnsupportedRegexConstruct("(?<x>a)\\k<x>"))
+    assert(expressionConverter.containsUnsupportedRegexConstruct("[a-z&&[^aeiou]]"))
+    assert(expressionConverter.containsUnsupportedRegexConstruct("\\p{Alpha}+"))
+    assert(expressionConverter.containsUnsupportedRegexConstruct("\\P{Lower}"))
+    assert(expressionConverter.containsUnsupportedRegexConstruct("\\p{javaLowerCase}"))
+    assert(expressionConverter.containsUnsupportedRegexConstruct("\\p{IsAlphabetic}"))
+    assert(expressionConverter.containsUnsupportedRegexConstruct("a\\Z"))
+    assert(expressionConverter.containsUnsupportedRegexConstruct("\\Ga"))
+    assert(expressionConverter.containsUnsupportedRegexConstruct("a\\hb"))
+    assert(expressionConverter.containsUnsupportedRegexConstruct("a\\Rb"))
+    assert(expressionConverter.containsUnsupportedRegexConstruct("\\\\\\Z"))
+    assert(!expressionConverter.containsUnsupportedRegexConstruct("a&&b"))
+    assert(!expressionConverter.containsUnsupportedRegexConstruct("\\p{L}\\p{Greek}\\pN"))
+    assert(!expressionConverter.containsUnsupportedRegexConstruct("\\Aa\\z"))
+    assert(!expressionConverter.containsUnsupportedRegexConstruct("\\\\Z"))
+  }
+
+  test("convertBooleanExpressions with RLike") {
+    val rLikeExpression = RLike(schoolNameAttributeReference, Literal("^[a-z]+\\d'"))
+    val bigQuerySQLStatement = expressionConverter.convertBooleanExpressions(rLikeExpression, fields)
+    assert(bigQuerySQLStatement.isDefined)
+    assert(bigQuerySQLStatement.get.toString == "REGEXP_CONTAINS ( SCHOOLNAME , '^[a-z]+\\\\d\\'' )")
+  }
+
+  test("convertBooleanExpressions with RLike and lookahead") {
+    val rLikeExpression = RLike(schoolNameAttributeReference, Literal("a(?=b)"))
+    val bigQuerySQLStatement = expressionConverter.convertBooleanExpressions(rLikeExpression, fields)
+    assert(bigQuerySQLStatement.isEmpty)
+  }
+
+  test("convertStringExpressions with ConcatWs") {
+    val concatWsExpression = ConcatWs(Seq(Literal("-"), schoolNameAttributeReference, schoolCityAttributeReference))
+    val bigQuerySQLStatement = expressionConverter.convertStringExpressions(concatWsExpression, fields)
+    assert(bigQuerySQLStatement.isDefined)
+    assert(bigQuerySQLStatement.get.toString == "ARRAY_TO_STRING ( [ SCHOOLNAME , CITY ] , '-' )")
+  }
+
+  test("convertStringExpressions with StringSplit") {
+    val splitExpression = new StringSplit(schoolNameAttributeReference, Literal(","))
+    val bigQuerySQLStatement = expressionConverter.convertStringExpressions(splitExpression, fields)
+    assert(bigQuerySQLStatement.isDefined)
+    assert(bigQuerySQLStatement.get.toString == "SPLIT ( SCHOOLNAME , ',' )")
+  }
+
+  test("convertStringExpressions with StringSplit on a regular expression") {
+    val splitExpression = new StringSplit(schoolNameAttributeReference, Literal("[,;]"))
+    val bigQuerySQLStatement = expressionConverter.convertStringExpressions(splitExpression, fields)
+    assert(bigQuerySQLStatement.isEmpty)
+  }
+
+  test("convertStringExpressions with hashing functions") {
+    assert(expressionConverter.convertStringExpressions(Md5(schoolNameAttributeReference), fields).get.toString ==
+      "TO_HEX ( MD5 ( SCHOOLNAME ) )")
+    assert(expressionConverter.convertStringExpressions(Sha1(schoolNameAttributeReference), fields).get.toString ==
+      "TO_HEX ( SHA1 ( SCHOOLNAME ) )")
+    assert(expressionConverter.convertStringExpressions(Sha2(schoolNameAttributeReference, Literal(512)), fields).get.toString ==
+      "TO_HEX ( SHA512 ( SCHOOLNAME ) )")
+    assert(expressionConverter.convertStringExpressions(Sha2(schoolNameAttributeReference, Literal(384)), fields).isEmpty)
+  }
+
+  test("convertMiscellaneousExpressions with Size") {
+    val sizeExpression = new Size(schoolTagsAttributeReference)
+    val bigQuerySQLStatement = expressionConverter.convertMiscellaneousExpressions(sizeExpression, fields)
+    assert(bigQuerySQLStatement.isDefined)
+    val arrayLength = "ARRAY_LENGTH ( TAGS )"
+    if (new Size(Literal(null, ArrayType(StringType))).eval() == null) {
+      assert(bigQuerySQLStatement.get.toString == arrayLength)
+    } else {
+      assert(bigQuerySQLStatement.get.toString == s"IFNULL ( $arrayLength , -1 )")
+    }
+  }
+
+  test("convertMiscellaneousExpressions with ArrayContains") {
+    val arrayContainsExpression = ArrayContains(schoolTagsAttributeReference, Literal("public"))
+    val bigQuerySQLStatement = expressionConverter.convertMiscellaneousExpressions(arrayContainsExpression, fields)
+    assert(bigQuerySQLStatement.isDefined)
+    assert(bigQuerySQLStatement.get.toString == "IF ( TAGS IS NULL OR 'public' IS NULL , NULL , 'public' IN UNNEST ( TAGS ) )")
+  }
+
+  test("convertMiscellaneousExpressions with GetJsonObject") {
+    val getJsonObjectExpression = GetJsonObject(schoolNameAttributeReference, Literal("$.address.city"))
+    val bigQuerySQLStatement = expressionConverter.convertMiscellaneousExpressions(getJsonObjectExpression, fields)
+    assert(bigQuerySQLStatement.isDefined)
+    assert(bigQuerySQLStatement.get.toString == "COALESCE ( JSON_EXTRACT_SCALAR ( SCHOOLNAME , '$.address.city' ) , " +
+      "NULLIF ( JSON_EXTRACT ( SCHOOLNAME , '$.address.city' ) , 'null' ) )")
+  }
+
+  test("convertMiscellaneousExpressions with GetJsonObject and wildcard") {
+    val getJsonObjectExpression = GetJsonObject(schoolNameAttributeReference, Literal("$.schools[*].name"))
+    val bigQuerySQLStatement = expressionConverter.convertMiscellaneousExpressions(getJsonObjectExpression, fields)
+    assert(bigQuerySQLStatement.isEmpty)
+  }
 }